@@ -57,6 +57,7 @@ import org.openpdf.text.Chunk;
 import org.openpdf.text.DocWriter;
 import org.openpdf.text.Font;
 import org.openrtf.text.rtf.document.RtfDocument;
+import org.openrtf.text.rtf.document.output.RtfOutputSink;
 
 /**
  * The RtfAddableElement is the superclass for all rtf specific elements that need to be added to an
@@ -110,7 +111,9 @@ public abstract class RtfAddableElement extends Chunk implements RtfBasicElement
      *
      * @param i The integer to convert
      * @return A byte array representing the integer
+     * @deprecated Use {@link RtfOutputSink#writeInt(int)}, which does not allocate.
      */
+    @Deprecated
     public byte[] intToByteArray(int i) {
         return DocWriter.getISOBytes(Integer.toString(i));
     }
@@ -53,6 +53,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import org.openpdf.text.DocWriter;
 import org.openrtf.text.rtf.document.RtfDocument;
+import org.openrtf.text.rtf.document.output.RtfOutputSink;
 
 /**
  * RtfElement is the base class for all RTF Element classes
@@ -86,7 +87,9 @@ public abstract class RtfElement implements RtfBasicElement {
      *
      * @param i The integer to convert
      * @return A byte array representing the integer
+     * @deprecated Use {@link RtfOutputSink#writeInt(int)}, which does not allocate.
      */
+    @Deprecated
     public byte[] intToByteArray(int i) {
         return DocWriter.getISOBytes(Integer.toString(i));
     }
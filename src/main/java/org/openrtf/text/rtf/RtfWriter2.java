@@ -53,18 +53,34 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.EventListener;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
 import org.openpdf.text.DocWriter;
 import org.openpdf.text.Document;
 import org.openpdf.text.DocumentException;
 import org.openpdf.text.Element;
+import org.openpdf.text.ExceptionConverter;
 import org.openpdf.text.HeaderFooter;
 import org.openpdf.text.Rectangle;
 import org.openpdf.text.error_messages.MessageLocalization;
+import org.openpdf.text.pdf.OutputStreamCounter;
+import org.openpdf.text.pdf.PdfPTable;
 import org.openrtf.text.rtf.document.RtfDocument;
 import org.openrtf.text.rtf.document.RtfDocumentSettings;
+import org.openrtf.text.rtf.document.output.RtfNilOutputStream;
+import org.openrtf.text.rtf.parser.RtfFragmentImporter;
+import org.openrtf.text.rtf.parser.RtfHeaderTableCache;
 import org.openrtf.text.rtf.parser.RtfImportMappings;
 import org.openrtf.text.rtf.parser.RtfParser;
+import org.openrtf.text.rtf.parser.RtfParserPool;
+import org.openrtf.text.rtf.table.RtfTable;
 import org.openrtf.text.rtf.text.RtfNewPage;
 
 /**
@@ -78,6 +94,24 @@ public class RtfWriter2 extends DocWriter {
     /** The RtfDocument this RtfWriter is creating */
     private RtfDocument rtfDoc;
 
+    /**
+     * The channel passed by the client, null if the client passed an OutputStream. The document is
+     * written to it directly, so that the data caches can transfer the data without copying.
+     */
+    private final WritableByteChannel channel;
+
+    /** The RtfParserPool to take parsers for imports from. If null a new parser is used per import. */
+    private RtfParserPool parserPool = null;
+
+    /** The cache of parsed header tables used by imports. May be null. */
+    private RtfHeaderTableCache headerTableCache = null;
+
+    /** The elements declared for streaming mode, mapped to their already converted RTF elements. */
+    private final Map<Element, RtfBasicElement[]> declaredElements = new IdentityHashMap<>();
+
+    /** The PdfPTables that are written in parts, mapped to the RtfTable that writes them. */
+    private final Map<PdfPTable, RtfTable> largeTables = new IdentityHashMap<>();
+
     /**
      * Constructs a new RtfWriter that listens to the specified Document and writes its output to
      * the OutputStream.
@@ -87,6 +121,27 @@ public class RtfWriter2 extends DocWriter {
      */
     protected RtfWriter2(Document doc, OutputStream os) {
         super(doc, os);
+        this.channel = null;
+        doc.addDocListener(this);
+        rtfDoc = new RtfDocument();
+    }
+
+    /**
+     * Constructs a new RtfWriter that listens to the specified Document and writes its output to
+     * the WritableByteChannel.
+     *
+     * @param doc The Document that this RtfWriter listens to
+     * @param channel The WritableByteChannel to write to
+     * @since 3.0.1
+     */
+    protected RtfWriter2(Document doc, WritableByteChannel channel) {
+        this(doc, Channels.newOutputStream(channel), channel);
+    }
+
+    private RtfWriter2(Document doc, OutputStream os, WritableByteChannel channel) {
+        super(doc, os);
+        this.os = new RtfOutputCounter(this.os);
+        this.channel = channel;
         doc.addDocListener(this);
         rtfDoc = new RtfDocument();
     }
@@ -102,6 +157,20 @@ public class RtfWriter2 extends DocWriter {
         return new RtfWriter2(doc, os);
     }
 
+    /**
+     * Static method to generate RtfWriters that write to a WritableByteChannel. When the document
+     * is closed, the header and the cached document body are written with a single gathering
+     * write if the data cache supports it.
+     *
+     * @param doc The Document that this RtfWriter listens to
+     * @param channel The WritableByteChannel to write to
+     * @return The new RtfWriter
+     * @since 3.0.1
+     */
+    public static RtfWriter2 getInstance(Document doc, WritableByteChannel channel) {
+        return new RtfWriter2(doc, channel);
+    }
+
     /**
      * Sets the header to use
      *
@@ -143,10 +212,56 @@ public class RtfWriter2 extends DocWriter {
     /** This method is not supported in the RtfWriter */
     public void clearTextWrap() {}
 
-    /** Opens the RtfDocument */
+    /**
+     * Opens the RtfDocument. If streaming output is enabled in the document settings, the document
+     * header is written to the OutputStream immediately.
+     */
     public void open() {
         super.open();
-        this.rtfDoc.open();
+        if (this.rtfDoc.getDocumentSettings().isStreamingOutput()) {
+            try {
+                this.rtfDoc.openStreaming(this.os);
+            } catch (IOException ioe) {
+                throw new ExceptionConverter(ioe);
+            }
+        } else {
+            this.rtfDoc.open();
+        }
+    }
+
+    /**
+     * Declares an Element before the document is opened in streaming mode. The element is
+     * converted and all fonts, colors, lists and paragraph styles it uses are registered, so that
+     * they are part of the document header. The element must then be added to the Document as
+     * usual, where the converted element is reused. Elements that only use fonts and colors
+     * declared by other elements do not need to be declared.
+     *
+     * @param element The Element to declare
+     * @throws DocumentException If the element cannot be converted
+     * @since 3.0.1
+     */
+    public void declareElement(Element element) throws DocumentException {
+        if (!open) {
+            // Element sizes depend on the page settings, which the Document only passes on in open()
+            setPageSize(this.document.getPageSize());
+            setMargins(
+                    this.document.leftMargin(),
+                    this.document.rightMargin(),
+                    this.document.topMargin(),
+                    this.document.bottomMargin());
+        }
+        RtfBasicElement[] rtfElements = this.rtfDoc.getMapper().mapElement(element);
+        RtfNilOutputStream nil = new RtfNilOutputStream();
+        try {
+            for (RtfBasicElement rtfElement : rtfElements) {
+                if (rtfElement != null) {
+                    rtfElement.writeContent(nil);
+                }
+            }
+        } catch (IOException ioe) {
+            throw new DocumentException(ioe.getMessage());
+        }
+        this.declaredElements.put(element, rtfElements);
     }
 
     /**
@@ -154,10 +269,45 @@ public class RtfWriter2 extends DocWriter {
      */
     public void close() {
         if (open) {
-            rtfDoc.writeDocument(os);
+            if (this.channel != null && !rtfDoc.isHeaderWritten()) {
+                try {
+                    writeDocument(this.channel);
+                } catch (IOException ioe) {
+                    throw new ExceptionConverter(ioe);
+                }
+            } else {
+                rtfDoc.writeDocument(this.os);
+            }
+            rtfDoc.releasePooledBuffers();
             super.close();
             this.rtfDoc = new RtfDocument();
+            this.declaredElements.clear();
+            this.largeTables.clear();
+        }
+    }
+
+    /**
+     * Writes the document to the channel, bypassing DocWriter's OutputStream. The bytes written are
+     * added to its counter. For a seekable channel they are taken from the channel position, so that
+     * file channels are passed on to the data cache unwrapped.
+     *
+     * @param target The channel to write to
+     * @throws IOException On i/o errors.
+     */
+    private void writeDocument(WritableByteChannel target) throws IOException {
+        this.os.flush();
+        long written;
+        if (target instanceof SeekableByteChannel) {
+            SeekableByteChannel seekable = (SeekableByteChannel) target;
+            long start = seekable.position();
+            rtfDoc.writeDocument(seekable);
+            written = seekable.position() - start;
+        } else {
+            CountingChannel counting = new CountingChannel(target);
+            rtfDoc.writeDocument(counting);
+            written = counting.count;
         }
+        ((RtfOutputCounter) this.os).addBytes(written);
     }
 
     /**
@@ -171,11 +321,31 @@ public class RtfWriter2 extends DocWriter {
         if (pause) {
             return false;
         }
-        RtfBasicElement[] rtfElements = rtfDoc.getMapper().mapElement(element);
+        if (element instanceof PdfPTable) {
+            RtfTable largeTable = this.largeTables.get(element);
+            if (largeTable != null) {
+                largeTable.importRows((PdfPTable) element);
+                rtfDoc.add(largeTable);
+                if (largeTable.isComplete()) {
+                    this.largeTables.remove(element);
+                }
+                return true;
+            }
+        }
+        RtfBasicElement[] rtfElements = this.declaredElements.remove(element);
+        if (rtfElements == null) {
+            rtfElements = rtfDoc.getMapper().mapElement(element);
+        }
         if (rtfElements.length != 0) {
             for (RtfBasicElement rtfElement : rtfElements) {
                 if (rtfElement != null) {
                     rtfDoc.add(rtfElement);
+                    if (element instanceof PdfPTable
+                            && rtfElement instanceof RtfTable
+                            && ((RtfTable) rtfElement).isLarge()
+                            && !((RtfTable) rtfElement).isComplete()) {
+                        this.largeTables.put((PdfPTable) element, (RtfTable) rtfElement);
+                    }
                 }
             }
             return true;
@@ -257,7 +427,8 @@ public class RtfWriter2 extends DocWriter {
     /**
      * Adds the complete RTF document to the current RTF document being generated. It will parse the
      * font and color tables and correct the font and color references so that the imported RTF
-     * document retains its formattings. Uses new RtfParser object.
+     * document retains its formattings. Uses a new RtfParser object or one from the RtfParserPool if
+     * set.
      *
      * <p>(author: Howard Shank)
      *
@@ -275,13 +446,12 @@ public class RtfWriter2 extends DocWriter {
             throw new DocumentException(
                     MessageLocalization.getComposedMessage("the.document.must.be.open.to.import.rtf.documents"));
         }
-        RtfParser rtfImport = new RtfParser(this.document);
-        if (events != null) {
-            for (EventListener event : events) {
-                rtfImport.addListener(event);
-            }
+        RtfParser rtfImport = acquireParser(events);
+        try {
+            rtfImport.importRtfDocument(documentSource, this.rtfDoc);
+        } finally {
+            releaseParser(rtfImport);
         }
-        rtfImport.importRtfDocument(documentSource, this.rtfDoc);
     }
 
     /**
@@ -306,7 +476,7 @@ public class RtfWriter2 extends DocWriter {
      * Adds a fragment of an RTF document to the current RTF document being generated. Since this
      * fragment doesn't contain font or color tables, all fonts and colors are mapped to the default
      * font and color. If the font and color mappings are known, they can be specified via the
-     * mappings parameter. Uses new RtfParser object.
+     * mappings parameter. Uses a new RtfParser object or one from the RtfParserPool if set.
      *
      * <p>(author: Howard Shank)
      *
@@ -327,13 +497,56 @@ public class RtfWriter2 extends DocWriter {
             throw new DocumentException(
                     MessageLocalization.getComposedMessage("the.document.must.be.open.to.import.rtf.fragments"));
         }
-        RtfParser rtfImport = new RtfParser(this.document);
-        if (events != null) {
-            for (EventListener event : events) {
-                rtfImport.addListener(event);
-            }
+        RtfParser rtfImport = acquireParser(events);
+        try {
+            rtfImport.importRtfFragment(documentSource, this.rtfDoc, mappings);
+        } finally {
+            releaseParser(rtfImport);
+        }
+    }
+
+    /**
+     * Adds several fragments of RTF documents to the current RTF document being generated. The
+     * fragments are parsed concurrently on the common ForkJoinPool and appended in the order given.
+     * The result is the same as calling importRtfFragment for each fragment in turn.
+     *
+     * @param documentSources The InputStreams to read the RTF fragments from.
+     * @param mappings The RtfImportMappings for each fragment.
+     * @throws IOException On errors reading the RTF fragments.
+     * @throws DocumentException On errors adding to this RTF document.
+     * @see RtfFragmentImporter
+     * @since 3.0.1
+     */
+    public void importRtfFragments(InputStream[] documentSources, RtfImportMappings[] mappings)
+            throws IOException, DocumentException {
+        importRtfFragments(documentSources, mappings, null);
+    }
+
+    /**
+     * Adds several fragments of RTF documents to the current RTF document being generated. The
+     * fragments are parsed concurrently and appended in the order given. The result is the same as
+     * calling importRtfFragment for each fragment in turn.
+     *
+     * @param documentSources The InputStreams to read the RTF fragments from.
+     * @param mappings The RtfImportMappings for each fragment.
+     * @param executor The Executor to parse the fragments with. May be null to use the common
+     *     ForkJoinPool.
+     * @throws IOException On errors reading the RTF fragments.
+     * @throws DocumentException On errors adding to this RTF document.
+     * @see RtfFragmentImporter
+     * @since 3.0.1
+     */
+    public void importRtfFragments(InputStream[] documentSources, RtfImportMappings[] mappings, Executor executor)
+            throws IOException, DocumentException {
+        if (!this.open) {
+            throw new DocumentException(
+                    MessageLocalization.getComposedMessage("the.document.must.be.open.to.import.rtf.fragments"));
         }
-        rtfImport.importRtfFragment(documentSource, this.rtfDoc, mappings);
+        RtfFragmentImporter importer = new RtfFragmentImporter(this.rtfDoc);
+        importer.setExecutor(executor);
+        importer.setParserPool(this.parserPool);
+        importer.setHeaderTableCache(this.headerTableCache);
+        importer.importFragments(documentSources, mappings);
     }
 
     /**
@@ -367,12 +580,146 @@ public class RtfWriter2 extends DocWriter {
     public void importRtfDocumentIntoElement(Element elem, FileInputStream documentSource, EventListener[] events)
             throws IOException, DocumentException {
 
-        RtfParser rtfImport = new RtfParser(this.document);
+        RtfParser rtfImport = acquireParser(events);
+        try {
+            rtfImport.importRtfDocumentIntoElement(elem, documentSource, rtfDoc);
+        } finally {
+            releaseParser(rtfImport);
+        }
+    }
+
+    /**
+     * Sets the RtfParserPool to take the parsers for importing RTF documents and fragments from.
+     * Reusing parsers avoids building the control word tables for every import.
+     *
+     * @param parserPool The RtfParserPool to use or null to create a new parser for every import.
+     * @since 3.0.1
+     */
+    public void setParserPool(RtfParserPool parserPool) {
+        this.parserPool = parserPool;
+    }
+
+    /**
+     * Sets the cache of parsed header tables used when importing RTF documents and fragments. A
+     * cache shared by all RtfWriter2 objects avoids parsing the same font and color tables again
+     * for every document.
+     *
+     * @param headerTableCache The RtfHeaderTableCache to use or null to parse all tables.
+     * @since 3.0.1
+     */
+    public void setHeaderTableCache(RtfHeaderTableCache headerTableCache) {
+        this.headerTableCache = headerTableCache;
+    }
+
+    /**
+     * Gets the cache of parsed header tables used when importing RTF documents and fragments.
+     *
+     * @return The RtfHeaderTableCache or null if none is used.
+     * @since 3.0.1
+     */
+    public RtfHeaderTableCache getHeaderTableCache() {
+        return this.headerTableCache;
+    }
+
+    /**
+     * Gets the RtfParserPool used for importing RTF documents and fragments.
+     *
+     * @return The RtfParserPool or null if no pool is used.
+     * @since 3.0.1
+     */
+    public RtfParserPool getParserPool() {
+        return this.parserPool;
+    }
+
+    /**
+     * Gets a parser for an import, either from the RtfParserPool or a new one.
+     *
+     * @param events The array of event listeners. May be null
+     * @return The RtfParser to use for the import.
+     */
+    private RtfParser acquireParser(EventListener[] events) {
+        RtfParser rtfImport =
+                this.parserPool != null ? this.parserPool.acquire(this.document) : new RtfParser(this.document);
+        rtfImport.setHeaderTableCache(this.headerTableCache);
         if (events != null) {
             for (EventListener event : events) {
                 rtfImport.addListener(event);
             }
         }
-        rtfImport.importRtfDocumentIntoElement(elem, documentSource, rtfDoc);
+        return rtfImport;
+    }
+
+    /**
+     * Hands a parser used for an import back to the RtfParserPool, if one is set.
+     *
+     * @param rtfImport The RtfParser that was used for the import.
+     */
+    private void releaseParser(RtfParser rtfImport) {
+        if (this.parserPool != null) {
+            this.parserPool.release(rtfImport);
+        }
+    }
+
+    /** The counter of DocWriter's OutputStream, which can also count bytes written around it. */
+    private static final class RtfOutputCounter extends OutputStreamCounter {
+        private RtfOutputCounter(OutputStream out) {
+            super(out);
+        }
+
+        /**
+         * Adds bytes that were written to the underlying channel directly.
+         *
+         * @param bytes The number of bytes written
+         */
+        private void addBytes(long bytes) {
+            this.counter += bytes;
+        }
+    }
+
+    /** A channel that counts the bytes written to the channel it wraps. */
+    private static final class CountingChannel implements GatheringByteChannel {
+        /** The channel to write to. */
+        private final WritableByteChannel channel;
+
+        /** The number of bytes written. */
+        private long count = 0;
+
+        private CountingChannel(WritableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        public int write(ByteBuffer src) throws IOException {
+            int written = this.channel.write(src);
+            this.count += written;
+            return written;
+        }
+
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            long written = 0;
+            if (this.channel instanceof GatheringByteChannel) {
+                written = ((GatheringByteChannel) this.channel).write(srcs, offset, length);
+            } else {
+                for (int i = offset; i < offset + length; i++) {
+                    written += this.channel.write(srcs[i]);
+                    if (srcs[i].hasRemaining()) {
+                        break;
+                    }
+                }
+            }
+            this.count += written;
+            return written;
+        }
+
+        public long write(ByteBuffer[] srcs) throws IOException {
+            return write(srcs, 0, srcs.length);
+        }
+
+        public boolean isOpen() {
+            return this.channel.isOpen();
+        }
+
+        public void close() throws IOException {
+            this.channel.close();
+        }
     }
 }
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+package org.openrtf.text.rtf.direct;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import org.openpdf.text.DocumentException;
+import org.openpdf.text.Element;
+import org.openpdf.text.ExceptionConverter;
+import org.openrtf.text.rtf.RtfAddableElement;
+import org.openrtf.text.rtf.RtfBasicElement;
+import org.openrtf.text.rtf.document.RtfDocument;
+import org.openrtf.text.rtf.document.output.RtfOutputSink;
+
+/**
+ * The RtfCachedContent wraps an Element that is added to a document many times, for example a logo
+ * or a legal boilerplate paragraph. The Element is converted once when the RtfCachedContent is
+ * first added to a document and rendered once when it is first written. Every time the same
+ * RtfCachedContent is added again, the rendered bytes are reused. The wrapped Element must not be
+ * changed after the RtfCachedContent has been added.<br>
+ * <br>
+ * Phrase.add(Element) converts all chunks into plain Chunks, so a RtfCachedContent has to be added
+ * to a Phrase or Paragraph with add(int, Element).
+ *
+ * @since 3.0.1
+ */
+public class RtfCachedContent extends RtfAddableElement {
+
+    /** The Element to render. */
+    private final Element element;
+
+    /** The RtfDocument the Element was converted for. */
+    private RtfDocument convertedFor = null;
+
+    /** The converted Element. */
+    private RtfBasicElement[] rtfElements = null;
+
+    /** The rendered content. Null if it has not been rendered for the current RtfDocument. */
+    private byte[] content = null;
+
+    /**
+     * Constructs a RtfCachedContent for the given Element.
+     *
+     * @param element The Element to render once.
+     */
+    public RtfCachedContent(Element element) {
+        if (element == null) {
+            throw new NullPointerException("element");
+        }
+        this.element = element;
+    }
+
+    /**
+     * Gets the Element this RtfCachedContent renders.
+     *
+     * @return The wrapped Element.
+     */
+    public Element getElement() {
+        return this.element;
+    }
+
+    /**
+     * Sets the RtfDocument this RtfCachedContent belongs to. The Element is converted for each new
+     * RtfDocument, which registers its fonts, colors and lists.
+     */
+    public synchronized void setRtfDocument(RtfDocument doc) {
+        super.setRtfDocument(doc);
+        if (doc != null && doc != this.convertedFor) {
+            try {
+                this.rtfElements = doc.getMapper().mapElement(this.element);
+            } catch (DocumentException de) {
+                throw new ExceptionConverter(de);
+            }
+            this.convertedFor = doc;
+            this.content = null;
+        }
+    }
+
+    /**
+     * Sets whether this RtfCachedContent is contained in a table. The Element is rendered again if
+     * this changes.
+     */
+    public synchronized void setInTable(boolean inTable) {
+        if (inTable != this.inTable) {
+            this.content = null;
+        }
+        super.setInTable(inTable);
+        if (this.rtfElements != null) {
+            for (RtfBasicElement rtfElement : this.rtfElements) {
+                if (rtfElement != null) {
+                    rtfElement.setInTable(inTable);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets whether this RtfCachedContent is contained in a header or footer. The Element is
+     * rendered again if this changes.
+     */
+    public synchronized void setInHeader(boolean inHeader) {
+        if (inHeader != this.inHeader) {
+            this.content = null;
+        }
+        super.setInHeader(inHeader);
+        if (this.rtfElements != null) {
+            for (RtfBasicElement rtfElement : this.rtfElements) {
+                if (rtfElement != null) {
+                    rtfElement.setInHeader(inHeader);
+                }
+            }
+        }
+    }
+
+    /** Writes the rendered content, rendering it first if necessary. */
+    public void writeContent(OutputStream out) throws IOException {
+        out.write(getRenderedContent());
+    }
+
+    /**
+     * Gets the rendered content.
+     *
+     * @return The rendered content.
+     * @throws IOException On i/o errors.
+     */
+    private synchronized byte[] getRenderedContent() throws IOException {
+        if (this.content == null) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            RtfOutputSink sink = new RtfOutputSink(buffer);
+            if (this.rtfElements != null) {
+                for (RtfBasicElement rtfElement : this.rtfElements) {
+                    if (rtfElement != null) {
+                        rtfElement.writeContent(sink);
+                    }
+                }
+            }
+            sink.flushBuffer();
+            this.content = buffer.toByteArray();
+        }
+        return this.content;
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+package org.openrtf.text.rtf.direct;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import org.openpdf.text.DocWriter;
+import org.openrtf.text.rtf.RtfAddableElement;
+import org.openrtf.text.rtf.document.output.RtfOutputSink;
+
+/**
+ * The RtfPlaceholder marks a position in a document that is filled in when the document is used as
+ * a {@link RtfTemplate}. It writes a marker group that RTF readers ignore and that the RtfTemplate
+ * replaces with a value for every record. A text placeholder is written with the formatting that is
+ * active at its position.<br>
+ * <br>
+ * Phrase.add(Element) converts all chunks into plain Chunks, so a RtfPlaceholder has to be added to
+ * a Phrase or Paragraph with add(int, Element).
+ *
+ * @see RtfTemplate
+ * @since 3.0.1
+ */
+public class RtfPlaceholder extends RtfAddableElement {
+    /** Constant for a placeholder that is replaced by text, which is escaped like Chunk content. */
+    public static final int TYPE_TEXT = 0;
+
+    /** Constant for a placeholder that is replaced by RTF code, which is written as it is. */
+    public static final int TYPE_RTF = 1;
+
+    /** Marker flag for a placeholder that is replaced by RTF code. */
+    static final int FLAG_RTF = 1;
+
+    /** Marker flag for text that always uses unicode for characters bigger than 'z'. */
+    static final int FLAG_UNICODE = 2;
+
+    /** Marker flag for text that writes new lines as soft line breaks. */
+    static final int FLAG_SOFT_LINEBREAKS = 4;
+
+    /** The start of the marker group written for a placeholder. */
+    static final byte[] MARKER = DocWriter.getISOBytes("{\\*\\rtfplaceholder");
+
+    /** The name of this RtfPlaceholder. */
+    private final String name;
+
+    /** The type of this RtfPlaceholder. */
+    private final int type;
+
+    /**
+     * Constructs a RtfPlaceholder that is replaced by text.
+     *
+     * @param name The name of the placeholder. Only letters, digits, '_', '-' and '.' are allowed.
+     */
+    public RtfPlaceholder(String name) {
+        this(name, TYPE_TEXT);
+    }
+
+    /**
+     * Constructs a RtfPlaceholder of the given type.
+     *
+     * @param name The name of the placeholder. Only letters, digits, '_', '-' and '.' are allowed.
+     * @param type The type of the placeholder, TYPE_TEXT or TYPE_RTF.
+     */
+    public RtfPlaceholder(String name, int type) {
+        if (!isValidName(name)) {
+            throw new IllegalArgumentException("Invalid placeholder name: " + name);
+        }
+        if (type != TYPE_TEXT && type != TYPE_RTF) {
+            throw new IllegalArgumentException("Unknown placeholder type: " + type);
+        }
+        this.name = name;
+        this.type = type;
+    }
+
+    /**
+     * Gets the name of this RtfPlaceholder.
+     *
+     * @return The name of this RtfPlaceholder.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Gets the type of this RtfPlaceholder.
+     *
+     * @return TYPE_TEXT or TYPE_RTF.
+     */
+    public int getType() {
+        return this.type;
+    }
+
+    /**
+     * Writes the marker group of this RtfPlaceholder. The marker records how the value is to be
+     * escaped, so that the RtfTemplate does not need the document settings.
+     */
+    public void writeContent(OutputStream out) throws IOException {
+        int flags = 0;
+        if (this.type == TYPE_RTF) {
+            flags = FLAG_RTF;
+        } else if (this.doc != null) {
+            if (this.doc.getDocumentSettings().isAlwaysUseUnicode()) {
+                flags |= FLAG_UNICODE;
+            }
+            if (this.doc.getDocumentSettings().isAlwaysGenerateSoftLinebreaks()) {
+                flags |= FLAG_SOFT_LINEBREAKS;
+            }
+        }
+        RtfOutputSink sink = RtfOutputSink.of(out);
+        sink.write(MARKER);
+        sink.writeInt(flags);
+        sink.writeByte(' ');
+        sink.writeAscii(this.name);
+        sink.writeByte('}');
+    }
+
+    /**
+     * Checks whether the given name can be used as a placeholder name.
+     *
+     * @param name The name to check.
+     * @return <code>true</code> if the name is valid.
+     */
+    static boolean isValidName(String name) {
+        if (name == null || name.length() == 0) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (!isNameChar(name.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether the character may be part of a placeholder name.
+     *
+     * @param c The character to check.
+     * @return <code>true</code> if the character is allowed.
+     */
+    static boolean isNameChar(int c) {
+        return (c >= 'a' && c <= 'z')
+                || (c >= 'A' && c <= 'Z')
+                || (c >= '0' && c <= '9')
+                || c == '_'
+                || c == '-'
+                || c == '.';
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+package org.openrtf.text.rtf.direct;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.openrtf.text.rtf.document.RtfDocument;
+import org.openrtf.text.rtf.document.output.RtfOutputSink;
+
+/**
+ * The RtfTemplate splits a complete RTF document that contains {@link RtfPlaceholder} markers into
+ * static byte segments and slots, so that the document can be written for many records without
+ * building the Document again. The font, color and list tables are those of the compiled document.
+ * Text values are escaped the same way as Chunk content, RTF values are written as they are.<br>
+ * <br>
+ * A RtfTemplate is immutable and can be used by several threads at the same time.
+ *
+ * <pre>
+ * ByteArrayOutputStream compiled = new ByteArrayOutputStream();
+ * Document document = new Document();
+ * RtfWriter2.getInstance(document, compiled);
+ * document.open();
+ * Paragraph paragraph = new Paragraph("Dear ");
+ * paragraph.add(paragraph.size(), new RtfPlaceholder("name"));
+ * document.add(paragraph);
+ * document.close();
+ * RtfTemplate template = new RtfTemplate(compiled.toByteArray());
+ * int name = template.getPlaceholderIndex("name");
+ * String[] values = new String[template.getPlaceholderCount()];
+ * values[name] = "John";
+ * template.write(out, values);
+ * </pre>
+ *
+ * @see RtfPlaceholder
+ * @since 3.0.1
+ */
+public final class RtfTemplate {
+
+    /** The static content before, between and after the slots. One more than there are slots. */
+    private final byte[][] segments;
+
+    /** For each slot, the index of the placeholder that fills it. */
+    private final int[] slotPlaceholders;
+
+    /** For each slot, the marker flags that define how its value is written. */
+    private final int[] slotFlags;
+
+    /** The distinct placeholder names, in the order they first appear. */
+    private final String[] names;
+
+    /** The index of each placeholder name. */
+    private final Map<String, Integer> nameIndex = new HashMap<>();
+
+    /** The total length of the static segments. */
+    private final int staticLength;
+
+    /**
+     * Compiles a RtfTemplate from a complete RTF document.
+     *
+     * @param rtf The RTF document, as written by the RtfWriter2.
+     */
+    public RtfTemplate(byte[] rtf) {
+        List<byte[]> segmentList = new ArrayList<>();
+        List<int[]> slots = new ArrayList<>();
+        List<String> nameList = new ArrayList<>();
+        byte[] marker = RtfPlaceholder.MARKER;
+        int segmentStart = 0;
+        int pos = 0;
+        while ((pos = indexOf(rtf, marker, pos)) >= 0) {
+            int p = pos + marker.length;
+            int flags = 0;
+            int digits = p;
+            while (p < rtf.length && rtf[p] >= '0' && rtf[p] <= '9' && p - digits < 2) {
+                flags = flags * 10 + rtf[p] - '0';
+                p++;
+            }
+            if (p == digits || p >= rtf.length || rtf[p] != ' ') {
+                pos++;
+                continue;
+            }
+            int nameStart = ++p;
+            while (p < rtf.length && RtfPlaceholder.isNameChar(rtf[p])) {
+                p++;
+            }
+            if (p == nameStart || p >= rtf.length || rtf[p] != '}') {
+                pos++;
+                continue;
+            }
+            String name = new String(rtf, nameStart, p - nameStart, StandardCharsets.ISO_8859_1);
+            Integer index = this.nameIndex.get(name);
+            if (index == null) {
+                index = nameList.size();
+                this.nameIndex.put(name, index);
+                nameList.add(name);
+            }
+            segmentList.add(Arrays.copyOfRange(rtf, segmentStart, pos));
+            slots.add(new int[] {index, flags});
+            segmentStart = p + 1;
+            pos = segmentStart;
+        }
+        segmentList.add(Arrays.copyOfRange(rtf, segmentStart, rtf.length));
+
+        this.segments = segmentList.toArray(new byte[0][]);
+        this.slotPlaceholders = new int[slots.size()];
+        this.slotFlags = new int[slots.size()];
+        for (int i = 0; i < slots.size(); i++) {
+            this.slotPlaceholders[i] = slots.get(i)[0];
+            this.slotFlags[i] = slots.get(i)[1];
+        }
+        this.names = nameList.toArray(new String[0]);
+        int length = 0;
+        for (byte[] segment : this.segments) {
+            length += segment.length;
+        }
+        this.staticLength = length;
+    }
+
+    /**
+     * Gets the number of distinct placeholders in this RtfTemplate.
+     *
+     * @return The number of placeholders.
+     */
+    public int getPlaceholderCount() {
+        return this.names.length;
+    }
+
+    /**
+     * Gets the names of the placeholders in this RtfTemplate, in the order of their indexes.
+     *
+     * @return The placeholder names.
+     */
+    public String[] getPlaceholderNames() {
+        return this.names.clone();
+    }
+
+    /**
+     * Gets the index of the placeholder with the given name, which is the position of its value in
+     * the array passed to {@link #write(OutputStream, String[])}.
+     *
+     * @param name The name of the placeholder.
+     * @return The index of the placeholder or -1 if the template does not contain it.
+     */
+    public int getPlaceholderIndex(String name) {
+        Integer index = this.nameIndex.get(name);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Gets the number of bytes the template writes without any values.
+     *
+     * @return The length of the static content.
+     */
+    public int getStaticLength() {
+        return this.staticLength;
+    }
+
+    /**
+     * Writes the document with the given values. A placeholder that has no value is left empty.
+     *
+     * @param out The OutputStream to write to.
+     * @param values The values, indexed by {@link #getPlaceholderIndex(String)}. May be shorter than
+     *     the number of placeholders and may contain <code>null</code>.
+     * @throws IOException On i/o errors.
+     */
+    public void write(OutputStream out, String[] values) throws IOException {
+        RtfOutputSink sink = new RtfOutputSink(out);
+        for (int i = 0; i < this.slotPlaceholders.length; i++) {
+            sink.write(this.segments[i]);
+            int placeholder = this.slotPlaceholders[i];
+            String value = placeholder < values.length ? values[placeholder] : null;
+            if (value != null) {
+                int flags = this.slotFlags[i];
+                if ((flags & RtfPlaceholder.FLAG_RTF) != 0) {
+                    sink.writeAscii(value);
+                } else {
+                    RtfDocument.filterSpecialChar(
+                            sink,
+                            value,
+                            false,
+                            (flags & RtfPlaceholder.FLAG_SOFT_LINEBREAKS) != 0,
+                            (flags & RtfPlaceholder.FLAG_UNICODE) != 0);
+                }
+            }
+        }
+        sink.write(this.segments[this.segments.length - 1]);
+        sink.flushBuffer();
+    }
+
+    /**
+     * Writes the document with the given values. A placeholder that has no value is left empty.
+     *
+     * @param out The OutputStream to write to.
+     * @param values The values by placeholder name.
+     * @throws IOException On i/o errors.
+     */
+    public void write(OutputStream out, Map<String, String> values) throws IOException {
+        String[] indexed = new String[this.names.length];
+        for (int i = 0; i < this.names.length; i++) {
+            indexed[i] = values.get(this.names[i]);
+        }
+        write(out, indexed);
+    }
+
+    /**
+     * Finds the next occurrence of a byte sequence.
+     *
+     * @param data The data to search.
+     * @param pattern The byte sequence to find.
+     * @param from The position to start at.
+     * @return The position of the byte sequence or -1 if it does not occur.
+     */
+    private static int indexOf(byte[] data, byte[] pattern, int from) {
+        byte first = pattern[0];
+        int last = data.length - pattern.length;
+        for (int i = from; i <= last; i++) {
+            if (data[i] != first) {
+                continue;
+            }
+            int j = 1;
+            while (j < pattern.length && data[i + j] == pattern[j]) {
+                j++;
+            }
+            if (j == pattern.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -54,6 +54,7 @@ import java.io.OutputStream;
 import org.openpdf.text.DocWriter;
 import org.openrtf.text.rtf.RtfElement;
 import org.openrtf.text.rtf.RtfExtendedElement;
+import org.openrtf.text.rtf.document.output.RtfOutputSink;
 
 /**
  * The RtfCodePage class allows different code pages to be used in the rtf document. Currently
@@ -84,9 +85,9 @@ public class RtfCodePage extends RtfElement implements RtfExtendedElement {
 
     /** Writes the selected codepage */
     public void writeDefinition(OutputStream result) throws IOException {
-        result.write(ANSI);
-        result.write(ANSI_CODEPAGE);
-        result.write(intToByteArray(1252));
+        RtfOutputSink sink = RtfOutputSink.of(result);
+        sink.write(ANSI);
+        sink.writeControlWord(ANSI_CODEPAGE, 1252);
         this.document.outputDebugLinebreak(result);
     }
 }
@@ -50,19 +50,43 @@
 package org.openrtf.text.rtf.document;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import org.openpdf.text.DocWriter;
 import org.openpdf.text.error_messages.MessageLocalization;
+import org.openpdf.text.pdf.IntHashtable;
 import org.openrtf.text.rtf.RtfBasicElement;
 import org.openrtf.text.rtf.RtfElement;
 import org.openrtf.text.rtf.RtfMapper;
+import org.openrtf.text.rtf.document.output.RtfByteArrayBuffer;
+import org.openrtf.text.rtf.document.output.RtfByteBufferCache;
+import org.openrtf.text.rtf.document.output.RtfChannelOutput;
 import org.openrtf.text.rtf.document.output.RtfDataCache;
 import org.openrtf.text.rtf.document.output.RtfDiskCache;
 import org.openrtf.text.rtf.document.output.RtfEfficientMemoryCache;
+import org.openrtf.text.rtf.document.output.RtfFileChannelCache;
 import org.openrtf.text.rtf.document.output.RtfMemoryCache;
+import org.openrtf.text.rtf.document.output.RtfOffHeapCache;
+import org.openrtf.text.rtf.document.output.RtfOutputSink;
+import org.openrtf.text.rtf.document.output.RtfSpillingCache;
+import org.openrtf.text.rtf.document.output.RtfStreamingCache;
 import org.openrtf.text.rtf.graphic.RtfImage;
+import org.openrtf.text.rtf.graphic.RtfImageDataCache;
+import org.openrtf.text.rtf.style.RtfParagraphStyle;
+import org.openrtf.text.rtf.table.RtfTable;
+import org.openrtf.text.rtf.text.RtfChapter;
 
 /**
  * The RtfDocument stores all document related data and also the main data stream. INTERNAL CLASS -
@@ -78,6 +102,9 @@ public class RtfDocument extends RtfElement {
     /** Stores the actual document data */
     private RtfDataCache data = new RtfMemoryCache();
 
+    /** The buffered sink the elements write to. Passes the data on to the data cache. */
+    private RtfOutputSink dataSink = null;
+
     /** The RtfMapper to use in this RtfDocument */
     private final RtfMapper mapper;
 
@@ -85,7 +112,10 @@ public class RtfDocument extends RtfElement {
     private final RtfDocumentHeader documentHeader;
 
     /** Stores integers that have been generated as unique random numbers */
-    private final List<Integer> previousRandomInts = new ArrayList<>();
+    private final IntHashtable previousRandomInts = new IntHashtable();
+
+    /** The generator for the unique random numbers, created on first use. */
+    private Random random = null;
 
     /**
      * Whether to automatically generate TOC entries for Chapters and Sections. Defaults to false
@@ -98,6 +128,22 @@ public class RtfDocument extends RtfElement {
     /** The last RtfBasicElement that was added directly to the RtfDocument. */
     private RtfBasicElement lastElementWritten = null;
 
+    /** The buffers holding chunks from the buffer pool, released when the document is done. */
+    private final List<RtfByteArrayBuffer> pooledBuffers = new ArrayList<>();
+
+    /** Whether the document header has already been written in streaming mode. */
+    private boolean headerWritten = false;
+
+    /** The data of the images that are loaded when they are written. */
+    private final RtfImageDataCache imageDataCache = new RtfImageDataCache();
+
+    /** The elements being rendered on the rendering executor, in the order they were added. */
+    private final ArrayDeque<Future<RtfByteArrayBuffer>> pendingRenders = new ArrayDeque<>();
+
+    /** The maximum number of elements rendered ahead before the oldest one is appended. */
+    private static final int MAX_PENDING_RENDERS =
+            Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+
     /** Constant for the Rtf document start */
     private static final byte[] RTF_DOCUMENT = DocWriter.getISOBytes("\\rtf1");
 
@@ -106,10 +152,40 @@ public class RtfDocument extends RtfElement {
     private static final byte[] FSC_TAB = DocWriter.getISOBytes("\\tab ");
     private static final byte[] FSC_PAGE_PAR = DocWriter.getISOBytes("\\page\\par ");
     private static final byte[] FSC_NEWPAGE = DocWriter.getISOBytes("$newpage$");
-    private static final byte[] FSC_BACKSLASH = DocWriter.getISOBytes("\\");
     private static final byte[] FSC_HEX_PREFIX = DocWriter.getISOBytes("\\'");
     private static final byte[] FSC_UNI_PREFIX = DocWriter.getISOBytes("\\u");
 
+    /**
+     * The characters below 256 that are written without escaping when all characters past 'z' are
+     * written as unicode.
+     */
+    private static final boolean[] LITERAL_UNICODE = new boolean[256];
+
+    /** The characters below 256 that are written without escaping otherwise. */
+    private static final boolean[] LITERAL_LATIN1 = new boolean[256];
+
+    /** The escaped forms of the backslash and the curly braces, indexed by character. */
+    private static final byte[][] FSC_ESCAPES = new byte['}' + 1][];
+
+    /** The <code>\'hh</code> hex escapes of all characters below 256. */
+    private static final byte[][] FSC_HEX_ESCAPES = new byte[256][];
+
+    static {
+        for (int c = 0x20; c < 0x100; c++) {
+            boolean special = c == '\\' || c == '{' || c == '}' || c == '$';
+            LITERAL_LATIN1[c] = !special;
+            LITERAL_UNICODE[c] = !special && c <= 'z';
+        }
+        FSC_ESCAPES['\\'] = DocWriter.getISOBytes("\\\\");
+        FSC_ESCAPES['{'] = DocWriter.getISOBytes("\\{");
+        FSC_ESCAPES['}'] = DocWriter.getISOBytes("\\}");
+        for (int c = 0; c < 0x100; c++) {
+            FSC_HEX_ESCAPES[c] = new byte[] {
+                FSC_HEX_PREFIX[0], FSC_HEX_PREFIX[1], RtfImage.byte2charLUT[c * 2], RtfImage.byte2charLUT[c * 2 + 1]
+            };
+        }
+    }
+
     /** The default constructor for a RtfDocument */
     public RtfDocument() {
         super(null);
@@ -129,9 +205,20 @@ public class RtfDocument extends RtfElement {
      */
     public void writeDocument(OutputStream out) {
         try {
-            out.write(OPEN_GROUP);
-            out.write(RTF_DOCUMENT);
-            this.documentHeader.writeContent(out);
+            writePendingRenders();
+            if (this.headerWritten) {
+                RtfOutputSink sink = getDataSink();
+                sink.write(CLOSE_GROUP);
+                sink.flushBuffer();
+                this.data.writeTo(out);
+                return;
+            }
+            RtfOutputSink header = new RtfOutputSink(out);
+            header.write(OPEN_GROUP);
+            header.write(RTF_DOCUMENT);
+            this.documentHeader.writeContent(header);
+            header.flushBuffer();
+            flushDataSink();
             this.data.writeTo(out);
             out.write(CLOSE_GROUP);
         } catch (IOException ioe) {
@@ -140,20 +227,94 @@ public class RtfDocument extends RtfElement {
     }
 
     /**
-     * Opens the RtfDocument and initializes the data cache. If the data cache is set to CACHE_DISK,
-     * but the cache cannot be initialized then the memory cache is used.
+     * Writes the document to a channel. If the data cache can expose its content as ByteBuffers,
+     * the header, the cached body and the closing brace are written with a single gathering write,
+     * without copying the body.
+     *
+     * @param out The <code>WritableByteChannel</code> to write the RTF document to.
+     * @throws IOException On i/o errors.
+     * @since 3.0.1
+     */
+    public void writeDocument(WritableByteChannel out) throws IOException {
+        writePendingRenders();
+        if (this.headerWritten) {
+            writeDocument(Channels.newOutputStream(out));
+            return;
+        }
+        RtfByteArrayBuffer header = new RtfByteArrayBuffer();
+        RtfOutputSink headerSink = new RtfOutputSink(header);
+        headerSink.write(OPEN_GROUP);
+        headerSink.write(RTF_DOCUMENT);
+        this.documentHeader.writeContent(headerSink);
+        headerSink.flushBuffer();
+        flushDataSink();
+        if (this.data instanceof RtfByteBufferCache) {
+            RtfByteBufferCache cache = (RtfByteBufferCache) this.data;
+            try {
+                ByteBuffer[] headerBuffers = header.toByteBuffers();
+                ByteBuffer[] bodyBuffers = cache.getByteBuffers();
+                ByteBuffer[] buffers = new ByteBuffer[headerBuffers.length + bodyBuffers.length + 1];
+                System.arraycopy(headerBuffers, 0, buffers, 0, headerBuffers.length);
+                System.arraycopy(bodyBuffers, 0, buffers, headerBuffers.length, bodyBuffers.length);
+                buffers[buffers.length - 1] = ByteBuffer.wrap(CLOSE_GROUP);
+                RtfChannelOutput.writeFully(out, buffers);
+            } finally {
+                cache.close();
+            }
+        } else {
+            RtfChannelOutput.writeFully(out, header.toByteBuffers());
+            OutputStream stream = Channels.newOutputStream(out);
+            this.data.writeTo(stream);
+            stream.write(CLOSE_GROUP);
+        }
+    }
+
+    /**
+     * Writes the body of the document, everything added so far without the document header, to
+     * the OutputStream.
+     *
+     * @param out The OutputStream to write to
+     * @throws IOException On i/o errors.
+     * @since 3.0.1
+     */
+    public void writeBody(OutputStream out) throws IOException {
+        writePendingRenders();
+        flushDataSink();
+        this.data.writeTo(out);
+    }
+
+    /**
+     * Opens the RtfDocument and initializes the data cache. If the data cache is set to CACHE_DISK
+     * or CACHE_DISK_CHANNEL, but the cache cannot be initialized then the memory cache is used.
      */
     public void open() {
+        this.dataSink = null;
         try {
             switch (this.documentSettings.getDataCacheStyle()) {
                 case RtfDataCache.CACHE_MEMORY_EFFICIENT:
-                    this.data = new RtfEfficientMemoryCache();
+                    if (this.documentSettings.getBufferPool() != null) {
+                        this.data = new RtfEfficientMemoryCache(this.documentSettings.getBufferPool());
+                    } else {
+                        this.data = new RtfEfficientMemoryCache();
+                    }
                     break;
                 case RtfDataCache.CACHE_MEMORY:
                     this.data = new RtfMemoryCache();
                     break;
                 case RtfDataCache.CACHE_DISK:
-                    this.data = new RtfDiskCache();
+                    this.data = new RtfDiskCache(this.documentSettings.getDataCacheDirectory());
+                    break;
+                case RtfDataCache.CACHE_HYBRID:
+                    this.data = new RtfSpillingCache(
+                            this.documentSettings.getDataCacheSpillThreshold(),
+                            this.documentSettings.isDataCacheSpillCompressed(),
+                            this.documentSettings.getDataCacheDirectory());
+                    break;
+                case RtfDataCache.CACHE_OFF_HEAP:
+                    this.data = new RtfOffHeapCache();
+                    break;
+                case RtfDataCache.CACHE_DISK_CHANNEL:
+                    this.data = new RtfFileChannelCache(this.documentSettings.getDataCacheDirectory());
                     break;
                 default:
                     throw new RuntimeException(MessageLocalization.getComposedMessage("unknown"));
@@ -166,6 +327,43 @@ public class RtfDocument extends RtfElement {
         }
     }
 
+    /**
+     * Opens the RtfDocument in streaming mode. The document header, including the font, color, list
+     * and stylesheet tables, is written to the <code>OutputStream</code> immediately and all
+     * elements added afterwards are written straight through to it. All fonts, colors, lists and
+     * paragraph styles must therefore be registered before this method is called, as must the
+     * headers, footers and document information. Registering new ones afterwards causes an
+     * <code>IllegalStateException</code>.
+     *
+     * @param out The <code>OutputStream</code> to write the RTF document to.
+     * @throws IOException On i/o errors.
+     * @since 3.0.1
+     */
+    public void openStreaming(OutputStream out) throws IOException {
+        this.data = new RtfStreamingCache(out);
+        this.dataSink = null;
+        RtfOutputSink target = getDataSink();
+        // Loads the default paragraph styles, which would otherwise be registered lazily
+        this.documentHeader.getRtfParagraphStyle(RtfParagraphStyle.STYLE_NORMAL.getStyleName());
+        target.write(OPEN_GROUP);
+        target.write(RTF_DOCUMENT);
+        this.documentHeader.writeContent(target);
+        target.flushBuffer();
+        this.headerWritten = true;
+    }
+
+    /**
+     * Gets whether the document header has already been written because the document was opened
+     * in streaming mode. Once this is the case, no further fonts, colors, lists or paragraph styles
+     * can be registered.
+     *
+     * @return <code>true</code> if the document header has been written.
+     * @since 3.0.1
+     */
+    public boolean isHeaderWritten() {
+        return this.headerWritten;
+    }
+
     /**
      * Adds an element to the rtf document
      *
@@ -179,7 +377,13 @@ public class RtfDocument extends RtfElement {
                 if (element instanceof RtfImage) {
                     ((RtfImage) element).setTopLevelElement(true);
                 }
-                element.writeContent(this.data.getOutputStream());
+                Executor executor = this.documentSettings.getRenderingExecutor();
+                if (executor != null && isRenderedConcurrently(element)) {
+                    renderConcurrently(executor, element);
+                } else {
+                    writePendingRenders();
+                    element.writeContent(getDataSink());
+                }
                 this.lastElementWritten = element;
             }
         } catch (IOException ioe) {
@@ -187,6 +391,147 @@ public class RtfDocument extends RtfElement {
         }
     }
 
+    /**
+     * Gets whether an element can be rendered on the rendering executor. Chapters depend on the
+     * element written before them and large tables are written in several parts, so these are
+     * rendered when they are added.
+     *
+     * @param element The element to check
+     * @return <code>true</code> if the element can be rendered concurrently.
+     */
+    private static boolean isRenderedConcurrently(RtfBasicElement element) {
+        if (element instanceof RtfChapter) {
+            return false;
+        }
+        return !(element instanceof RtfTable) || !((RtfTable) element).isLarge();
+    }
+
+    /**
+     * Renders an element into a separate buffer on the rendering executor. The buffer is appended
+     * to the data cache once all elements added before it have been appended.
+     *
+     * @param executor The Executor to render the element on
+     * @param element The element to render
+     * @throws IOException On i/o errors.
+     */
+    private void renderConcurrently(Executor executor, final RtfBasicElement element) throws IOException {
+        if (this.pendingRenders.size() >= MAX_PENDING_RENDERS) {
+            writePendingRender();
+        }
+        FutureTask<RtfByteArrayBuffer> task = new FutureTask<>(new Callable<RtfByteArrayBuffer>() {
+            public RtfByteArrayBuffer call() throws IOException {
+                RtfByteArrayBuffer buffer = new RtfByteArrayBuffer();
+                RtfOutputSink sink = new RtfOutputSink(buffer);
+                element.writeContent(sink);
+                sink.flushBuffer();
+                return buffer;
+            }
+        });
+        executor.execute(task);
+        this.pendingRenders.add(task);
+    }
+
+    /**
+     * Appends the buffers of all elements still being rendered to the data cache, in the order the
+     * elements were added.
+     *
+     * @throws IOException On i/o errors.
+     */
+    private void writePendingRenders() throws IOException {
+        while (!this.pendingRenders.isEmpty()) {
+            writePendingRender();
+        }
+    }
+
+    /**
+     * Waits for the oldest element being rendered and appends its buffer to the data cache.
+     *
+     * @throws IOException If rendering the element failed.
+     */
+    private void writePendingRender() throws IOException {
+        Future<RtfByteArrayBuffer> render = this.pendingRenders.poll();
+        try {
+            render.get().writeTo(getDataSink());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while rendering the document");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Gets the buffered sink that writes to the data cache, creating it if necessary.
+     *
+     * @return The RtfOutputSink for the data cache.
+     */
+    private RtfOutputSink getDataSink() {
+        if (this.dataSink == null) {
+            this.dataSink = new RtfOutputSink(this.data.getOutputStream());
+        }
+        return this.dataSink;
+    }
+
+    /**
+     * Passes the data buffered in the sink on to the data cache.
+     *
+     * @throws IOException On i/o errors.
+     */
+    private void flushDataSink() throws IOException {
+        if (this.dataSink != null) {
+            this.dataSink.flushBuffer();
+        }
+    }
+
+    /**
+     * Registers a buffer that holds chunks from the buffer pool. The buffer is released when {@link
+     * #releasePooledBuffers()} is called after the document has been written.
+     *
+     * @param buffer The RtfByteArrayBuffer to release later.
+     * @since 3.0.1
+     */
+    public void registerPooledBuffer(RtfByteArrayBuffer buffer) {
+        synchronized (this.pooledBuffers) {
+            this.pooledBuffers.add(buffer);
+        }
+    }
+
+    /**
+     * Returns all chunks taken from the buffer pool by the data cache and the registered buffers.
+     * The document must have been written and must not be used afterwards.
+     *
+     * @since 3.0.1
+     */
+    public void releasePooledBuffers() {
+        if (this.data instanceof RtfEfficientMemoryCache) {
+            ((RtfEfficientMemoryCache) this.data).release();
+        }
+        for (RtfByteArrayBuffer buffer : this.pooledBuffers) {
+            buffer.release();
+        }
+        this.pooledBuffers.clear();
+    }
+
+    /**
+     * Gets the cache for the data of the images that are loaded when they are written.
+     *
+     * @return The RtfImageDataCache of this RtfDocument.
+     * @since 3.0.1
+     */
+    public RtfImageDataCache getImageDataCache() {
+        return this.imageDataCache;
+    }
+
     /**
      * Gets the RtfMapper object of this RtfDocument
      *
@@ -198,19 +543,22 @@ public class RtfDocument extends RtfElement {
 
     /**
      * Generates a random integer that is unique with respect to the document. Will not return a
-     * number between -1 and -5 because some values in that range are invalid.
+     * number between -1 and -5 because some values in that range are invalid. The numbers are
+     * repeatable if a unique id seed is set in the document settings.
      *
      * @return A random int
      */
-    public int getRandomInt() {
-        Integer newInt;
+    public synchronized int getRandomInt() {
+        if (this.random == null) {
+            Long seed = this.documentSettings.getUniqueIdSeed();
+            this.random = seed == null ? new Random() : new Random(seed);
+        }
+        int newInt;
         do {
-            //            do {
-            newInt = (int) (Math.random() * Integer.MAX_VALUE);
-            //            } while(newInt.intValue() <= -1 && newInt.intValue() >= -5);
-        } while (this.previousRandomInts.contains(newInt));
-        this.previousRandomInts.add(newInt);
-        return newInt.intValue();
+            newInt = this.random.nextInt(Integer.MAX_VALUE);
+        } while (this.previousRandomInts.containsKey(newInt));
+        this.previousRandomInts.put(newInt, 1);
+        return newInt;
     }
 
     /**
@@ -234,11 +582,29 @@ public class RtfDocument extends RtfElement {
      */
     public void filterSpecialChar(OutputStream out, String str, boolean useHex, boolean softLineBreaks)
             throws IOException {
+        filterSpecialChar(out, str, useHex, softLineBreaks, this.documentSettings.isAlwaysUseUnicode());
+    }
+
+    /**
+     * Writes the given string to the given {@link OutputStream} encoding the string characters,
+     * without depending on the settings of a document.
+     *
+     * @param out destination OutputStream
+     * @param str string to write
+     * @param useHex if <code>true</code> hex encoding characters is preferred to unicode encoding
+     *     if possible
+     * @param softLineBreaks if <code>true</code> return characters are written as soft line breaks
+     * @param alwaysUseUniCode if <code>true</code> all characters bigger than 'z' are unicode encoded
+     * @throws IOException
+     * @since 3.0.1
+     */
+    public static void filterSpecialChar(
+            OutputStream out, String str, boolean useHex, boolean softLineBreaks, boolean alwaysUseUniCode)
+            throws IOException {
         if (out == null) {
             throw new NullPointerException(MessageLocalization.getComposedMessage("null.outpustream"));
         }
 
-        boolean alwaysUseUniCode = this.documentSettings.isAlwaysUseUnicode();
         if (str == null) {
             return;
         }
@@ -247,43 +613,53 @@ public class RtfDocument extends RtfElement {
             return;
         }
 
-        for (int k = 0; k < len; k++) {
+        RtfOutputSink sink = RtfOutputSink.of(out);
+        boolean[] literal = alwaysUseUniCode ? LITERAL_UNICODE : LITERAL_LATIN1;
+        int k = 0;
+        while (k < len) {
+            // copy the longest run of characters that need no escaping in one go
+            int runStart = k;
             char c = str.charAt(k);
+            while (c < 0x100 && literal[c]) {
+                if (++k == len) {
+                    break;
+                }
+                c = str.charAt(k);
+            }
+            if (k > runStart) {
+                sink.writeAscii(str, runStart, k - runStart);
+                if (k == len) {
+                    break;
+                }
+            }
             if (c < 0x20) {
                 // allow return and tab only
                 if (c == '\n') {
-                    out.write(softLineBreaks ? FSC_LINE : FSC_PAR);
+                    sink.write(softLineBreaks ? FSC_LINE : FSC_PAR);
                 } else if (c == '\t') {
-                    out.write(FSC_TAB);
+                    sink.write(FSC_TAB);
                 } else {
-                    out.write('?');
+                    sink.writeByte('?');
                 }
             } else if ((c == '\\') || (c == '{') || (c == '}')) {
                 // escape
-                out.write(FSC_BACKSLASH);
-                out.write(c);
-            } else if ((c == '$') && (len - k >= FSC_NEWPAGE.length) && subMatch(str, k, FSC_NEWPAGE)) {
-                out.write(FSC_PAGE_PAR);
-                k += FSC_NEWPAGE.length - 1;
-            } else {
-                if ((c > 0xff) || ((c > 'z') && alwaysUseUniCode)) {
-                    if (useHex && (c <= 0xff)) {
-                        // encode as 2 char hex string
-                        out.write(FSC_HEX_PREFIX);
-                        out.write(RtfImage.byte2charLUT, c * 2, 2);
-                    } else {
-                        // encode as decimal, signed short value
-                        out.write(FSC_UNI_PREFIX);
-                        String s = Short.toString((short) c);
-                        for (int x = 0; x < s.length(); x++) {
-                            out.write(s.charAt(x));
-                        }
-                        out.write('?');
-                    }
+                sink.write(FSC_ESCAPES[c]);
+            } else if (c == '$') {
+                if ((len - k >= FSC_NEWPAGE.length) && subMatch(str, k, FSC_NEWPAGE)) {
+                    sink.write(FSC_PAGE_PAR);
+                    k += FSC_NEWPAGE.length - 1;
                 } else {
-                    out.write(c);
+                    sink.writeByte(c);
                 }
+            } else if (useHex && (c <= 0xff)) {
+                // encode as 2 char hex string
+                sink.write(FSC_HEX_ESCAPES[c]);
+            } else {
+                // encode as decimal, signed short value
+                sink.writeControlWord(FSC_UNI_PREFIX, (short) c);
+                sink.writeByte('?');
             }
+            k++;
         }
     }
 
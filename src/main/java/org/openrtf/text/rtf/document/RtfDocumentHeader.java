@@ -49,12 +49,15 @@
 
 package org.openrtf.text.rtf.document;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
 import org.openpdf.text.DocWriter;
 import org.openpdf.text.HeaderFooter;
 import org.openrtf.text.rtf.RtfElement;
-import org.openrtf.text.rtf.document.output.RtfNilOutputStream;
+import org.openrtf.text.rtf.document.output.RtfOutputSink;
 import org.openrtf.text.rtf.headerfooter.RtfHeaderFooter;
 import org.openrtf.text.rtf.headerfooter.RtfHeaderFooterGroup;
 import org.openrtf.text.rtf.list.RtfList;
@@ -122,6 +125,9 @@ public class RtfDocumentHeader extends RtfElement {
     /** The current RtfHeaderFooterGroup for the footer */
     private HeaderFooter footer = null;
 
+    /** The header and footer definitions that have been rendered so far. */
+    private final List<RenderedHeaderFooter> renderedHeaderFooters = new ArrayList<>();
+
     /**
      * Constructs a RtfDocumentHeader for a RtfDocument
      *
@@ -150,9 +156,9 @@ public class RtfDocumentHeader extends RtfElement {
     /** Writes the contents of the document header area. */
     public void writeContent(OutputStream result) throws IOException {
         try {
-            // This is so that all color, font and similar information is processed once, before
-            // the header section is written.
-            writeSectionDefinition(new RtfNilOutputStream());
+            // This is so that all color, font and similar information of the headers and footers is
+            // processed once, before the header section is written.
+            getHeaderFooterDefinition();
 
             this.codePage.writeDefinition(result);
             this.fontList.writeDefinition(result);
@@ -172,39 +178,63 @@ public class RtfDocumentHeader extends RtfElement {
     }
 
     /**
-     * Writes the section definition data
+     * Writes the section definition data. The headers and footers are rendered once for each
+     * combination of header and footer and then reused, so a HeaderFooter must not be changed
+     * after it has been written.
      *
      * @param result
      */
     public void writeSectionDefinition(OutputStream result) {
         try {
-            RtfHeaderFooterGroup header = convertHeaderFooter(this.header, RtfHeaderFooter.TYPE_HEADER);
-            RtfHeaderFooterGroup footer = convertHeaderFooter(this.footer, RtfHeaderFooter.TYPE_FOOTER);
-            if (header.hasTitlePage() || footer.hasTitlePage()) {
-                result.write(TITLE_PAGE);
-                header.setHasTitlePage();
-                footer.setHasTitlePage();
-            }
-            if (header.hasFacingPages() || footer.hasFacingPages()) {
-                result.write(FACING_PAGES);
-                header.setHasFacingPages();
-                footer.setHasFacingPages();
-            }
-            footer.writeContent(result);
-            header.writeContent(result);
+            result.write(getHeaderFooterDefinition());
             pageSetting.writeSectionDefinition(result);
         } catch (IOException ioe) {
             ioe.printStackTrace();
         }
     }
 
+    /**
+     * Gets the rendered title page, facing pages, footer and header definition for the current
+     * header and footer. Rendering them registers their fonts, colors and lists.
+     *
+     * @return The rendered definition.
+     * @throws IOException On i/o errors.
+     */
+    private byte[] getHeaderFooterDefinition() throws IOException {
+        for (RenderedHeaderFooter rendered : this.renderedHeaderFooters) {
+            if (rendered.header == this.header && rendered.footer == this.footer) {
+                return rendered.content;
+            }
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        RtfOutputSink result = new RtfOutputSink(buffer);
+        RtfHeaderFooterGroup header = convertHeaderFooter(this.header, RtfHeaderFooter.TYPE_HEADER);
+        RtfHeaderFooterGroup footer = convertHeaderFooter(this.footer, RtfHeaderFooter.TYPE_FOOTER);
+        if (header.hasTitlePage() || footer.hasTitlePage()) {
+            result.write(TITLE_PAGE);
+            header.setHasTitlePage();
+            footer.setHasTitlePage();
+        }
+        if (header.hasFacingPages() || footer.hasFacingPages()) {
+            result.write(FACING_PAGES);
+            header.setHasFacingPages();
+            footer.setHasFacingPages();
+        }
+        footer.writeContent(result);
+        header.writeContent(result);
+        result.flushBuffer();
+        byte[] content = buffer.toByteArray();
+        this.renderedHeaderFooters.add(new RenderedHeaderFooter(this.header, this.footer, content));
+        return content;
+    }
+
     /**
      * Gets the number of the specified RtfFont
      *
      * @param font The RtfFont for which to get the number
      * @return The number of the font
      */
-    public int getFontNumber(RtfFont font) {
+    public synchronized int getFontNumber(RtfFont font) {
         return this.fontList.getFontNumber(font);
     }
 
@@ -214,17 +244,30 @@ public class RtfDocumentHeader extends RtfElement {
      * @param color The RtfColor for which to get the number
      * @return The number of the color
      */
-    public int getColorNumber(RtfColor color) {
+    public synchronized int getColorNumber(RtfColor color) {
         return this.colorList.getColorNumber(color);
     }
 
+    /**
+     * Gets the number of the color with the given red, green and blue values
+     *
+     * @param red The red value of the color
+     * @param green The green value of the color
+     * @param blue The blue value of the color
+     * @return The number of the color
+     * @since 3.0.1
+     */
+    public synchronized int getColorNumber(int red, int green, int blue) {
+        return this.colorList.getColorNumber(red, green, blue);
+    }
+
     /**
      * Gets the number of the specified RtfList
      *
      * @param list The RtfList for which to get the number
      * @return The number of the list
      */
-    public int getListNumber(RtfList list) {
+    public synchronized int getListNumber(RtfList list) {
         return this.listTable.getListNumber(list);
     }
 
@@ -234,16 +277,31 @@ public class RtfDocumentHeader extends RtfElement {
      * @param styleName The style name of the RtfParagraphStyle to get.
      * @return The RtfParagraphStyle with the given style name or null.
      */
-    public RtfParagraphStyle getRtfParagraphStyle(String styleName) {
+    public synchronized RtfParagraphStyle getRtfParagraphStyle(String styleName) {
         return this.stylesheetList.getRtfParagraphStyle(styleName);
     }
 
+    /**
+     * Gets the compiled start sequence of a RtfParagraphStyle. RtfParagraphStyles with the same
+     * settings share one compiled start sequence.
+     *
+     * <p>INTERNAL USE ONLY
+     *
+     * @param style The RtfParagraphStyle to get the start sequence for.
+     * @return The compiled start sequence.
+     * @throws IOException On i/o errors.
+     * @since 3.0.1
+     */
+    public byte[] getParagraphStyleTemplate(RtfParagraphStyle style) throws IOException {
+        return this.stylesheetList.getBeginTemplate(style);
+    }
+
     /**
      * Removes a RtfList from the list table
      *
      * @param list The RtfList to remove
      */
-    public void freeListNumber(RtfList list) {
+    public synchronized void freeListNumber(RtfList list) {
         this.listTable.freeListNumber(list);
     }
 
@@ -288,7 +346,7 @@ public class RtfDocumentHeader extends RtfElement {
      *
      * @param rtfParagraphStyle The RtfParagraphStyle to register.
      */
-    public void registerParagraphStyle(RtfParagraphStyle rtfParagraphStyle) {
+    public synchronized void registerParagraphStyle(RtfParagraphStyle rtfParagraphStyle) {
         this.stylesheetList.registerParagraphStyle(rtfParagraphStyle);
     }
 
@@ -325,4 +383,42 @@ public class RtfDocumentHeader extends RtfElement {
     public RtfListTable getListTable() {
         return this.listTable;
     }
+
+    /**
+     * Get the <code>RtfFontList</code> object.
+     *
+     * @return the FontList object.
+     * @since 3.0.1
+     */
+    public RtfFontList getFontList() {
+        return this.fontList;
+    }
+
+    /**
+     * Get the <code>RtfColorList</code> object.
+     *
+     * @return the ColorList object.
+     * @since 3.0.1
+     */
+    public RtfColorList getColorList() {
+        return this.colorList;
+    }
+
+    /** A header and footer definition rendered for a combination of header and footer. */
+    private static final class RenderedHeaderFooter {
+        /** The header the definition was rendered for. */
+        private final HeaderFooter header;
+
+        /** The footer the definition was rendered for. */
+        private final HeaderFooter footer;
+
+        /** The rendered definition. */
+        private final byte[] content;
+
+        private RenderedHeaderFooter(HeaderFooter header, HeaderFooter footer, byte[] content) {
+            this.header = header;
+            this.footer = footer;
+            this.content = content;
+        }
+    }
 }
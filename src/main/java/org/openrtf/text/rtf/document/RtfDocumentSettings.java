@@ -49,8 +49,13 @@
 
 package org.openrtf.text.rtf.document;
 
+import java.io.File;
+import java.util.concurrent.Executor;
 import org.openpdf.text.DocWriter;
+import org.openrtf.text.rtf.document.output.RtfBufferPool;
 import org.openrtf.text.rtf.document.output.RtfDataCache;
+import org.openrtf.text.rtf.document.output.RtfSpillingCache;
+import org.openrtf.text.rtf.parser.RtfParseLimits;
 import org.openrtf.text.rtf.style.RtfParagraphStyle;
 
 /**
@@ -83,6 +88,33 @@ public class RtfDocumentSettings {
     /** How to cache the document during generation. Defaults to RtfDataCache.CACHE_MEMORY; */
     private int dataCacheStyle = RtfDataCache.CACHE_MEMORY;
 
+    /** The directory the disk caches create their temporary files in. Null for the default. */
+    private File dataCacheDirectory = null;
+
+    /** The size at which the hybrid cache moves the document to disk. */
+    private long dataCacheSpillThreshold = RtfSpillingCache.DEFAULT_SPILL_THRESHOLD;
+
+    /** Whether the hybrid cache compresses the data it moves to disk. */
+    private boolean dataCacheSpillCompressed = false;
+
+    /** The pool to take buffer chunks from. Null if no pool is used. */
+    private RtfBufferPool bufferPool = null;
+
+    /** Whether the document is streamed to the OutputStream instead of being cached. */
+    private boolean streamingOutput = false;
+
+    /** The seed for the unique ids written to the document. Null if the ids are random. */
+    private Long uniqueIdSeed = null;
+
+    /** Whether adjacent chunks only write the formatting that differs between them. */
+    private boolean mergeChunkFormatting = false;
+
+    /** Whether images with a URL are only loaded when they are written. */
+    private boolean imageLoadedLazily = false;
+
+    /** The Executor that renders the top level elements. Null if they are rendered when added. */
+    private Executor renderingExecutor = null;
+
     /**
      * Whether to write image scaling information. This is required for Word 2000, 97 and Word for
      * Mac
@@ -128,6 +160,13 @@ public class RtfDocumentSettings {
      */
     private boolean imageWrittenAsBinary = true;
 
+    /**
+     * The resource limits applied when RTF is imported into this document.
+     *
+     * @since 3.0.1
+     */
+    private RtfParseLimits parseLimits = null;
+
     /**
      * Constructs a new RtfDocumentSettings object.
      *
@@ -234,6 +273,14 @@ public class RtfDocumentSettings {
      *   <li>RtfDataCache.CACHE_DISK: The document is cached on disk. This is slower than the
      *       CACHE_MEMORY setting, but the document size is now only constrained by the amount of
      *       free disk space.
+     *   <li>RtfDataCache.CACHE_DISK_CHANNEL: The document is cached on disk and accessed through a
+     *       FileChannel. When the document is written to a file, the data is transferred without
+     *       being copied through memory.
+     *   <li>RtfDataCache.CACHE_OFF_HEAP: The document is cached in pooled direct buffers outside of
+     *       the Java heap. This is nearly as fast as CACHE_MEMORY, but does not put pressure on the
+     *       garbage collector.
+     *   <li>RtfDataCache.CACHE_HYBRID: The document is cached in memory until it grows beyond the
+     *       spill threshold and is then moved to disk.
      * </ul>
      *
      * @param dataCacheStyle The data cache style to set. Valid constants can be found in
@@ -248,6 +295,15 @@ public class RtfDocumentSettings {
             case RtfDataCache.CACHE_DISK:
                 this.dataCacheStyle = RtfDataCache.CACHE_DISK;
                 break;
+            case RtfDataCache.CACHE_DISK_CHANNEL:
+                this.dataCacheStyle = RtfDataCache.CACHE_DISK_CHANNEL;
+                break;
+            case RtfDataCache.CACHE_OFF_HEAP:
+                this.dataCacheStyle = RtfDataCache.CACHE_OFF_HEAP;
+                break;
+            case RtfDataCache.CACHE_HYBRID:
+                this.dataCacheStyle = RtfDataCache.CACHE_HYBRID;
+                break;
             case RtfDataCache.CACHE_MEMORY:
             default:
                 this.dataCacheStyle = RtfDataCache.CACHE_MEMORY;
@@ -264,6 +320,217 @@ public class RtfDocumentSettings {
         return this.dataCacheStyle;
     }
 
+    /**
+     * Sets the directory in which the disk caches create their temporary files.
+     *
+     * @param dataCacheDirectory The directory for temporary files, <code>null</code> for the
+     *     default temporary directory.
+     * @since 3.0.1
+     */
+    public void setDataCacheDirectory(File dataCacheDirectory) {
+        this.dataCacheDirectory = dataCacheDirectory;
+    }
+
+    /**
+     * Gets the directory in which the disk caches create their temporary files.
+     *
+     * @return The directory for temporary files or <code>null</code> if the default temporary
+     *     directory is used.
+     * @since 3.0.1
+     */
+    public File getDataCacheDirectory() {
+        return this.dataCacheDirectory;
+    }
+
+    /**
+     * Sets the number of bytes the CACHE_HYBRID data cache keeps in memory before it moves the
+     * document to disk. Defaults to 8 MB.
+     *
+     * @param dataCacheSpillThreshold The spill threshold in bytes.
+     * @since 3.0.1
+     */
+    public void setDataCacheSpillThreshold(long dataCacheSpillThreshold) {
+        this.dataCacheSpillThreshold = dataCacheSpillThreshold;
+    }
+
+    /**
+     * Gets the number of bytes the CACHE_HYBRID data cache keeps in memory before it moves the
+     * document to disk.
+     *
+     * @return The spill threshold in bytes.
+     * @since 3.0.1
+     */
+    public long getDataCacheSpillThreshold() {
+        return this.dataCacheSpillThreshold;
+    }
+
+    /**
+     * Sets whether the CACHE_HYBRID data cache compresses the data it moves to disk. This trades
+     * cpu time for less disk i/o.
+     *
+     * @param dataCacheSpillCompressed Whether to compress the data on disk.
+     * @since 3.0.1
+     */
+    public void setDataCacheSpillCompressed(boolean dataCacheSpillCompressed) {
+        this.dataCacheSpillCompressed = dataCacheSpillCompressed;
+    }
+
+    /**
+     * Gets whether the CACHE_HYBRID data cache compresses the data it moves to disk.
+     *
+     * @return <code>true</code> if the data on disk is compressed.
+     * @since 3.0.1
+     */
+    public boolean isDataCacheSpillCompressed() {
+        return this.dataCacheSpillCompressed;
+    }
+
+    /**
+     * Sets the pool that the CACHE_MEMORY_EFFICIENT data cache and the image data take their buffer
+     * chunks from. The chunks are returned to the pool when the RtfWriter2 is closed. This reduces
+     * the allocation of large arrays when many documents are generated.
+     *
+     * @param bufferPool The RtfBufferPool to use, for example <code>RtfBufferPool.getSharedPool()
+     *     </code>, or <code>null</code> to not use a pool.
+     * @since 3.0.1
+     */
+    public void setBufferPool(RtfBufferPool bufferPool) {
+        this.bufferPool = bufferPool;
+    }
+
+    /**
+     * Gets the pool that buffer chunks are taken from.
+     *
+     * @return The RtfBufferPool or <code>null</code> if no pool is used.
+     * @since 3.0.1
+     */
+    public RtfBufferPool getBufferPool() {
+        return this.bufferPool;
+    }
+
+    /**
+     * Sets whether the document is written in streaming mode. In streaming mode the document
+     * header is written when the document is opened and every element is written straight to the
+     * <code>OutputStream</code> when it is added, so that the document is never cached in full.
+     * This requires that all fonts, colors, lists and paragraph styles are registered, all
+     * headers, footers and document information are set and all page settings are made before the
+     * document is opened. Elements can be registered with <code>RtfWriter2.declareElement</code>.
+     * When this is set, the data cache style is ignored.
+     *
+     * @param streamingOutput Whether to write the document in streaming mode.
+     * @since 3.0.1
+     */
+    public void setStreamingOutput(boolean streamingOutput) {
+        this.streamingOutput = streamingOutput;
+    }
+
+    /**
+     * Gets whether the document is written in streaming mode.
+     *
+     * @return <code>true</code> if the document is written in streaming mode.
+     * @since 3.0.1
+     */
+    public boolean isStreamingOutput() {
+        return this.streamingOutput;
+    }
+
+    /**
+     * Sets the seed for the unique ids written to the document, such as the list ids and list
+     * template ids. When a seed is set, the same document produces the same ids every time it is
+     * written. Must be set before the first id is generated.
+     *
+     * @param uniqueIdSeed The seed to use, <code>null</code> for random ids.
+     * @since 3.0.1
+     */
+    public void setUniqueIdSeed(Long uniqueIdSeed) {
+        this.uniqueIdSeed = uniqueIdSeed;
+    }
+
+    /**
+     * Gets the seed for the unique ids written to the document.
+     *
+     * @return The seed or <code>null</code> if the ids are random.
+     * @since 3.0.1
+     */
+    public Long getUniqueIdSeed() {
+        return this.uniqueIdSeed;
+    }
+
+    /**
+     * Sets whether adjacent chunks only write the formatting that differs between them. By default
+     * every chunk writes its complete font formatting and resets it afterwards. When this is set,
+     * a chunk that directly follows another chunk in the same phrase or paragraph only writes the
+     * control words that change the formatting of the previous chunk, which makes documents with
+     * many chunks considerably smaller. The document renders the same either way.
+     *
+     * @param mergeChunkFormatting Whether to merge the formatting of adjacent chunks.
+     * @since 3.0.1
+     */
+    public void setMergeChunkFormatting(boolean mergeChunkFormatting) {
+        this.mergeChunkFormatting = mergeChunkFormatting;
+    }
+
+    /**
+     * Gets whether adjacent chunks only write the formatting that differs between them.
+     *
+     * @return <code>true</code> if the formatting of adjacent chunks is merged.
+     * @since 3.0.1
+     */
+    public boolean isMergeChunkFormatting() {
+        return this.mergeChunkFormatting;
+    }
+
+    /**
+     * Sets whether images that were loaded from a URL are only read when they are written. By
+     * default the image data is read when the image is added and held in memory until the document
+     * is written. When this is set, only the URL is kept and the image is read again when it is
+     * written. Hex encoded images are streamed straight into the document. Images that are written
+     * as binary data, and images whose URL is written more than once, are read into memory and
+     * cached for the document by URL. The image must not change before the document is written.
+     *
+     * @param imageLoadedLazily Whether to load images with a URL when they are written.
+     * @since 3.0.1
+     */
+    public void setImageLoadedLazily(boolean imageLoadedLazily) {
+        this.imageLoadedLazily = imageLoadedLazily;
+    }
+
+    /**
+     * Gets whether images that were loaded from a URL are only read when they are written.
+     *
+     * @return <code>true</code> if images are loaded when they are written.
+     * @since 3.0.1
+     */
+    public boolean isImageLoadedLazily() {
+        return this.imageLoadedLazily;
+    }
+
+    /**
+     * Sets the Executor that renders the top level elements added to the document. By default
+     * each element is rendered into the document when it is added. When an Executor is set, the
+     * elements are still converted when they are added, so fonts, colors and lists get the same
+     * numbers, but they are rendered into separate buffers on the Executor and appended to the
+     * document in the order they were added. Chapters and large tables are always rendered when
+     * they are added. The output is the same as without an Executor.
+     *
+     * @param renderingExecutor The Executor to use, <code>null</code> to render the elements when
+     *     they are added.
+     * @since 3.0.1
+     */
+    public void setRenderingExecutor(Executor renderingExecutor) {
+        this.renderingExecutor = renderingExecutor;
+    }
+
+    /**
+     * Gets the Executor that renders the top level elements added to the document.
+     *
+     * @return The Executor or <code>null</code> if the elements are rendered when they are added.
+     * @since 3.0.1
+     */
+    public Executor getRenderingExecutor() {
+        return this.renderingExecutor;
+    }
+
     /**
      * Gets the current setting on image PDF conformance.
      *
@@ -569,4 +836,25 @@ public class RtfDocumentSettings {
     public boolean isImageWrittenAsBinary() {
         return this.imageWrittenAsBinary;
     }
+
+    /**
+     * Gets the resource limits applied when RTF is imported into this document.
+     *
+     * @return The <code>RtfParseLimits</code> or <code>null</code> if imports are not limited.
+     * @since 3.0.1
+     */
+    public RtfParseLimits getParseLimits() {
+        return this.parseLimits;
+    }
+
+    /**
+     * Sets the resource limits applied when RTF is imported into this document. Set these when
+     * importing RTF from untrusted sources.
+     *
+     * @param parseLimits The <code>RtfParseLimits</code> to apply, <code>null</code> for no limits.
+     * @since 3.0.1
+     */
+    public void setParseLimits(RtfParseLimits parseLimits) {
+        this.parseLimits = parseLimits;
+    }
 }
@@ -52,6 +52,7 @@ import java.io.OutputStream;
 import org.openpdf.text.DocWriter;
 import org.openrtf.text.rtf.RtfElement;
 import org.openrtf.text.rtf.RtfExtendedElement;
+import org.openrtf.text.rtf.document.output.RtfOutputSink;
 
 /**
  * @author Michael Joyce (ubermichael@gmail.com)
@@ -93,15 +94,15 @@ public class RtfFootnoteSetting extends RtfElement implements RtfExtendedElement
     /** Writes the page size / page margin definition */
     @Override
     public void writeDefinition(OutputStream result) throws IOException {
-        result.write(FOOTNOTE_BOTTOM);
-        result.write(FOOTNOTE_START);
-        result.write(intToByteArray(footnoteStart));
-        result.write(FOOTNOTE_CONTINUOUS);
-        result.write(FOOTNOTE_ARABIC);
-        result.write(OPEN_GROUP);
-        result.write(FOOTNOTE_SEP);
-        result.write(FOOTNOTE_ANCHOR);
-        result.write(CLOSE_GROUP);
+        RtfOutputSink sink = RtfOutputSink.of(result);
+        sink.write(FOOTNOTE_BOTTOM);
+        sink.writeControlWord(FOOTNOTE_START, footnoteStart);
+        sink.write(FOOTNOTE_CONTINUOUS);
+        sink.write(FOOTNOTE_ARABIC);
+        sink.write(OPEN_GROUP);
+        sink.write(FOOTNOTE_SEP);
+        sink.write(FOOTNOTE_ANCHOR);
+        sink.write(CLOSE_GROUP);
         this.document.outputDebugLinebreak(result);
     }
 }
@@ -56,6 +56,7 @@ import org.openpdf.text.PageSize;
 import org.openpdf.text.Rectangle;
 import org.openrtf.text.rtf.RtfElement;
 import org.openrtf.text.rtf.RtfExtendedElement;
+import org.openrtf.text.rtf.document.output.RtfOutputSink;
 
 /**
  * The RtfPageSetting stores the page size / page margins for a RtfDocument. INTERNAL CLASS - NOT TO
@@ -141,45 +142,33 @@ public class RtfPageSetting extends RtfElement implements RtfExtendedElement {
 
     /** Writes the page size / page margin definition */
     public void writeDefinition(OutputStream result) throws IOException {
-        result.write(PAGE_WIDTH);
-        result.write(intToByteArray(pageWidth));
-        result.write(PAGE_HEIGHT);
-        result.write(intToByteArray(pageHeight));
-        result.write(MARGIN_LEFT);
-        result.write(intToByteArray(marginLeft));
-        result.write(MARGIN_RIGHT);
-        result.write(intToByteArray(marginRight));
-        result.write(MARGIN_TOP);
-        result.write(intToByteArray(marginTop));
-        result.write(MARGIN_BOTTOM);
-        result.write(intToByteArray(marginBottom));
+        RtfOutputSink sink = RtfOutputSink.of(result);
+        sink.writeControlWord(PAGE_WIDTH, pageWidth);
+        sink.writeControlWord(PAGE_HEIGHT, pageHeight);
+        sink.writeControlWord(MARGIN_LEFT, marginLeft);
+        sink.writeControlWord(MARGIN_RIGHT, marginRight);
+        sink.writeControlWord(MARGIN_TOP, marginTop);
+        sink.writeControlWord(MARGIN_BOTTOM, marginBottom);
         this.document.outputDebugLinebreak(result);
     }
 
     /** Writes the definition part for a new section */
     public void writeSectionDefinition(OutputStream result) throws IOException {
+        RtfOutputSink sink = RtfOutputSink.of(result);
         if (landscape) {
-            result.write(LANDSCAPE);
-            result.write(SECTION_PAGE_WIDTH);
-            result.write(intToByteArray(pageWidth));
-            result.write(SECTION_PAGE_HEIGHT);
-            result.write(intToByteArray(pageHeight));
+            sink.write(LANDSCAPE);
+            sink.writeControlWord(SECTION_PAGE_WIDTH, pageWidth);
+            sink.writeControlWord(SECTION_PAGE_HEIGHT, pageHeight);
             this.document.outputDebugLinebreak(result);
         } else {
-            result.write(SECTION_PAGE_WIDTH);
-            result.write(intToByteArray(pageWidth));
-            result.write(SECTION_PAGE_HEIGHT);
-            result.write(intToByteArray(pageHeight));
+            sink.writeControlWord(SECTION_PAGE_WIDTH, pageWidth);
+            sink.writeControlWord(SECTION_PAGE_HEIGHT, pageHeight);
             this.document.outputDebugLinebreak(result);
         }
-        result.write(SECTION_MARGIN_LEFT);
-        result.write(intToByteArray(marginLeft));
-        result.write(SECTION_MARGIN_RIGHT);
-        result.write(intToByteArray(marginRight));
-        result.write(SECTION_MARGIN_TOP);
-        result.write(intToByteArray(marginTop));
-        result.write(SECTION_MARGIN_BOTTOM);
-        result.write(intToByteArray(marginBottom));
+        sink.writeControlWord(SECTION_MARGIN_LEFT, marginLeft);
+        sink.writeControlWord(SECTION_MARGIN_RIGHT, marginRight);
+        sink.writeControlWord(SECTION_MARGIN_TOP, marginTop);
+        sink.writeControlWord(SECTION_MARGIN_BOTTOM, marginBottom);
     }
 
     /**
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+
+package org.openrtf.text.rtf.document.output;
+
+import java.util.ArrayDeque;
+
+/**
+ * The RtfBufferPool hands out fixed-size <code>byte[]</code> chunks and takes them back for reuse.
+ * It is used by {@link RtfByteArrayBuffer} so that generating many documents does not allocate new
+ * large arrays for every document. Released chunks are first kept in a small cache of the releasing
+ * thread and then in a global pool. Both are capped, chunks beyond the caps are left to the
+ * garbage collector.
+ *
+ * <p>Chunks must only be released once the data in them is no longer needed. RtfDocument releases
+ * the chunks it used when the RtfWriter2 is closed.
+ *
+ * @since 3.0.1
+ */
+public class RtfBufferPool {
+
+    /** The default chunk size, 32 KB. This is well below the size at which G1 allocates humongous objects. */
+    public static final int DEFAULT_CHUNK_SIZE = 32768;
+
+    /** The default maximum number of chunks kept per thread. */
+    public static final int DEFAULT_MAX_THREAD_CHUNKS = 16;
+
+    /** The default maximum number of chunks kept in the global pool. */
+    public static final int DEFAULT_MAX_POOLED_CHUNKS = 256;
+
+    /** The shared pool. */
+    private static final RtfBufferPool SHARED_POOL =
+            new RtfBufferPool(DEFAULT_CHUNK_SIZE, DEFAULT_MAX_THREAD_CHUNKS, DEFAULT_MAX_POOLED_CHUNKS);
+
+    /** The size of every chunk. */
+    private final int chunkSize;
+
+    /** The maximum number of chunks kept per thread. */
+    private final int maxThreadChunks;
+
+    /** The maximum number of chunks kept in the global pool. */
+    private final int maxPooledChunks;
+
+    /** The chunks cached by the current thread. */
+    private final ThreadLocal<ArrayDeque<byte[]>> threadChunks = new ThreadLocal<ArrayDeque<byte[]>>() {
+        protected ArrayDeque<byte[]> initialValue() {
+            return new ArrayDeque<>();
+        }
+    };
+
+    /** The chunks in the global pool. */
+    private final ArrayDeque<byte[]> pooledChunks = new ArrayDeque<>();
+
+    /** The number of chunks that had to be allocated. */
+    private long allocatedChunks = 0;
+
+    /**
+     * Constructs a RtfBufferPool.
+     *
+     * @param chunkSize The size of the chunks in bytes.
+     * @param maxThreadChunks The maximum number of chunks cached per thread.
+     * @param maxPooledChunks The maximum number of chunks kept in the global pool.
+     */
+    public RtfBufferPool(int chunkSize, int maxThreadChunks, int maxPooledChunks) {
+        if (chunkSize < 32) {
+            throw new IllegalArgumentException("The chunk size must be at least 32: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        this.maxThreadChunks = maxThreadChunks;
+        this.maxPooledChunks = maxPooledChunks;
+    }
+
+    /**
+     * Gets the RtfBufferPool shared by all documents.
+     *
+     * @return The shared RtfBufferPool
+     */
+    public static RtfBufferPool getSharedPool() {
+        return SHARED_POOL;
+    }
+
+    /**
+     * Takes a chunk from the pool, allocating a new one if the pool is empty. The content of the
+     * chunk is undefined.
+     *
+     * @return A <code>byte[]</code> of the chunk size.
+     */
+    public byte[] acquire() {
+        byte[] chunk = this.threadChunks.get().poll();
+        if (chunk != null) {
+            return chunk;
+        }
+        synchronized (this) {
+            chunk = this.pooledChunks.poll();
+            if (chunk == null) {
+                this.allocatedChunks++;
+            }
+        }
+        return chunk != null ? chunk : new byte[this.chunkSize];
+    }
+
+    /**
+     * Returns a chunk to the pool. Arrays that do not have the chunk size are ignored.
+     *
+     * @param chunk The chunk to return.
+     */
+    public void release(byte[] chunk) {
+        if (chunk == null || chunk.length != this.chunkSize) {
+            return;
+        }
+        ArrayDeque<byte[]> local = this.threadChunks.get();
+        if (local.size() < this.maxThreadChunks) {
+            local.push(chunk);
+            return;
+        }
+        synchronized (this) {
+            if (this.pooledChunks.size() < this.maxPooledChunks) {
+                this.pooledChunks.push(chunk);
+            }
+        }
+    }
+
+    /**
+     * Gets the size of the chunks handed out by this pool.
+     *
+     * @return The chunk size in bytes.
+     */
+    public int getChunkSize() {
+        return this.chunkSize;
+    }
+
+    /**
+     * Gets the number of chunks that had to be newly allocated because the pool was empty.
+     *
+     * @return The number of allocated chunks.
+     */
+    public synchronized long getAllocatedChunks() {
+        return this.allocatedChunks;
+    }
+
+    /**
+     * Gets the number of chunks in the global pool. Chunks cached by threads are not included.
+     *
+     * @return The number of pooled chunks.
+     */
+    public synchronized int getPooledChunks() {
+        return this.pooledChunks.size();
+    }
+}
@@ -51,6 +51,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import org.openpdf.text.error_messages.MessageLocalization;
@@ -68,6 +69,12 @@ public final class RtfByteArrayBuffer extends OutputStream {
     private int pos = 0;
     private int size = 0;
 
+    /** The pool the chunks are taken from, null if the buffer does not use a pool. */
+    private final RtfBufferPool pool;
+
+    /** The chunks taken from the pool, null if the buffer does not use a pool. */
+    private final List<byte[]> pooledChunks;
+
     /** Constructs a new buffer with a default initial size of 128 bytes. */
     public RtfByteArrayBuffer() {
         this(256);
@@ -87,6 +94,25 @@ public final class RtfByteArrayBuffer extends OutputStream {
             n <<= 1;
         }
         buffer = new byte[n];
+        pool = null;
+        pooledChunks = null;
+    }
+
+    /**
+     * Creates a new buffer that takes fixed-size chunks from the given pool instead of allocating
+     * growing arrays. The chunks must be returned with {@link #release()} once the data is no
+     * longer needed.
+     *
+     * @param pool the RtfBufferPool to take chunks from
+     * @since 3.0.1
+     */
+    public RtfByteArrayBuffer(RtfBufferPool pool) {
+        if (pool == null) throw new NullPointerException();
+
+        this.pool = pool;
+        this.pooledChunks = new ArrayList<>();
+        buffer = pool.acquire();
+        pooledChunks.add(buffer);
     }
 
     public String toString() {
@@ -98,6 +124,33 @@ public final class RtfByteArrayBuffer extends OutputStream {
         arrays.clear();
         pos = 0;
         size = 0;
+        if (pool != null) {
+            for (byte[] chunk : pooledChunks) {
+                if (chunk != buffer) pool.release(chunk);
+            }
+            pooledChunks.clear();
+            pooledChunks.add(buffer);
+        }
+    }
+
+    /**
+     * Returns all chunks taken from the pool. The buffer and all arrays obtained from {@link
+     * #toByteArrayArray()} must not be used afterwards. Does nothing if the buffer does not use a
+     * pool.
+     *
+     * @since 3.0.1
+     */
+    public void release() {
+        if (pool == null) return;
+
+        for (byte[] chunk : pooledChunks) {
+            pool.release(chunk);
+        }
+        pooledChunks.clear();
+        arrays.clear();
+        buffer = new byte[0];
+        pos = 0;
+        size = 0;
     }
 
     /**
@@ -121,6 +174,12 @@ public final class RtfByteArrayBuffer extends OutputStream {
         if (pos == buffer.length) {
             // add old buffer, alloc new (possibly larger) buffer
             arrays.add(buffer);
+            if (pool != null) {
+                buffer = pool.acquire();
+                pooledChunks.add(buffer);
+                pos = 0;
+                return;
+            }
             int newSize = buffer.length;
             buffer = null;
             int MAX = Math.max(1, size >> 24) << 16;
@@ -258,6 +317,23 @@ public final class RtfByteArrayBuffer extends OutputStream {
         return arrays.toArray(new byte[arrays.size()][]);
     }
 
+    /**
+     * Returns read-only ByteBuffers wrapping the data written to this buffer, without copying it.
+     * The ByteBuffers are only valid until the buffer is written to again.
+     *
+     * @return the data as an array of ByteBuffers
+     * @since 3.0.1
+     */
+    public ByteBuffer[] toByteBuffers() {
+        int n = arrays.size();
+        ByteBuffer[] r = new ByteBuffer[pos > 0 ? n + 1 : n];
+        for (int i = 0; i < n; i++) {
+            r[i] = ByteBuffer.wrap(arrays.get(i)).asReadOnlyBuffer();
+        }
+        if (pos > 0) r[n] = ByteBuffer.wrap(buffer, 0, pos).asReadOnlyBuffer();
+        return r;
+    }
+
     /**
      * Allocates a new array and copies all data that has been written to this buffer to the newly
      * allocated array.
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+
+package org.openrtf.text.rtf.document.output;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * The RtfByteBufferCache interface is implemented by RtfDataCaches that can expose their content
+ * as <code>ByteBuffer</code>s without copying it. This allows the document to be written to a
+ * channel with a single gathering write.
+ *
+ * @since 3.0.1
+ */
+public interface RtfByteBufferCache extends RtfDataCache {
+
+    /**
+     * Gets views of the cached data, in order. The buffers share the cached data, so they are only
+     * valid until the cache is written to, written out or closed.
+     *
+     * @return The ByteBuffers holding the cached data.
+     * @throws IOException If the data cannot be accessed.
+     */
+    ByteBuffer[] getByteBuffers() throws IOException;
+
+    /**
+     * Releases the resources held by the cache. The cache must not be used afterwards.
+     *
+     * @throws IOException If the resources cannot be released.
+     */
+    void close() throws IOException;
+}
@@ -61,6 +61,27 @@ import java.io.OutputStream;
  * @author Thomas Bickel (tmb99@inode.at)
  */
 public interface RtfDataCache {
+    /**
+     * Constant for caching into memory and moving the data to the disk once it grows too large.
+     *
+     * @since 3.0.1
+     */
+    int CACHE_HYBRID = 6;
+
+    /**
+     * Constant for caching outside of the Java heap in pooled direct buffers.
+     *
+     * @since 3.0.1
+     */
+    int CACHE_OFF_HEAP = 5;
+
+    /**
+     * Constant for caching to the disk through a FileChannel.
+     *
+     * @since 3.0.1
+     */
+    int CACHE_DISK_CHANNEL = 4;
+
     /** Constant for caching efficiently into memory. */
     int CACHE_MEMORY_EFFICIENT = 3;
 
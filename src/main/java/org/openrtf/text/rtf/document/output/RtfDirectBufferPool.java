@@ -0,0 +1,164 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+
+package org.openrtf.text.rtf.document.output;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * The RtfDirectBufferPool hands out fixed-size direct <code>ByteBuffer</code> segments and takes
+ * them back for reuse, so that off-heap document caches do not allocate new direct memory for every
+ * document. The pool keeps at most a configurable number of bytes in free segments. It also keeps
+ * track of how many bytes are handed out, so that the off-heap memory used by document generation
+ * can be monitored.
+ *
+ * @since 3.0.1
+ */
+public class RtfDirectBufferPool {
+
+    /** The default segment size, 64 KB. */
+    public static final int DEFAULT_SEGMENT_SIZE = 65536;
+
+    /** The default maximum number of bytes kept in free segments, 32 MB. */
+    public static final long DEFAULT_MAX_POOLED_BYTES = 32L * 1024 * 1024;
+
+    /** The shared pool used by default. */
+    private static final RtfDirectBufferPool SHARED_POOL =
+            new RtfDirectBufferPool(DEFAULT_SEGMENT_SIZE, DEFAULT_MAX_POOLED_BYTES);
+
+    /** The size of every segment in this pool. */
+    private final int segmentSize;
+
+    /** The maximum number of bytes kept in free segments. */
+    private final long maxPooledBytes;
+
+    /** The free segments. */
+    private final ArrayDeque<ByteBuffer> freeSegments = new ArrayDeque<>();
+
+    /** The number of bytes in segments that are currently handed out. */
+    private long usedBytes = 0;
+
+    /**
+     * Constructs a RtfDirectBufferPool.
+     *
+     * @param segmentSize The size of the segments in bytes.
+     * @param maxPooledBytes The maximum number of bytes to keep in free segments.
+     */
+    public RtfDirectBufferPool(int segmentSize, long maxPooledBytes) {
+        if (segmentSize < 1) {
+            throw new IllegalArgumentException("The segment size must be positive: " + segmentSize);
+        }
+        this.segmentSize = segmentSize;
+        this.maxPooledBytes = maxPooledBytes;
+    }
+
+    /**
+     * Gets the pool shared by all documents that use the off-heap cache.
+     *
+     * @return The shared RtfDirectBufferPool
+     */
+    public static RtfDirectBufferPool getSharedPool() {
+        return SHARED_POOL;
+    }
+
+    /**
+     * Takes a cleared segment from the pool. If no free segment is available, a new one is
+     * allocated.
+     *
+     * @return A direct <code>ByteBuffer</code> of the segment size.
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer segment;
+        synchronized (this) {
+            this.usedBytes += this.segmentSize;
+            segment = this.freeSegments.poll();
+        }
+        if (segment == null) {
+            segment = ByteBuffer.allocateDirect(this.segmentSize);
+        }
+        return segment;
+    }
+
+    /**
+     * Returns a segment to the pool. If the pool already holds the maximum number of free bytes,
+     * the segment is left to the garbage collector.
+     *
+     * @param segment The segment to return. It must have been acquired from this pool.
+     */
+    public synchronized void release(ByteBuffer segment) {
+        this.usedBytes -= this.segmentSize;
+        if ((long) (this.freeSegments.size() + 1) * this.segmentSize <= this.maxPooledBytes) {
+            segment.clear();
+            this.freeSegments.push(segment);
+        }
+    }
+
+    /**
+     * Gets the size of the segments handed out by this pool.
+     *
+     * @return The segment size in bytes.
+     */
+    public int getSegmentSize() {
+        return this.segmentSize;
+    }
+
+    /**
+     * Gets the number of bytes in segments that are currently handed out.
+     *
+     * @return The number of used bytes.
+     */
+    public synchronized long getUsedBytes() {
+        return this.usedBytes;
+    }
+
+    /**
+     * Gets the number of bytes in free segments kept for reuse.
+     *
+     * @return The number of pooled bytes.
+     */
+    public synchronized long getPooledBytes() {
+        return (long) this.freeSegments.size() * this.segmentSize;
+    }
+
+    /** Drops all free segments. */
+    public synchronized void clear() {
+        this.freeSegments.clear();
+    }
+}
@@ -78,7 +78,19 @@ public class RtfDiskCache implements RtfDataCache {
      * @throws IOException If the temporary file could not be created.
      */
     public RtfDiskCache() throws IOException {
-        this.tempFile = File.createTempFile("iText", null);
+        this(null);
+    }
+
+    /**
+     * Constructs a RtfFileCache. Creates the temp file in the given directory.
+     *
+     * @param directory The directory to create the temp file in. If <code>null</code> the default
+     *     temporary directory is used.
+     * @throws IOException If the temporary file could not be created.
+     * @since 3.0.1
+     */
+    public RtfDiskCache(File directory) throws IOException {
+        this.tempFile = File.createTempFile("iText", null, directory);
         this.data = new BufferedOutputStream(new FileOutputStream(tempFile));
     }
 
@@ -89,14 +101,20 @@ public class RtfDiskCache implements RtfDataCache {
 
     /** Writes the content of the temporary file into the OutputStream. */
     public void writeTo(OutputStream target) throws IOException {
-        this.data.close();
-        BufferedInputStream tempIn = new BufferedInputStream(new FileInputStream(this.tempFile));
-        byte[] buffer = new byte[8192];
-        int bytesRead;
-        while ((bytesRead = tempIn.read(buffer)) >= 0) {
-            target.write(buffer, 0, bytesRead);
+        try {
+            this.data.close();
+            BufferedInputStream tempIn = new BufferedInputStream(new FileInputStream(this.tempFile));
+            try {
+                byte[] buffer = new byte[8192];
+                int bytesRead;
+                while ((bytesRead = tempIn.read(buffer)) >= 0) {
+                    target.write(buffer, 0, bytesRead);
+                }
+            } finally {
+                tempIn.close();
+            }
+        } finally {
+            this.tempFile.delete();
         }
-        tempIn.close();
-        this.tempFile.delete();
     }
 }
@@ -49,6 +49,7 @@ package org.openrtf.text.rtf.document.output;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 /**
  * The RtfEfficientMemoryCache is an RtfDataCache that keeps the whole rtf document data in memory.
@@ -57,7 +58,7 @@ import java.io.OutputStream;
  * @version $Id: RtfEfficientMemoryCache.java 3255 2008-04-14 18:33:30Z xlv $
  * @author Thomas Bickel (tmb99@inode.at)
  */
-public class RtfEfficientMemoryCache implements RtfDataCache {
+public class RtfEfficientMemoryCache implements RtfByteBufferCache {
     /** The buffer for the rtf document data. */
     private final RtfByteArrayBuffer bab;
 
@@ -66,6 +67,17 @@ public class RtfEfficientMemoryCache implements RtfDataCache {
         bab = new RtfByteArrayBuffer();
     }
 
+    /**
+     * Constructs a RtfEfficientMemoryCache that takes its chunks from the given pool. The chunks
+     * must be returned with {@link #release()}.
+     *
+     * @param pool The RtfBufferPool to take chunks from.
+     * @since 3.0.1
+     */
+    public RtfEfficientMemoryCache(RtfBufferPool pool) {
+        bab = new RtfByteArrayBuffer(pool);
+    }
+
     /** Gets the OutputStream. */
     public OutputStream getOutputStream() {
         return bab;
@@ -75,4 +87,29 @@ public class RtfEfficientMemoryCache implements RtfDataCache {
     public void writeTo(OutputStream target) throws IOException {
         bab.writeTo(target);
     }
+
+    /**
+     * Gets views of the buffer content without copying it.
+     *
+     * @since 3.0.1
+     */
+    public ByteBuffer[] getByteBuffers() {
+        return bab.toByteBuffers();
+    }
+
+    /**
+     * Does nothing, the buffer is released by {@link #release()}.
+     *
+     * @since 3.0.1
+     */
+    public void close() {}
+
+    /**
+     * Returns the chunks taken from the pool. The cache must not be used afterwards.
+     *
+     * @since 3.0.1
+     */
+    public void release() {
+        bab.release();
+    }
 }
@@ -0,0 +1,244 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+
+package org.openrtf.text.rtf.document.output;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The RtfFileChannelCache is a RtfDataCache that stores the rtf document data in a temporary file
+ * that is accessed through a <code>FileChannel</code>. When the data is written to a
+ * <code>FileOutputStream</code> or a <code>WritableByteChannel</code>, it is transferred with
+ * <code>FileChannel.transferTo</code>, so that the operating system can copy the data without
+ * passing it through the Java heap. The temporary file is deleted when the data has been written,
+ * when writing fails and when the cache is closed.
+ *
+ * @since 3.0.1
+ */
+public class RtfFileChannelCache implements RtfByteBufferCache {
+
+    /** The size of the write buffer. */
+    private static final int BUFFER_SIZE = 65536;
+
+    /** The maximum size of a single memory mapped view of the temporary file, 1 GB. */
+    private static final long MAX_MAPPED_SIZE = 1L << 30;
+
+    /** The temporary file to store the data in. */
+    private final Path tempFile;
+
+    /** The channel to the temporary file. */
+    private final FileChannel channel;
+
+    /** The OutputStream that writes to the channel. */
+    private final ChannelOutputStream data;
+
+    /**
+     * Constructs a RtfFileChannelCache that creates its temporary file in the default temporary
+     * directory.
+     *
+     * @throws IOException If the temporary file could not be created.
+     */
+    public RtfFileChannelCache() throws IOException {
+        this(null);
+    }
+
+    /**
+     * Constructs a RtfFileChannelCache that creates its temporary file in the given directory.
+     *
+     * @param directory The directory to create the temporary file in. If <code>null</code> the
+     *     default temporary directory is used.
+     * @throws IOException If the temporary file could not be created.
+     */
+    public RtfFileChannelCache(File directory) throws IOException {
+        if (directory == null) {
+            this.tempFile = Files.createTempFile("openrtf", ".tmp");
+        } else {
+            this.tempFile = Files.createTempFile(directory.toPath(), "openrtf", ".tmp");
+        }
+        FileChannel fileChannel = null;
+        try {
+            fileChannel = FileChannel.open(
+                    this.tempFile,
+                    StandardOpenOption.READ,
+                    StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE);
+        } finally {
+            if (fileChannel == null) {
+                Files.deleteIfExists(this.tempFile);
+            }
+        }
+        this.channel = fileChannel;
+        this.data = new ChannelOutputStream(this.channel);
+    }
+
+    /** Gets the OutputStream to write to. */
+    public OutputStream getOutputStream() {
+        return this.data;
+    }
+
+    /**
+     * Writes the content of the temporary file into the OutputStream and deletes the temporary
+     * file. If the OutputStream is a <code>FileOutputStream</code> the data is transferred directly
+     * between the two file channels.
+     */
+    public void writeTo(OutputStream target) throws IOException {
+        if (target instanceof FileOutputStream) {
+            writeTo(((FileOutputStream) target).getChannel());
+        } else {
+            writeTo(Channels.newChannel(target));
+        }
+    }
+
+    /**
+     * Writes the content of the temporary file into the WritableByteChannel using
+     * <code>FileChannel.transferTo</code> and deletes the temporary file.
+     *
+     * @param target The WritableByteChannel to write the content into.
+     * @throws IOException If an error occurs reading/writing.
+     */
+    public void writeTo(WritableByteChannel target) throws IOException {
+        try {
+            this.data.flush();
+            long size = this.channel.size();
+            long position = 0;
+            while (position < size) {
+                position += this.channel.transferTo(position, size - position, target);
+            }
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * Gets read-only memory mapped views of the temporary file. They are valid until the cache is
+     * written out or closed.
+     *
+     * @since 3.0.1
+     */
+    public ByteBuffer[] getByteBuffers() throws IOException {
+        this.data.flush();
+        long size = this.channel.size();
+        int count = (int) ((size + MAX_MAPPED_SIZE - 1) / MAX_MAPPED_SIZE);
+        ByteBuffer[] buffers = new ByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            long position = (long) i * MAX_MAPPED_SIZE;
+            buffers[i] = this.channel.map(
+                    FileChannel.MapMode.READ_ONLY, position, Math.min(MAX_MAPPED_SIZE, size - position));
+        }
+        return buffers;
+    }
+
+    /**
+     * Gets the number of bytes written to the cache so far.
+     *
+     * @return The number of bytes in the cache.
+     * @throws IOException If the size of the temporary file cannot be determined.
+     */
+    public long getSize() throws IOException {
+        return this.channel.size() + this.data.buffer.position();
+    }
+
+    /**
+     * Closes the cache and deletes the temporary file without writing its content. This can be
+     * used to clean up if the document cannot be completed.
+     *
+     * @throws IOException If the temporary file cannot be deleted.
+     */
+    public void close() throws IOException {
+        try {
+            this.channel.close();
+        } finally {
+            Files.deleteIfExists(this.tempFile);
+        }
+    }
+
+    /** An OutputStream that collects the written data in a direct buffer and writes it to a FileChannel. */
+    private static final class ChannelOutputStream extends OutputStream {
+
+        /** The channel to write to. */
+        private final FileChannel channel;
+
+        /** The buffer collecting the data before it is written to the channel. */
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        ChannelOutputStream(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        public void write(int b) throws IOException {
+            if (!this.buffer.hasRemaining()) {
+                flush();
+            }
+            this.buffer.put((byte) b);
+        }
+
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len > this.buffer.remaining()) {
+                flush();
+                if (len > this.buffer.capacity()) {
+                    writeFully(ByteBuffer.wrap(b, off, len));
+                    return;
+                }
+            }
+            this.buffer.put(b, off, len);
+        }
+
+        public void flush() throws IOException {
+            this.buffer.flip();
+            writeFully(this.buffer);
+            this.buffer.clear();
+        }
+
+        private void writeFully(ByteBuffer source) throws IOException {
+            while (source.hasRemaining()) {
+                this.channel.write(source);
+            }
+        }
+    }
+}
@@ -52,6 +52,7 @@ package org.openrtf.text.rtf.document.output;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 /**
  * The RtfMemoryCache is an RtfDataCache that keeps the whole rtf document data in memory. Fast but
@@ -61,14 +62,14 @@ import java.io.OutputStream;
  * @author Mark Hall (Mark.Hall@mail.room3b.eu)
  * @author Thomas Bickel (tmb99@inode.at)
  */
-public class RtfMemoryCache implements RtfDataCache {
+public class RtfMemoryCache implements RtfByteBufferCache {
 
     /** The buffer for the rtf document data. */
-    private final ByteArrayOutputStream data;
+    private final ExposedByteArrayOutputStream data;
 
     /** Constructs a RtfMemoryCache. */
     public RtfMemoryCache() {
-        this.data = new ByteArrayOutputStream();
+        this.data = new ExposedByteArrayOutputStream();
     }
 
     /** Gets the ByteArrayOutputStream. */
@@ -80,4 +81,28 @@ public class RtfMemoryCache implements RtfDataCache {
     public void writeTo(OutputStream target) throws IOException {
         this.data.writeTo(target);
     }
+
+    /**
+     * Gets a view of the ByteArrayOutputStream content without copying it.
+     *
+     * @since 3.0.1
+     */
+    public ByteBuffer[] getByteBuffers() {
+        return new ByteBuffer[] {this.data.toByteBuffer()};
+    }
+
+    /**
+     * Does nothing, the memory is freed by the garbage collector.
+     *
+     * @since 3.0.1
+     */
+    public void close() {}
+
+    /** A ByteArrayOutputStream that gives access to its content without copying it. */
+    private static final class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
+
+        ByteBuffer toByteBuffer() {
+            return ByteBuffer.wrap(this.buf, 0, this.count).asReadOnlyBuffer();
+        }
+    }
 }
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+
+package org.openrtf.text.rtf.document.output;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The RtfOffHeapCache is an RtfDataCache that keeps the rtf document data outside of the Java heap
+ * in direct <code>ByteBuffer</code> segments taken from a {@link RtfDirectBufferPool}. Large
+ * documents therefore do not fill the old generation. The data is written with gathering channel
+ * writes and the segments are returned to the pool once the data has been written.
+ *
+ * @since 3.0.1
+ */
+public class RtfOffHeapCache implements RtfByteBufferCache {
+
+    /** The pool the segments are taken from. */
+    private final RtfDirectBufferPool pool;
+
+    /** The filled segments and the current segment. */
+    private final List<ByteBuffer> segments = new ArrayList<>();
+
+    /** The OutputStream that writes into the segments. */
+    private final OutputStream data = new SegmentOutputStream();
+
+    /** The segment that is currently written to. */
+    private ByteBuffer current = null;
+
+    /** Constructs a RtfOffHeapCache using the shared RtfDirectBufferPool. */
+    public RtfOffHeapCache() {
+        this(RtfDirectBufferPool.getSharedPool());
+    }
+
+    /**
+     * Constructs a RtfOffHeapCache using the given RtfDirectBufferPool.
+     *
+     * @param pool The RtfDirectBufferPool to take the segments from.
+     */
+    public RtfOffHeapCache(RtfDirectBufferPool pool) {
+        this.pool = pool;
+    }
+
+    /** Gets the OutputStream that writes into the direct buffers. */
+    public OutputStream getOutputStream() {
+        return this.data;
+    }
+
+    /**
+     * Writes the content of the cache into the OutputStream and returns the segments to the pool.
+     * If the OutputStream is a <code>FileOutputStream</code> its channel is written to directly.
+     */
+    public void writeTo(OutputStream target) throws IOException {
+        if (target instanceof FileOutputStream) {
+            writeTo(((FileOutputStream) target).getChannel());
+        } else {
+            writeTo(Channels.newChannel(target));
+        }
+    }
+
+    /**
+     * Writes the content of the cache into the WritableByteChannel and returns the segments to the
+     * pool. If the channel is a <code>GatheringByteChannel</code> all segments are written with
+     * gathering writes.
+     *
+     * @param target The WritableByteChannel to write the content into.
+     * @throws IOException If an error occurs writing.
+     */
+    public void writeTo(WritableByteChannel target) throws IOException {
+        try {
+            RtfChannelOutput.writeFully(target, getByteBuffers());
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * Gets read-only views of the filled parts of the segments. They are valid until the cache is
+     * written out or closed.
+     */
+    public ByteBuffer[] getByteBuffers() {
+        ByteBuffer[] buffers = new ByteBuffer[this.segments.size()];
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = this.segments.get(i).asReadOnlyBuffer();
+            buffers[i].flip();
+        }
+        return buffers;
+    }
+
+    /**
+     * Gets the number of bytes in the cache.
+     *
+     * @return The number of bytes in the cache.
+     */
+    public long getSize() {
+        long size = 0;
+        for (ByteBuffer segment : this.segments) {
+            size += segment.position();
+        }
+        return size;
+    }
+
+    /** Returns all segments to the pool without writing them. The cache is empty afterwards. */
+    public void close() {
+        for (ByteBuffer segment : this.segments) {
+            this.pool.release(segment);
+        }
+        this.segments.clear();
+        this.current = null;
+    }
+
+    /** Makes sure the current segment has space left, taking a new segment if necessary. */
+    private void ensureSpace() {
+        if (this.current == null || !this.current.hasRemaining()) {
+            this.current = this.pool.acquire();
+            this.segments.add(this.current);
+        }
+    }
+
+    /** The OutputStream that writes into the segments. */
+    private final class SegmentOutputStream extends OutputStream {
+
+        public void write(int b) {
+            ensureSpace();
+            current.put((byte) b);
+        }
+
+        public void write(byte[] b, int off, int len) {
+            if ((off < 0) || (len < 0) || (off + len > b.length) || (off + len < 0)) {
+                throw new IndexOutOfBoundsException();
+            }
+            while (len > 0) {
+                ensureSpace();
+                int count = Math.min(len, current.remaining());
+                current.put(b, off, count);
+                off += count;
+                len -= count;
+            }
+        }
+    }
+}
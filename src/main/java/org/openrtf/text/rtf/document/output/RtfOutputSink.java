@@ -0,0 +1,296 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+
+package org.openrtf.text.rtf.document.output;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * The RtfOutputSink is the OutputStream the rtf elements write to. In addition to the normal
+ * OutputStream methods it can write control words with a numeric parameter and plain integers
+ * without creating a String and a <code>byte[]</code> for every number, as
+ * <code>RtfElement.intToByteArray</code> does.
+ *
+ * <p>A buffered RtfOutputSink collects all data in an internal buffer and passes it on to the
+ * target stream in large blocks. It must be flushed before the data in the target stream is used.
+ * {@link #of(OutputStream)} creates an unbuffered adapter that passes every write on immediately,
+ * so that elements can use the RtfOutputSink methods with any OutputStream they are given.
+ *
+ * @since 3.0.1
+ */
+public class RtfOutputSink extends OutputStream {
+
+    /** The default size of the internal buffer. */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    /** The digits of Integer.MIN_VALUE, which cannot be negated. */
+    private static final byte[] MIN_VALUE_DIGITS = {'-', '2', '1', '4', '7', '4', '8', '3', '6', '4', '8'};
+
+    /** The maximum number of bytes an int can take. */
+    private static final int MAX_INT_LENGTH = 11;
+
+    /** The stream the data is passed on to. */
+    private final OutputStream target;
+
+    /** Whether every write is passed on to the target immediately. */
+    private final boolean direct;
+
+    /** The internal buffer. */
+    private final byte[] buffer;
+
+    /** The number of bytes in the internal buffer. */
+    private int count = 0;
+
+    /**
+     * Constructs a buffered RtfOutputSink with the default buffer size.
+     *
+     * @param target The OutputStream to pass the data on to.
+     */
+    public RtfOutputSink(OutputStream target) {
+        this(target, DEFAULT_BUFFER_SIZE, false);
+    }
+
+    /**
+     * Constructs a RtfOutputSink.
+     *
+     * @param target The OutputStream to pass the data on to.
+     * @param bufferSize The size of the internal buffer.
+     * @param direct Whether every write is passed on to the target immediately.
+     */
+    private RtfOutputSink(OutputStream target, int bufferSize, boolean direct) {
+        if (target == null) {
+            throw new NullPointerException();
+        }
+        this.target = target;
+        this.buffer = new byte[bufferSize];
+        this.direct = direct;
+    }
+
+    /**
+     * Gets a RtfOutputSink for the given OutputStream. If the stream is a RtfOutputSink it is
+     * returned, otherwise an unbuffered adapter for it is created.
+     *
+     * @param out The OutputStream to write to.
+     * @return A RtfOutputSink writing to the OutputStream.
+     */
+    public static RtfOutputSink of(OutputStream out) {
+        if (out instanceof RtfOutputSink) {
+            return (RtfOutputSink) out;
+        }
+        return new RtfOutputSink(out, MAX_INT_LENGTH + 32, true);
+    }
+
+    /**
+     * Writes a single byte.
+     *
+     * @param b The byte to write.
+     * @throws IOException On i/o errors.
+     */
+    public void writeByte(int b) throws IOException {
+        if (this.count == this.buffer.length) {
+            flushBuffer();
+        }
+        this.buffer[this.count++] = (byte) b;
+        if (this.direct) {
+            flushBuffer();
+        }
+    }
+
+    /** Writes a single byte. */
+    public void write(int b) throws IOException {
+        writeByte(b);
+    }
+
+    /** Writes len bytes of the array, starting at off. */
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (len > this.buffer.length - this.count) {
+            flushBuffer();
+            if (len >= this.buffer.length) {
+                this.target.write(b, off, len);
+                return;
+            }
+        }
+        System.arraycopy(b, off, this.buffer, this.count, len);
+        this.count += len;
+        if (this.direct) {
+            flushBuffer();
+        }
+    }
+
+    /**
+     * Writes the decimal representation of an int.
+     *
+     * @param i The int to write.
+     * @throws IOException On i/o errors.
+     */
+    public void writeInt(int i) throws IOException {
+        if (this.buffer.length - this.count < MAX_INT_LENGTH) {
+            flushBuffer();
+        }
+        this.count = formatInt(i, this.buffer, this.count);
+        if (this.direct) {
+            flushBuffer();
+        }
+    }
+
+    /**
+     * Writes a control word followed by its numeric parameter, for example <code>\fs24</code>.
+     *
+     * @param word The control word including the leading backslash.
+     * @param param The parameter of the control word.
+     * @throws IOException On i/o errors.
+     */
+    public void writeControlWord(byte[] word, int param) throws IOException {
+        if (this.buffer.length - this.count < word.length + MAX_INT_LENGTH) {
+            flushBuffer();
+            if (word.length + MAX_INT_LENGTH > this.buffer.length) {
+                this.target.write(word);
+                writeInt(param);
+                return;
+            }
+        }
+        System.arraycopy(word, 0, this.buffer, this.count, word.length);
+        this.count = formatInt(param, this.buffer, this.count + word.length);
+        if (this.direct) {
+            flushBuffer();
+        }
+    }
+
+    /**
+     * Writes a String that only contains characters below 256, one byte per character.
+     *
+     * @param s The String to write.
+     * @throws IOException On i/o errors.
+     */
+    public void writeAscii(String s) throws IOException {
+        writeAscii(s, 0, s.length());
+    }
+
+    /**
+     * Writes a part of a String that only contains characters below 256, one byte per character.
+     * The characters are copied into the buffer in bulk.
+     *
+     * @param s The String to write.
+     * @param off The index of the first character to write.
+     * @param length The number of characters to write.
+     * @throws IOException On i/o errors.
+     */
+    @SuppressWarnings("deprecation")
+    public void writeAscii(String s, int off, int length) throws IOException {
+        int end = off + length;
+        while (off < end) {
+            if (this.count == this.buffer.length) {
+                flushBuffer();
+            }
+            int n = Math.min(end - off, this.buffer.length - this.count);
+            // String.getBytes(int, int, byte[], int) copies the low byte of every character
+            s.getBytes(off, off + n, this.buffer, this.count);
+            this.count += n;
+            off += n;
+        }
+        if (this.direct) {
+            flushBuffer();
+        }
+    }
+
+    /**
+     * Passes the data in the internal buffer on to the target stream, without flushing the target
+     * stream.
+     *
+     * @throws IOException On i/o errors.
+     */
+    public void flushBuffer() throws IOException {
+        if (this.count > 0) {
+            this.target.write(this.buffer, 0, this.count);
+            this.count = 0;
+        }
+    }
+
+    /** Passes the buffered data on to the target stream and flushes it. */
+    public void flush() throws IOException {
+        flushBuffer();
+        this.target.flush();
+    }
+
+    /**
+     * Gets the target stream after passing the buffered data on to it. This allows large data to be
+     * handed to the target stream directly.
+     *
+     * @return The target OutputStream.
+     * @throws IOException On i/o errors.
+     */
+    public OutputStream getTarget() throws IOException {
+        flushBuffer();
+        return this.target;
+    }
+
+    /**
+     * Formats the int into the array.
+     *
+     * @param i The int to format.
+     * @param buf The array to format into. There must be room for 11 bytes.
+     * @param pos The position to start at.
+     * @return The position after the last digit.
+     */
+    static int formatInt(int i, byte[] buf, int pos) {
+        if (i == Integer.MIN_VALUE) {
+            System.arraycopy(MIN_VALUE_DIGITS, 0, buf, pos, MIN_VALUE_DIGITS.length);
+            return pos + MIN_VALUE_DIGITS.length;
+        }
+        if (i < 0) {
+            buf[pos++] = '-';
+            i = -i;
+        }
+        if (i < 10) {
+            buf[pos] = (byte) ('0' + i);
+            return pos + 1;
+        }
+        int digits = 2;
+        for (int limit = 100; digits < 10 && i >= limit; limit *= 10) {
+            digits++;
+        }
+        int end = pos + digits;
+        for (int k = end - 1; k >= pos; k--) {
+            buf[k] = (byte) ('0' + i % 10);
+            i /= 10;
+        }
+        return end;
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+
+package org.openrtf.text.rtf.document.output;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The RtfSpillingCache is an RtfDataCache that keeps the rtf document data in memory until it
+ * grows beyond a threshold and then moves it to a temporary file. Small documents therefore never
+ * touch the disk, while large documents do not exhaust the heap. The data in the temporary file
+ * can optionally be compressed, which reduces the disk i/o for the highly repetitive rtf data.
+ *
+ * @since 3.0.1
+ */
+public class RtfSpillingCache implements RtfDataCache {
+
+    /** The default threshold at which the data is moved to disk, 8 MB. */
+    public static final long DEFAULT_SPILL_THRESHOLD = 8L * 1024 * 1024;
+
+    /** The size of the buffers used for the temporary file. */
+    private static final int BUFFER_SIZE = 65536;
+
+    /** The number of bytes to keep in memory before spilling to disk. */
+    private final long threshold;
+
+    /** Whether the temporary file is compressed. */
+    private final boolean compressed;
+
+    /** The directory to create the temporary file in. May be null. */
+    private final File directory;
+
+    /** The OutputStream that the RtfDocument writes to. */
+    private final OutputStream data = new SpillingOutputStream();
+
+    /** The in-memory buffer. Null once the data has been moved to disk. */
+    private RtfByteArrayBuffer memory = new RtfByteArrayBuffer();
+
+    /** The temporary file. Null while the data is held in memory. */
+    private File tempFile = null;
+
+    /** The stream writing to the temporary file. */
+    private OutputStream fileOut = null;
+
+    /** The Deflater used for the compressed temporary file. */
+    private Deflater deflater = null;
+
+    /** Constructs a RtfSpillingCache with the default threshold and no compression. */
+    public RtfSpillingCache() {
+        this(DEFAULT_SPILL_THRESHOLD, false, null);
+    }
+
+    /**
+     * Constructs a RtfSpillingCache.
+     *
+     * @param threshold The number of bytes to keep in memory before moving the data to disk.
+     * @param compressed Whether to compress the data in the temporary file.
+     * @param directory The directory to create the temporary file in. If <code>null</code> the
+     *     default temporary directory is used.
+     */
+    public RtfSpillingCache(long threshold, boolean compressed, File directory) {
+        this.threshold = threshold;
+        this.compressed = compressed;
+        this.directory = directory;
+    }
+
+    /** Gets the OutputStream to write to. */
+    public OutputStream getOutputStream() {
+        return this.data;
+    }
+
+    /**
+     * Gets whether the data has been moved to the temporary file.
+     *
+     * @return <code>true</code> if the data is stored on disk.
+     */
+    public boolean isSpilled() {
+        return this.tempFile != null;
+    }
+
+    /**
+     * Writes the content of the cache into the OutputStream. If the data has been moved to disk,
+     * the temporary file is deleted afterwards.
+     */
+    public void writeTo(OutputStream target) throws IOException {
+        if (this.memory != null) {
+            this.memory.writeTo(target);
+            return;
+        }
+        try {
+            this.fileOut.close();
+            InputStream in = new BufferedInputStream(new FileInputStream(this.tempFile), BUFFER_SIZE);
+            Inflater inflater = null;
+            if (this.compressed) {
+                inflater = new Inflater();
+                in = new InflaterInputStream(in, inflater, BUFFER_SIZE);
+            }
+            try {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int bytesRead;
+                while ((bytesRead = in.read(buffer)) >= 0) {
+                    target.write(buffer, 0, bytesRead);
+                }
+            } finally {
+                in.close();
+                if (inflater != null) {
+                    inflater.end();
+                }
+            }
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * Closes the cache and deletes the temporary file if there is one, without writing the data.
+     *
+     * @throws IOException If the temporary file cannot be closed.
+     */
+    public void close() throws IOException {
+        try {
+            if (this.fileOut != null) {
+                this.fileOut.close();
+            }
+        } finally {
+            if (this.deflater != null) {
+                this.deflater.end();
+                this.deflater = null;
+            }
+            if (this.tempFile != null) {
+                this.tempFile.delete();
+            }
+        }
+    }
+
+    /**
+     * Moves the data held in memory to a new temporary file.
+     *
+     * @throws IOException If the temporary file cannot be created or written.
+     */
+    private void spill() throws IOException {
+        this.tempFile = File.createTempFile("openrtf", ".tmp", this.directory);
+        try {
+            OutputStream out = new FileOutputStream(this.tempFile);
+            if (this.compressed) {
+                this.deflater = new Deflater(Deflater.BEST_SPEED);
+                out = new DeflaterOutputStream(out, this.deflater, BUFFER_SIZE);
+            }
+            this.fileOut = new BufferedOutputStream(out, BUFFER_SIZE);
+            this.memory.writeTo(this.fileOut);
+            this.memory = null;
+        } catch (IOException ioe) {
+            close();
+            this.tempFile = null;
+            this.fileOut = null;
+            throw ioe;
+        }
+    }
+
+    /** The OutputStream that writes to memory and spills to disk once the threshold is crossed. */
+    private final class SpillingOutputStream extends OutputStream {
+
+        public void write(int b) throws IOException {
+            if (memory != null) {
+                memory.write(b);
+                if (memory.size() > threshold) {
+                    spill();
+                }
+            } else {
+                fileOut.write(b);
+            }
+        }
+
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (memory != null) {
+                memory.write(b, off, len);
+                if (memory.size() > threshold) {
+                    spill();
+                }
+            } else {
+                fileOut.write(b, off, len);
+            }
+        }
+    }
+}
@@ -52,7 +52,14 @@ package org.openrtf.text.rtf.graphic;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.FutureTask;
 import org.openpdf.text.DocWriter;
 import org.openpdf.text.DocumentException;
 import org.openpdf.text.Element;
@@ -61,7 +68,9 @@ import org.openpdf.text.error_messages.MessageLocalization;
 import org.openpdf.text.pdf.codec.wmf.MetaDo;
 import org.openrtf.text.rtf.RtfElement;
 import org.openrtf.text.rtf.document.RtfDocument;
+import org.openrtf.text.rtf.document.output.RtfBufferPool;
 import org.openrtf.text.rtf.document.output.RtfByteArrayBuffer;
+import org.openrtf.text.rtf.document.output.RtfOutputSink;
 import org.openrtf.text.rtf.style.RtfParagraphStyle;
 import org.openrtf.text.rtf.text.RtfParagraph;
 
@@ -114,12 +123,30 @@ public class RtfImage extends RtfElement {
     /** Constant for converting pixels to twips */
     private static final int PIXEL_TWIPS_FACTOR = 15;
 
+    /** The size of the placeable header of WMF images, which is not written. */
+    private static final int WMF_PLACEABLE_HEADER_SIZE = 22;
+
+    /** The number of image bytes per line of hex encoded image data. */
+    private static final int HEX_LINE_LENGTH = 64;
+
+    /** The number of image bytes hex encoded into one block. A multiple of HEX_LINE_LENGTH. */
+    private static final int HEX_BLOCK_SIZE = HEX_LINE_LENGTH * 128;
+
+    /** The number of image bytes hex encoded by one parallel task. A multiple of HEX_LINE_LENGTH. */
+    private static final int PARALLEL_HEX_BLOCK_SIZE = HEX_LINE_LENGTH * 4096;
+
+    /** Images larger than this number of bytes are hex encoded in parallel. */
+    private static final int PARALLEL_HEX_THRESHOLD = 2 * 1024 * 1024;
+
     /** The type of image this is. */
     private final int imageType;
 
-    /** Binary image data. */
+    /** Binary image data. Null if the image is loaded when it is written. */
     private final byte[][] imageData;
 
+    /** The URL the image is loaded from when it is written. Null if the image data is in memory. */
+    private final URL imageUrl;
+
     /** The alignment of this picture */
     private int alignment;
 
@@ -161,7 +188,17 @@ public class RtfImage extends RtfElement {
         height = image.getHeight();
         plainWidth = image.getPlainWidth();
         plainHeight = image.getPlainHeight();
-        this.imageData = getImageData(image);
+        if (doc != null
+                && doc.getDocumentSettings().isImageLoadedLazily()
+                && imageType != Image.ORIGINAL_BMP
+                && image.getOriginalData() == null
+                && image.getUrl() != null) {
+            this.imageUrl = image.getUrl();
+            this.imageData = null;
+        } else {
+            this.imageUrl = null;
+            this.imageData = getImageData(image);
+        }
     }
 
     /**
@@ -172,8 +209,15 @@ public class RtfImage extends RtfElement {
      * @throws DocumentException If an error occurs accessing the image content
      */
     private byte[][] getImageData(Image image) throws DocumentException {
-        final int WMF_PLACEABLE_HEADER_SIZE = 22;
-        RtfByteArrayBuffer bab = new RtfByteArrayBuffer();
+        RtfByteArrayBuffer bab;
+        RtfBufferPool pool =
+                this.document != null ? this.document.getDocumentSettings().getBufferPool() : null;
+        if (pool != null) {
+            bab = new RtfByteArrayBuffer(pool);
+            this.document.registerPooledBuffer(bab);
+        } else {
+            bab = new RtfByteArrayBuffer();
+        }
 
         try {
             if (imageType == Image.ORIGINAL_BMP) {
@@ -182,14 +226,7 @@ public class RtfImage extends RtfElement {
                 byte[] iod = image.getOriginalData();
                 if (iod == null) {
 
-                    InputStream imageIn = image.getUrl().openStream();
-                    if (imageType == Image.ORIGINAL_WMF) { // remove the placeable header first
-                        for (int k = 0; k < WMF_PLACEABLE_HEADER_SIZE; k++) {
-                            if (imageIn.read() < 0)
-                                throw new EOFException(
-                                        MessageLocalization.getComposedMessage("while.removing.wmf.placeable.header"));
-                        }
-                    }
+                    InputStream imageIn = openImageStream(image.getUrl());
                     bab.write(imageIn);
                     imageIn.close();
 
@@ -228,31 +265,232 @@ public class RtfImage extends RtfElement {
     }
 
     /**
-     * Writes the image data to the given buffer as hex encoded text.
+     * Opens the image at the given URL. The placeable header of WMF images is skipped.
+     *
+     * @param url The URL of the image
+     * @return The InputStream to read the image data from
+     * @throws IOException If the image cannot be read
+     */
+    private InputStream openImageStream(URL url) throws IOException {
+        InputStream imageIn = url.openStream();
+        if (imageType == Image.ORIGINAL_WMF) { // remove the placeable header first
+            for (int k = 0; k < WMF_PLACEABLE_HEADER_SIZE; k++) {
+                if (imageIn.read() < 0) {
+                    imageIn.close();
+                    throw new EOFException(
+                            MessageLocalization.getComposedMessage("while.removing.wmf.placeable.header"));
+                }
+            }
+        }
+        return imageIn;
+    }
+
+    /**
+     * Gets the data of an image that is loaded when it is written from the image data cache of the
+     * document. If the image is not cached, it is loaded and cached if the data is required or if
+     * an image with the same URL has been written before. Otherwise <code>null</code> is returned
+     * and the image is to be streamed from its URL.
+     *
+     * @param required Whether the data is required
+     * @return The image data or <code>null</code>
+     * @throws IOException If the image cannot be read
+     */
+    private byte[][] getLazyImageData(boolean required) throws IOException {
+        RtfImageDataCache cache = this.document.getImageDataCache();
+        String key = this.imageUrl.toExternalForm();
+        byte[][] data = cache.get(key);
+        if (data == null && (cache.markWritten(key) || required)) {
+            RtfByteArrayBuffer bab = new RtfByteArrayBuffer();
+            InputStream imageIn = openImageStream(this.imageUrl);
+            try {
+                bab.write(imageIn);
+            } finally {
+                imageIn.close();
+            }
+            data = bab.toByteArrayArray();
+            cache.put(key, data);
+        }
+        return data;
+    }
+
+    /**
+     * Writes the image data to the given buffer as hex encoded text. The data is encoded in blocks
+     * of whole lines that are written at once. Large images are encoded in parallel on the common
+     * ForkJoinPool and the blocks are written in order.
      *
      * @param bab
+     * @param imageData The image data chunks
      * @throws IOException
      */
-    private void writeImageDataHexEncoded(OutputStream bab) throws IOException {
+    private static void writeImageDataHexEncoded(OutputStream bab, byte[][] imageData) throws IOException {
+        int size = imageDataSize(imageData);
+        if (size > PARALLEL_HEX_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1) {
+            writeHexEncodedParallel(bab, imageData, size);
+        } else {
+            writeHexEncoded(bab, imageData, size);
+        }
+    }
+
+    /**
+     * Writes the image data read from an InputStream as hex encoded text, one block at a time,
+     * without holding more than one block in memory.
+     *
+     * @param bab The OutputStream to write to
+     * @param imageIn The InputStream to read the image data from
+     * @throws IOException On i/o errors.
+     */
+    static void writeHexEncoded(OutputStream bab, InputStream imageIn) throws IOException {
+        byte[][] data = {new byte[HEX_BLOCK_SIZE]};
+        byte[] block = new byte[hexEncodedLength(HEX_BLOCK_SIZE)];
+        int read;
+        // readNBytes fills the whole array before the end of the stream, so blocks start on a line
+        while ((read = imageIn.readNBytes(data[0], 0, HEX_BLOCK_SIZE)) > 0) {
+            bab.write(block, 0, encodeHex(data, 0, read, block));
+        }
+    }
+
+    /**
+     * Writes image data as hex encoded text, one block at a time.
+     *
+     * @param bab The OutputStream to write to
+     * @param imageData The image data chunks
+     * @param size The size of the image data
+     * @throws IOException On i/o errors.
+     */
+    static void writeHexEncoded(OutputStream bab, byte[][] imageData, int size) throws IOException {
+        byte[] block = new byte[hexEncodedLength(HEX_BLOCK_SIZE)];
+        for (int offset = 0; offset < size; offset += HEX_BLOCK_SIZE) {
+            int length = encodeHex(imageData, offset, Math.min(HEX_BLOCK_SIZE, size - offset), block);
+            bab.write(block, 0, length);
+        }
+    }
+
+    /**
+     * Writes image data as hex encoded text, encoding the blocks in parallel. At most a few blocks
+     * per processor are encoded ahead of the block that is written.
+     *
+     * @param bab The OutputStream to write to
+     * @param imageData The image data chunks
+     * @param size The size of the image data
+     * @throws IOException On i/o errors.
+     */
+    static void writeHexEncodedParallel(OutputStream bab, final byte[][] imageData, int size) throws IOException {
+        int maxPending = Math.max(2, 2 * ForkJoinPool.getCommonPoolParallelism());
+        ArrayDeque<FutureTask<byte[]>> pending = new ArrayDeque<>();
+        int offset = 0;
+        try {
+            while (offset < size || !pending.isEmpty()) {
+                while (offset < size && pending.size() < maxPending) {
+                    final int blockOffset = offset;
+                    final int blockLength = Math.min(PARALLEL_HEX_BLOCK_SIZE, size - offset);
+                    FutureTask<byte[]> task = new FutureTask<>(new Callable<byte[]>() {
+                        public byte[] call() {
+                            byte[] block = new byte[hexEncodedLength(blockLength)];
+                            encodeHex(imageData, blockOffset, blockLength, block);
+                            return block;
+                        }
+                    });
+                    ForkJoinPool.commonPool().execute(task);
+                    pending.add(task);
+                    offset += blockLength;
+                }
+                FutureTask<byte[]> task = pending.poll();
+                // runs the task here if no worker has picked it up yet
+                task.run();
+                bab.write(getEncodedBlock(task));
+            }
+        } finally {
+            for (FutureTask<byte[]> task : pending) {
+                task.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Waits for an encoding task and unwraps its exception.
+     *
+     * @param task The encoding task.
+     * @return The encoded block.
+     * @throws IOException If the thread was interrupted.
+     */
+    private static byte[] getEncodedBlock(FutureTask<byte[]> task) throws IOException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while encoding the image");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Gets the number of bytes the hex encoding of the given number of image bytes takes, including
+     * the line breaks.
+     *
+     * @param length The number of image bytes
+     * @return The length of the hex encoded data
+     */
+    private static int hexEncodedLength(int length) {
+        return length * 2 + (length + HEX_LINE_LENGTH - 1) / HEX_LINE_LENGTH;
+    }
+
+    /**
+     * Hex encodes a part of the image data into a block. A line break is written after every
+     * HEX_LINE_LENGTH image bytes and after the last byte, so the offset must be at the start of a
+     * line.
+     *
+     * @param data The image data chunks
+     * @param offset The offset of the first byte to encode within the image data
+     * @param length The number of bytes to encode
+     * @param block The array to encode into
+     * @return The number of bytes written to the block
+     */
+    private static int encodeHex(byte[][] data, int offset, int length, byte[] block) {
+        int chunk = 0;
+        while (offset >= data[chunk].length) {
+            offset -= data[chunk].length;
+            chunk++;
+        }
+        int pos = 0;
         int cnt = 0;
-        for (byte[] chunk : imageData) {
-            for (byte b : chunk) {
-                bab.write(byte2charLUT, (b & 0xff) * 2, 2);
-                if (++cnt == 64) {
-                    bab.write('\n');
+        while (length > 0) {
+            byte[] src = data[chunk];
+            int end = Math.min(src.length, offset + length);
+            length -= end - offset;
+            for (int i = offset; i < end; i++) {
+                int b = (src[i] & 0xff) * 2;
+                block[pos] = byte2charLUT[b];
+                block[pos + 1] = byte2charLUT[b + 1];
+                pos += 2;
+                if (++cnt == HEX_LINE_LENGTH) {
+                    block[pos++] = '\n';
                     cnt = 0;
                 }
             }
+            chunk++;
+            offset = 0;
+        }
+        if (cnt > 0) {
+            block[pos++] = '\n';
         }
-        if (cnt > 0) bab.write('\n');
+        return pos;
     }
 
     /**
      * Returns the image raw data size in bytes.
      *
+     * @param imageData The image data chunks
      * @return the size in bytes
      */
-    private int imageDataSize() {
+    private static int imageDataSize(byte[][] imageData) {
         int size = 0;
         for (byte[] chunk : imageData) {
             size += chunk.length;
@@ -262,94 +500,102 @@ public class RtfImage extends RtfElement {
 
     /** Writes the RtfImage content */
     public void writeContent(OutputStream result) throws IOException {
+        RtfOutputSink sink = RtfOutputSink.of(result);
 
         if (this.topLevelElement) {
-            result.write(RtfParagraph.PARAGRAPH_DEFAULTS);
+            sink.write(RtfParagraph.PARAGRAPH_DEFAULTS);
             switch (alignment) {
                 case Element.ALIGN_LEFT:
-                    result.write(RtfParagraphStyle.ALIGN_LEFT);
+                    sink.write(RtfParagraphStyle.ALIGN_LEFT);
                     break;
                 case Element.ALIGN_RIGHT:
-                    result.write(RtfParagraphStyle.ALIGN_RIGHT);
+                    sink.write(RtfParagraphStyle.ALIGN_RIGHT);
                     break;
                 case Element.ALIGN_CENTER:
-                    result.write(RtfParagraphStyle.ALIGN_CENTER);
+                    sink.write(RtfParagraphStyle.ALIGN_CENTER);
                     break;
                 case Element.ALIGN_JUSTIFIED:
-                    result.write(RtfParagraphStyle.ALIGN_JUSTIFY);
+                    sink.write(RtfParagraphStyle.ALIGN_JUSTIFY);
                     break;
             }
         }
-        result.write(OPEN_GROUP);
-        result.write(PICTURE_GROUP);
-        result.write(OPEN_GROUP);
-        result.write(PICTURE);
+        sink.write(OPEN_GROUP);
+        sink.write(PICTURE_GROUP);
+        sink.write(OPEN_GROUP);
+        sink.write(PICTURE);
         switch (imageType) {
             case Image.ORIGINAL_JPEG:
-                result.write(PICTURE_JPEG);
+                sink.write(PICTURE_JPEG);
                 break;
             case Image.ORIGINAL_PNG:
             case Image.ORIGINAL_GIF:
-                result.write(PICTURE_PNG);
+                sink.write(PICTURE_PNG);
                 break;
             case Image.ORIGINAL_WMF:
             case Image.ORIGINAL_BMP:
-                result.write(PICTURE_WMF);
+                sink.write(PICTURE_WMF);
                 break;
         }
-        result.write(PICTURE_WIDTH);
-        result.write(intToByteArray((int) width));
-        result.write(PICTURE_HEIGHT);
-        result.write(intToByteArray((int) height));
+        sink.writeControlWord(PICTURE_WIDTH, (int) width);
+        sink.writeControlWord(PICTURE_HEIGHT, (int) height);
         if (this.document.getDocumentSettings().isWriteImageScalingInformation()) {
-            result.write(PICTURE_SCALE_X);
-            result.write(intToByteArray((int) (100 * plainWidth / width)));
-            result.write(PICTURE_SCALE_Y);
-            result.write(intToByteArray((int) (100 * plainHeight / height)));
+            sink.writeControlWord(PICTURE_SCALE_X, (int) (100 * plainWidth / width));
+            sink.writeControlWord(PICTURE_SCALE_Y, (int) (100 * plainHeight / height));
         }
         if (this.document.getDocumentSettings().isImagePDFConformance()) {
-            result.write(PICTURE_SCALED_WIDTH);
-            result.write(intToByteArray((int) (plainWidth * RtfElement.TWIPS_FACTOR)));
-            result.write(PICTURE_SCALED_HEIGHT);
-            result.write(intToByteArray((int) (plainHeight * RtfElement.TWIPS_FACTOR)));
+            sink.writeControlWord(PICTURE_SCALED_WIDTH, (int) (plainWidth * RtfElement.TWIPS_FACTOR));
+            sink.writeControlWord(PICTURE_SCALED_HEIGHT, (int) (plainHeight * RtfElement.TWIPS_FACTOR));
         } else {
             if (this.width != this.plainWidth || this.imageType == Image.ORIGINAL_BMP) {
-                result.write(PICTURE_SCALED_WIDTH);
-                result.write(intToByteArray((int) (plainWidth * PIXEL_TWIPS_FACTOR)));
+                sink.writeControlWord(PICTURE_SCALED_WIDTH, (int) (plainWidth * PIXEL_TWIPS_FACTOR));
             }
             if (this.height != this.plainHeight || this.imageType == Image.ORIGINAL_BMP) {
-                result.write(PICTURE_SCALED_HEIGHT);
-                result.write(intToByteArray((int) (plainHeight * PIXEL_TWIPS_FACTOR)));
+                sink.writeControlWord(PICTURE_SCALED_HEIGHT, (int) (plainHeight * PIXEL_TWIPS_FACTOR));
             }
         }
 
-        if (this.document.getDocumentSettings().isImageWrittenAsBinary()) {
+        boolean binary = this.document.getDocumentSettings().isImageWrittenAsBinary();
+        byte[][] imageData = this.imageData;
+        if (imageData == null) {
+            // the size of binary data is written before the data, so it cannot be streamed
+            imageData = getLazyImageData(binary);
+        }
+        if (binary) {
             // binary
-            result.write('\n');
-            result.write(PICTURE_BINARY_DATA);
-            result.write(intToByteArray(imageDataSize()));
-            result.write(DELIMITER);
-            if (result instanceof RtfByteArrayBuffer) {
-                ((RtfByteArrayBuffer) result).append(imageData);
+            sink.write('\n');
+            sink.writeControlWord(PICTURE_BINARY_DATA, imageDataSize(imageData));
+            sink.write(DELIMITER);
+            OutputStream target = sink.getTarget();
+            if (target instanceof RtfByteArrayBuffer) {
+                ((RtfByteArrayBuffer) target).append(imageData);
             } else {
                 for (byte[] chunk : imageData) {
-                    result.write(chunk);
+                    sink.write(chunk);
                 }
             }
         } else {
             // hex encoded
-            result.write(DELIMITER);
-            result.write('\n');
-            writeImageDataHexEncoded(result);
+            sink.write(DELIMITER);
+            sink.write('\n');
+            if (imageData != null) {
+                writeImageDataHexEncoded(sink, imageData);
+            } else {
+                InputStream imageIn = openImageStream(this.imageUrl);
+                try {
+                    writeHexEncoded(sink, imageIn);
+                } finally {
+                    imageIn.close();
+                }
+            }
         }
 
-        result.write(CLOSE_GROUP);
-        result.write(CLOSE_GROUP);
+        sink.write(CLOSE_GROUP);
+        sink.write(CLOSE_GROUP);
         if (this.topLevelElement) {
-            result.write(RtfParagraph.PARAGRAPH);
-            result.write(RtfParagraph.PARAGRAPH);
+            sink.write(RtfParagraph.PARAGRAPH);
+            sink.write(RtfParagraph.PARAGRAPH);
         }
-        result.write('\n');
+        sink.write('\n');
     }
 
     /**
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+package org.openrtf.text.rtf.graphic;
+
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The RtfImageDataCache holds the data of images that are loaded when they are written, by the URL
+ * they are loaded from. An image is only cached once its URL is written a second time, so images
+ * that are used once are streamed without being held in memory. The cached data is softly
+ * referenced and is loaded again if the garbage collector has reclaimed it.
+ *
+ * @see org.openrtf.text.rtf.document.RtfDocumentSettings#setImageLoadedLazily(boolean)
+ * @since 3.0.1
+ */
+public class RtfImageDataCache {
+
+    /** The cached image data by URL. */
+    private final Map<String, SoftReference<byte[][]>> imageData = new HashMap<>();
+
+    /** The URLs of the images that have been written. */
+    private final Set<String> written = new HashSet<>();
+
+    /**
+     * Gets the cached data of the image with the given URL.
+     *
+     * @param url The URL of the image
+     * @return The image data or <code>null</code> if it is not cached
+     */
+    public synchronized byte[][] get(String url) {
+        SoftReference<byte[][]> data = this.imageData.get(url);
+        return data == null ? null : data.get();
+    }
+
+    /**
+     * Caches the data of the image with the given URL.
+     *
+     * @param url The URL of the image
+     * @param data The image data
+     */
+    public synchronized void put(String url, byte[][] data) {
+        this.imageData.put(url, new SoftReference<>(data));
+    }
+
+    /**
+     * Records that the image with the given URL is written.
+     *
+     * @param url The URL of the image
+     * @return <code>true</code> if the image has been written before
+     */
+    public synchronized boolean markWritten(String url) {
+        return !this.written.add(url);
+    }
+
+    /** Removes all cached image data. */
+    public synchronized void clear() {
+        this.imageData.clear();
+        this.written.clear();
+    }
+}
@@ -6,6 +6,8 @@ import java.util.HashMap;
 import java.util.Map;
 import org.openpdf.text.DocWriter;
 import org.openrtf.text.rtf.RtfAddableElement;
+import org.openrtf.text.rtf.document.RtfDocument;
+import org.openrtf.text.rtf.document.output.RtfOutputSink;
 
 /**
  * The RtfShape provides the interface for adding shapes to the RTF document. This will only work
@@ -160,6 +162,20 @@ public class RtfShape extends RtfAddableElement {
         this.position = position;
     }
 
+    /**
+     * Sets the RtfDocument this RtfShape belongs to. The unique shape number is drawn when the
+     * RtfShape is added to a RtfDocument, so that it does not depend on when the RtfShape is
+     * written.
+     *
+     * @param doc The RtfDocument this RtfShape belongs to.
+     */
+    public void setRtfDocument(RtfDocument doc) {
+        if (doc != null && doc != this.doc) {
+            this.shapeNr = doc.getRandomInt();
+        }
+        super.setRtfDocument(doc);
+    }
+
     /**
      * Sets a property.
      *
@@ -193,7 +209,7 @@ public class RtfShape extends RtfAddableElement {
      * properties and these are set first.
      */
     public void writeContent(OutputStream result) throws IOException {
-        this.shapeNr = this.doc.getRandomInt();
+        RtfOutputSink sink = RtfOutputSink.of(result);
 
         this.properties.put("ShapeType", new RtfShapeProperty("ShapeType", this.type));
         if (this.position.isShapeBelowText()) {
@@ -209,75 +225,75 @@ public class RtfShape extends RtfAddableElement {
             this.position.setIgnoreYRelative(true);
         }
 
-        result.write(OPEN_GROUP);
-        result.write(DocWriter.getISOBytes("\\shp"));
-        result.write(DocWriter.getISOBytes("\\shplid"));
-        result.write(intToByteArray(this.shapeNr));
+        sink.write(OPEN_GROUP);
+        sink.write(DocWriter.getISOBytes("\\shp"));
+        sink.write(DocWriter.getISOBytes("\\shplid"));
+        sink.writeInt(this.shapeNr);
         this.position.writeContent(result);
         switch (this.wrapping) {
             case SHAPE_WRAP_NONE:
-                result.write(DocWriter.getISOBytes("\\shpwr3"));
+                sink.write(DocWriter.getISOBytes("\\shpwr3"));
                 break;
             case SHAPE_WRAP_TOP_BOTTOM:
-                result.write(DocWriter.getISOBytes("\\shpwr1"));
+                sink.write(DocWriter.getISOBytes("\\shpwr1"));
                 break;
             case SHAPE_WRAP_BOTH:
-                result.write(DocWriter.getISOBytes("\\shpwr2"));
-                result.write(DocWriter.getISOBytes("\\shpwrk0"));
+                sink.write(DocWriter.getISOBytes("\\shpwr2"));
+                sink.write(DocWriter.getISOBytes("\\shpwrk0"));
                 break;
             case SHAPE_WRAP_LEFT:
-                result.write(DocWriter.getISOBytes("\\shpwr2"));
-                result.write(DocWriter.getISOBytes("\\shpwrk1"));
+                sink.write(DocWriter.getISOBytes("\\shpwr2"));
+                sink.write(DocWriter.getISOBytes("\\shpwrk1"));
                 break;
             case SHAPE_WRAP_RIGHT:
-                result.write(DocWriter.getISOBytes("\\shpwr2"));
-                result.write(DocWriter.getISOBytes("\\shpwrk2"));
+                sink.write(DocWriter.getISOBytes("\\shpwr2"));
+                sink.write(DocWriter.getISOBytes("\\shpwrk2"));
                 break;
             case SHAPE_WRAP_LARGEST:
-                result.write(DocWriter.getISOBytes("\\shpwr2"));
-                result.write(DocWriter.getISOBytes("\\shpwrk3"));
+                sink.write(DocWriter.getISOBytes("\\shpwr2"));
+                sink.write(DocWriter.getISOBytes("\\shpwrk3"));
                 break;
             case SHAPE_WRAP_TIGHT_BOTH:
-                result.write(DocWriter.getISOBytes("\\shpwr4"));
-                result.write(DocWriter.getISOBytes("\\shpwrk0"));
+                sink.write(DocWriter.getISOBytes("\\shpwr4"));
+                sink.write(DocWriter.getISOBytes("\\shpwrk0"));
                 break;
             case SHAPE_WRAP_TIGHT_LEFT:
-                result.write(DocWriter.getISOBytes("\\shpwr4"));
-                result.write(DocWriter.getISOBytes("\\shpwrk1"));
+                sink.write(DocWriter.getISOBytes("\\shpwr4"));
+                sink.write(DocWriter.getISOBytes("\\shpwrk1"));
                 break;
             case SHAPE_WRAP_TIGHT_RIGHT:
-                result.write(DocWriter.getISOBytes("\\shpwr4"));
-                result.write(DocWriter.getISOBytes("\\shpwrk2"));
+                sink.write(DocWriter.getISOBytes("\\shpwr4"));
+                sink.write(DocWriter.getISOBytes("\\shpwrk2"));
                 break;
             case SHAPE_WRAP_TIGHT_LARGEST:
-                result.write(DocWriter.getISOBytes("\\shpwr4"));
-                result.write(DocWriter.getISOBytes("\\shpwrk3"));
+                sink.write(DocWriter.getISOBytes("\\shpwr4"));
+                sink.write(DocWriter.getISOBytes("\\shpwrk3"));
                 break;
             case SHAPE_WRAP_THROUGH:
-                result.write(DocWriter.getISOBytes("\\shpwr5"));
+                sink.write(DocWriter.getISOBytes("\\shpwr5"));
                 break;
             default:
-                result.write(DocWriter.getISOBytes("\\shpwr3"));
+                sink.write(DocWriter.getISOBytes("\\shpwr3"));
         }
         if (this.inHeader) {
-            result.write(DocWriter.getISOBytes("\\shpfhdr1"));
+            sink.write(DocWriter.getISOBytes("\\shpfhdr1"));
         }
         this.doc.outputDebugLinebreak(result);
-        result.write(OPEN_GROUP);
-        result.write(DocWriter.getISOBytes("\\*\\shpinst"));
+        sink.write(OPEN_GROUP);
+        sink.write(DocWriter.getISOBytes("\\*\\shpinst"));
         for (RtfShapeProperty rsp : this.properties.values()) {
             rsp.setRtfDocument(this.doc);
             rsp.writeContent(result);
         }
         if (!this.shapeText.isEmpty()) {
-            result.write(OPEN_GROUP);
-            result.write(DocWriter.getISOBytes("\\shptxt"));
-            result.write(DELIMITER);
-            result.write(DocWriter.getISOBytes(this.shapeText));
-            result.write(CLOSE_GROUP);
+            sink.write(OPEN_GROUP);
+            sink.write(DocWriter.getISOBytes("\\shptxt"));
+            sink.write(DELIMITER);
+            sink.write(DocWriter.getISOBytes(this.shapeText));
+            sink.write(CLOSE_GROUP);
         }
-        result.write(CLOSE_GROUP);
+        sink.write(CLOSE_GROUP);
         this.doc.outputDebugLinebreak(result);
-        result.write(CLOSE_GROUP);
+        sink.write(CLOSE_GROUP);
     }
 }
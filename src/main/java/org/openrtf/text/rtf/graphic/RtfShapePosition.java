@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import org.openpdf.text.DocWriter;
 import org.openrtf.text.rtf.RtfAddableElement;
+import org.openrtf.text.rtf.document.output.RtfOutputSink;
 
 /**
  * The RtfShapePosition stores position and ordering information for one RtfShape.
@@ -145,48 +146,49 @@ public class RtfShapePosition extends RtfAddableElement {
 
     /** Write this RtfShapePosition. */
     public void writeContent(OutputStream result) throws IOException {
-        result.write(DocWriter.getISOBytes("\\shpleft"));
-        result.write(intToByteArray(this.left));
-        result.write(DocWriter.getISOBytes("\\shptop"));
-        result.write(intToByteArray(this.top));
-        result.write(DocWriter.getISOBytes("\\shpright"));
-        result.write(intToByteArray(this.right));
-        result.write(DocWriter.getISOBytes("\\shpbottom"));
-        result.write(intToByteArray(this.bottom));
-        result.write(DocWriter.getISOBytes("\\shpz"));
-        result.write(intToByteArray(this.zOrder));
+        RtfOutputSink sink = RtfOutputSink.of(result);
+        sink.write(DocWriter.getISOBytes("\\shpleft"));
+        sink.writeInt(this.left);
+        sink.write(DocWriter.getISOBytes("\\shptop"));
+        sink.writeInt(this.top);
+        sink.write(DocWriter.getISOBytes("\\shpright"));
+        sink.writeInt(this.right);
+        sink.write(DocWriter.getISOBytes("\\shpbottom"));
+        sink.writeInt(this.bottom);
+        sink.write(DocWriter.getISOBytes("\\shpz"));
+        sink.writeInt(this.zOrder);
         switch (this.xRelativePos) {
             case POSITION_X_RELATIVE_PAGE:
-                result.write(DocWriter.getISOBytes("\\shpbxpage"));
+                sink.write(DocWriter.getISOBytes("\\shpbxpage"));
                 break;
             case POSITION_X_RELATIVE_MARGIN:
-                result.write(DocWriter.getISOBytes("\\shpbxmargin"));
+                sink.write(DocWriter.getISOBytes("\\shpbxmargin"));
                 break;
             case POSITION_X_RELATIVE_COLUMN:
-                result.write(DocWriter.getISOBytes("\\shpbxcolumn"));
+                sink.write(DocWriter.getISOBytes("\\shpbxcolumn"));
                 break;
         }
         if (this.ignoreXRelative) {
-            result.write(DocWriter.getISOBytes("\\shpbxignore"));
+            sink.write(DocWriter.getISOBytes("\\shpbxignore"));
         }
         switch (this.yRelativePos) {
             case POSITION_Y_RELATIVE_PAGE:
-                result.write(DocWriter.getISOBytes("\\shpbypage"));
+                sink.write(DocWriter.getISOBytes("\\shpbypage"));
                 break;
             case POSITION_Y_RELATIVE_MARGIN:
-                result.write(DocWriter.getISOBytes("\\shpbymargin"));
+                sink.write(DocWriter.getISOBytes("\\shpbymargin"));
                 break;
             case POSITION_Y_RELATIVE_PARAGRAPH:
-                result.write(DocWriter.getISOBytes("\\shpbypara"));
+                sink.write(DocWriter.getISOBytes("\\shpbypara"));
                 break;
         }
         if (this.ignoreYRelative) {
-            result.write(DocWriter.getISOBytes("\\shpbyignore"));
+            sink.write(DocWriter.getISOBytes("\\shpbyignore"));
         }
         if (this.shapeBelowText) {
-            result.write(DocWriter.getISOBytes("\\shpfblwtxt1"));
+            sink.write(DocWriter.getISOBytes("\\shpfblwtxt1"));
         } else {
-            result.write(DocWriter.getISOBytes("\\shpfblwtxt0"));
+            sink.write(DocWriter.getISOBytes("\\shpfblwtxt0"));
         }
     }
 }
@@ -9,6 +9,7 @@ import org.openpdf.text.DocumentException;
 import org.openpdf.text.ExceptionConverter;
 import org.openpdf.text.Image;
 import org.openrtf.text.rtf.RtfAddableElement;
+import org.openrtf.text.rtf.document.output.RtfOutputSink;
 
 /**
  * The RtfShapeProperty stores all shape properties that are not handled by the RtfShape and
@@ -210,57 +211,58 @@ public class RtfShapeProperty extends RtfAddableElement {
 
     /** Writes the property definition. How the property is written depends on the property type. */
     public void writeContent(OutputStream result) throws IOException {
-        result.write(OPEN_GROUP);
-        result.write(DocWriter.getISOBytes("\\sp"));
-        result.write(OPEN_GROUP);
-        result.write(DocWriter.getISOBytes("\\sn"));
-        result.write(DELIMITER);
-        result.write(DocWriter.getISOBytes(this.name));
-        result.write(CLOSE_GROUP);
-        result.write(OPEN_GROUP);
-        result.write(DocWriter.getISOBytes("\\sv"));
-        result.write(DELIMITER);
+        RtfOutputSink sink = RtfOutputSink.of(result);
+        sink.write(OPEN_GROUP);
+        sink.write(DocWriter.getISOBytes("\\sp"));
+        sink.write(OPEN_GROUP);
+        sink.write(DocWriter.getISOBytes("\\sn"));
+        sink.write(DELIMITER);
+        sink.write(DocWriter.getISOBytes(this.name));
+        sink.write(CLOSE_GROUP);
+        sink.write(OPEN_GROUP);
+        sink.write(DocWriter.getISOBytes("\\sv"));
+        sink.write(DELIMITER);
         switch (this.type) {
             case PROPERTY_TYPE_LONG:
             case PROPERTY_TYPE_DOUBLE:
-                result.write(DocWriter.getISOBytes(this.value.toString()));
+                sink.write(DocWriter.getISOBytes(this.value.toString()));
                 break;
             case PROPERTY_TYPE_BOOLEAN:
                 if (((Boolean) this.value).booleanValue()) {
-                    result.write(DocWriter.getISOBytes("1"));
+                    sink.write(DocWriter.getISOBytes("1"));
                 } else {
-                    result.write(DocWriter.getISOBytes("0"));
+                    sink.write(DocWriter.getISOBytes("0"));
                 }
                 break;
             case PROPERTY_TYPE_COLOR:
                 Color color = (Color) this.value;
-                result.write(intToByteArray(color.getRed() | (color.getGreen() << 8) | (color.getBlue() << 16)));
+                sink.writeInt(color.getRed() | (color.getGreen() << 8) | (color.getBlue() << 16));
                 break;
             case PROPERTY_TYPE_ARRAY:
                 if (this.value instanceof int[]) {
                     int[] values = (int[]) this.value;
-                    result.write(DocWriter.getISOBytes("4;"));
-                    result.write(intToByteArray(values.length));
-                    result.write(COMMA_DELIMITER);
+                    sink.write(DocWriter.getISOBytes("4;"));
+                    sink.writeInt(values.length);
+                    sink.write(COMMA_DELIMITER);
                     for (int i = 0; i < values.length; i++) {
-                        result.write(intToByteArray(values[i]));
+                        sink.writeInt(values[i]);
                         if (i < values.length - 1) {
-                            result.write(COMMA_DELIMITER);
+                            sink.write(COMMA_DELIMITER);
                         }
                     }
                 } else if (this.value instanceof Point[]) {
                     Point[] values = (Point[]) this.value;
-                    result.write(DocWriter.getISOBytes("8;"));
-                    result.write(intToByteArray(values.length));
-                    result.write(COMMA_DELIMITER);
+                    sink.write(DocWriter.getISOBytes("8;"));
+                    sink.writeInt(values.length);
+                    sink.write(COMMA_DELIMITER);
                     for (int i = 0; i < values.length; i++) {
-                        result.write(DocWriter.getISOBytes("("));
-                        result.write(intToByteArray(values[i].x));
-                        result.write(DocWriter.getISOBytes(","));
-                        result.write(intToByteArray(values[i].y));
-                        result.write(DocWriter.getISOBytes(")"));
+                        sink.write(DocWriter.getISOBytes("("));
+                        sink.writeInt(values[i].x);
+                        sink.write(DocWriter.getISOBytes(","));
+                        sink.writeInt(values[i].y);
+                        sink.write(DocWriter.getISOBytes(")"));
                         if (i < values.length - 1) {
-                            result.write(COMMA_DELIMITER);
+                            sink.write(COMMA_DELIMITER);
                         }
                     }
                 }
@@ -274,12 +276,12 @@ public class RtfShapeProperty extends RtfAddableElement {
                     throw new ExceptionConverter(de);
                 }
                 img.setTopLevelElement(true);
-                result.write(OPEN_GROUP);
+                sink.write(OPEN_GROUP);
                 img.writeContent(result);
-                result.write(CLOSE_GROUP);
+                sink.write(CLOSE_GROUP);
                 break;
         }
-        result.write(CLOSE_GROUP);
-        result.write(CLOSE_GROUP);
+        sink.write(CLOSE_GROUP);
+        sink.write(CLOSE_GROUP);
     }
 }
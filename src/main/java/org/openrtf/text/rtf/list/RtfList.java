@@ -69,6 +69,7 @@ import org.openrtf.text.rtf.RtfBasicElement;
 import org.openrtf.text.rtf.RtfElement;
 import org.openrtf.text.rtf.RtfExtendedElement;
 import org.openrtf.text.rtf.document.RtfDocument;
+import org.openrtf.text.rtf.document.output.RtfOutputSink;
 import org.openrtf.text.rtf.style.RtfFont;
 import org.openrtf.text.rtf.style.RtfFontList;
 import org.openrtf.text.rtf.text.RtfParagraph;
@@ -347,10 +348,10 @@ public class RtfList extends RtfElement implements RtfExtendedElement {
      * @since 2.1.3
      */
     public void writeDefinition(OutputStream result) throws IOException {
-        result.write(OPEN_GROUP);
-        result.write(LIST);
-        result.write(LIST_TEMPLATE_ID);
-        result.write(intToByteArray(document.getRandomInt()));
+        RtfOutputSink sink = RtfOutputSink.of(result);
+        sink.write(OPEN_GROUP);
+        sink.write(LIST);
+        sink.writeControlWord(LIST_TEMPLATE_ID, document.getRandomInt());
 
         int levelsToWrite = -1;
 
@@ -359,12 +360,11 @@ public class RtfList extends RtfElement implements RtfExtendedElement {
                 levelsToWrite = listLevels.size();
                 break;
             case LIST_TYPE_SIMPLE:
-                result.write(LIST_SIMPLE);
-                result.write(intToByteArray(1));
+                sink.writeControlWord(LIST_SIMPLE, 1);
                 levelsToWrite = 1;
                 break;
             case LIST_TYPE_HYBRID:
-                result.write(LIST_HYBRID);
+                sink.write(LIST_HYBRID);
                 levelsToWrite = listLevels.size();
                 break;
             default:
@@ -389,9 +389,8 @@ public class RtfList extends RtfElement implements RtfExtendedElement {
             this.document.outputDebugLinebreak(result);
         }
 
-        result.write(LIST_ID);
-        result.write(intToByteArray(this.listID));
-        result.write(CLOSE_GROUP);
+        sink.writeControlWord(LIST_ID, this.listID);
+        sink.write(CLOSE_GROUP);
         this.document.outputDebugLinebreak(result);
         if (items != null) {
             for (RtfBasicElement rtfElement : items) {
@@ -468,44 +467,45 @@ public class RtfList extends RtfElement implements RtfExtendedElement {
      * @since 2.1.3
      */
     protected void writeListTextBlock(OutputStream result, int itemNr, RtfListLevel listLevel) throws IOException {
-        result.write(OPEN_GROUP);
-        result.write(LIST_TEXT);
-        result.write(RtfParagraph.PARAGRAPH_DEFAULTS);
+        RtfOutputSink sink = RtfOutputSink.of(result);
+        sink.write(OPEN_GROUP);
+        sink.write(LIST_TEXT);
+        sink.write(RtfParagraph.PARAGRAPH_DEFAULTS);
         if (this.inTable) {
-            result.write(RtfParagraph.IN_TABLE);
+            sink.write(RtfParagraph.IN_TABLE);
         }
-        result.write(RtfFontList.FONT_NUMBER);
+        sink.write(RtfFontList.FONT_NUMBER);
         if (listLevel.getListType() != RtfListLevel.LIST_TYPE_BULLET) {
-            result.write(intToByteArray(listLevel.getFontNumber().getFontNumber()));
+            sink.writeInt(listLevel.getFontNumber().getFontNumber());
         } else {
-            result.write(intToByteArray(listLevel.getFontBullet().getFontNumber()));
+            sink.writeInt(listLevel.getFontBullet().getFontNumber());
         }
         listLevel.writeIndentation(result);
-        result.write(DELIMITER);
+        sink.write(DELIMITER);
         if (listLevel.getListType() != RtfListLevel.LIST_TYPE_BULLET) {
             switch (listLevel.getListType()) {
                 case RtfListLevel.LIST_TYPE_NUMBERED:
-                    result.write(intToByteArray(itemNr));
+                    sink.writeInt(itemNr);
                     break;
                 case RtfListLevel.LIST_TYPE_UPPER_LETTERS:
-                    result.write(DocWriter.getISOBytes(RomanAlphabetFactory.getUpperCaseString(itemNr)));
+                    sink.write(DocWriter.getISOBytes(RomanAlphabetFactory.getUpperCaseString(itemNr)));
                     break;
                 case RtfListLevel.LIST_TYPE_LOWER_LETTERS:
-                    result.write(DocWriter.getISOBytes(RomanAlphabetFactory.getLowerCaseString(itemNr)));
+                    sink.write(DocWriter.getISOBytes(RomanAlphabetFactory.getLowerCaseString(itemNr)));
                     break;
                 case RtfListLevel.LIST_TYPE_UPPER_ROMAN:
-                    result.write(DocWriter.getISOBytes(RomanNumberFactory.getUpperCaseString(itemNr)));
+                    sink.write(DocWriter.getISOBytes(RomanNumberFactory.getUpperCaseString(itemNr)));
                     break;
                 case RtfListLevel.LIST_TYPE_LOWER_ROMAN:
-                    result.write(DocWriter.getISOBytes(RomanNumberFactory.getLowerCaseString(itemNr)));
+                    sink.write(DocWriter.getISOBytes(RomanNumberFactory.getLowerCaseString(itemNr)));
                     break;
             }
-            result.write(LIST_NUMBER_END);
+            sink.write(LIST_NUMBER_END);
         } else {
             this.document.filterSpecialChar(result, listLevel.getBulletCharacter(), true, false);
         }
-        result.write(TAB);
-        result.write(CLOSE_GROUP);
+        sink.write(TAB);
+        sink.write(CLOSE_GROUP);
     }
 
     /**
@@ -516,8 +516,8 @@ public class RtfList extends RtfElement implements RtfExtendedElement {
      * @since 2.1.3
      */
     protected void writeListNumbers(OutputStream result) throws IOException {
-        result.write(LIST_NUMBER);
-        result.write(intToByteArray(listNumber));
+        RtfOutputSink sink = RtfOutputSink.of(result);
+        sink.writeControlWord(LIST_NUMBER, listNumber);
     }
 
     /**
@@ -55,6 +55,7 @@ import org.openpdf.text.DocWriter;
 import org.openpdf.text.ListItem;
 import org.openrtf.text.rtf.RtfBasicElement;
 import org.openrtf.text.rtf.document.RtfDocument;
+import org.openrtf.text.rtf.document.output.RtfOutputSink;
 import org.openrtf.text.rtf.style.RtfParagraphStyle;
 import org.openrtf.text.rtf.text.RtfChunk;
 import org.openrtf.text.rtf.text.RtfParagraph;
@@ -87,37 +88,36 @@ public class RtfListItem extends RtfParagraph {
 
     /** Writes the content of this RtfListItem. */
     public void writeContent(OutputStream result) throws IOException {
+        RtfOutputSink sink = RtfOutputSink.of(result);
         if (this.paragraphStyle.getSpacingBefore() > 0) {
-            result.write(RtfParagraphStyle.SPACING_BEFORE);
-            result.write(intToByteArray(paragraphStyle.getSpacingBefore()));
+            sink.writeControlWord(RtfParagraphStyle.SPACING_BEFORE, paragraphStyle.getSpacingBefore());
         }
         if (this.paragraphStyle.getSpacingAfter() > 0) {
-            result.write(RtfParagraphStyle.SPACING_AFTER);
-            result.write(intToByteArray(this.paragraphStyle.getSpacingAfter()));
+            sink.writeControlWord(RtfParagraphStyle.SPACING_AFTER, this.paragraphStyle.getSpacingAfter());
         }
         if (this.paragraphStyle.getLineLeading() > 0) {
-            result.write(RtfParagraph.LINE_SPACING);
-            result.write(intToByteArray(this.paragraphStyle.getLineLeading()));
+            sink.writeControlWord(RtfParagraph.LINE_SPACING, this.paragraphStyle.getLineLeading());
         }
-        for (RtfBasicElement rtfElement : chunks) {
+        for (int i = 0; i < chunks.size(); i++) {
+            RtfBasicElement rtfElement = chunks.get(i);
             if (rtfElement instanceof RtfChunk) {
                 ((RtfChunk) rtfElement).setSoftLineBreaks(true);
             } else if (rtfElement instanceof RtfList) {
-                result.write(RtfParagraph.PARAGRAPH);
+                sink.write(RtfParagraph.PARAGRAPH);
                 this.containsInnerList = true;
             }
-            rtfElement.writeContent(result);
+            writeChild(result, i);
             if (rtfElement instanceof RtfList) {
                 switch (this.parentList.getLevelFollowValue()) {
                     case RtfListLevel.LIST_LEVEL_FOLLOW_NOTHING:
                         break;
                     case RtfListLevel.LIST_LEVEL_FOLLOW_TAB:
                         this.parentList.writeListBeginning(result);
-                        result.write(RtfList.TAB);
+                        sink.write(RtfList.TAB);
                         break;
                     case RtfListLevel.LIST_LEVEL_FOLLOW_SPACE:
                         this.parentList.writeListBeginning(result);
-                        result.write(DocWriter.getISOBytes(" "));
+                        sink.write(DocWriter.getISOBytes(" "));
                         break;
                 }
             }
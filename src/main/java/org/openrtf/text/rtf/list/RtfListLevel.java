@@ -58,7 +58,7 @@ import org.openpdf.text.Font;
 import org.openrtf.text.rtf.RtfElement;
 import org.openrtf.text.rtf.RtfExtendedElement;
 import org.openrtf.text.rtf.document.RtfDocument;
-import org.openrtf.text.rtf.style.RtfColor;
+import org.openrtf.text.rtf.document.output.RtfOutputSink;
 import org.openrtf.text.rtf.style.RtfFont;
 import org.openrtf.text.rtf.style.RtfFontList;
 import org.openrtf.text.rtf.style.RtfParagraphStyle;
@@ -347,191 +347,187 @@ public class RtfListLevel extends RtfElement implements RtfExtendedElement {
     }
 
     public void writeDefinition(OutputStream result) throws IOException {
-        result.write(OPEN_GROUP);
-        result.write(LIST_LEVEL);
-        result.write(LIST_LEVEL_TYPE);
+        RtfOutputSink sink = RtfOutputSink.of(result);
+        sink.write(OPEN_GROUP);
+        sink.write(LIST_LEVEL);
+        sink.write(LIST_LEVEL_TYPE);
         switch (this.listType) {
             case LIST_TYPE_BULLET:
-                result.write(intToByteArray(23));
+                sink.writeInt(23);
                 break;
             case LIST_TYPE_NUMBERED:
-                result.write(intToByteArray(0));
+                sink.writeInt(0);
                 break;
             case LIST_TYPE_UPPER_LETTERS:
-                result.write(intToByteArray(3));
+                sink.writeInt(3);
                 break;
             case LIST_TYPE_LOWER_LETTERS:
-                result.write(intToByteArray(4));
+                sink.writeInt(4);
                 break;
             case LIST_TYPE_UPPER_ROMAN:
-                result.write(intToByteArray(1));
+                sink.writeInt(1);
                 break;
             case LIST_TYPE_LOWER_ROMAN:
-                result.write(intToByteArray(2));
+                sink.writeInt(2);
                 break;
             /* New types */
             case LIST_TYPE_ARABIC:
-                result.write(intToByteArray(0));
+                sink.writeInt(0);
                 break;
             case LIST_TYPE_UPPERCASE_ROMAN_NUMERAL:
-                result.write(intToByteArray(1));
+                sink.writeInt(1);
                 break;
             case LIST_TYPE_LOWERCASE_ROMAN_NUMERAL:
-                result.write(intToByteArray(2));
+                sink.writeInt(2);
                 break;
             case LIST_TYPE_UPPERCASE_LETTER:
-                result.write(intToByteArray(3));
+                sink.writeInt(3);
                 break;
             case LIST_TYPE_ORDINAL_NUMBER:
-                result.write(intToByteArray(4));
+                sink.writeInt(4);
                 break;
             case LIST_TYPE_CARDINAL_TEXT_NUMBER:
-                result.write(intToByteArray(5));
+                sink.writeInt(5);
                 break;
             case LIST_TYPE_ORDINAL_TEXT_NUMBER:
-                result.write(intToByteArray(6));
+                sink.writeInt(6);
                 break;
             case LIST_TYPE_LOWERCASE_LETTER:
-                result.write(intToByteArray(7));
+                sink.writeInt(7);
                 break;
             case LIST_TYPE_ARABIC_LEADING_ZERO:
-                result.write(intToByteArray(22));
+                sink.writeInt(22);
                 break;
             case LIST_TYPE_NO_NUMBER:
-                result.write(intToByteArray(255));
+                sink.writeInt(255);
                 break;
             default: // catch all for other unsupported types
                 if (this.listType >= LIST_TYPE_BASE) {
-                    result.write(intToByteArray(this.listType - LIST_TYPE_BASE));
+                    sink.writeInt(this.listType - LIST_TYPE_BASE);
                 }
                 break;
         }
 
-        result.write(LIST_LEVEL_TYPE_NEW);
+        sink.write(LIST_LEVEL_TYPE_NEW);
         switch (this.listType) {
             case LIST_TYPE_BULLET:
-                result.write(intToByteArray(23));
+                sink.writeInt(23);
                 break;
             case LIST_TYPE_NUMBERED:
-                result.write(intToByteArray(0));
+                sink.writeInt(0);
                 break;
             case LIST_TYPE_UPPER_LETTERS:
-                result.write(intToByteArray(3));
+                sink.writeInt(3);
                 break;
             case LIST_TYPE_LOWER_LETTERS:
-                result.write(intToByteArray(4));
+                sink.writeInt(4);
                 break;
             case LIST_TYPE_UPPER_ROMAN:
-                result.write(intToByteArray(1));
+                sink.writeInt(1);
                 break;
             case LIST_TYPE_LOWER_ROMAN:
-                result.write(intToByteArray(2));
+                sink.writeInt(2);
                 break;
             /* New types */
             case LIST_TYPE_ARABIC:
-                result.write(intToByteArray(0));
+                sink.writeInt(0);
                 break;
             case LIST_TYPE_UPPERCASE_ROMAN_NUMERAL:
-                result.write(intToByteArray(1));
+                sink.writeInt(1);
                 break;
             case LIST_TYPE_LOWERCASE_ROMAN_NUMERAL:
-                result.write(intToByteArray(2));
+                sink.writeInt(2);
                 break;
             case LIST_TYPE_UPPERCASE_LETTER:
-                result.write(intToByteArray(3));
+                sink.writeInt(3);
                 break;
             case LIST_TYPE_ORDINAL_NUMBER:
-                result.write(intToByteArray(4));
+                sink.writeInt(4);
                 break;
             case LIST_TYPE_CARDINAL_TEXT_NUMBER:
-                result.write(intToByteArray(5));
+                sink.writeInt(5);
                 break;
             case LIST_TYPE_ORDINAL_TEXT_NUMBER:
-                result.write(intToByteArray(6));
+                sink.writeInt(6);
                 break;
             case LIST_TYPE_LOWERCASE_LETTER:
-                result.write(intToByteArray(7));
+                sink.writeInt(7);
                 break;
             case LIST_TYPE_ARABIC_LEADING_ZERO:
-                result.write(intToByteArray(22));
+                sink.writeInt(22);
                 break;
             case LIST_TYPE_NO_NUMBER:
-                result.write(intToByteArray(255));
+                sink.writeInt(255);
                 break;
             default: // catch all for other unsupported types
                 if (this.listType >= LIST_TYPE_BASE) {
-                    result.write(intToByteArray(this.listType - LIST_TYPE_BASE));
+                    sink.writeInt(this.listType - LIST_TYPE_BASE);
                 }
                 break;
         }
-        result.write(LIST_LEVEL_ALIGNMENT);
-        result.write(intToByteArray(0));
-        result.write(LIST_LEVEL_ALIGNMENT_NEW);
-        result.write(intToByteArray(0));
-        result.write(LIST_LEVEL_FOLOW);
-        result.write(intToByteArray(levelFollowValue));
-        result.write(LIST_LEVEL_START_AT);
-        result.write(intToByteArray(this.listStartAt));
+        sink.writeControlWord(LIST_LEVEL_ALIGNMENT, 0);
+        sink.writeControlWord(LIST_LEVEL_ALIGNMENT_NEW, 0);
+        sink.writeControlWord(LIST_LEVEL_FOLOW, levelFollowValue);
+        sink.writeControlWord(LIST_LEVEL_START_AT, this.listStartAt);
         if (this.isTentative) {
-            result.write(LIST_LEVEL_TENTATIVE);
+            sink.write(LIST_LEVEL_TENTATIVE);
         }
         if (this.isLegal) {
-            result.write(LIST_LEVEL_LEGAL);
+            sink.write(LIST_LEVEL_LEGAL);
         }
-        result.write(LIST_LEVEL_SPACE);
-        result.write(intToByteArray(0));
-        result.write(LIST_LEVEL_INDENT);
-        result.write(intToByteArray(0));
+        sink.writeControlWord(LIST_LEVEL_SPACE, 0);
+        sink.writeControlWord(LIST_LEVEL_INDENT, 0);
         if (levelPicture != -1) {
-            result.write(LIST_LEVEL_PICTURE);
-            result.write(intToByteArray(levelPicture));
+            sink.writeControlWord(LIST_LEVEL_PICTURE, levelPicture);
         }
 
-        result.write(OPEN_GROUP); // { leveltext
-        result.write(LIST_LEVEL_TEXT);
-        result.write(LIST_LEVEL_TEMPLATE_ID);
-        result.write(intToByteArray(this.templateID));
+        sink.write(OPEN_GROUP); // { leveltext
+        sink.write(LIST_LEVEL_TEXT);
+        sink.writeControlWord(LIST_LEVEL_TEMPLATE_ID, this.templateID);
         /* NEVER seperate the LEVELTEXT elements with a return in between
          * them or it will not fuction correctly!
          */
         // TODO Needs to be rewritten to support 1-9 levels, not just simple single level
         if (this.listType != LIST_TYPE_BULLET) {
-            result.write(LIST_LEVEL_STYLE_NUMBERED_BEGIN);
+            sink.write(LIST_LEVEL_STYLE_NUMBERED_BEGIN);
             if (this.levelTextNumber < 10) {
-                result.write(intToByteArray(0));
+                sink.writeInt(0);
             }
-            result.write(intToByteArray(this.levelTextNumber));
-            result.write(LIST_LEVEL_STYLE_NUMBERED_END);
+            sink.writeInt(this.levelTextNumber);
+            sink.write(LIST_LEVEL_STYLE_NUMBERED_END);
         } else {
-            result.write(LIST_LEVEL_STYLE_BULLETED_BEGIN);
+            sink.write(LIST_LEVEL_STYLE_BULLETED_BEGIN);
             this.document.filterSpecialChar(result, this.bulletCharacter, false, false);
-            result.write(LIST_LEVEL_STYLE_BULLETED_END);
+            sink.write(LIST_LEVEL_STYLE_BULLETED_END);
         }
-        result.write(CLOSE_GROUP); // } leveltext
+        sink.write(CLOSE_GROUP); // } leveltext
 
-        result.write(OPEN_GROUP); // { levelnumbers
-        result.write(LIST_LEVEL_NUMBERS_BEGIN);
+        sink.write(OPEN_GROUP); // { levelnumbers
+        sink.write(LIST_LEVEL_NUMBERS_BEGIN);
         if (this.listType != LIST_TYPE_BULLET) {
-            result.write(LIST_LEVEL_NUMBERS_NUMBERED);
+            sink.write(LIST_LEVEL_NUMBERS_NUMBERED);
         }
-        result.write(LIST_LEVEL_NUMBERS_END);
-        result.write(CLOSE_GROUP); // { levelnumbers
+        sink.write(LIST_LEVEL_NUMBERS_END);
+        sink.write(CLOSE_GROUP); // { levelnumbers
 
         // write properties now
-        result.write(RtfFontList.FONT_NUMBER);
+        sink.write(RtfFontList.FONT_NUMBER);
         if (this.listType != LIST_TYPE_BULLET) {
-            result.write(intToByteArray(fontNumber.getFontNumber()));
+            sink.writeInt(fontNumber.getFontNumber());
         } else {
-            result.write(intToByteArray(fontBullet.getFontNumber()));
+            sink.writeInt(fontBullet.getFontNumber());
+        }
+        sink.write(DocWriter.getISOBytes("\\cf"));
+        Color color = this.getFontNumber().getColor();
+        if (color == null) {
+            sink.writeInt(0);
+        } else {
+            sink.writeInt(
+                    document.getDocumentHeader().getColorNumber(color.getRed(), color.getGreen(), color.getBlue()));
         }
-        result.write(DocWriter.getISOBytes("\\cf"));
-        //        document.getDocumentHeader().getColorNumber(new
-        // RtfColor(this.document,this.getFontNumber().getColor()));
-        result.write(intToByteArray(document.getDocumentHeader()
-                .getColorNumber(new RtfColor(this.document, this.getFontNumber().getColor()))));
 
         writeIndentation(result);
-        result.write(CLOSE_GROUP);
+        sink.write(CLOSE_GROUP);
         this.document.outputDebugLinebreak(result);
     }
 
@@ -545,10 +541,9 @@ public class RtfListLevel extends RtfElement implements RtfExtendedElement {
      * @throws IOException On i/o errors.
      */
     protected void writeListNumbers(OutputStream result) throws IOException {
-
+        RtfOutputSink sink = RtfOutputSink.of(result);
         if (listLevel > 0) {
-            result.write(RtfList.LIST_LEVEL_NUMBER);
-            result.write(intToByteArray(listLevel));
+            sink.writeControlWord(RtfList.LIST_LEVEL_NUMBER, listLevel);
         }
     }
 
@@ -559,14 +554,11 @@ public class RtfListLevel extends RtfElement implements RtfExtendedElement {
      * @throws IOException On i/o errors.
      */
     public void writeIndentation(OutputStream result) throws IOException {
-        result.write(LIST_LEVEL_FIRST_INDENT);
-        result.write(intToByteArray(firstIndent));
-        result.write(RtfParagraphStyle.INDENT_LEFT);
-        result.write(intToByteArray(leftIndent));
-        result.write(RtfParagraphStyle.INDENT_RIGHT);
-        result.write(intToByteArray(rightIndent));
-        result.write(LIST_LEVEL_SYMBOL_INDENT);
-        result.write(intToByteArray(this.leftIndent));
+        RtfOutputSink sink = RtfOutputSink.of(result);
+        sink.writeControlWord(LIST_LEVEL_FIRST_INDENT, firstIndent);
+        sink.writeControlWord(RtfParagraphStyle.INDENT_LEFT, leftIndent);
+        sink.writeControlWord(RtfParagraphStyle.INDENT_RIGHT, rightIndent);
+        sink.writeControlWord(LIST_LEVEL_SYMBOL_INDENT, this.leftIndent);
     }
 
     /**
@@ -576,31 +568,30 @@ public class RtfListLevel extends RtfElement implements RtfExtendedElement {
      * @throws IOException On i/o errors.
      */
     public void writeListBeginning(OutputStream result) throws IOException {
-        result.write(RtfParagraph.PARAGRAPH_DEFAULTS);
+        RtfOutputSink sink = RtfOutputSink.of(result);
+        sink.write(RtfParagraph.PARAGRAPH_DEFAULTS);
         if (this.inTable) {
-            result.write(RtfParagraph.IN_TABLE);
+            sink.write(RtfParagraph.IN_TABLE);
         }
         switch (this.alignment) {
             case Element.ALIGN_LEFT:
-                result.write(RtfParagraphStyle.ALIGN_LEFT);
+                sink.write(RtfParagraphStyle.ALIGN_LEFT);
                 break;
             case Element.ALIGN_RIGHT:
-                result.write(RtfParagraphStyle.ALIGN_RIGHT);
+                sink.write(RtfParagraphStyle.ALIGN_RIGHT);
                 break;
             case Element.ALIGN_CENTER:
-                result.write(RtfParagraphStyle.ALIGN_CENTER);
+                sink.write(RtfParagraphStyle.ALIGN_CENTER);
                 break;
             case Element.ALIGN_JUSTIFIED:
             case Element.ALIGN_JUSTIFIED_ALL:
-                result.write(RtfParagraphStyle.ALIGN_JUSTIFY);
+                sink.write(RtfParagraphStyle.ALIGN_JUSTIFY);
                 break;
         }
         writeIndentation(result);
-        result.write(RtfFont.FONT_SIZE);
-        result.write(intToByteArray(fontNumber.getFontSize() * 2));
+        sink.writeControlWord(RtfFont.FONT_SIZE, fontNumber.getFontSize() * 2);
         if (this.symbolIndent > 0) {
-            result.write(LIST_LEVEL_SYMBOL_INDENT);
-            result.write(intToByteArray(this.leftIndent));
+            sink.writeControlWord(LIST_LEVEL_SYMBOL_INDENT, this.leftIndent);
         }
     }
 
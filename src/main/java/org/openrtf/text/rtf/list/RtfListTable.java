@@ -52,11 +52,15 @@ package org.openrtf.text.rtf.list;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import org.openpdf.text.DocWriter;
 import org.openrtf.text.rtf.RtfElement;
 import org.openrtf.text.rtf.RtfExtendedElement;
 import org.openrtf.text.rtf.document.RtfDocument;
+import org.openrtf.text.rtf.document.output.RtfOutputSink;
 
 /**
  * The RtfListTable manages all RtfList objects and list override table in one RtfDocument.
@@ -81,6 +85,9 @@ public class RtfListTable extends RtfElement implements RtfExtendedElement {
     /** The RtfList lists managed by this RtfListTable */
     private final List<RtfList> lists = new ArrayList<>();
 
+    /** The index of each RtfList in the lists, keyed by identity */
+    private final Map<RtfList, Integer> listIndex = new IdentityHashMap<>();
+
     /** The RtfPictureList lists managed by this RtfListTable */
     private final List<RtfPictureList> picturelists = new ArrayList<>();
 
@@ -98,8 +105,9 @@ public class RtfListTable extends RtfElement implements RtfExtendedElement {
 
     /** Writes the list and list override tables. */
     public void writeDefinition(OutputStream result) throws IOException {
-        result.write(OPEN_GROUP);
-        result.write(LIST_TABLE);
+        RtfOutputSink sink = RtfOutputSink.of(result);
+        sink.write(OPEN_GROUP);
+        sink.write(LIST_TABLE);
         this.document.outputDebugLinebreak(result);
 
         for (RtfPictureList l : picturelists) {
@@ -113,29 +121,26 @@ public class RtfListTable extends RtfElement implements RtfExtendedElement {
             l.writeDefinition(result);
             this.document.outputDebugLinebreak(result);
         }
-        result.write(CLOSE_GROUP);
+        sink.write(CLOSE_GROUP);
         this.document.outputDebugLinebreak(result);
 
-        result.write(OPEN_GROUP);
-        result.write(LIST_OVERRIDE_TABLE);
+        sink.write(OPEN_GROUP);
+        sink.write(LIST_OVERRIDE_TABLE);
         this.document.outputDebugLinebreak(result);
 
         // list override index values are 1-based, not 0.
         // valid list override index values \ls are 1 to 2000.
         // if there are more then 2000 lists, the result is undefined.
         for (RtfList list : lists) {
-            result.write(OPEN_GROUP);
-            result.write(LIST_OVERRIDE);
-            result.write(RtfList.LIST_ID);
-            result.write(intToByteArray(list.getID()));
-            result.write(LIST_OVERRIDE_COUNT);
-            result.write(intToByteArray(0)); // is this correct? Spec says valid values are 1 or 9.
-            result.write(RtfList.LIST_NUMBER);
-            result.write(intToByteArray(list.getListNumber()));
-            result.write(CLOSE_GROUP);
+            sink.write(OPEN_GROUP);
+            sink.write(LIST_OVERRIDE);
+            sink.writeControlWord(RtfList.LIST_ID, list.getID());
+            sink.writeControlWord(LIST_OVERRIDE_COUNT, 0); // is this correct? Spec says valid values are 1 or 9.
+            sink.writeControlWord(RtfList.LIST_NUMBER, list.getListNumber());
+            sink.write(CLOSE_GROUP);
             this.document.outputDebugLinebreak(result);
         }
-        result.write(CLOSE_GROUP);
+        sink.write(CLOSE_GROUP);
         this.document.outputDebugLinebreak(result);
     }
 
@@ -147,12 +152,17 @@ public class RtfListTable extends RtfElement implements RtfExtendedElement {
      * @return The id of the RtfList.
      */
     public int getListNumber(RtfList list) {
-        if (lists.contains(list)) {
-            return lists.indexOf(list);
-        } else {
-            lists.add(list);
-            return lists.size();
+        Integer index = this.listIndex.get(list);
+        if (index != null) {
+            return index;
+        }
+        if (this.document.isHeaderWritten()) {
+            throw new IllegalStateException(
+                    "The list was not declared before the document was opened in streaming mode.");
         }
+        this.listIndex.put(list, this.lists.size());
+        this.lists.add(list);
+        return this.lists.size();
     }
 
     /**
@@ -161,9 +171,22 @@ public class RtfListTable extends RtfElement implements RtfExtendedElement {
      * @param list The RtfList to remove.
      */
     public void freeListNumber(RtfList list) {
-        int i = lists.indexOf(list);
-        if (i >= 0) {
-            lists.remove(i);
+        Integer index = this.listIndex.remove(list);
+        if (index != null) {
+            this.lists.remove(index.intValue());
+            for (int i = index; i < this.lists.size(); i++) {
+                this.listIndex.put(this.lists.get(i), i);
+            }
         }
     }
+
+    /**
+     * Gets the RtfList lists managed by this RtfListTable.
+     *
+     * @return An unmodifiable view of the lists.
+     * @since 3.0.1
+     */
+    public List<RtfList> getLists() {
+        return Collections.unmodifiableList(this.lists);
+    }
 }
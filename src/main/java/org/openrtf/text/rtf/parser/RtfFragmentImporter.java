@@ -0,0 +1,414 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+
+package org.openrtf.text.rtf.parser;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import org.openrtf.text.rtf.RtfElement;
+import org.openrtf.text.rtf.document.RtfDocument;
+import org.openrtf.text.rtf.document.RtfDocumentSettings;
+import org.openrtf.text.rtf.style.RtfColor;
+import org.openrtf.text.rtf.style.RtfFont;
+
+/**
+ * The <code>RtfFragmentImporter</code> imports many RTF fragments into one <code>RtfDocument
+ * </code>, parsing them concurrently.
+ *
+ * <p>Every fragment is parsed by its own <code>RtfParser</code> into a private scratch document,
+ * so each parse has its own <code>RtfImportMgr</code> mapping and font and color tables. Once all
+ * fragments are parsed they are merged into the target document strictly in order: the fonts and
+ * colors of each scratch document are registered in the target's header and the font and color
+ * numbers in the parsed content are rewritten to the target's numbers before the content is
+ * appended. The result is identical to importing the fragments one after another with <code>
+ * RtfParser.importRtfFragment</code>.
+ *
+ * <p>Fragments that define their own lists are imported again from their buffered bytes directly
+ * into the target document during the merge, since lists cannot be moved between documents.
+ *
+ * @see RtfParser#importRtfFragment(InputStream, RtfDocument, RtfImportMappings)
+ * @since 3.0.1
+ */
+public class RtfFragmentImporter {
+
+    /** The RtfDocument the fragments are imported into. */
+    private final RtfDocument rtfDoc;
+
+    /** The Executor to parse the fragments with. */
+    private Executor executor = ForkJoinPool.commonPool();
+
+    /** The RtfParserPool to take parsers from. May be null. */
+    private RtfParserPool parserPool = null;
+
+    /** The cache of parsed header tables. May be null. */
+    private RtfHeaderTableCache headerTableCache = null;
+
+    /**
+     * Constructs a new <code>RtfFragmentImporter</code>.
+     *
+     * @param rtfDoc The RtfDocument to import the fragments into.
+     */
+    public RtfFragmentImporter(RtfDocument rtfDoc) {
+        this.rtfDoc = rtfDoc;
+    }
+
+    /**
+     * Sets the Executor used to parse the fragments. Defaults to the common ForkJoinPool.
+     *
+     * @param executor The Executor to use.
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor != null ? executor : ForkJoinPool.commonPool();
+    }
+
+    /**
+     * Sets the RtfParserPool to take parsers from. If no pool is set, each call to importFragments
+     * uses a pool of its own, so that the worker threads reuse their parsers.
+     *
+     * @param parserPool The RtfParserPool to use. May be null.
+     */
+    public void setParserPool(RtfParserPool parserPool) {
+        this.parserPool = parserPool;
+    }
+
+    /**
+     * Sets the cache of parsed header tables used by the parsers.
+     *
+     * @param headerTableCache The RtfHeaderTableCache to use. May be null.
+     */
+    public void setHeaderTableCache(RtfHeaderTableCache headerTableCache) {
+        this.headerTableCache = headerTableCache;
+    }
+
+    /**
+     * Imports the fragments into the RtfDocument. The fragments are parsed concurrently and then
+     * appended in the order given.
+     *
+     * @param fragments The InputStreams to read the RTF fragments from.
+     * @param importMappings The RtfImportMappings for each fragment. Must have the same length as
+     *     fragments.
+     * @throws IOException On errors reading or parsing a fragment.
+     */
+    public void importFragments(InputStream[] fragments, RtfImportMappings[] importMappings) throws IOException {
+        if (fragments.length != importMappings.length) {
+            throw new IllegalArgumentException(
+                    "Expected " + fragments.length + " import mappings, got " + importMappings.length);
+        }
+        final RtfParserPool pool = this.parserPool != null ? this.parserPool : new RtfParserPool();
+        List<Future<ParsedFragment>> parsed = new ArrayList<>(fragments.length);
+        for (int i = 0; i < fragments.length; i++) {
+            final InputStream fragment = fragments[i];
+            final RtfImportMappings mappings = importMappings[i];
+            FutureTask<ParsedFragment> task = new FutureTask<>(new Callable<ParsedFragment>() {
+                public ParsedFragment call() throws IOException {
+                    return parseFragment(pool, fragment, mappings);
+                }
+            });
+            this.executor.execute(task);
+            parsed.add(task);
+        }
+        try {
+            for (int i = 0; i < parsed.size(); i++) {
+                ParsedFragment fragment = getResult(parsed.get(i));
+                if (fragment != null) {
+                    mergeFragment(pool, fragment, importMappings[i]);
+                }
+            }
+        } finally {
+            for (Future<ParsedFragment> future : parsed) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Waits for a parse task and unwraps its exception.
+     *
+     * @param future The parse task.
+     * @return The ParsedFragment.
+     * @throws IOException If the parse failed.
+     */
+    private static ParsedFragment getResult(Future<ParsedFragment> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while importing RTF fragments");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Parses one fragment into a scratch document. Runs on the Executor.
+     *
+     * @param pool The RtfParserPool to take the parser from.
+     * @param fragment The InputStream to read the fragment from.
+     * @param mappings The RtfImportMappings of the fragment.
+     * @return The ParsedFragment or null if there was nothing to import.
+     * @throws IOException On errors reading or parsing the fragment.
+     */
+    private ParsedFragment parseFragment(RtfParserPool pool, InputStream fragment, RtfImportMappings mappings)
+            throws IOException {
+        if (fragment == null || mappings == null) {
+            return null;
+        }
+        byte[] source = fragment.readAllBytes();
+        RtfDocument scratch = createScratchDocument();
+        RtfParser parser = pool.acquire(null);
+        parser.setHeaderTableCache(this.headerTableCache);
+        try {
+            parser.importRtfFragment(new ByteArrayInputStream(source), scratch, mappings);
+        } finally {
+            pool.release(parser);
+        }
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        scratch.writeBody(body);
+        return new ParsedFragment(source, scratch, body.toByteArray());
+    }
+
+    /**
+     * Creates a scratch document with the settings of the target document that affect the
+     * imported content.
+     *
+     * @return The new scratch RtfDocument.
+     */
+    private RtfDocument createScratchDocument() {
+        RtfDocument scratch = new RtfDocument();
+        RtfDocumentSettings from = this.rtfDoc.getDocumentSettings();
+        RtfDocumentSettings to = scratch.getDocumentSettings();
+        to.setOutputDebugLineBreaks(from.isOutputDebugLineBreaks());
+        to.setAlwaysGenerateSoftLinebreaks(from.isAlwaysGenerateSoftLinebreaks());
+        to.setAlwaysUseUnicode(from.isAlwaysUseUnicode());
+        to.setWriteImageScalingInformation(from.isWriteImageScalingInformation());
+        to.setImagePDFConformance(from.isImagePDFConformance());
+        to.setImageWrittenAsBinary(from.isImageWrittenAsBinary());
+        to.setParseLimits(from.getParseLimits());
+        return scratch;
+    }
+
+    /**
+     * Merges a parsed fragment into the target document. Runs on the calling thread, in fragment
+     * order.
+     *
+     * @param pool The RtfParserPool to take a parser from, if the fragment has to be imported again.
+     * @param fragment The ParsedFragment to merge.
+     * @param mappings The RtfImportMappings of the fragment.
+     * @throws IOException On errors importing the fragment.
+     */
+    private void mergeFragment(RtfParserPool pool, ParsedFragment fragment, RtfImportMappings mappings)
+            throws IOException {
+        if (!fragment.scratch.getDocumentHeader().getListTable().getLists().isEmpty()) {
+            RtfParser parser = pool.acquire(null);
+            parser.setHeaderTableCache(this.headerTableCache);
+            try {
+                parser.importRtfFragment(new ByteArrayInputStream(fragment.source), this.rtfDoc, mappings);
+            } finally {
+                pool.release(parser);
+            }
+            return;
+        }
+
+        List<RtfFont> fonts = fragment.scratch.getDocumentHeader().getFontList().getFonts();
+        int[] fontMap = new int[fonts.size()];
+        for (int i = 0; i < fontMap.length; i++) {
+            fontMap[i] = this.rtfDoc.getDocumentHeader().getFontNumber(new RtfFont(this.rtfDoc, fonts.get(i)));
+        }
+        List<RtfColor> colors =
+                fragment.scratch.getDocumentHeader().getColorList().getColors();
+        int[] colorMap = new int[colors.size()];
+        for (int i = 0; i < colorMap.length; i++) {
+            RtfColor color = colors.get(i);
+            colorMap[i] =
+                    this.rtfDoc.getDocumentHeader().getColorNumber(color.getRed(), color.getGreen(), color.getBlue());
+        }
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream(fragment.body.length + 16);
+        remapBody(fragment.body, fontMap, colorMap, body);
+        this.rtfDoc.add(new ImportedContent(this.rtfDoc, body.toByteArray()));
+    }
+
+    /**
+     * Copies parsed RTF content, replacing the font and color numbers of the control words that
+     * RtfDestinationDocument maps on import.
+     *
+     * @param body The parsed content.
+     * @param fontMap The scratch to target font number mapping.
+     * @param colorMap The scratch to target color number mapping.
+     * @param out The OutputStream to write the remapped content to.
+     * @throws IOException On i/o errors.
+     */
+    static void remapBody(byte[] body, int[] fontMap, int[] colorMap, OutputStream out) throws IOException {
+        int copied = 0;
+        int i = 0;
+        while (i < body.length) {
+            if (body[i] != '\\' || i + 1 >= body.length) {
+                i++;
+                continue;
+            }
+            int start = i + 1;
+            if (!isLetter(body[start])) {
+                // control symbol, \'hh takes two more characters
+                i = body[start] == '\'' ? start + 3 : start + 1;
+                continue;
+            }
+            int end = start;
+            while (end < body.length && isLetter(body[end])) {
+                end++;
+            }
+            String word = new String(body, start, end - start, StandardCharsets.ISO_8859_1);
+            int paramStart = end;
+            if (end < body.length && body[end] == '-') {
+                end++;
+            }
+            int digits = end;
+            long value = 0;
+            while (end < body.length && body[end] >= '0' && body[end] <= '9') {
+                if (value <= Integer.MAX_VALUE) {
+                    value = value * 10 + (body[end] - '0');
+                }
+                end++;
+            }
+            boolean hasParam = end > digits;
+            boolean negative = digits > paramStart;
+            i = end;
+            if (!hasParam) {
+                continue;
+            }
+            if (word.equals("bin")) {
+                // skip the binary data, it may contain anything
+                if (i < body.length && body[i] == ' ') {
+                    i++;
+                }
+                i = (int) Math.min(body.length, i + value);
+                continue;
+            }
+            int[] map;
+            switch (word) {
+                case "f":
+                    map = fontMap;
+                    break;
+                case "cb":
+                case "cf":
+                case "clcbpat":
+                case "clcbpatraw":
+                case "clcfpat":
+                case "clcfpatraw":
+                case "trcfpat":
+                case "trcbpat":
+                case "brdrcf":
+                    map = colorMap;
+                    break;
+                default:
+                    map = null;
+                    break;
+            }
+            if (map == null || negative || value >= map.length) {
+                continue;
+            }
+            out.write(body, copied, paramStart - copied);
+            String mapped = Integer.toString(map[(int) value]);
+            for (int k = 0; k < mapped.length(); k++) {
+                out.write(mapped.charAt(k));
+            }
+            copied = end;
+        }
+        out.write(body, copied, body.length - copied);
+    }
+
+    private static boolean isLetter(byte b) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z');
+    }
+
+    /** The result of parsing one fragment. */
+    private static final class ParsedFragment {
+        /** The fragment as read from its InputStream. */
+        private final byte[] source;
+
+        /** The scratch document the fragment was parsed into. */
+        private final RtfDocument scratch;
+
+        /** The parsed content, using the scratch document's font and color numbers. */
+        private final byte[] body;
+
+        ParsedFragment(byte[] source, RtfDocument scratch, byte[] body) {
+            this.source = source;
+            this.scratch = scratch;
+            this.body = body;
+        }
+    }
+
+    /** Already rendered content that is appended to the document as is. */
+    private static final class ImportedContent extends RtfElement {
+        /** The content bytes. */
+        private final byte[] content;
+
+        ImportedContent(RtfDocument doc, byte[] content) {
+            super(doc);
+            this.content = content;
+        }
+
+        public void writeContent(OutputStream out) throws IOException {
+            out.write(this.content);
+        }
+    }
+}
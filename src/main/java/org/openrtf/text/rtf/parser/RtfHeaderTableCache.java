@@ -0,0 +1,276 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+
+package org.openrtf.text.rtf.parser;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The <code>RtfHeaderTableCache</code> memoises the header tables of imported RTF. When a font,
+ * color or stylesheet table is parsed during an import, the <code>RtfImportMgr</code> calls it
+ * leads to are recorded as a recipe, keyed by the raw bytes of the table group. When the same table
+ * is imported again, into the same or any other <code>RtfDocument</code>, the parser skips the
+ * group and replays the recipe, which registers the fonts and colors in the new document and fills
+ * in its import mappings without parsing the table again.
+ *
+ * <p>List tables are not cached, since importing them creates list elements in the document.
+ *
+ * <p>The cache is thread-safe and is meant to be shared by all imports of an application. It
+ * holds at most a fixed number of tables and discards the least recently used ones.
+ *
+ * @see RtfParser#setHeaderTableCache(RtfHeaderTableCache)
+ * @since 3.0.1
+ */
+public class RtfHeaderTableCache {
+    /** The default maximum number of cached tables. */
+    public static final int DEFAULT_MAX_ENTRIES = 256;
+
+    /** Tables larger than this many bytes are parsed as usual and not cached. */
+    public static final int MAX_TABLE_SIZE = 64 * 1024;
+
+    /** The cached recipes, in least recently used order. */
+    private final Map<TableKey, Recipe> recipes;
+
+    /** The number of lookups that found a recipe. */
+    private long hits = 0;
+
+    /** The number of lookups that found no recipe. */
+    private long misses = 0;
+
+    /** Constructs a new <code>RtfHeaderTableCache</code> holding up to DEFAULT_MAX_ENTRIES tables. */
+    public RtfHeaderTableCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Constructs a new <code>RtfHeaderTableCache</code>.
+     *
+     * @param maxEntries The maximum number of tables to cache.
+     */
+    public RtfHeaderTableCache(final int maxEntries) {
+        this.recipes = new LinkedHashMap<TableKey, Recipe>(16, 0.75f, true) {
+            private static final long serialVersionUID = 4019532264317803219L;
+
+            protected boolean removeEldestEntry(Map.Entry<TableKey, Recipe> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Gets the recipe recorded for a table.
+     *
+     * @param destination The control word of the table, i.e. fonttbl.
+     * @param content The raw bytes of the table group.
+     * @return The recipe or null if the table is not cached.
+     */
+    Recipe get(String destination, byte[] content) {
+        synchronized (this.recipes) {
+            Recipe recipe = this.recipes.get(new TableKey(destination, content));
+            if (recipe != null) {
+                this.hits++;
+            } else {
+                this.misses++;
+            }
+            return recipe;
+        }
+    }
+
+    /**
+     * Stores the recipe recorded for a table.
+     *
+     * @param destination The control word of the table, i.e. fonttbl.
+     * @param content The raw bytes of the table group.
+     * @param recipe The recorded recipe.
+     */
+    void put(String destination, byte[] content, Recipe recipe) {
+        synchronized (this.recipes) {
+            this.recipes.put(new TableKey(destination, content), recipe);
+        }
+    }
+
+    /**
+     * Gets the number of cached tables.
+     *
+     * @return The number of cached tables.
+     */
+    public int size() {
+        synchronized (this.recipes) {
+            return this.recipes.size();
+        }
+    }
+
+    /**
+     * Gets the number of tables that were replayed from the cache.
+     *
+     * @return The number of cache hits.
+     */
+    public long getHitCount() {
+        synchronized (this.recipes) {
+            return this.hits;
+        }
+    }
+
+    /**
+     * Gets the number of tables that had to be parsed.
+     *
+     * @return The number of cache misses.
+     */
+    public long getMissCount() {
+        synchronized (this.recipes) {
+            return this.misses;
+        }
+    }
+
+    /** Removes all cached tables. */
+    public void clear() {
+        synchronized (this.recipes) {
+            this.recipes.clear();
+        }
+    }
+
+    /** The key of a cached table: the table control word and the raw bytes of the table group. */
+    private static final class TableKey {
+        private final String destination;
+        private final byte[] content;
+        private final int hash;
+
+        TableKey(String destination, byte[] content) {
+            this.destination = destination;
+            this.content = content;
+            this.hash = destination.hashCode() * 31 + Arrays.hashCode(content);
+        }
+
+        public int hashCode() {
+            return this.hash;
+        }
+
+        public boolean equals(Object obj) {
+            if (!(obj instanceof TableKey)) {
+                return false;
+            }
+            TableKey key = (TableKey) obj;
+            return this.hash == key.hash
+                    && this.destination.equals(key.destination)
+                    && Arrays.equals(this.content, key.content);
+        }
+    }
+
+    /**
+     * The <code>RtfImportMgr</code> calls made while a table was parsed. A recipe is only modified
+     * while it is recorded and is read-only once it is in the cache.
+     */
+    static final class Recipe {
+        private static final int FONT = 1;
+        private static final int FONT_CHARSET = 2;
+        private static final int FONT_FAMILY_CHARSET = 3;
+        private static final int COLOR = 4;
+
+        /** The recorded calls. */
+        private final List<Step> steps = new ArrayList<>();
+
+        void addFont(String fontNr, String fontName) {
+            this.steps.add(new Step(FONT, fontNr, fontName, null, 0, 0, null));
+        }
+
+        void addFont(String fontNr, String fontName, int charset) {
+            this.steps.add(new Step(FONT_CHARSET, fontNr, fontName, null, charset, 0, null));
+        }
+
+        void addFont(String fontNr, String fontName, String fontFamily, int charset) {
+            this.steps.add(new Step(FONT_FAMILY_CHARSET, fontNr, fontName, fontFamily, charset, 0, null));
+        }
+
+        void addColor(int colorNr, Color color) {
+            this.steps.add(new Step(COLOR, null, null, null, 0, colorNr, color));
+        }
+
+        /**
+         * Replays the recorded calls on an <code>RtfImportMgr</code>.
+         *
+         * @param importMgr The RtfImportMgr of the current import.
+         */
+        void replay(RtfImportMgr importMgr) {
+            for (Step step : this.steps) {
+                switch (step.type) {
+                    case FONT:
+                        importMgr.importFont(step.nr, step.name);
+                        break;
+                    case FONT_CHARSET:
+                        importMgr.importFont(step.nr, step.name, step.charset);
+                        break;
+                    case FONT_FAMILY_CHARSET:
+                        importMgr.importFont(step.nr, step.name, step.family, step.charset);
+                        break;
+                    case COLOR:
+                        importMgr.importColor(step.colorNr, step.color);
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+    }
+
+    /** One recorded <code>RtfImportMgr</code> call. */
+    private static final class Step {
+        private final int type;
+        private final String nr;
+        private final String name;
+        private final String family;
+        private final int charset;
+        private final int colorNr;
+        private final Color color;
+
+        Step(int type, String nr, String name, String family, int charset, int colorNr, Color color) {
+            this.type = type;
+            this.nr = nr;
+            this.name = name;
+            this.family = family;
+            this.charset = charset;
+            this.colorNr = colorNr;
+            this.color = color;
+        }
+    }
+}
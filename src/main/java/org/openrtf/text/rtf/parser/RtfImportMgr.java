@@ -49,13 +49,13 @@
 package org.openrtf.text.rtf.parser;
 
 import java.awt.Color;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import org.openpdf.text.Document;
 import org.openpdf.text.List;
 import org.openrtf.text.rtf.document.RtfDocument;
 import org.openrtf.text.rtf.list.RtfList;
-import org.openrtf.text.rtf.style.RtfColor;
 import org.openrtf.text.rtf.style.RtfFont;
 
 /**
@@ -71,23 +71,29 @@ import org.openrtf.text.rtf.style.RtfFont;
  */
 public class RtfImportMgr {
     // TODO: Add list, stylesheet, info, etc. mappings
-    /** The HashMap storing the font number mappings. */
-    private final Map<String, String> importFontMapping = new HashMap<>();
+    /** Returned by the int map methods if a number has no mapping. */
+    public static final int NOT_MAPPED = -1;
 
-    /** The HashMap storing the color number mappings. */
-    private final Map<String, String> importColorMapping = new HashMap<>();
+    /** The table storing the font number mappings. */
+    private final RemapTable importFontMapping = new RemapTable();
 
-    /** The HashMap storing the Stylesheet List number mappings. */
-    private final Map<String, String> importStylesheetListMapping = new HashMap<>();
+    /** The table storing the color number mappings. */
+    private final RemapTable importColorMapping = new RemapTable();
 
-    /** The HashMap storing the List number mappings. */
-    private final Map<String, String> importListMapping = new HashMap<>();
+    /** The table storing the Stylesheet List number mappings. */
+    private final RemapTable importStylesheetListMapping = new RemapTable();
+
+    /** The table storing the List number mappings. */
+    private final RemapTable importListMapping = new RemapTable();
 
     /** The RtfDocument to get font and color numbers from. */
-    private final RtfDocument rtfDoc;
+    private RtfDocument rtfDoc;
 
     /** The Document. Used for conversions, but not imports. */
-    private final Document doc;
+    private Document doc;
+
+    /** The recipe the import calls are recorded to. Null if not recording. */
+    private RtfHeaderTableCache.Recipe recorder = null;
 
     /**
      * Constructs a new RtfImportHeader.
@@ -99,6 +105,34 @@ public class RtfImportMgr {
         this.doc = doc;
     }
 
+    /**
+     * Clears all mappings and binds this RtfImportMgr to a new target document. Used when a parser
+     * is reused for another import.
+     *
+     * @param rtfDoc The RtfDocument to get font and color numbers from.
+     * @param doc The Document. Used for conversions, but not imports.
+     * @since 3.0.1
+     */
+    public void reset(RtfDocument rtfDoc, Document doc) {
+        this.rtfDoc = rtfDoc;
+        this.doc = doc;
+        this.importFontMapping.clear();
+        this.importColorMapping.clear();
+        this.importStylesheetListMapping.clear();
+        this.importListMapping.clear();
+        this.recorder = null;
+    }
+
+    /**
+     * Starts or stops recording the font and color import calls, used by the RtfHeaderTableCache.
+     *
+     * @param recorder The recipe to record to, null to stop recording.
+     * @since 3.0.1
+     */
+    void setRecorder(RtfHeaderTableCache.Recipe recorder) {
+        this.recorder = recorder;
+    }
+
     /**
      * Imports a font. The font name is looked up in the RtfDocumentHeader and then the mapping from
      * original font number to actual font number is added.
@@ -107,10 +141,11 @@ public class RtfImportMgr {
      * @param fontName The font name to look up.
      */
     public boolean importFont(String fontNr, String fontName) {
+        if (this.recorder != null) this.recorder.addFont(fontNr, fontName);
         RtfFont rtfFont = new RtfFont(fontName);
         rtfFont.setRtfDocument(this.rtfDoc);
         this.importFontMapping.put(
-                fontNr, Integer.toString(this.rtfDoc.getDocumentHeader().getFontNumber(rtfFont)));
+                toNumber(fontNr), this.rtfDoc.getDocumentHeader().getFontNumber(rtfFont));
         return true;
     }
 
@@ -123,11 +158,12 @@ public class RtfImportMgr {
      * @param charset The character set to use for the font.
      */
     public boolean importFont(String fontNr, String fontName, int charset) {
+        if (this.recorder != null) this.recorder.addFont(fontNr, fontName, charset);
         RtfFont rtfFont = new RtfFont(fontName);
         if (charset >= 0) rtfFont.setCharset(charset);
         rtfFont.setRtfDocument(this.rtfDoc);
         this.importFontMapping.put(
-                fontNr, Integer.toString(this.rtfDoc.getDocumentHeader().getFontNumber(rtfFont)));
+                toNumber(fontNr), this.rtfDoc.getDocumentHeader().getFontNumber(rtfFont));
         return true;
     }
 
@@ -140,13 +176,14 @@ public class RtfImportMgr {
      * @param charset The character set to use for the font.
      */
     public boolean importFont(String fontNr, String fontName, String fontFamily, int charset) {
+        if (this.recorder != null) this.recorder.addFont(fontNr, fontName, fontFamily, charset);
         RtfFont rtfFont = new RtfFont(fontName);
 
         if (charset >= 0) rtfFont.setCharset(charset);
         if (fontFamily != null && fontFamily.length() > 0) rtfFont.setFamily(fontFamily);
         rtfFont.setRtfDocument(this.rtfDoc);
         this.importFontMapping.put(
-                fontNr, Integer.toString(this.rtfDoc.getDocumentHeader().getFontNumber(rtfFont)));
+                toNumber(fontNr), this.rtfDoc.getDocumentHeader().getFontNumber(rtfFont));
         return true;
     }
 
@@ -159,11 +196,21 @@ public class RtfImportMgr {
      * @return The mapped font number.
      */
     public String mapFontNr(String fontNr) {
-        if (this.importFontMapping.containsKey(fontNr)) {
-            return this.importFontMapping.get(fontNr);
-        } else {
-            return "0";
-        }
+        return Integer.toString(mapFontNr(toNumber(fontNr)));
+    }
+
+    /**
+     * Performs the mapping from the original font number to the actual font number in the resulting
+     * RTF document. If the font number was not seen during import (thus no mapping) then 0 is
+     * returned, guaranteeing that the font number is always valid.
+     *
+     * @param fontNr The font number to map.
+     * @return The mapped font number.
+     * @since 3.0.1
+     */
+    public int mapFontNr(int fontNr) {
+        int mapped = this.importFontMapping.get(fontNr);
+        return mapped == NOT_MAPPED ? 0 : mapped;
     }
 
     /**
@@ -174,8 +221,23 @@ public class RtfImportMgr {
      * @param color The color to import.
      */
     public void importColor(String colorNr, Color color) {
-        RtfColor rtfColor = new RtfColor(this.rtfDoc, color);
-        this.importColorMapping.put(colorNr, Integer.toString(rtfColor.getColorNumber()));
+        importColor(toNumber(colorNr), color);
+    }
+
+    /**
+     * Imports a color value. The color number for the color defined by its red, green and blue
+     * values is determined and then the resulting mapping is added.
+     *
+     * @param colorNr The original color number.
+     * @param color The color to import.
+     * @since 3.0.1
+     */
+    public void importColor(int colorNr, Color color) {
+        if (this.recorder != null) this.recorder.addColor(colorNr, color);
+        int colorNumber = color == null
+                ? 0
+                : this.rtfDoc.getDocumentHeader().getColorNumber(color.getRed(), color.getGreen(), color.getBlue());
+        this.importColorMapping.put(colorNr, colorNumber);
     }
 
     /**
@@ -187,11 +249,21 @@ public class RtfImportMgr {
      * @return The mapped color number
      */
     public String mapColorNr(String colorNr) {
-        if (this.importColorMapping.containsKey(colorNr)) {
-            return this.importColorMapping.get(colorNr);
-        } else {
-            return "0";
-        }
+        return Integer.toString(mapColorNr(toNumber(colorNr)));
+    }
+
+    /**
+     * Performs the mapping from the original color number to the actual color number used in the RTF
+     * document. If the color number was not seen during import (thus no mapping) then 0 is
+     * returned, guaranteeing that the color number is always valid.
+     *
+     * @param colorNr The color number to map.
+     * @return The mapped color number
+     * @since 3.0.1
+     */
+    public int mapColorNr(int colorNr) {
+        int mapped = this.importColorMapping.get(colorNr);
+        return mapped == NOT_MAPPED ? 0 : mapped;
     }
 
     /**
@@ -199,6 +271,18 @@ public class RtfImportMgr {
      * resulting mapping is added.
      */
     public void importList(String origListNr, String newListNr) {
+        importList(toNumber(origListNr), toNumber(newListNr));
+    }
+
+    /**
+     * Imports a List value. The List number for the List defined is determined and then the
+     * resulting mapping is added.
+     *
+     * @param origListNr The original list number.
+     * @param newListNr The list number in the resulting RTF document.
+     * @since 3.0.1
+     */
+    public void importList(int origListNr, int newListNr) {
         this.importListMapping.put(origListNr, newListNr);
     }
 
@@ -208,11 +292,20 @@ public class RtfImportMgr {
      * returned. There is no guarantee of a valid list number.
      */
     public String mapListNr(String listNr) {
-        if (this.importListMapping.containsKey(listNr)) {
-            return this.importListMapping.get(listNr);
-        } else {
-            return null;
-        }
+        int mapped = mapListNr(toNumber(listNr));
+        return mapped == NOT_MAPPED ? null : Integer.toString(mapped);
+    }
+
+    /**
+     * Performs the mapping from the original list number to the actual list number in the resulting
+     * RTF document.
+     *
+     * @param listNr The list number to map.
+     * @return The mapped list number or NOT_MAPPED if the list number was not seen during import.
+     * @since 3.0.1
+     */
+    public int mapListNr(int listNr) {
+        return this.importListMapping.get(listNr);
     }
 
     /**
@@ -234,10 +327,74 @@ public class RtfImportMgr {
      * mapping) then 0 is returned, guaranteeing that the stylesheet number is always valid.
      */
     public String mapStylesheetListNr(String listNr) {
-        if (this.importStylesheetListMapping.containsKey(listNr)) {
-            return this.importStylesheetListMapping.get(listNr);
-        } else {
-            return "0";
+        int mapped = this.importStylesheetListMapping.get(toNumber(listNr));
+        return mapped == NOT_MAPPED ? "0" : Integer.toString(mapped);
+    }
+
+    /**
+     * Parses a number used as a mapping key. Keys that are not numbers can never be referenced by a
+     * control word parameter and are returned as NOT_MAPPED.
+     *
+     * @param number The number to parse.
+     * @return The number or NOT_MAPPED.
+     */
+    private static int toNumber(String number) {
+        if (number == null) {
+            return NOT_MAPPED;
+        }
+        try {
+            return Integer.parseInt(number.trim());
+        } catch (NumberFormatException e) {
+            return NOT_MAPPED;
+        }
+    }
+
+    /**
+     * A dense <code>int[]</code> remap table indexed by the source number. Font, color and list
+     * numbers in real documents are small and contiguous, so lookups are a bounds check and an array
+     * access. Numbers outside the dense range fall back to a HashMap.
+     *
+     * @since 3.0.1
+     */
+    private static final class RemapTable {
+
+        /** The largest source number stored in the dense table. */
+        private static final int MAX_DENSE = 0xFFFF;
+
+        /** The dense table. Unmapped entries are NOT_MAPPED. */
+        private int[] values = new int[0];
+
+        /** The mappings for source numbers outside the dense range. */
+        private final Map<Integer, Integer> overflow = new HashMap<>();
+
+        void put(int from, int to) {
+            if (from >= 0 && from <= MAX_DENSE) {
+                if (from >= this.values.length) {
+                    int oldLength = this.values.length;
+                    this.values =
+                            Arrays.copyOf(this.values, Math.min(Math.max(from + 1, oldLength * 2), MAX_DENSE + 1));
+                    Arrays.fill(this.values, oldLength, this.values.length, NOT_MAPPED);
+                }
+                this.values[from] = to;
+            } else if (from != NOT_MAPPED) {
+                this.overflow.put(from, to);
+            }
+        }
+
+        int get(int from) {
+            if (from >= 0 && from < this.values.length) {
+                return this.values[from];
+            }
+            if (this.overflow.isEmpty()) {
+                return NOT_MAPPED;
+            }
+            Integer mapped = this.overflow.get(from);
+            return mapped == null ? NOT_MAPPED : mapped;
+        }
+
+        void clear() {
+            Arrays.fill(this.values, NOT_MAPPED);
+            this.overflow.clear();
         }
     }
 }
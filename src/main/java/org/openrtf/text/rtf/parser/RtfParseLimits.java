@@ -0,0 +1,182 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+
+package org.openrtf.text.rtf.parser;
+
+/**
+ * The <code>RtfParseLimits</code> define the resource budget a single <code>RtfParser</code> run may
+ * use. They are intended for importing RTF from untrusted sources, where a small input can
+ * otherwise describe deeply nested groups, huge pictures or an endless stream of control words.
+ * When a limit is exceeded the parser aborts with a <code>RtfParseLimitException</code>.
+ *
+ * <p>All limits are unlimited by default. Setting a limit to a value of 0 or less removes it.
+ *
+ * @see org.openrtf.text.rtf.parser.exceptions.RtfParseLimitException
+ * @since 3.0.1
+ */
+public class RtfParseLimits {
+
+    /** Limit on the group nesting depth. */
+    public static final int LIMIT_GROUP_DEPTH = 1;
+
+    /** Limit on the number of picture data bytes, hex encoded or \bin. */
+    public static final int LIMIT_PICTURE_BYTES = 2;
+
+    /** Limit on the number of decoded text characters. */
+    public static final int LIMIT_TEXT_CHARACTERS = 3;
+
+    /** Limit on the number of control words. */
+    public static final int LIMIT_CONTROL_WORDS = 4;
+
+    /** Limit on the wall clock time of a single parse. */
+    public static final int LIMIT_PARSE_TIME = 5;
+
+    /** The maximum group nesting depth. */
+    private int maxGroupDepth = 0;
+
+    /** The maximum number of picture data bytes over all pictures. */
+    private long maxPictureBytes = 0;
+
+    /** The maximum number of decoded text characters. */
+    private long maxTextCharacters = 0;
+
+    /** The maximum number of control words. */
+    private long maxControlWords = 0;
+
+    /** The maximum parse time in milliseconds. */
+    private long maxParseTimeMillis = 0;
+
+    /** Constructs a new <code>RtfParseLimits</code> without any limits set. */
+    public RtfParseLimits() {}
+
+    /**
+     * Gets the maximum group nesting depth.
+     *
+     * @return The maximum group depth, 0 if unlimited.
+     */
+    public int getMaxGroupDepth() {
+        return this.maxGroupDepth;
+    }
+
+    /**
+     * Sets the maximum group nesting depth.
+     *
+     * @param maxGroupDepth The maximum group depth, 0 for unlimited.
+     */
+    public void setMaxGroupDepth(int maxGroupDepth) {
+        this.maxGroupDepth = Math.max(maxGroupDepth, 0);
+    }
+
+    /**
+     * Gets the maximum number of picture data bytes.
+     *
+     * @return The maximum number of picture bytes, 0 if unlimited.
+     */
+    public long getMaxPictureBytes() {
+        return this.maxPictureBytes;
+    }
+
+    /**
+     * Sets the maximum number of picture data bytes over all pictures of the document. Hex encoded
+     * data counts one byte per two hex digits. A \bin control word announcing more bytes than this is
+     * rejected before any of its data is read.
+     *
+     * @param maxPictureBytes The maximum number of picture bytes, 0 for unlimited.
+     */
+    public void setMaxPictureBytes(long maxPictureBytes) {
+        this.maxPictureBytes = Math.max(maxPictureBytes, 0);
+    }
+
+    /**
+     * Gets the maximum number of decoded text characters.
+     *
+     * @return The maximum number of text characters, 0 if unlimited.
+     */
+    public long getMaxTextCharacters() {
+        return this.maxTextCharacters;
+    }
+
+    /**
+     * Sets the maximum number of decoded text characters. Every character that is not picture data
+     * counts, including characters in destinations that are skipped.
+     *
+     * @param maxTextCharacters The maximum number of text characters, 0 for unlimited.
+     */
+    public void setMaxTextCharacters(long maxTextCharacters) {
+        this.maxTextCharacters = Math.max(maxTextCharacters, 0);
+    }
+
+    /**
+     * Gets the maximum number of control words.
+     *
+     * @return The maximum number of control words, 0 if unlimited.
+     */
+    public long getMaxControlWords() {
+        return this.maxControlWords;
+    }
+
+    /**
+     * Sets the maximum number of control words and control symbols.
+     *
+     * @param maxControlWords The maximum number of control words, 0 for unlimited.
+     */
+    public void setMaxControlWords(long maxControlWords) {
+        this.maxControlWords = Math.max(maxControlWords, 0);
+    }
+
+    /**
+     * Gets the maximum parse time.
+     *
+     * @return The maximum parse time in milliseconds, 0 if unlimited.
+     */
+    public long getMaxParseTimeMillis() {
+        return this.maxParseTimeMillis;
+    }
+
+    /**
+     * Sets the maximum wall clock time of a single parse. The clock is only checked every 4096
+     * input bytes, so the parse may run slightly longer than this. Time spent blocked while
+     * reading the input is not interrupted.
+     *
+     * @param maxParseTimeMillis The maximum parse time in milliseconds, 0 for unlimited.
+     */
+    public void setMaxParseTimeMillis(long maxParseTimeMillis) {
+        this.maxParseTimeMillis = Math.max(maxParseTimeMillis, 0);
+    }
+}
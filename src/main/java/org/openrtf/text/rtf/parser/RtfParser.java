@@ -49,6 +49,7 @@
 package org.openrtf.text.rtf.parser;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PushbackInputStream;
@@ -68,7 +69,12 @@ import org.openrtf.text.rtf.parser.ctrlwords.RtfCtrlWordData;
 import org.openrtf.text.rtf.parser.ctrlwords.RtfCtrlWordListener;
 import org.openrtf.text.rtf.parser.ctrlwords.RtfCtrlWordMgr;
 import org.openrtf.text.rtf.parser.destinations.RtfDestination;
+import org.openrtf.text.rtf.parser.destinations.RtfDestinationColorTable;
+import org.openrtf.text.rtf.parser.destinations.RtfDestinationFontTable;
 import org.openrtf.text.rtf.parser.destinations.RtfDestinationMgr;
+import org.openrtf.text.rtf.parser.destinations.RtfDestinationShppict;
+import org.openrtf.text.rtf.parser.destinations.RtfDestinationStylesheetTable;
+import org.openrtf.text.rtf.parser.exceptions.RtfParseLimitException;
 
 /**
  * The RtfParser allows the importing of RTF documents or RTF document fragments. The RTF document
@@ -318,6 +324,57 @@ public class RtfParser {
      */
     private int skipGroupLevel = 0;
 
+    /**
+     * The resource limits set on this parser. If <code>null</code> the limits of the target
+     * document's settings are used.
+     */
+    private RtfParseLimits parseLimits = null;
+
+    /** The active maximum group depth. Integer.MAX_VALUE if unlimited. */
+    private int maxGroupDepth = Integer.MAX_VALUE;
+
+    /** The active maximum number of picture data characters. Long.MAX_VALUE if unlimited. */
+    private long maxPictureData = Long.MAX_VALUE;
+
+    /** The active maximum number of text characters. Long.MAX_VALUE if unlimited. */
+    private long maxTextCharacters = Long.MAX_VALUE;
+
+    /** The active maximum number of control words. Long.MAX_VALUE if unlimited. */
+    private long maxControlWords = Long.MAX_VALUE;
+
+    /** The active maximum parse time in milliseconds. 0 if unlimited. */
+    private long maxParseTimeMillis = 0;
+
+    /** The number of picture data characters read. Binary bytes count as two hex digits. */
+    private long pictureDataCount = 0;
+
+    /** The number of text characters read. */
+    private long textCharacterCount = 0;
+
+    /** The number of input bytes between two checks of the parse time limit. */
+    private static final int PARSE_TIME_CHECK_INTERVAL = 4096;
+
+    /**
+     * The size of the pushback buffer when a header table cache is used. A header table that is
+     * read ahead is at most two bytes longer than the maximum table size.
+     */
+    private static final int HEADER_TABLE_PUSHBACK_SIZE = RtfHeaderTableCache.MAX_TABLE_SIZE + 2;
+
+    /** The cache of parsed header tables. May be null. */
+    private RtfHeaderTableCache headerTableCache = null;
+
+    /** The recipe of the header table currently being recorded. Null if not recording. */
+    private RtfHeaderTableCache.Recipe headerTableRecipe = null;
+
+    /** The control word of the header table currently being recorded. */
+    private String headerTableDestination = null;
+
+    /** The raw bytes of the header table currently being recorded. */
+    private byte[] headerTableContent = null;
+
+    /** The group level of the header table currently being recorded. */
+    private int headerTableGroupLevel = 0;
+
     // RTF parser error codes
     public static final int errOK = 0; // Everything's fine!
     public static final int errStackUnderflow = -1; // Unmatched '}'
@@ -414,6 +471,8 @@ public class RtfParser {
         this.groupLevel = 0;
         try {
             this.tokenise();
+        } catch (RtfParseLimitException e) {
+            throw e;
         } catch (RuntimeException e) {
             // TODO Auto-generated catch block
             e.printStackTrace();
@@ -444,6 +503,8 @@ public class RtfParser {
         this.groupLevel = 0;
         try {
             this.tokenise();
+        } catch (RtfParseLimitException e) {
+            throw e;
         } catch (RuntimeException e) {
             // TODO Auto-generated catch block
             e.printStackTrace();
@@ -515,6 +576,9 @@ public class RtfParser {
      */
     public void addListener(EventListener listener) {
         listeners.add(listener);
+        if (this.rtfKeywordMgr != null && listener instanceof RtfCtrlWordListener) {
+            this.rtfKeywordMgr.addRtfCtrlWordListener((RtfCtrlWordListener) listener);
+        }
     }
 
     /**
@@ -525,6 +589,20 @@ public class RtfParser {
      */
     public void removeListener(EventListener listener) {
         listeners.remove(listener);
+        if (this.rtfKeywordMgr != null && listener instanceof RtfCtrlWordListener) {
+            this.rtfKeywordMgr.removeRtfCtrlWordListener((RtfCtrlWordListener) listener);
+        }
+    }
+
+    /**
+     * Removes all <CODE>EventListener</CODE>s. Used when a parser is returned to a pool.
+     *
+     * @since 3.0.1
+     */
+    void removeAllListeners() {
+        for (EventListener listener : new ArrayList<>(this.listeners)) {
+            removeListener(listener);
+        }
     }
 
     /**
@@ -538,7 +616,7 @@ public class RtfParser {
      */
     private void init(int type, RtfDocument rtfDoc, InputStream readerIn, Document doc, Element elem) {
 
-        init_stats();
+        this.reset();
         // initialize reader to a PushbackReader
         this.pbReader = init_Reader(readerIn);
 
@@ -546,15 +624,19 @@ public class RtfParser {
         this.rtfDoc = rtfDoc;
         this.document = doc;
         this.elem = elem;
-        this.currentState = new RtfParserState();
-        this.stackState = new ArrayDeque<>();
         this.setParserState(PARSER_STARTSTOP);
+        this.initParseLimits();
+
+        if (this.rtfKeywordMgr != null) {
+            // reused parser: keep the control word and destination tables built by the first run
+            this.importMgr.reset(this.rtfDoc, this.document);
+            return;
+        }
+
         this.importMgr = new RtfImportMgr(this.rtfDoc, this.document);
 
         // get destination Mgr
-        this.destinationMgr = RtfDestinationMgr.getInstance(this);
-        // set the parser
-        RtfDestinationMgr.setParser(this);
+        this.destinationMgr = getDestinationMgr();
 
         // DEBUG INFO for timing and memory usage of RtfCtrlWordMgr object
         // create multiple new RtfCtrlWordMgr objects to check timing and memory usage
@@ -701,6 +783,230 @@ public class RtfParser {
         // 1024) + "k");
     }
 
+    /**
+     * Resets the parser so that it can be reused for another import or conversion. All per-document
+     * state is cleared and the references to the previous input and target documents are released.
+     * The control word, import and destination managers built by the first run are kept, so a
+     * reused parser does not pay for building them again.
+     *
+     * @since 3.0.1
+     */
+    public void reset() {
+        init_stats();
+        this.pbReader = null;
+        this.rtfDoc = null;
+        this.elem = null;
+        this.conversionType = TYPE_IMPORT_FULL;
+        this.groupLevel = 0;
+        this.docGroupLevel = 0;
+        this.binByteCount = 0;
+        this.binSkipByteCount = 0;
+        this.skipGroupLevel = 0;
+        this.lastCtrlWordParam = null;
+        this.headerTableRecipe = null;
+        this.headerTableDestination = null;
+        this.headerTableContent = null;
+        if (this.stackState == null) {
+            this.stackState = new ArrayDeque<>();
+        } else {
+            this.stackState.clear();
+        }
+        this.currentState = new RtfParserState();
+        if (this.importMgr != null) {
+            this.importMgr.reset(null, this.document);
+        }
+        if (this.destinationMgr != null) {
+            this.destinationMgr.resetDestinations();
+        }
+    }
+
+    /**
+     * Sets the resource limits for this parser. Overrides the limits set in the
+     * <code>RtfDocumentSettings</code> of the target document.
+     *
+     * @param parseLimits The <code>RtfParseLimits</code> to use, <code>null</code> to use the
+     *     document settings.
+     * @since 3.0.1
+     */
+    public void setParseLimits(RtfParseLimits parseLimits) {
+        this.parseLimits = parseLimits;
+    }
+
+    /**
+     * Gets the resource limits set on this parser.
+     *
+     * @return The <code>RtfParseLimits</code> of this parser or <code>null</code> if none are set.
+     * @since 3.0.1
+     */
+    public RtfParseLimits getParseLimits() {
+        return this.parseLimits;
+    }
+
+    /**
+     * Sets the cache of parsed header tables. When set, font, color and stylesheet tables seen
+     * during an import are recorded and replayed from the cache the next time the same table is
+     * imported. The cache is not used for conversions or while listeners are registered.
+     *
+     * @param headerTableCache The <code>RtfHeaderTableCache</code> to use, <code>null</code> to
+     *     parse all tables.
+     * @since 3.0.1
+     */
+    public void setHeaderTableCache(RtfHeaderTableCache headerTableCache) {
+        this.headerTableCache = headerTableCache;
+    }
+
+    /**
+     * Gets the cache of parsed header tables.
+     *
+     * @return The <code>RtfHeaderTableCache</code> or <code>null</code> if none is set.
+     * @since 3.0.1
+     */
+    public RtfHeaderTableCache getHeaderTableCache() {
+        return this.headerTableCache;
+    }
+
+    /**
+     * Looks up the header table that was just opened by a control word in the header table cache.
+     * The raw table group is read ahead. If a recipe for it is cached, the recipe is replayed and
+     * the group is skipped. Otherwise the group is pushed back for the tokeniser and the import
+     * calls made while it is parsed are recorded.
+     *
+     * @param ctrlWord The control word that was just handled.
+     * @throws IOException On I/O errors.
+     * @since 3.0.1
+     */
+    private void handleHeaderTableCache(String ctrlWord) throws IOException {
+        switch (ctrlWord) {
+            case "fonttbl":
+            case "colortbl":
+            case "stylesheet":
+                break;
+            default:
+                return;
+        }
+        RtfDestination dest = this.getCurrentDestination();
+        if (!this.isImport()
+                || !this.listeners.isEmpty()
+                || this.getTokeniserState() != TOKENISER_NORMAL
+                || !(dest instanceof RtfDestinationFontTable
+                        || dest instanceof RtfDestinationColorTable
+                        || dest instanceof RtfDestinationStylesheetTable)) {
+            return;
+        }
+
+        ByteArrayOutputStream group = new ByteArrayOutputStream();
+        boolean complete = false;
+        int depth = 1;
+        int nextChar;
+        while (group.size() <= RtfHeaderTableCache.MAX_TABLE_SIZE && (nextChar = this.pbReader.read()) != -1) {
+            group.write(nextChar);
+            if (nextChar == '\\') {
+                if ((nextChar = this.pbReader.read()) == -1) {
+                    break;
+                }
+                group.write(nextChar);
+            } else if (nextChar == '{') {
+                depth++;
+            } else if (nextChar == '}' && --depth == 0) {
+                complete = true;
+                break;
+            }
+        }
+        byte[] content = group.toByteArray();
+
+        RtfHeaderTableCache.Recipe recipe = complete ? this.headerTableCache.get(ctrlWord, content) : null;
+        if (recipe != null) {
+            recipe.replay(this.importMgr);
+            this.setCurrentDestination(RtfDestinationMgr.DESTINATION_NULL);
+            this.byteCount += content.length - 1;
+            // let the tokeniser close the group
+            this.pbReader.unread('}');
+            return;
+        }
+        if (complete) {
+            this.headerTableRecipe = new RtfHeaderTableCache.Recipe();
+            this.headerTableDestination = ctrlWord;
+            this.headerTableContent = content;
+            this.headerTableGroupLevel = this.groupLevel;
+            this.importMgr.setRecorder(this.headerTableRecipe);
+        }
+        this.pbReader.unread(content);
+    }
+
+    /**
+     * Stores the recorded recipe of the header table that was just closed in the header table
+     * cache.
+     *
+     * @since 3.0.1
+     */
+    private void finishHeaderTableRecording() {
+        this.importMgr.setRecorder(null);
+        this.headerTableCache.put(this.headerTableDestination, this.headerTableContent, this.headerTableRecipe);
+        this.headerTableRecipe = null;
+        this.headerTableDestination = null;
+        this.headerTableContent = null;
+    }
+
+    /**
+     * Copies the active limits into plain fields so that the tokeniser only has to compare
+     * counters.
+     *
+     * @since 3.0.1
+     */
+    private void initParseLimits() {
+        RtfParseLimits limits = this.parseLimits;
+        if (limits == null && this.rtfDoc != null) {
+            limits = this.rtfDoc.getDocumentSettings().getParseLimits();
+        }
+        this.pictureDataCount = 0;
+        this.textCharacterCount = 0;
+        if (limits == null) {
+            this.maxGroupDepth = Integer.MAX_VALUE;
+            this.maxPictureData = Long.MAX_VALUE;
+            this.maxTextCharacters = Long.MAX_VALUE;
+            this.maxControlWords = Long.MAX_VALUE;
+            this.maxParseTimeMillis = 0;
+            return;
+        }
+        this.maxGroupDepth = limits.getMaxGroupDepth() > 0 ? limits.getMaxGroupDepth() : Integer.MAX_VALUE;
+        // two hex digits per picture byte
+        this.maxPictureData = limits.getMaxPictureBytes() > 0 && limits.getMaxPictureBytes() < Long.MAX_VALUE / 2
+                ? limits.getMaxPictureBytes() * 2
+                : Long.MAX_VALUE;
+        this.maxTextCharacters = limits.getMaxTextCharacters() > 0 ? limits.getMaxTextCharacters() : Long.MAX_VALUE;
+        this.maxControlWords = limits.getMaxControlWords() > 0 ? limits.getMaxControlWords() : Long.MAX_VALUE;
+        this.maxParseTimeMillis = limits.getMaxParseTimeMillis();
+    }
+
+    /**
+     * Creates the exception for an exceeded limit.
+     *
+     * @param limit The limit that was exceeded.
+     * @return The <code>RtfParseLimitException</code> to throw.
+     * @since 3.0.1
+     */
+    private RtfParseLimitException limitExceeded(int limit) {
+        long maximum;
+        switch (limit) {
+            case RtfParseLimits.LIMIT_GROUP_DEPTH:
+                maximum = this.maxGroupDepth;
+                break;
+            case RtfParseLimits.LIMIT_PICTURE_BYTES:
+                maximum = this.maxPictureData / 2;
+                break;
+            case RtfParseLimits.LIMIT_TEXT_CHARACTERS:
+                maximum = this.maxTextCharacters;
+                break;
+            case RtfParseLimits.LIMIT_CONTROL_WORDS:
+                maximum = this.maxControlWords;
+                break;
+            default:
+                maximum = this.maxParseTimeMillis;
+                break;
+        }
+        return new RtfParseLimitException(limit, maximum, this.byteCount);
+    }
+
     /**
      * Initialize the statistics values.
      *
@@ -748,6 +1054,10 @@ public class RtfParser {
         if (!(readerIn instanceof BufferedInputStream)) {
             readerIn = new BufferedInputStream(readerIn);
         }
+        if (this.headerTableCache != null) {
+            // header tables are read ahead and handed back to the tokeniser if they are not cached
+            return new PushbackInputStream(readerIn, HEADER_TABLE_PUSHBACK_SIZE);
+        }
         if (!(readerIn instanceof PushbackInputStream)) {
             readerIn = new PushbackInputStream(readerIn);
         }
@@ -919,6 +1229,10 @@ public class RtfParser {
             this.setTokeniserState(TOKENISER_NORMAL);
         }
 
+        if (this.headerTableRecipe != null && this.groupLevel < this.headerTableGroupLevel) {
+            finishHeaderTableRecording();
+        }
+
         return result;
     }
 
@@ -1055,6 +1369,16 @@ public class RtfParser {
         return this.document;
     }
 
+    /**
+     * Set the Document object. Used to bind a reused parser to the document of the next import.
+     *
+     * @param doc The iText document the RTF document is added to.
+     * @since 3.0.1
+     */
+    public void setDocument(Document doc) {
+        this.document = doc;
+    }
+
     /**
      * Get the RtfImportHeader object.
      *
@@ -1065,6 +1389,19 @@ public class RtfParser {
         return importMgr;
     }
 
+    /**
+     * Get the RtfDestinationMgr object.
+     *
+     * @return Returns the destination manager of this parser.
+     * @since 3.0.1
+     */
+    public RtfDestinationMgr getDestinationMgr() {
+        if (this.destinationMgr == null) {
+            this.destinationMgr = new RtfDestinationMgr(this);
+        }
+        return destinationMgr;
+    }
+
     /////////////////////////////////////////////////////////////
     // accessors for destinations
     /**
@@ -1074,7 +1411,7 @@ public class RtfParser {
      * @since 2.1.3
      */
     public boolean setCurrentDestination(String destination) {
-        RtfDestination dest = RtfDestinationMgr.getDestination(destination);
+        RtfDestination dest = this.destinationMgr.findDestination(destination);
         if (dest != null) {
             this.currentState.destination = dest;
             return false;
@@ -1102,7 +1439,7 @@ public class RtfParser {
      * @since 2.1.3
      */
     public RtfDestination getDestination(String destination) {
-        return RtfDestinationMgr.getDestination(destination);
+        return this.destinationMgr.findDestination(destination);
     }
 
     /**
@@ -1135,6 +1472,7 @@ public class RtfParser {
      * Read through the input file and parse the data stream into tokens.
      *
      * @throws IOException on IO error.
+     * @throws RtfParseLimitException if the input exceeds one of the parse limits.
      * @since 2.1.3
      */
     public void tokenise() throws IOException {
@@ -1143,10 +1481,18 @@ public class RtfParser {
         //		char[] nextChar = new char[1]; // input variable
         //		nextChar[0]=0;	// set to 0
         this.setTokeniserState(TOKENISER_NORMAL); // set initial tokeniser state
+        long deadline = this.maxParseTimeMillis > 0 ? System.currentTimeMillis() + this.maxParseTimeMillis : 0;
+        int timeCheck = PARSE_TIME_CHECK_INTERVAL;
 
         //		while(this.pbReader.read(nextChar) != -1) {
         while ((nextChar = this.pbReader.read()) != -1) {
             this.byteCount++;
+            if (deadline != 0 && --timeCheck == 0) {
+                if (System.currentTimeMillis() > deadline) {
+                    throw limitExceeded(RtfParseLimits.LIMIT_PARSE_TIME);
+                }
+                timeCheck = PARSE_TIME_CHECK_INTERVAL;
+            }
 
             if (this.getTokeniserState() == TOKENISER_BINARY) // if we're parsing binary data, handle it directly
             {
@@ -1155,6 +1501,9 @@ public class RtfParser {
                 //				switch(nextChar[0]) {
                 switch (nextChar) {
                     case '{': // scope delimiter - Open
+                        if (this.groupLevel >= this.maxGroupDepth) {
+                            throw limitExceeded(RtfParseLimits.LIMIT_GROUP_DEPTH);
+                        }
                         this.handleOpenGroup();
                         break;
                     case '}': // scope delimiter - Close
@@ -1218,9 +1567,10 @@ public class RtfParser {
      *
      * @param nextChar The character to process
      * @return Returns an error code or errOK if no error.
+     * @throws RtfParseLimitException if the picture data or text character limit is exceeded.
      * @since 2.1.3
      */
-    private int parseChar(int nextChar) {
+    private int parseChar(int nextChar) throws RtfParseLimitException {
         // figure out where to put the character
         // needs to handle group levels for parsing
         // examples
@@ -1232,6 +1582,15 @@ public class RtfParser {
          * {\info(\author name}{\company company name}}
          * ... document text ...
          */
+        if (this.currentState.destination instanceof RtfDestinationShppict) {
+            // binary bytes count as the two hex digits they replace
+            this.pictureDataCount += this.getTokeniserState() == TOKENISER_BINARY ? 2 : 1;
+            if (this.pictureDataCount > this.maxPictureData) {
+                throw limitExceeded(RtfParseLimits.LIMIT_PICTURE_BYTES);
+            }
+        } else if (++this.textCharacterCount > this.maxTextCharacters) {
+            throw limitExceeded(RtfParseLimits.LIMIT_TEXT_CHARACTERS);
+        }
         if (this.getTokeniserState() == TOKENISER_BINARY && --binByteCount <= 0) this.setTokeniserStateNormal();
         if (this.getTokeniserState() == TOKENISER_SKIP_BYTES && --binSkipByteCount <= 0) this.setTokeniserStateNormal();
         return this.handleCharacter(nextChar);
@@ -1249,6 +1608,10 @@ public class RtfParser {
         int nextChar;
         int result;
 
+        if (this.ctrlWordCount >= this.maxControlWords) {
+            throw limitExceeded(RtfParseLimits.LIMIT_CONTROL_WORDS);
+        }
+
         if ((nextChar = reader.read()) == -1) {
             return errEndOfFile;
         }
@@ -1285,14 +1648,29 @@ public class RtfParser {
 
         if (Character.isDigit((char) nextChar)) {
             ctrlWordParam.hasParam = true;
+            long value = 0;
             do {
                 parsedParam.append((char) nextChar);
+                if (value <= Integer.MAX_VALUE) {
+                    value = value * 10 + (nextChar - '0');
+                }
                 // TODO: catch EOF
                 nextChar = reader.read();
                 this.byteCount++;
             } while (Character.isDigit((char) nextChar));
 
             ctrlWordParam.param = parsedParam.toString();
+            // out of range values are clamped, the String keeps the original digits
+            value = Math.min(value, Integer.MAX_VALUE);
+            ctrlWordParam.intParam = (int) (ctrlWordParam.isNeg ? -value : value);
+
+            // reject oversized binary data before the destination starts buffering it
+            if (this.maxPictureData != Long.MAX_VALUE
+                    && !ctrlWordParam.isNeg
+                    && ctrlWordParam.ctrlWord.equals("bin")
+                    && (ctrlWordParam.param.length() > 18 || ctrlWordParam.longValue() > this.maxPictureData / 2)) {
+                throw limitExceeded(RtfParseLimits.LIMIT_PICTURE_BYTES);
+            }
         }
 
         // push this character back into the stream
@@ -1313,6 +1691,9 @@ public class RtfParser {
 
         result = this.handleCtrlWord(ctrlWordParam);
         lastCtrlWordParam = ctrlWordParam;
+        if (this.headerTableCache != null && this.headerTableRecipe == null) {
+            handleHeaderTableCache(ctrlWordParam.ctrlWord);
+        }
         return result;
     }
 
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+package org.openrtf.text.rtf.parser;
+
+import java.util.ArrayDeque;
+import org.openpdf.text.Document;
+
+/**
+ * The <code>RtfParserPool</code> keeps a number of idle <code>RtfParser</code> objects that can be
+ * reused for further imports. Creating a parser builds the control word and destination tables,
+ * which is considerably more expensive than parsing a small RTF fragment. A pooled parser only has
+ * to be reset between imports.
+ *
+ * <p>The pool is thread-safe. A parser obtained from the pool must only be used by one thread at a
+ * time and has to be handed back with {@link #release(RtfParser)} once the import is done.
+ *
+ * @since 3.0.1
+ */
+public class RtfParserPool {
+    /** The default maximum number of idle parsers. */
+    public static final int DEFAULT_MAX_IDLE = Runtime.getRuntime().availableProcessors();
+
+    /** The idle parsers. */
+    private final ArrayDeque<RtfParser> idleParsers = new ArrayDeque<>();
+
+    /** The maximum number of idle parsers kept by this pool. */
+    private final int maxIdle;
+
+    /** Constructs a new <code>RtfParserPool</code> keeping up to DEFAULT_MAX_IDLE idle parsers. */
+    public RtfParserPool() {
+        this(DEFAULT_MAX_IDLE);
+    }
+
+    /**
+     * Constructs a new <code>RtfParserPool</code>.
+     *
+     * @param maxIdle The maximum number of idle parsers to keep.
+     */
+    public RtfParserPool(int maxIdle) {
+        this.maxIdle = Math.max(maxIdle, 0);
+    }
+
+    /**
+     * Gets a parser from the pool or creates a new one if no idle parser is available.
+     *
+     * @param doc The iText document the parser adds the imported RTF document to. May be null.
+     * @return An <code>RtfParser</code> ready for an import or conversion.
+     */
+    public RtfParser acquire(Document doc) {
+        RtfParser parser;
+        synchronized (this.idleParsers) {
+            parser = this.idleParsers.poll();
+        }
+        if (parser == null) {
+            return new RtfParser(doc);
+        }
+        parser.setDocument(doc);
+        return parser;
+    }
+
+    /**
+     * Hands a parser back to the pool. The parser is reset and all its listeners are removed. If the
+     * pool already holds the maximum number of idle parsers, the parser is discarded.
+     *
+     * @param parser The <code>RtfParser</code> to return to the pool.
+     */
+    public void release(RtfParser parser) {
+        if (parser == null) {
+            return;
+        }
+        parser.removeAllListeners();
+        parser.reset();
+        parser.setDocument(null);
+        synchronized (this.idleParsers) {
+            if (this.idleParsers.size() < this.maxIdle) {
+                this.idleParsers.push(parser);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of idle parsers currently held by this pool.
+     *
+     * @return The number of idle parsers.
+     */
+    public int getIdleCount() {
+        synchronized (this.idleParsers) {
+            return this.idleParsers.size();
+        }
+    }
+
+    /** Discards all idle parsers. */
+    public void clear() {
+        synchronized (this.idleParsers) {
+            this.idleParsers.clear();
+        }
+    }
+}
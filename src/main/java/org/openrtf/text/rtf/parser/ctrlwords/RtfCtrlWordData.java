@@ -69,6 +69,14 @@ public class RtfCtrlWordData implements Cloneable {
     /** The parameter for the control word. */
     public String param = "";
 
+    /**
+     * The signed parameter value as a primitive int. Kept in step with param and isNeg by the parser
+     * and by setIntParam.
+     *
+     * @since 3.0.1
+     */
+    public int intParam = 0;
+
     /** Flag indicating if parameter is positive or negative. */
     public boolean isNeg = false;
 
@@ -87,8 +95,40 @@ public class RtfCtrlWordData implements Cloneable {
      * @return Returns the parameter value as an int vlaue.
      */
     public int intValue() {
-        int value = Integer.parseInt(this.param);
-        return this.isNeg ? -value : value;
+        return this.intParam;
+    }
+
+    /**
+     * Sets the parameter to a new int value. Used when a parameter is remapped, for example font and
+     * color numbers during an import. Small values reuse cached Strings, so this does not allocate.
+     *
+     * @param value The new parameter value.
+     * @since 3.0.1
+     */
+    public void setIntParam(int value) {
+        this.intParam = value;
+        this.isNeg = value < 0;
+        this.param = toParamString(value < 0 ? -value : value);
+    }
+
+    /** Cached Strings for the small parameter values used by font, color and list numbers. */
+    private static final String[] PARAM_STRINGS = new String[1024];
+
+    static {
+        for (int i = 0; i < PARAM_STRINGS.length; i++) {
+            PARAM_STRINGS[i] = Integer.toString(i);
+        }
+    }
+
+    /**
+     * Gets the String for a non-negative parameter value.
+     *
+     * @param value The parameter value.
+     * @return The decimal String of the value.
+     * @since 3.0.1
+     */
+    public static String toParamString(int value) {
+        return value >= 0 && value < PARAM_STRINGS.length ? PARAM_STRINGS[value] : Integer.toString(value);
     }
 
     /**
@@ -49,7 +49,6 @@ package org.openrtf.text.rtf.parser.ctrlwords;
 
 import org.openrtf.text.rtf.parser.RtfParser;
 import org.openrtf.text.rtf.parser.destinations.RtfDestination;
-import org.openrtf.text.rtf.parser.destinations.RtfDestinationMgr;
 
 /**
  * <code>RtfCtrlWordBase</code> is the base class for all control word handlers to extend from.
@@ -197,7 +196,9 @@ public class RtfCtrlWordHandler implements Cloneable {
                 this.specialHandler = "RtfDestinationNull";
             }
             String arg1 = ""; // stylesheet value - S, CS, TS
-            RtfDestinationMgr.addDestination(this.ctrlWord, new Object[] {this.specialHandler, arg1});
+            this.rtfParser
+                    .getDestinationMgr()
+                    .registerDestination(this.ctrlWord, new Object[] {this.specialHandler, arg1});
         } else {
             if (this.ctrlWordType == RtfCtrlWordType.SYMBOL) {
 
@@ -237,7 +238,7 @@ public class RtfCtrlWordHandler implements Cloneable {
 
         if (!this.ctrlWordData.hasParam && this.passDefaultParameterValue) {
             this.ctrlWordData.hasParam = true;
-            this.ctrlWordData.param = Integer.toString(this.defaultParameterValue);
+            this.ctrlWordData.setIntParam(this.defaultParameterValue);
         }
 
         if (debug) {
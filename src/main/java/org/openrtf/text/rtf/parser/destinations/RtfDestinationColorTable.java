@@ -225,8 +225,7 @@ public class RtfDestinationColorTable extends RtfDestination {
     private void processColor() {
         if (red != -1 && green != -1 && blue != -1) {
             if (this.rtfParser.isImport()) {
-                this.importHeader.importColor(
-                        Integer.toString(this.colorNr), new Color(this.red, this.green, this.blue));
+                this.importHeader.importColor(this.colorNr, new Color(this.red, this.green, this.blue));
             }
 
             if (this.rtfParser.isConvert()) {
@@ -60,6 +60,7 @@ import org.openpdf.text.FontFactory;
 import org.openpdf.text.Paragraph;
 import org.openrtf.text.rtf.direct.RtfDirectContent;
 import org.openrtf.text.rtf.document.RtfDocument;
+import org.openrtf.text.rtf.parser.RtfImportMgr;
 import org.openrtf.text.rtf.parser.RtfParser;
 import org.openrtf.text.rtf.parser.ctrlwords.RtfCtrlWordData;
 import org.openrtf.text.rtf.parser.ctrlwords.RtfCtrlWordType;
@@ -259,46 +260,39 @@ public final class RtfDestinationDocument extends RtfDestination implements RtfP
         this.onCtrlWord(ctrlWordData); // event handler
 
         if (this.rtfParser.isImport()) {
-            // map font information
-            if (ctrlWordData.ctrlWord.equals("f")) {
-                ctrlWordData.param = this.rtfParser.getImportManager().mapFontNr(ctrlWordData.param);
-            }
-
-            // map color information
-            // colors
-            if (ctrlWordData.ctrlWord.equals("cb")) {
-                ctrlWordData.param = this.rtfParser.getImportManager().mapColorNr(ctrlWordData.param);
-            }
-            if (ctrlWordData.ctrlWord.equals("cf")) {
-                ctrlWordData.param = this.rtfParser.getImportManager().mapColorNr(ctrlWordData.param);
-            }
-            // cells
-            if (ctrlWordData.ctrlWord.equals("clcbpat")) {
-                ctrlWordData.param = this.rtfParser.getImportManager().mapColorNr(ctrlWordData.param);
-            }
-            if (ctrlWordData.ctrlWord.equals("clcbpatraw")) {
-                ctrlWordData.param = this.rtfParser.getImportManager().mapColorNr(ctrlWordData.param);
-            }
-            if (ctrlWordData.ctrlWord.equals("clcfpat")) {
-                ctrlWordData.param = this.rtfParser.getImportManager().mapColorNr(ctrlWordData.param);
-            }
-            if (ctrlWordData.ctrlWord.equals("clcfpatraw")) {
-                ctrlWordData.param = this.rtfParser.getImportManager().mapColorNr(ctrlWordData.param);
-            }
-            // table rows
-            if (ctrlWordData.ctrlWord.equals("trcfpat")) {
-                ctrlWordData.param = this.rtfParser.getImportManager().mapColorNr(ctrlWordData.param);
-            }
-            if (ctrlWordData.ctrlWord.equals("trcbpat")) {
-                ctrlWordData.param = this.rtfParser.getImportManager().mapColorNr(ctrlWordData.param);
-            }
-            // paragraph border
-            if (ctrlWordData.ctrlWord.equals("brdrcf")) {
-                ctrlWordData.param = this.rtfParser.getImportManager().mapColorNr(ctrlWordData.param);
-            }
-            // map lists
-            if (ctrlWordData.ctrlWord.equals("ls")) {
-                ctrlWordData.param = this.rtfParser.getImportManager().mapListNr(ctrlWordData.param);
+            if (ctrlWordData.hasParam) {
+                RtfImportMgr importMgr = this.rtfParser.getImportManager();
+                switch (ctrlWordData.ctrlWord) {
+                    // map font information
+                    case "f":
+                        ctrlWordData.setIntParam(importMgr.mapFontNr(ctrlWordData.intParam));
+                        break;
+                    // map color information
+                    // colors
+                    case "cb":
+                    case "cf":
+                    // cells
+                    case "clcbpat":
+                    case "clcbpatraw":
+                    case "clcfpat":
+                    case "clcfpatraw":
+                    // table rows
+                    case "trcfpat":
+                    case "trcbpat":
+                    // paragraph border
+                    case "brdrcf":
+                        ctrlWordData.setIntParam(importMgr.mapColorNr(ctrlWordData.intParam));
+                        break;
+                    // map lists
+                    case "ls":
+                        int listNr = importMgr.mapListNr(ctrlWordData.intParam);
+                        if (listNr != RtfImportMgr.NOT_MAPPED) {
+                            ctrlWordData.setIntParam(listNr);
+                        }
+                        break;
+                    default:
+                        break;
+                }
             }
         }
 
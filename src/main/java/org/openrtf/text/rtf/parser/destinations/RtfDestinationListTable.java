@@ -358,8 +358,7 @@ public class RtfDestinationListTable extends RtfDestination {
     public boolean handleCloseGroup() {
         this.currentSubGroupCount--;
         if (this.newList != null && this.currentSubGroupCount == 0) {
-            this.importHeader.importList(
-                    Integer.toString(this.currentListMappingNumber), Integer.toString(this.newList.getListNumber()));
+            this.importHeader.importList(this.currentListMappingNumber, this.newList.getListNumber());
             this.rtfParser.getRtfDocument().add(this.newList);
         }
         return true;
@@ -54,16 +54,16 @@ import java.util.Map;
 import org.openrtf.text.rtf.parser.RtfParser;
 
 /**
- * <code>RtfDestinationMgr</code> manages destination objects for the parser
+ * <code>RtfDestinationMgr</code> manages destination objects for the parser. Every <code>RtfParser
+ * </code> owns its own manager, so the destination objects are never shared between parsers.
  *
  * @author Howard Shank (hgshank@yahoo.com)
  * @since 2.0.8
  */
 public final class RtfDestinationMgr {
-    /*
-     * Destinations
-     */
+    /** The manager used by the deprecated static methods. */
     private static RtfDestinationMgr instance = null;
+
     private static final Object lock = new Object();
 
     /**
@@ -73,14 +73,15 @@ public final class RtfDestinationMgr {
      * destination used for discarding unwanted data. This is primarily used when skipping groups,
      * binary data or unwanted/unknown data.
      */
-    private static final Map<String, RtfDestination> destinations = new HashMap<>(300, 0.95f);
+    private final Map<String, RtfDestination> destinations = new HashMap<>(300, 0.95f);
 
-    /** Destination objects. There is only one of each destination. */
-    private static final Map<String, RtfDestination> destinationObjects = new HashMap<>(10, 0.95f);
+    /** Destination objects. There is only one of each destination per parser. */
+    private final Map<String, RtfDestination> destinationObjects = new HashMap<>(10, 0.95f);
 
-    private static boolean ignoreUnknownDestinations = false;
+    private boolean ignoreUnknownDestinations = false;
 
-    private static RtfParser rtfParser = null;
+    /** The parser this manager provides destinations for. */
+    private final RtfParser rtfParser;
 
     /** String representation of null destination. */
     public static final String DESTINATION_NULL = "null";
@@ -88,39 +89,132 @@ public final class RtfDestinationMgr {
     /** String representation of document destination. */
     public static final String DESTINATION_DOCUMENT = "document";
 
-    /** Hidden default constructor becuase */
-    private RtfDestinationMgr() {}
+    /**
+     * Constructs a new <code>RtfDestinationMgr</code> for the given parser.
+     *
+     * @param parser The parser the destinations are bound to.
+     */
+    public RtfDestinationMgr(RtfParser parser) {
+        this.rtfParser = parser;
+        // 2 required destinations for all documents
+        registerDestination(DESTINATION_DOCUMENT, new Object[] {"RtfDestinationDocument", ""});
+        registerDestination(DESTINATION_NULL, new Object[] {"RtfDestinationNull", ""});
+        if (parser != null) {
+            synchronized (lock) {
+                instance = this;
+            }
+        }
+    }
 
+    /**
+     * Sets the parser whose destination manager is used by the static methods.
+     *
+     * @param parser The parser to use.
+     * @deprecated Every <code>RtfParser</code> owns its own manager, use {@link
+     *     RtfParser#getDestinationMgr()} instead.
+     */
+    @Deprecated
     public static void setParser(RtfParser parser) {
-        rtfParser = parser;
+        synchronized (lock) {
+            instance = parser.getDestinationMgr();
+        }
     }
 
+    /**
+     * Gets the destination manager used by the static methods. This is the manager of the parser
+     * initialised or passed to {@link #setParser(RtfParser)} last, or a manager without a parser if
+     * there is none.
+     *
+     * @return The destination manager used by the static methods.
+     * @deprecated Every <code>RtfParser</code> owns its own manager, use {@link
+     *     RtfParser#getDestinationMgr()} instead.
+     */
+    @Deprecated
     public static RtfDestinationMgr getInstance() {
         synchronized (lock) {
             if (instance == null) {
-                instance = new RtfDestinationMgr();
-                // 2 required destinations for all documents
-                addDestination(DESTINATION_DOCUMENT, new Object[] {"RtfDestinationDocument", ""});
-                addDestination(DESTINATION_NULL, new Object[] {"RtfDestinationNull", ""});
+                instance = new RtfDestinationMgr(null);
             }
             return instance;
         }
     }
 
+    /**
+     * Gets the destination manager of the given parser and uses it for the static methods.
+     *
+     * @param parser The parser to get the destination manager of.
+     * @return The destination manager of the parser.
+     * @deprecated Every <code>RtfParser</code> owns its own manager, use {@link
+     *     RtfParser#getDestinationMgr()} instead.
+     */
+    @Deprecated
     public static RtfDestinationMgr getInstance(RtfParser parser) {
-        synchronized (lock) {
-            setParser(parser);
-            if (instance == null) {
-                instance = new RtfDestinationMgr();
-                // 2 required destinations for all documents
-                addDestination(DESTINATION_DOCUMENT, new Object[] {"RtfDestinationDocument", ""});
-                addDestination(DESTINATION_NULL, new Object[] {"RtfDestinationNull", ""});
-            }
-            return instance;
-        }
+        setParser(parser);
+        return getInstance();
     }
 
+    /**
+     * Gets a destination from the manager used by the static methods.
+     *
+     * @param destination The destination to get.
+     * @return The destination object.
+     * @deprecated Use {@link #findDestination(String)} on the manager of the parser.
+     */
+    @Deprecated
     public static RtfDestination getDestination(String destination) {
+        return getInstance().findDestination(destination);
+    }
+
+    /**
+     * Adds a destination to the manager used by the static methods.
+     *
+     * @param destination The destination to add.
+     * @param args The name of the destination class and its argument.
+     * @return <code>true</code> if the destination is known after the call.
+     * @deprecated Use {@link #registerDestination(String, Object[])} on the manager of the parser.
+     */
+    @Deprecated
+    public static boolean addDestination(String destination, Object[] args) {
+        return getInstance().registerDestination(destination, args);
+    }
+
+    /**
+     * Adds a <CODE>RtfDestinationListener</CODE> to a destination of the manager used by the
+     * static methods.
+     *
+     * @param destination the destination string for the listener
+     * @param listener the new RtfDestinationListener.
+     * @deprecated Use {@link #registerListener(String, RtfDestinationListener)} on the manager of
+     *     the parser.
+     */
+    @Deprecated
+    public static boolean addListener(String destination, RtfDestinationListener listener) {
+        return getInstance().registerListener(destination, listener);
+    }
+
+    /**
+     * Removes a <CODE>RtfDestinationListener</CODE> from a destination of the manager used by the
+     * static methods.
+     *
+     * @param destination the destination string for the listener
+     * @param listener the RtfCtrlWordListener that has to be removed.
+     * @deprecated Use {@link #unregisterListener(String, RtfDestinationListener)} on the manager of
+     *     the parser.
+     */
+    @Deprecated
+    public static boolean removeListener(String destination, RtfDestinationListener listener) {
+        return getInstance().unregisterListener(destination, listener);
+    }
+
+    /**
+     * Gets a destination of this manager. Unknown destinations are mapped to the document or the
+     * null destination.
+     *
+     * @param destination The destination to get.
+     * @return The destination object.
+     * @since 3.0.1
+     */
+    public RtfDestination findDestination(String destination) {
         RtfDestination dest;
         if (destinations.containsKey(destination)) {
             dest = destinations.get(destination);
@@ -135,7 +229,15 @@ public final class RtfDestinationMgr {
         return dest;
     }
 
-    public static boolean addDestination(String destination, Object[] args) {
+    /**
+     * Adds a destination to this manager.
+     *
+     * @param destination The destination to add.
+     * @param args The name of the destination class and its argument.
+     * @return <code>true</code> if the destination is known after the call.
+     * @since 3.0.1
+     */
+    public boolean registerDestination(String destination, Object[] args) {
         if (destinations.containsKey(destination)) {
             return true;
         }
@@ -190,6 +292,18 @@ public final class RtfDestinationMgr {
         return true;
     }
 
+    /**
+     * Returns all destination objects to their default values, so that the destinations can be
+     * reused for the next document parsed by the same parser.
+     *
+     * @since 3.0.1
+     */
+    public void resetDestinations() {
+        for (RtfDestination dest : destinationObjects.values()) {
+            dest.setToDefaults();
+        }
+    }
+
     // listener methods
 
     /**
@@ -198,8 +312,8 @@ public final class RtfDestinationMgr {
      * @param destination the destination string for the listener
      * @param listener the new RtfDestinationListener.
      */
-    public static boolean addListener(String destination, RtfDestinationListener listener) {
-        RtfDestination dest = getDestination(destination);
+    public boolean registerListener(String destination, RtfDestinationListener listener) {
+        RtfDestination dest = findDestination(destination);
         if (dest != null) {
             return dest.addListener(listener);
         }
@@ -213,8 +327,8 @@ public final class RtfDestinationMgr {
      * @param destination the destination string for the listener
      * @param listener the RtfCtrlWordListener that has to be removed.
      */
-    public static boolean removeListener(String destination, RtfDestinationListener listener) {
-        RtfDestination dest = getDestination(destination);
+    public boolean unregisterListener(String destination, RtfDestinationListener listener) {
+        RtfDestination dest = findDestination(destination);
         if (dest != null) {
             return dest.removeListener(listener);
         }
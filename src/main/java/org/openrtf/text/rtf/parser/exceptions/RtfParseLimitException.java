@@ -0,0 +1,109 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+
+package org.openrtf.text.rtf.parser.exceptions;
+
+import java.io.IOException;
+import org.openrtf.text.rtf.parser.RtfParseLimits;
+
+/**
+ * <code>RtfParseLimitException</code> is thrown by the <code>RtfParser</code> when the input
+ * exceeds one of the limits set in its <code>RtfParseLimits</code>. The parse is aborted and the
+ * target document is left with whatever was imported up to that point.
+ *
+ * @see RtfParseLimits
+ * @since 3.0.1
+ */
+public class RtfParseLimitException extends IOException {
+    private static final long serialVersionUID = -6284521937016522493L;
+
+    /** The limit that was exceeded. One of the RtfParseLimits.LIMIT_ constants. */
+    private final int limit;
+
+    /** The configured value of the limit that was exceeded. */
+    private final long maximum;
+
+    /**
+     * Constructs a new <code>RtfParseLimitException</code>.
+     *
+     * @param limit The limit that was exceeded. One of the RtfParseLimits.LIMIT_ constants.
+     * @param maximum The configured value of the limit.
+     * @param byteCount The input position at which the limit was exceeded.
+     */
+    public RtfParseLimitException(int limit, long maximum, long byteCount) {
+        super("RTF parse limit exceeded: " + getLimitName(limit) + " > " + maximum + " at byte " + byteCount);
+        this.limit = limit;
+        this.maximum = maximum;
+    }
+
+    /**
+     * Gets the limit that was exceeded.
+     *
+     * @return One of the RtfParseLimits.LIMIT_ constants.
+     */
+    public int getLimit() {
+        return this.limit;
+    }
+
+    /**
+     * Gets the configured value of the limit that was exceeded.
+     *
+     * @return The configured maximum.
+     */
+    public long getMaximum() {
+        return this.maximum;
+    }
+
+    private static String getLimitName(int limit) {
+        switch (limit) {
+            case RtfParseLimits.LIMIT_GROUP_DEPTH:
+                return "group depth";
+            case RtfParseLimits.LIMIT_PICTURE_BYTES:
+                return "picture bytes";
+            case RtfParseLimits.LIMIT_TEXT_CHARACTERS:
+                return "text characters";
+            case RtfParseLimits.LIMIT_CONTROL_WORDS:
+                return "control words";
+            case RtfParseLimits.LIMIT_PARSE_TIME:
+                return "parse time (ms)";
+            default:
+                return "unknown limit " + limit;
+        }
+    }
+}
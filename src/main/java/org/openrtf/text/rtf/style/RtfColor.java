@@ -56,6 +56,7 @@ import org.openpdf.text.DocWriter;
 import org.openrtf.text.rtf.RtfElement;
 import org.openrtf.text.rtf.RtfExtendedElement;
 import org.openrtf.text.rtf.document.RtfDocument;
+import org.openrtf.text.rtf.document.output.RtfOutputSink;
 
 /**
  * The RtfColor stores one rtf color value for a rtf document
@@ -169,20 +170,18 @@ public class RtfColor extends RtfElement implements RtfExtendedElement {
 
     /** Write the definition part of this RtfColor. */
     public void writeDefinition(OutputStream result) throws IOException {
-        result.write(COLOR_RED);
-        result.write(intToByteArray(red));
-        result.write(COLOR_GREEN);
-        result.write(intToByteArray(green));
-        result.write(COLOR_BLUE);
-        result.write(intToByteArray(blue));
-        result.write(COLON);
+        RtfOutputSink sink = RtfOutputSink.of(result);
+        sink.writeControlWord(COLOR_RED, red);
+        sink.writeControlWord(COLOR_GREEN, green);
+        sink.writeControlWord(COLOR_BLUE, blue);
+        sink.write(COLON);
     }
 
     /** Writes the beginning of this RtfColor */
     public void writeBegin(OutputStream result) {
+        RtfOutputSink sink = RtfOutputSink.of(result);
         try {
-            result.write(COLOR_NUMBER);
-            result.write(intToByteArray(colorNumber));
+            sink.writeControlWord(COLOR_NUMBER, colorNumber);
         } catch (IOException ioe) {
             ioe.printStackTrace();
         }
@@ -52,8 +52,10 @@ package org.openrtf.text.rtf.style;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import org.openpdf.text.DocWriter;
+import org.openpdf.text.pdf.IntHashtable;
 import org.openrtf.text.rtf.RtfElement;
 import org.openrtf.text.rtf.RtfExtendedElement;
 import org.openrtf.text.rtf.document.RtfDocument;
@@ -73,6 +75,12 @@ public class RtfColorList extends RtfElement implements RtfExtendedElement {
     /** ArrayList containing all colors of this RtfColorList */
     private final List<RtfColor> colorList = new ArrayList<>();
 
+    /**
+     * The color numbers keyed by the packed 24 bit RGB value of the color. The stored value is the
+     * color number + 1, so that a missing color can be told apart from color number 0.
+     */
+    private final IntHashtable colorIndex = new IntHashtable();
+
     /**
      * Constructs a new RtfColorList for the RtfDocument. Will add the default black and white
      * colors.
@@ -83,6 +91,8 @@ public class RtfColorList extends RtfElement implements RtfExtendedElement {
         super(doc);
         colorList.add(new RtfColor(doc, 0, 0, 0, 0));
         colorList.add(new RtfColor(doc, 255, 255, 255, 1));
+        colorIndex.put(0x000000, 1);
+        colorIndex.put(0xffffff, 2);
     }
 
     /**
@@ -93,15 +103,72 @@ public class RtfColorList extends RtfElement implements RtfExtendedElement {
      * @return The index of the RtfColor
      */
     public int getColorNumber(RtfColor color) {
-        int colorIndex = -1;
-        for (int i = 0; i < colorList.size(); i++) {
-            if (colorList.get(i).equals(color)) {
-                colorIndex = i;
-            }
+        int colorIndex = findColorNumber(color.getRed(), color.getGreen(), color.getBlue());
+        if (colorIndex == -1) {
+            colorIndex = addColor(color);
         }
+        return colorIndex;
+    }
+
+    /**
+     * Returns the index of the color with the given red, green and blue values in the color list.
+     * If the color is not in the list of colors, then it is added. Unlike {@link
+     * #getColorNumber(RtfColor)} this does not require an RtfColor for colors that are already in
+     * the list.
+     *
+     * @param red The red value of the color
+     * @param green The green value of the color
+     * @param blue The blue value of the color
+     * @return The index of the color
+     * @since 3.0.1
+     */
+    public int getColorNumber(int red, int green, int blue) {
+        int colorIndex = findColorNumber(red, green, blue);
         if (colorIndex == -1) {
-            colorIndex = colorList.size();
-            colorList.add(color);
+            colorIndex = addColor(new RtfColor(this.document, red, green, blue, this.colorList.size()));
+        }
+        return colorIndex;
+    }
+
+    /**
+     * Looks up the index of a color in the color list.
+     *
+     * @param red The red value of the color
+     * @param green The green value of the color
+     * @param blue The blue value of the color
+     * @return The index of the color or -1 if it is not in the list
+     */
+    private int findColorNumber(int red, int green, int blue) {
+        if (((red | green | blue) & ~0xff) == 0) {
+            return this.colorIndex.get((red << 16) | (green << 8) | blue) - 1;
+        }
+        for (int i = 0; i < this.colorList.size(); i++) {
+            RtfColor color = this.colorList.get(i);
+            if (color.getRed() == red && color.getGreen() == green && color.getBlue() == blue) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Appends a color to the color list.
+     *
+     * @param color The RtfColor to add
+     * @return The index of the added color
+     */
+    private int addColor(RtfColor color) {
+        if (this.document.isHeaderWritten()) {
+            throw new IllegalStateException(
+                    "The color was not declared before the document was opened in streaming mode.");
+        }
+        int red = color.getRed();
+        int green = color.getGreen();
+        int blue = color.getBlue();
+        int colorIndex = this.colorList.size();
+        this.colorList.add(color);
+        if (((red | green | blue) & ~0xff) == 0) {
+            this.colorIndex.put((red << 16) | (green << 8) | blue, colorIndex + 1);
         }
         return colorIndex;
     }
@@ -122,4 +189,15 @@ public class RtfColorList extends RtfElement implements RtfExtendedElement {
         result.write(CLOSE_GROUP);
         this.document.outputDebugLinebreak(result);
     }
+
+    /**
+     * Gets the colors in this RtfColorList. The index of a color in the returned list is its color
+     * number.
+     *
+     * @return An unmodifiable view of the colors.
+     * @since 3.0.1
+     */
+    public List<RtfColor> getColors() {
+        return Collections.unmodifiableList(this.colorList);
+    }
 }
@@ -56,6 +56,7 @@ import org.openpdf.text.DocWriter;
 import org.openpdf.text.Font;
 import org.openrtf.text.rtf.RtfExtendedElement;
 import org.openrtf.text.rtf.document.RtfDocument;
+import org.openrtf.text.rtf.document.output.RtfOutputSink;
 
 /**
  * The RtfFont class stores one font for an rtf document. It extends Font, so can be set as a font,
@@ -144,6 +145,34 @@ public class RtfFont extends Font implements RtfExtendedElement {
     /** Constant for a font that hides the actual text. */
     public static final int STYLE_HIDDEN = 512;
 
+    /** The style flags in the order in which their control words are written. */
+    private static final int[] STYLE_FLAGS = {
+        STYLE_BOLD,
+        STYLE_ITALIC,
+        STYLE_UNDERLINE,
+        STYLE_STRIKETHROUGH,
+        STYLE_HIDDEN,
+        STYLE_DOUBLE_STRIKETHROUGH,
+        STYLE_SHADOW,
+        STYLE_OUTLINE,
+        STYLE_EMBOSSED,
+        STYLE_ENGRAVED
+    };
+
+    /** The control words for the style flags in <code>STYLE_FLAGS</code>. */
+    private static final byte[][] STYLE_CONTROL_WORDS = {
+        FONT_BOLD,
+        FONT_ITALIC,
+        FONT_UNDERLINE,
+        FONT_STRIKETHROUGH,
+        FONT_HIDDEN,
+        FONT_DOUBLE_STRIKETHROUGH,
+        FONT_SHADOW,
+        FONT_OUTLINE,
+        FONT_EMBOSSED,
+        FONT_ENGRAVED
+    };
+
     /**
      * Default font
      *
@@ -294,10 +323,10 @@ public class RtfFont extends Font implements RtfExtendedElement {
 
     /** Writes the font definition */
     public void writeDefinition(OutputStream result) throws IOException {
-        result.write(FONT_FAMILY);
-        result.write(FONT_CHARSET);
-        result.write(intToByteArray(charset));
-        result.write(DELIMITER);
+        RtfOutputSink sink = RtfOutputSink.of(result);
+        sink.write(FONT_FAMILY);
+        sink.writeControlWord(FONT_CHARSET, charset);
+        sink.write(DELIMITER);
         document.filterSpecialChar(result, fontName, true, false);
     }
 
@@ -308,45 +337,43 @@ public class RtfFont extends Font implements RtfExtendedElement {
      * @throws IOException On i/o errors.
      */
     public void writeBegin(OutputStream result) throws IOException {
+        RtfOutputSink sink = RtfOutputSink.of(result);
         if (this.fontNumber != Font.UNDEFINED) {
-            result.write(RtfFontList.FONT_NUMBER);
-            result.write(intToByteArray(fontNumber));
+            sink.writeControlWord(RtfFontList.FONT_NUMBER, fontNumber);
         }
         if (this.fontSize != Font.UNDEFINED) {
-            result.write(FONT_SIZE);
-            result.write(intToByteArray(fontSize * 2));
+            sink.writeControlWord(FONT_SIZE, fontSize * 2);
         }
         if (this.fontStyle != UNDEFINED) {
             if ((fontStyle & STYLE_BOLD) == STYLE_BOLD) {
-                result.write(FONT_BOLD);
+                sink.write(FONT_BOLD);
             }
             if ((fontStyle & STYLE_ITALIC) == STYLE_ITALIC) {
-                result.write(FONT_ITALIC);
+                sink.write(FONT_ITALIC);
             }
             if ((fontStyle & STYLE_UNDERLINE) == STYLE_UNDERLINE) {
-                result.write(FONT_UNDERLINE);
+                sink.write(FONT_UNDERLINE);
             }
             if ((fontStyle & STYLE_STRIKETHROUGH) == STYLE_STRIKETHROUGH) {
-                result.write(FONT_STRIKETHROUGH);
+                sink.write(FONT_STRIKETHROUGH);
             }
             if ((fontStyle & STYLE_HIDDEN) == STYLE_HIDDEN) {
-                result.write(FONT_HIDDEN);
+                sink.write(FONT_HIDDEN);
             }
             if ((fontStyle & STYLE_DOUBLE_STRIKETHROUGH) == STYLE_DOUBLE_STRIKETHROUGH) {
-                result.write(FONT_DOUBLE_STRIKETHROUGH);
-                result.write(intToByteArray(1));
+                sink.writeControlWord(FONT_DOUBLE_STRIKETHROUGH, 1);
             }
             if ((fontStyle & STYLE_SHADOW) == STYLE_SHADOW) {
-                result.write(FONT_SHADOW);
+                sink.write(FONT_SHADOW);
             }
             if ((fontStyle & STYLE_OUTLINE) == STYLE_OUTLINE) {
-                result.write(FONT_OUTLINE);
+                sink.write(FONT_OUTLINE);
             }
             if ((fontStyle & STYLE_EMBOSSED) == STYLE_EMBOSSED) {
-                result.write(FONT_EMBOSSED);
+                sink.write(FONT_EMBOSSED);
             }
             if ((fontStyle & STYLE_ENGRAVED) == STYLE_ENGRAVED) {
-                result.write(FONT_ENGRAVED);
+                sink.write(FONT_ENGRAVED);
             }
         }
         if (color != null) {
@@ -361,50 +388,92 @@ public class RtfFont extends Font implements RtfExtendedElement {
      * @throws IOException On i/o errors.
      */
     public void writeEnd(OutputStream result) throws IOException {
+        RtfOutputSink sink = RtfOutputSink.of(result);
         if (this.fontStyle != UNDEFINED) {
             if ((fontStyle & STYLE_BOLD) == STYLE_BOLD) {
-                result.write(FONT_BOLD);
-                result.write(intToByteArray(0));
+                sink.writeControlWord(FONT_BOLD, 0);
             }
             if ((fontStyle & STYLE_ITALIC) == STYLE_ITALIC) {
-                result.write(FONT_ITALIC);
-                result.write(intToByteArray(0));
+                sink.writeControlWord(FONT_ITALIC, 0);
             }
             if ((fontStyle & STYLE_UNDERLINE) == STYLE_UNDERLINE) {
-                result.write(FONT_UNDERLINE);
-                result.write(intToByteArray(0));
+                sink.writeControlWord(FONT_UNDERLINE, 0);
             }
             if ((fontStyle & STYLE_STRIKETHROUGH) == STYLE_STRIKETHROUGH) {
-                result.write(FONT_STRIKETHROUGH);
-                result.write(intToByteArray(0));
+                sink.writeControlWord(FONT_STRIKETHROUGH, 0);
             }
             if ((fontStyle & STYLE_HIDDEN) == STYLE_HIDDEN) {
-                result.write(FONT_HIDDEN);
-                result.write(intToByteArray(0));
+                sink.writeControlWord(FONT_HIDDEN, 0);
             }
             if ((fontStyle & STYLE_DOUBLE_STRIKETHROUGH) == STYLE_DOUBLE_STRIKETHROUGH) {
-                result.write(FONT_DOUBLE_STRIKETHROUGH);
-                result.write(intToByteArray(0));
+                sink.writeControlWord(FONT_DOUBLE_STRIKETHROUGH, 0);
             }
             if ((fontStyle & STYLE_SHADOW) == STYLE_SHADOW) {
-                result.write(FONT_SHADOW);
-                result.write(intToByteArray(0));
+                sink.writeControlWord(FONT_SHADOW, 0);
             }
             if ((fontStyle & STYLE_OUTLINE) == STYLE_OUTLINE) {
-                result.write(FONT_OUTLINE);
-                result.write(intToByteArray(0));
+                sink.writeControlWord(FONT_OUTLINE, 0);
             }
             if ((fontStyle & STYLE_EMBOSSED) == STYLE_EMBOSSED) {
-                result.write(FONT_EMBOSSED);
-                result.write(intToByteArray(0));
+                sink.writeControlWord(FONT_EMBOSSED, 0);
             }
             if ((fontStyle & STYLE_ENGRAVED) == STYLE_ENGRAVED) {
-                result.write(FONT_ENGRAVED);
-                result.write(intToByteArray(0));
+                sink.writeControlWord(FONT_ENGRAVED, 0);
             }
         }
     }
 
+    /**
+     * Writes the changes needed to switch from the formatting of the previous RtfFont to the
+     * formatting of this RtfFont. The start of the previous RtfFont must have been written and its
+     * end must not. The result is equivalent to writing the end of the previous RtfFont followed by
+     * the start of this RtfFont, without the control words that would not change anything.
+     *
+     * @param previous The RtfFont that was started last.
+     * @param result The <code>OutputStream</code> to write to.
+     * @return <code>true</code> if anything was written, <code>false</code> otherwise.
+     * @throws IOException On i/o errors.
+     * @since 3.0.1
+     */
+    public boolean writeTransition(RtfFont previous, OutputStream result) throws IOException {
+        RtfOutputSink sink = RtfOutputSink.of(result);
+        boolean written = false;
+        int previousStyle = previous.fontStyle == UNDEFINED ? STYLE_NONE : previous.fontStyle;
+        int style = this.fontStyle == UNDEFINED ? STYLE_NONE : this.fontStyle;
+        int removed = previousStyle & ~style;
+        int added = style & ~previousStyle;
+        for (int i = 0; i < STYLE_FLAGS.length; i++) {
+            if ((removed & STYLE_FLAGS[i]) != 0) {
+                sink.writeControlWord(STYLE_CONTROL_WORDS[i], 0);
+                written = true;
+            }
+        }
+        if (this.fontNumber != Font.UNDEFINED && this.fontNumber != previous.fontNumber) {
+            sink.writeControlWord(RtfFontList.FONT_NUMBER, this.fontNumber);
+            written = true;
+        }
+        if (this.fontSize != Font.UNDEFINED && this.fontSize != previous.fontSize) {
+            sink.writeControlWord(FONT_SIZE, this.fontSize * 2);
+            written = true;
+        }
+        for (int i = 0; i < STYLE_FLAGS.length; i++) {
+            if ((added & STYLE_FLAGS[i]) != 0) {
+                if (STYLE_FLAGS[i] == STYLE_DOUBLE_STRIKETHROUGH) {
+                    sink.writeControlWord(FONT_DOUBLE_STRIKETHROUGH, 1);
+                } else {
+                    sink.write(STYLE_CONTROL_WORDS[i]);
+                }
+                written = true;
+            }
+        }
+        if (this.color != null
+                && (previous.color == null || previous.color.getColorNumber() != this.color.getColorNumber())) {
+            this.color.writeBegin(result);
+            written = true;
+        }
+        return written;
+    }
+
     /** unused */
     public void writeContent(OutputStream out) throws IOException {}
 
@@ -622,7 +691,9 @@ public class RtfFont extends Font implements RtfExtendedElement {
      *
      * @param i The integer to convert
      * @return A byte array representing the integer
+     * @deprecated Use {@link RtfOutputSink#writeInt(int)}, which does not allocate.
      */
+    @Deprecated
     protected byte[] intToByteArray(int i) {
         return DocWriter.getISOBytes(Integer.toString(i));
     }
@@ -52,11 +52,15 @@ package org.openrtf.text.rtf.style;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.openpdf.text.DocWriter;
 import org.openrtf.text.rtf.RtfElement;
 import org.openrtf.text.rtf.RtfExtendedElement;
 import org.openrtf.text.rtf.document.RtfDocument;
+import org.openrtf.text.rtf.document.output.RtfOutputSink;
 
 /**
  * The RtfFontList stores the list of fonts used in the rtf document. It also has methods for
@@ -81,6 +85,9 @@ public class RtfFontList extends RtfElement implements RtfExtendedElement {
     /** The list of fonts */
     private final List<RtfFont> fontList = new ArrayList<>();
 
+    /** The index of each font in the font list, keyed by font name and charset */
+    private final Map<FontKey, Integer> fontIndex = new HashMap<>();
+
     /**
      * Creates a RtfFontList
      *
@@ -88,7 +95,9 @@ public class RtfFontList extends RtfElement implements RtfExtendedElement {
      */
     public RtfFontList(RtfDocument doc) {
         super(doc);
-        fontList.add(new RtfFont(document, 0));
+        RtfFont defaultFont = new RtfFont(document, 0);
+        fontList.add(defaultFont);
+        fontIndex.put(new FontKey(defaultFont.getFontName(), defaultFont.getCharset()), 0);
     }
 
     /** unused */
@@ -96,7 +105,8 @@ public class RtfFontList extends RtfElement implements RtfExtendedElement {
 
     /**
      * Gets the index of the font in the list of fonts. If the font does not exist in the list, it
-     * is added.
+     * is added. Fonts are identified by their font name and charset, as these are the only
+     * properties written to the font table.
      *
      * @param font The font to get the id for
      * @return The index of the font
@@ -105,35 +115,78 @@ public class RtfFontList extends RtfElement implements RtfExtendedElement {
         if (font instanceof RtfParagraphStyle) {
             font = new RtfFont(this.document, font);
         }
-        int fontIndex = -1;
-        for (int i = 0; i < fontList.size(); i++) {
-            if (fontList.get(i).equals(font)) {
-                fontIndex = i;
-            }
+        FontKey key = new FontKey(font.getFontName(), font.getCharset());
+        Integer index = this.fontIndex.get(key);
+        if (index != null) {
+            return index;
         }
-        if (fontIndex == -1) {
-            fontIndex = fontList.size();
-            fontList.add(font);
+        if (this.document.isHeaderWritten()) {
+            throw new IllegalStateException("The font " + font.getFontName()
+                    + " was not declared before the document was opened in streaming mode.");
         }
-        return fontIndex;
+        int number = this.fontList.size();
+        this.fontList.add(font);
+        this.fontIndex.put(key, number);
+        return number;
     }
 
     /** Writes the definition of the font list */
     public void writeDefinition(OutputStream result) throws IOException {
-        result.write(DEFAULT_FONT);
-        result.write(intToByteArray(0));
-        result.write(OPEN_GROUP);
-        result.write(FONT_TABLE);
+        RtfOutputSink sink = RtfOutputSink.of(result);
+        sink.writeControlWord(DEFAULT_FONT, 0);
+        sink.write(OPEN_GROUP);
+        sink.write(FONT_TABLE);
         for (int i = 0; i < fontList.size(); i++) {
-            result.write(OPEN_GROUP);
-            result.write(FONT_NUMBER);
-            result.write(intToByteArray(i));
+            sink.write(OPEN_GROUP);
+            sink.writeControlWord(FONT_NUMBER, i);
             RtfFont rf = fontList.get(i);
             rf.writeDefinition(result);
-            result.write(COMMA_DELIMITER);
-            result.write(CLOSE_GROUP);
+            sink.write(COMMA_DELIMITER);
+            sink.write(CLOSE_GROUP);
         }
-        result.write(CLOSE_GROUP);
+        sink.write(CLOSE_GROUP);
         this.document.outputDebugLinebreak(result);
     }
+
+    /**
+     * Gets the fonts in this RtfFontList. The index of a font in the returned list is its font
+     * number.
+     *
+     * @return An unmodifiable view of the fonts.
+     * @since 3.0.1
+     */
+    public List<RtfFont> getFonts() {
+        return Collections.unmodifiableList(this.fontList);
+    }
+
+    /**
+     * The identity of a font in the font table.
+     *
+     * @since 3.0.1
+     */
+    private static final class FontKey {
+
+        /** The name of the font */
+        private final String fontName;
+
+        /** The charset of the font */
+        private final int charset;
+
+        private FontKey(String fontName, int charset) {
+            this.fontName = fontName;
+            this.charset = charset;
+        }
+
+        public boolean equals(Object obj) {
+            if (!(obj instanceof FontKey)) {
+                return false;
+            }
+            FontKey key = (FontKey) obj;
+            return this.charset == key.charset && this.fontName.equals(key.fontName);
+        }
+
+        public int hashCode() {
+            return this.fontName.hashCode() * 31 + this.charset;
+        }
+    }
 }
@@ -49,6 +49,7 @@
 package org.openrtf.text.rtf.style;
 
 import java.awt.Color;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import org.openpdf.text.DocWriter;
@@ -56,6 +57,7 @@ import org.openpdf.text.Element;
 import org.openpdf.text.Font;
 import org.openrtf.text.rtf.RtfBasicElement;
 import org.openrtf.text.rtf.document.RtfDocument;
+import org.openrtf.text.rtf.document.output.RtfOutputSink;
 import org.openrtf.text.rtf.text.RtfParagraph;
 
 /**
@@ -103,6 +105,9 @@ public class RtfParagraphStyle extends RtfFont {
     /** Constant for the space before the paragraph. */
     public static final byte[] SPACING_BEFORE = DocWriter.getISOBytes("\\sb");
 
+    /** Constant for the paragraph style number. */
+    private static final byte[] STYLE_NUMBER = DocWriter.getISOBytes("\\s");
+
     /** The NORMAL/STANDARD style. */
     public static final RtfParagraphStyle STYLE_NORMAL =
             new RtfParagraphStyle("Normal", "Arial", 12, Font.NORMAL, Color.black);
@@ -211,6 +216,9 @@ public class RtfParagraphStyle extends RtfFont {
     /** The number of this RtfParagraphStyle in the stylesheet list. */
     private int styleNumber = -1;
 
+    /** The compiled start sequence of this RtfParagraphStyle. Null if it needs to be compiled. */
+    private volatile byte[] beginTemplate = null;
+
     /**
      * Constructs a new RtfParagraphStyle with the given attributes.
      *
@@ -300,6 +308,7 @@ public class RtfParagraphStyle extends RtfFont {
      * @param alignment The alignment to use.
      */
     public void setAlignment(int alignment) {
+        this.beginTemplate = null;
         this.modified |= MODIFIED_ALIGNMENT;
         this.alignment = alignment;
     }
@@ -320,6 +329,7 @@ public class RtfParagraphStyle extends RtfFont {
      * @param firstLineIndent The first line indentation to use.
      */
     public void setFirstLineIndent(int firstLineIndent) {
+        this.beginTemplate = null;
         this.firstLineIndent = firstLineIndent;
     }
 
@@ -338,6 +348,7 @@ public class RtfParagraphStyle extends RtfFont {
      * @param indentLeft The left indentation to use.
      */
     public void setIndentLeft(int indentLeft) {
+        this.beginTemplate = null;
         this.modified |= MODIFIED_INDENT_LEFT;
         this.indentLeft = indentLeft;
     }
@@ -357,6 +368,7 @@ public class RtfParagraphStyle extends RtfFont {
      * @param indentRight The right indentation to use.
      */
     public void setIndentRight(int indentRight) {
+        this.beginTemplate = null;
         this.modified |= MODIFIED_INDENT_RIGHT;
         this.indentRight = indentRight;
     }
@@ -376,6 +388,7 @@ public class RtfParagraphStyle extends RtfFont {
      * @param spacingBefore The space before to use.
      */
     public void setSpacingBefore(int spacingBefore) {
+        this.beginTemplate = null;
         this.modified |= MODIFIED_SPACING_BEFORE;
         this.spacingBefore = spacingBefore;
     }
@@ -395,6 +408,7 @@ public class RtfParagraphStyle extends RtfFont {
      * @param spacingAfter The space after to use.
      */
     public void setSpacingAfter(int spacingAfter) {
+        this.beginTemplate = null;
         this.modified |= MODIFIED_SPACING_AFTER;
         this.spacingAfter = spacingAfter;
     }
@@ -454,6 +468,7 @@ public class RtfParagraphStyle extends RtfFont {
      * @param lineLeading The line leading to use.
      */
     public void setLineLeading(int lineLeading) {
+        this.beginTemplate = null;
         this.lineLeading = lineLeading;
         this.modified |= MODIFIED_LINE_LEADING;
     }
@@ -473,6 +488,7 @@ public class RtfParagraphStyle extends RtfFont {
      * @param keepTogether Whether the lines in the paragraph should be kept together.
      */
     public void setKeepTogether(boolean keepTogether) {
+        this.beginTemplate = null;
         this.keepTogether = keepTogether;
         this.modified |= MODIFIED_KEEP_TOGETHER;
     }
@@ -492,6 +508,7 @@ public class RtfParagraphStyle extends RtfFont {
      * @param keepTogetherWithNext Whether the paragraph should be kept together with the next.
      */
     public void setKeepTogetherWithNext(boolean keepTogetherWithNext) {
+        this.beginTemplate = null;
         this.keepTogetherWithNext = keepTogetherWithNext;
         this.modified |= MODIFIED_KEEP_TOGETHER_WITH_NEXT;
     }
@@ -506,6 +523,7 @@ public class RtfParagraphStyle extends RtfFont {
                 && this.document.getDocumentHeader().getRtfParagraphStyle(this.basedOnName) != null) {
             this.baseStyle = this.document.getDocumentHeader().getRtfParagraphStyle(this.basedOnName);
             this.baseStyle.handleInheritance();
+            this.beginTemplate = null;
             if (!((this.modified & MODIFIED_ALIGNMENT) == MODIFIED_ALIGNMENT)) {
                 this.alignment = this.baseStyle.getAlignment();
             }
@@ -552,73 +570,112 @@ public class RtfParagraphStyle extends RtfFont {
      * @throws IOException On i/o errors.
      */
     private void writeParagraphSettings(OutputStream result) throws IOException {
+        RtfOutputSink sink = RtfOutputSink.of(result);
         if (this.keepTogether) {
-            result.write(KEEP_TOGETHER);
+            sink.write(KEEP_TOGETHER);
         }
         if (this.keepTogetherWithNext) {
-            result.write(KEEP_TOGETHER_WITH_NEXT);
+            sink.write(KEEP_TOGETHER_WITH_NEXT);
         }
         switch (alignment) {
             case Element.ALIGN_LEFT:
-                result.write(ALIGN_LEFT);
+                sink.write(ALIGN_LEFT);
                 break;
             case Element.ALIGN_RIGHT:
-                result.write(ALIGN_RIGHT);
+                sink.write(ALIGN_RIGHT);
                 break;
             case Element.ALIGN_CENTER:
-                result.write(ALIGN_CENTER);
+                sink.write(ALIGN_CENTER);
                 break;
             case Element.ALIGN_JUSTIFIED:
             case Element.ALIGN_JUSTIFIED_ALL:
-                result.write(ALIGN_JUSTIFY);
+                sink.write(ALIGN_JUSTIFY);
                 break;
         }
-        result.write(FIRST_LINE_INDENT);
-        result.write(intToByteArray(this.firstLineIndent));
-        result.write(INDENT_LEFT);
-        result.write(intToByteArray(indentLeft));
-        result.write(INDENT_RIGHT);
-        result.write(intToByteArray(indentRight));
+        sink.writeControlWord(FIRST_LINE_INDENT, this.firstLineIndent);
+        sink.writeControlWord(INDENT_LEFT, indentLeft);
+        sink.writeControlWord(INDENT_RIGHT, indentRight);
         if (this.spacingBefore > 0) {
-            result.write(SPACING_BEFORE);
-            result.write(intToByteArray(this.spacingBefore));
+            sink.writeControlWord(SPACING_BEFORE, this.spacingBefore);
         }
         if (this.spacingAfter > 0) {
-            result.write(SPACING_AFTER);
-            result.write(intToByteArray(this.spacingAfter));
+            sink.writeControlWord(SPACING_AFTER, this.spacingAfter);
         }
         if (this.lineLeading > 0) {
-            result.write(RtfParagraph.LINE_SPACING);
-            result.write(intToByteArray(this.lineLeading));
+            sink.writeControlWord(RtfParagraph.LINE_SPACING, this.lineLeading);
         }
     }
 
     /** Writes the definition of this RtfParagraphStyle for the stylesheet list. */
     public void writeDefinition(OutputStream result) throws IOException {
-        result.write(DocWriter.getISOBytes("{"));
-        result.write(DocWriter.getISOBytes("\\style"));
-        result.write(DocWriter.getISOBytes("\\s"));
-        result.write(intToByteArray(this.styleNumber));
-        result.write(RtfBasicElement.DELIMITER);
+        RtfOutputSink sink = RtfOutputSink.of(result);
+        sink.write(DocWriter.getISOBytes("{"));
+        sink.write(DocWriter.getISOBytes("\\style"));
+        sink.write(DocWriter.getISOBytes("\\s"));
+        sink.writeInt(this.styleNumber);
+        sink.write(RtfBasicElement.DELIMITER);
         writeParagraphSettings(result);
         super.writeBegin(result);
-        result.write(RtfBasicElement.DELIMITER);
-        result.write(DocWriter.getISOBytes(this.styleName));
-        result.write(DocWriter.getISOBytes(";"));
-        result.write(DocWriter.getISOBytes("}"));
+        sink.write(RtfBasicElement.DELIMITER);
+        sink.write(DocWriter.getISOBytes(this.styleName));
+        sink.write(DocWriter.getISOBytes(";"));
+        sink.write(DocWriter.getISOBytes("}"));
         this.document.outputDebugLinebreak(result);
     }
 
     /**
-     * Writes the start information of this RtfParagraphStyle.
+     * Writes the start information of this RtfParagraphStyle. The control words are compiled once
+     * and reused until a setting of this RtfParagraphStyle changes. RtfParagraphStyles of the same
+     * RtfDocument with the same settings share one compiled start sequence.
      *
      * @param result The <code>OutputStream</code> to write to.
      * @throws IOException On i/o errors.
      */
     public void writeBegin(OutputStream result) throws IOException {
-        result.write(DocWriter.getISOBytes("\\s"));
-        result.write(intToByteArray(this.styleNumber));
-        writeParagraphSettings(result);
+        byte[] template = this.beginTemplate;
+        if (template == null) {
+            if (this.document != null) {
+                template = this.document.getDocumentHeader().getParagraphStyleTemplate(this);
+            } else {
+                template = compileBegin();
+            }
+            this.beginTemplate = template;
+        }
+        result.write(template);
+    }
+
+    /**
+     * Compiles the start information of this RtfParagraphStyle.
+     *
+     * @return The start information of this RtfParagraphStyle.
+     * @throws IOException On i/o errors.
+     */
+    byte[] compileBegin() throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(64);
+        RtfOutputSink sink = new RtfOutputSink(buffer);
+        sink.write(STYLE_NUMBER);
+        sink.writeInt(this.styleNumber);
+        writeParagraphSettings(sink);
+        sink.flushBuffer();
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Gets the settings that are written by writeBegin.
+     *
+     * @return The settings of this RtfParagraphStyle.
+     */
+    Settings getSettings() {
+        return new Settings(this);
+    }
+
+    /**
+     * Gets the compiled start sequence of this RtfParagraphStyle.
+     *
+     * @return The compiled start sequence, null if it has not been compiled.
+     */
+    byte[] getBeginTemplate() {
+        return this.beginTemplate;
     }
 
     /**
@@ -661,6 +718,77 @@ public class RtfParagraphStyle extends RtfFont {
      * @param styleNumber The number to use.
      */
     protected void setStyleNumber(int styleNumber) {
+        this.beginTemplate = null;
         this.styleNumber = styleNumber;
     }
+
+    /**
+     * The settings of a RtfParagraphStyle that are written by writeBegin.
+     *
+     * @since 3.0.1
+     */
+    static final class Settings {
+
+        private final int styleNumber;
+
+        private final int alignment;
+
+        private final int firstLineIndent;
+
+        private final int indentLeft;
+
+        private final int indentRight;
+
+        private final int spacingBefore;
+
+        private final int spacingAfter;
+
+        private final int lineLeading;
+
+        private final boolean keepTogether;
+
+        private final boolean keepTogetherWithNext;
+
+        private Settings(RtfParagraphStyle style) {
+            this.styleNumber = style.styleNumber;
+            this.alignment = style.alignment;
+            this.firstLineIndent = style.firstLineIndent;
+            this.indentLeft = style.indentLeft;
+            this.indentRight = style.indentRight;
+            this.spacingBefore = style.spacingBefore;
+            this.spacingAfter = style.spacingAfter;
+            this.lineLeading = style.lineLeading;
+            this.keepTogether = style.keepTogether;
+            this.keepTogetherWithNext = style.keepTogetherWithNext;
+        }
+
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Settings)) {
+                return false;
+            }
+            Settings settings = (Settings) obj;
+            return this.styleNumber == settings.styleNumber
+                    && this.alignment == settings.alignment
+                    && this.firstLineIndent == settings.firstLineIndent
+                    && this.indentLeft == settings.indentLeft
+                    && this.indentRight == settings.indentRight
+                    && this.spacingBefore == settings.spacingBefore
+                    && this.spacingAfter == settings.spacingAfter
+                    && this.lineLeading == settings.lineLeading
+                    && this.keepTogether == settings.keepTogether
+                    && this.keepTogetherWithNext == settings.keepTogetherWithNext;
+        }
+
+        public int hashCode() {
+            int hash = this.styleNumber;
+            hash = hash * 31 + this.alignment;
+            hash = hash * 31 + this.firstLineIndent;
+            hash = hash * 31 + this.indentLeft;
+            hash = hash * 31 + this.indentRight;
+            hash = hash * 31 + this.spacingBefore;
+            hash = hash * 31 + this.spacingAfter;
+            hash = hash * 31 + this.lineLeading;
+            return hash * 4 + (this.keepTogether ? 2 : 0) + (this.keepTogetherWithNext ? 1 : 0);
+        }
+    }
 }
@@ -53,6 +53,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.openpdf.text.DocWriter;
 import org.openrtf.text.rtf.RtfBasicElement;
 import org.openrtf.text.rtf.RtfElement;
@@ -71,6 +72,9 @@ public class RtfStylesheetList extends RtfElement implements RtfExtendedElement
     /** The HashMap containing the RtfParagraphStyles. */
     private final Map<String, RtfParagraphStyle> styleMap = new HashMap<>();
 
+    /** The compiled start sequences of the RtfParagraphStyles, keyed by their settings. */
+    private final Map<RtfParagraphStyle.Settings, byte[]> beginTemplates = new ConcurrentHashMap<>();
+
     /** Whether the default settings have been loaded. */
     private boolean defaultsLoaded = false;
 
@@ -92,6 +96,10 @@ public class RtfStylesheetList extends RtfElement implements RtfExtendedElement
      * @param rtfParagraphStyle The RtfParagraphStyle to add.
      */
     public void registerParagraphStyle(RtfParagraphStyle rtfParagraphStyle) {
+        if (this.document.isHeaderWritten()) {
+            throw new IllegalStateException("The paragraph style " + rtfParagraphStyle.getStyleName()
+                    + " was not declared before the document was opened in streaming mode.");
+        }
         RtfParagraphStyle tempStyle = new RtfParagraphStyle(this.document, rtfParagraphStyle);
         tempStyle.handleInheritance();
         tempStyle.setStyleNumber(this.styleMap.size());
@@ -136,6 +144,29 @@ public class RtfStylesheetList extends RtfElement implements RtfExtendedElement
         }
     }
 
+    /**
+     * Gets the compiled start sequence of a RtfParagraphStyle. RtfParagraphStyles with the same
+     * settings share one compiled start sequence, so that the many anonymous styles created for
+     * plain paragraphs are compiled once per distinct combination of settings.
+     *
+     * @param style The RtfParagraphStyle to get the start sequence for.
+     * @return The compiled start sequence.
+     * @throws IOException On i/o errors.
+     * @since 3.0.1
+     */
+    public byte[] getBeginTemplate(RtfParagraphStyle style) throws IOException {
+        RtfParagraphStyle.Settings settings = style.getSettings();
+        byte[] template = this.beginTemplates.get(settings);
+        if (template == null) {
+            template = style.compileBegin();
+            byte[] previous = this.beginTemplates.putIfAbsent(settings, template);
+            if (previous != null) {
+                template = previous;
+            }
+        }
+        return template;
+    }
+
     /** Writes the definition of the stylesheet list. */
     public void writeDefinition(OutputStream result) throws IOException {
         result.write(DocWriter.getISOBytes("{"));
@@ -55,6 +55,7 @@ import java.io.OutputStream;
 import org.openpdf.text.DocWriter;
 import org.openrtf.text.rtf.RtfElement;
 import org.openrtf.text.rtf.document.RtfDocument;
+import org.openrtf.text.rtf.document.output.RtfOutputSink;
 import org.openrtf.text.rtf.style.RtfColor;
 
 /**
@@ -344,6 +345,7 @@ public class RtfBorder extends RtfElement {
 
     /** Writes the RtfBorder settings */
     public void writeContent(OutputStream result) throws IOException {
+        RtfOutputSink sink = RtfOutputSink.of(result);
         if (this.borderStyle == BORDER_NONE || this.borderPosition == NO_BORDER || this.borderWidth == 0) {
             return;
         }
@@ -351,54 +353,50 @@ public class RtfBorder extends RtfElement {
         if (this.borderType == ROW_BORDER) {
             switch (this.borderPosition) {
                 case LEFT_BORDER:
-                    result.write(ROW_BORDER_LEFT);
+                    sink.write(ROW_BORDER_LEFT);
                     break;
                 case TOP_BORDER:
-                    result.write(ROW_BORDER_TOP);
+                    sink.write(ROW_BORDER_TOP);
                     break;
                 case RIGHT_BORDER:
-                    result.write(ROW_BORDER_RIGHT);
+                    sink.write(ROW_BORDER_RIGHT);
                     break;
                 case BOTTOM_BORDER:
-                    result.write(ROW_BORDER_BOTTOM);
+                    sink.write(ROW_BORDER_BOTTOM);
                     break;
                 case HORIZONTAL_BORDER:
-                    result.write(ROW_BORDER_HORIZONTAL);
+                    sink.write(ROW_BORDER_HORIZONTAL);
                     break;
                 case VERTICAL_BORDER:
-                    result.write(ROW_BORDER_VERTICAL);
+                    sink.write(ROW_BORDER_VERTICAL);
                     break;
                 default:
                     return;
             }
-            result.write(writeBorderStyle());
-            result.write(BORDER_WIDTH);
-            result.write(intToByteArray(this.borderWidth));
-            result.write(BORDER_COLOR_NUMBER);
-            result.write(intToByteArray(this.borderColor.getColorNumber()));
+            sink.write(writeBorderStyle());
+            sink.writeControlWord(BORDER_WIDTH, this.borderWidth);
+            sink.writeControlWord(BORDER_COLOR_NUMBER, this.borderColor.getColorNumber());
             this.document.outputDebugLinebreak(result);
         } else if (this.borderType == CELL_BORDER) {
             switch (this.borderPosition) {
                 case LEFT_BORDER:
-                    result.write(CELL_BORDER_LEFT);
+                    sink.write(CELL_BORDER_LEFT);
                     break;
                 case TOP_BORDER:
-                    result.write(CELL_BORDER_TOP);
+                    sink.write(CELL_BORDER_TOP);
                     break;
                 case RIGHT_BORDER:
-                    result.write(CELL_BORDER_RIGHT);
+                    sink.write(CELL_BORDER_RIGHT);
                     break;
                 case BOTTOM_BORDER:
-                    result.write(CELL_BORDER_BOTTOM);
+                    sink.write(CELL_BORDER_BOTTOM);
                     break;
                 default:
                     return;
             }
-            result.write(writeBorderStyle());
-            result.write(BORDER_WIDTH);
-            result.write(intToByteArray(this.borderWidth));
-            result.write(BORDER_COLOR_NUMBER);
-            result.write(intToByteArray(this.borderColor.getColorNumber()));
+            sink.write(writeBorderStyle());
+            sink.writeControlWord(BORDER_WIDTH, this.borderWidth);
+            sink.writeControlWord(BORDER_COLOR_NUMBER, this.borderColor.getColorNumber());
             this.document.outputDebugLinebreak(result);
         }
     }
@@ -67,6 +67,7 @@ import org.openpdf.text.pdf.PdfPTable;
 import org.openrtf.text.rtf.RtfBasicElement;
 import org.openrtf.text.rtf.RtfExtendedElement;
 import org.openrtf.text.rtf.document.RtfDocument;
+import org.openrtf.text.rtf.document.output.RtfOutputSink;
 import org.openrtf.text.rtf.style.RtfColor;
 import org.openrtf.text.rtf.style.RtfParagraphStyle;
 import org.openrtf.text.rtf.text.RtfParagraph;
@@ -473,54 +474,55 @@ public class RtfCell extends Cell implements RtfExtendedElement {
 
     /** Write the cell definition part of this RtfCell */
     public void writeDefinition(OutputStream result) throws IOException {
+        RtfOutputSink sink = RtfOutputSink.of(result);
         if (this.mergeType == MERGE_VERT_PARENT) {
-            result.write(DocWriter.getISOBytes("\\clvmgf"));
+            sink.write(DocWriter.getISOBytes("\\clvmgf"));
         } else if (this.mergeType == MERGE_VERT_CHILD) {
-            result.write(DocWriter.getISOBytes("\\clvmrg"));
+            sink.write(DocWriter.getISOBytes("\\clvmrg"));
         }
         switch (verticalAlignment) {
             case Element.ALIGN_BOTTOM:
-                result.write(DocWriter.getISOBytes("\\clvertalb"));
+                sink.write(DocWriter.getISOBytes("\\clvertalb"));
                 break;
             case Element.ALIGN_CENTER:
             case Element.ALIGN_MIDDLE:
-                result.write(DocWriter.getISOBytes("\\clvertalc"));
+                sink.write(DocWriter.getISOBytes("\\clvertalc"));
                 break;
             case Element.ALIGN_TOP:
-                result.write(DocWriter.getISOBytes("\\clvertalt"));
+                sink.write(DocWriter.getISOBytes("\\clvertalt"));
                 break;
         }
         this.borders.writeContent(result);
 
         if (this.backgroundColor != null) {
-            result.write(DocWriter.getISOBytes("\\clcbpat"));
-            result.write(intToByteArray(this.backgroundColor.getColorNumber()));
+            sink.write(DocWriter.getISOBytes("\\clcbpat"));
+            sink.writeInt(this.backgroundColor.getColorNumber());
         }
         this.document.outputDebugLinebreak(result);
 
-        result.write(DocWriter.getISOBytes("\\clftsWidth3"));
+        sink.write(DocWriter.getISOBytes("\\clftsWidth3"));
         this.document.outputDebugLinebreak(result);
 
-        result.write(DocWriter.getISOBytes("\\clwWidth"));
-        result.write(intToByteArray(this.cellWidth));
+        sink.write(DocWriter.getISOBytes("\\clwWidth"));
+        sink.writeInt(this.cellWidth);
         this.document.outputDebugLinebreak(result);
 
         if (this.cellPadding > 0) {
-            result.write(DocWriter.getISOBytes("\\clpadl"));
-            result.write(intToByteArray(this.cellPadding / 2));
-            result.write(DocWriter.getISOBytes("\\clpadt"));
-            result.write(intToByteArray(this.cellPadding / 2));
-            result.write(DocWriter.getISOBytes("\\clpadr"));
-            result.write(intToByteArray(this.cellPadding / 2));
-            result.write(DocWriter.getISOBytes("\\clpadb"));
-            result.write(intToByteArray(this.cellPadding / 2));
-            result.write(DocWriter.getISOBytes("\\clpadfl3"));
-            result.write(DocWriter.getISOBytes("\\clpadft3"));
-            result.write(DocWriter.getISOBytes("\\clpadfr3"));
-            result.write(DocWriter.getISOBytes("\\clpadfb3"));
+            sink.write(DocWriter.getISOBytes("\\clpadl"));
+            sink.writeInt(this.cellPadding / 2);
+            sink.write(DocWriter.getISOBytes("\\clpadt"));
+            sink.writeInt(this.cellPadding / 2);
+            sink.write(DocWriter.getISOBytes("\\clpadr"));
+            sink.writeInt(this.cellPadding / 2);
+            sink.write(DocWriter.getISOBytes("\\clpadb"));
+            sink.writeInt(this.cellPadding / 2);
+            sink.write(DocWriter.getISOBytes("\\clpadfl3"));
+            sink.write(DocWriter.getISOBytes("\\clpadft3"));
+            sink.write(DocWriter.getISOBytes("\\clpadfr3"));
+            sink.write(DocWriter.getISOBytes("\\clpadfb3"));
         }
-        result.write(DocWriter.getISOBytes("\\cellx"));
-        result.write(intToByteArray(this.cellRight));
+        sink.write(DocWriter.getISOBytes("\\cellx"));
+        sink.writeInt(this.cellRight);
     }
 
     /** Write the content of this RtfCell */
@@ -675,17 +677,6 @@ public class RtfCell extends Cell implements RtfExtendedElement {
         return this.inHeader;
     }
 
-    /**
-     * Transforms an integer into its String representation and then returns the bytes of that
-     * string.
-     *
-     * @param i The integer to convert
-     * @return A byte array representing the integer
-     */
-    private byte[] intToByteArray(int i) {
-        return DocWriter.getISOBytes(Integer.toString(i));
-    }
-
     /**
      * Checks whether this RtfCell is a placeholder for a table cell that has been removed due to
      * col/row spanning.
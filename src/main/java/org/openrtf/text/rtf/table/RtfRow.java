@@ -52,7 +52,6 @@ package org.openrtf.text.rtf.table;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.ArrayList;
-import java.util.List;
 import org.openpdf.text.Cell;
 import org.openpdf.text.DocWriter;
 import org.openpdf.text.Element;
@@ -61,6 +60,7 @@ import org.openpdf.text.pdf.PdfPCell;
 import org.openpdf.text.pdf.PdfPRow;
 import org.openrtf.text.rtf.RtfElement;
 import org.openrtf.text.rtf.document.RtfDocument;
+import org.openrtf.text.rtf.document.output.RtfOutputSink;
 
 /**
  * The RtfRow wraps one Row for a RtfTable. INTERNAL USE ONLY
@@ -198,8 +198,9 @@ public class RtfRow extends RtfElement {
         this.width = (int) (this.width * this.parentTable.getTableWidthPercent() / 100);
 
         int cellRight = 0;
+        float[] proportionalWidths = this.parentTable.getProportionalWidths();
         for (int i = 0; i < row.getColumns(); i++) {
-            int cellWidth = (int) (this.width * this.parentTable.getProportionalWidths()[i] / 100);
+            int cellWidth = (int) (this.width * proportionalWidths[i] / 100);
             cellRight += cellWidth;
 
             Cell cell = (Cell) row.getCell(i);
@@ -225,8 +226,9 @@ public class RtfRow extends RtfElement {
 
         int cellRight = 0;
         PdfPCell[] cells = row.getCells();
+        float[] proportionalWidths = this.parentTable.getProportionalWidths();
         for (int i = 0; i < cells.length; i++) {
-            int cellWidth = (int) (this.width * this.parentTable.getProportionalWidths()[i] / 100);
+            int cellWidth = (int) (this.width * proportionalWidths[i] / 100);
             cellRight += cellWidth;
 
             PdfPCell cell = cells[i];
@@ -254,13 +256,13 @@ public class RtfRow extends RtfElement {
                 }
             }
             if (rtfCell.getRowspan() > 1) {
-                List<RtfRow> rows = this.parentTable.getRows();
                 for (int j = 1; j < rtfCell.getRowspan(); j++) {
-                    RtfRow mergeRow = rows.get(this.rowNumber + j);
-                    if (this.rowNumber + j < rows.size()) {
-                        RtfCell rtfCellMerge = mergeRow.getCells().get(i);
-                        rtfCellMerge.setCellMergeChild(rtfCell);
+                    RtfRow mergeRow = this.parentTable.getRow(this.rowNumber + j);
+                    if (mergeRow == null) {
+                        break;
                     }
+                    RtfCell rtfCellMerge = mergeRow.getCells().get(i);
+                    rtfCellMerge.setCellMergeChild(rtfCell);
                     if (rtfCell.getColspan() > 1) {
                         int cSpan = rtfCell.getColspan();
                         for (int k = i + 1; k < i + cSpan; k++) {
@@ -291,60 +293,54 @@ public class RtfRow extends RtfElement {
      *
      * @param result The <code>OutputStream</code> to write the definitions to.
      */
-    private void writeRowDefinition(OutputStream result) throws IOException {
-        result.write(ROW_BEGIN);
+    protected void writeRowDefinition(OutputStream result) throws IOException {
+        RtfOutputSink sink = RtfOutputSink.of(result);
+        sink.write(ROW_BEGIN);
         this.document.outputDebugLinebreak(result);
-        result.write(ROW_WIDTH_STYLE);
-        result.write(ROW_WIDTH);
-        result.write(intToByteArray(this.width));
+        sink.write(ROW_WIDTH_STYLE);
+        sink.writeControlWord(ROW_WIDTH, this.width);
         if (this.parentTable.getCellsFitToPage()) {
-            result.write(ROW_KEEP_TOGETHER);
+            sink.write(ROW_KEEP_TOGETHER);
         }
         if (this.rowNumber <= this.parentTable.getHeaderRows()) {
-            result.write(ROW_HEADER_ROW);
+            sink.write(ROW_HEADER_ROW);
         }
         switch (this.parentTable.getAlignment()) {
             case Element.ALIGN_LEFT:
-                result.write(ROW_ALIGN_LEFT);
+                sink.write(ROW_ALIGN_LEFT);
                 break;
             case Element.ALIGN_RIGHT:
-                result.write(ROW_ALIGN_RIGHT);
+                sink.write(ROW_ALIGN_RIGHT);
                 break;
             case Element.ALIGN_CENTER:
-                result.write(ROW_ALIGN_CENTER);
+                sink.write(ROW_ALIGN_CENTER);
                 break;
             case Element.ALIGN_JUSTIFIED:
             case Element.ALIGN_JUSTIFIED_ALL:
-                result.write(ROW_ALIGN_JUSTIFIED);
+                sink.write(ROW_ALIGN_JUSTIFIED);
                 break;
         }
-        result.write(ROW_GRAPH);
+        sink.write(ROW_GRAPH);
         RtfBorderGroup borders = this.parentTable.getBorders();
         if (borders != null) {
             borders.writeContent(result);
         }
 
         if (this.parentTable.getCellSpacing() > 0) {
-            result.write(ROW_CELL_SPACING_LEFT);
-            result.write(intToByteArray((int) (this.parentTable.getCellSpacing() / 2)));
-            result.write(ROW_CELL_SPACING_LEFT_STYLE);
-            result.write(ROW_CELL_SPACING_TOP);
-            result.write(intToByteArray((int) (this.parentTable.getCellSpacing() / 2)));
-            result.write(ROW_CELL_SPACING_TOP_STYLE);
-            result.write(ROW_CELL_SPACING_RIGHT);
-            result.write(intToByteArray((int) (this.parentTable.getCellSpacing() / 2)));
-            result.write(ROW_CELL_SPACING_RIGHT_STYLE);
-            result.write(ROW_CELL_SPACING_BOTTOM);
-            result.write(intToByteArray((int) (this.parentTable.getCellSpacing() / 2)));
-            result.write(ROW_CELL_SPACING_BOTTOM_STYLE);
+            sink.writeControlWord(ROW_CELL_SPACING_LEFT, (int) (this.parentTable.getCellSpacing() / 2));
+            sink.write(ROW_CELL_SPACING_LEFT_STYLE);
+            sink.writeControlWord(ROW_CELL_SPACING_TOP, (int) (this.parentTable.getCellSpacing() / 2));
+            sink.write(ROW_CELL_SPACING_TOP_STYLE);
+            sink.writeControlWord(ROW_CELL_SPACING_RIGHT, (int) (this.parentTable.getCellSpacing() / 2));
+            sink.write(ROW_CELL_SPACING_RIGHT_STYLE);
+            sink.writeControlWord(ROW_CELL_SPACING_BOTTOM, (int) (this.parentTable.getCellSpacing() / 2));
+            sink.write(ROW_CELL_SPACING_BOTTOM_STYLE);
         }
 
-        result.write(ROW_CELL_PADDING_LEFT);
-        result.write(intToByteArray((int) (this.parentTable.getCellPadding() / 2)));
-        result.write(ROW_CELL_PADDING_RIGHT);
-        result.write(intToByteArray((int) (this.parentTable.getCellPadding() / 2)));
-        result.write(ROW_CELL_PADDING_LEFT_STYLE);
-        result.write(ROW_CELL_PADDING_RIGHT_STYLE);
+        sink.writeControlWord(ROW_CELL_PADDING_LEFT, (int) (this.parentTable.getCellPadding() / 2));
+        sink.writeControlWord(ROW_CELL_PADDING_RIGHT, (int) (this.parentTable.getCellPadding() / 2));
+        sink.write(ROW_CELL_PADDING_LEFT_STYLE);
+        sink.write(ROW_CELL_PADDING_RIGHT_STYLE);
 
         this.document.outputDebugLinebreak(result);
 
@@ -353,9 +349,13 @@ public class RtfRow extends RtfElement {
         }
     }
 
-    /** Writes the content of this RtfRow */
+    /**
+     * Writes the content of this RtfRow. The row definition is rendered once and written both
+     * before and, if the document settings ask for it, after the cells.
+     */
     public void writeContent(OutputStream result) throws IOException {
-        writeRowDefinition(result);
+        byte[] rowDefinition = this.parentTable.getRowDefinition(this);
+        result.write(rowDefinition);
 
         for (RtfCell rtfCell : this.cells) {
             rtfCell.writeContent(result);
@@ -364,7 +364,7 @@ public class RtfRow extends RtfElement {
         result.write(DELIMITER);
 
         if (this.document.getDocumentSettings().isOutputTableRowDefinitionAfter()) {
-            writeRowDefinition(result);
+            result.write(rowDefinition);
         }
 
         result.write(ROW_END);
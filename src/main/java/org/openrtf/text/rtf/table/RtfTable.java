@@ -49,10 +49,13 @@
 
 package org.openrtf.text.rtf.table;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 import org.openpdf.text.Element;
 import org.openpdf.text.Row;
 import org.openpdf.text.Table;
@@ -60,6 +63,7 @@ import org.openpdf.text.pdf.PdfPRow;
 import org.openpdf.text.pdf.PdfPTable;
 import org.openrtf.text.rtf.RtfElement;
 import org.openrtf.text.rtf.document.RtfDocument;
+import org.openrtf.text.rtf.document.output.RtfOutputSink;
 import org.openrtf.text.rtf.style.RtfFont;
 import org.openrtf.text.rtf.text.RtfParagraph;
 
@@ -107,6 +111,27 @@ public class RtfTable extends RtfElement {
     /** The offset from the previous text */
     private int offset = -1;
 
+    /** The buffer the row definitions are rendered into. */
+    private RowDefinitionBuffer rowDefinitionBuffer = null;
+
+    /** The RtfOutputSink writing to the row definition buffer, reused for all rows. */
+    private RtfOutputSink rowDefinitionSink = null;
+
+    /** The last rendered row definition, shared by all following rows with the same definition. */
+    private byte[] lastRowDefinition = null;
+
+    /** Whether the rows are imported and written in parts while the PdfPTable is being filled. */
+    private boolean large = false;
+
+    /** Whether the last part of the rows has been imported. */
+    private boolean complete = true;
+
+    /** Whether a part of a large RtfTable has already been written. */
+    private boolean partWritten = false;
+
+    /** The row number of the first row in the currently imported part. */
+    private int firstRowNumber = 0;
+
     /**
      * Constructs a RtfTable based on a Table for a RtfDocument.
      *
@@ -187,16 +212,8 @@ public class RtfTable extends RtfElement {
         this.alignment = table.getHorizontalAlignment();
         //        this.alignment = table.getAlignment();
 
-        int i = 0;
-        //        Iterator rowIterator = table.iterator();
-        for (PdfPRow pdfPRow : table.getRows()) {
-            this.rows.add(new RtfRow(this.document, this, pdfPRow, i));
-            i++;
-        }
-        for (i = 0; i < this.rows.size(); i++) {
-            this.rows.get(i).handleCellSpanning();
-            this.rows.get(i).cleanRow();
-        }
+        this.large = !table.isComplete();
+        importRows(table);
 
         this.headerRows = table.getHeaderRows();
         //        this.headerRows = table.getLastHeaderRow();
@@ -212,14 +229,78 @@ public class RtfTable extends RtfElement {
         //        }
     }
 
-    /** Writes the content of this RtfTable */
+    /**
+     * Imports the rows of the PdfPTable that have not been written yet. A PdfPTable that is not
+     * complete (see {@link PdfPTable#setComplete(boolean)}) is written in parts: every time it is
+     * added to the document the rows added since the previous part are imported and written, and
+     * the PdfPTable then discards them, so that only the rows of the current part are kept in
+     * memory. The header rows are only written with the first part. Like the PdfPTable itself,
+     * row spans are only resolved within a part.
+     *
+     * @param table The PdfPTable to import the rows from.
+     * @since 3.0.1
+     */
+    public void importRows(PdfPTable table) {
+        this.rows = new ArrayList<>();
+        this.complete = table.isComplete();
+        List<PdfPRow> pdfPRows = table.getRows();
+        int i = this.firstRowNumber;
+        for (int j = this.partWritten ? table.getHeaderRows() : 0; j < pdfPRows.size(); j++) {
+            this.rows.add(new RtfRow(this.document, this, pdfPRows.get(j), i));
+            i++;
+        }
+        for (i = 0; i < this.rows.size(); i++) {
+            this.rows.get(i).handleCellSpanning();
+            this.rows.get(i).cleanRow();
+        }
+    }
+
+    /**
+     * Gets the row with the given row number, if it belongs to the currently imported rows.
+     *
+     * @param rowNumber The number of the row.
+     * @return The RtfRow or <code>null</code> if the row is not in the imported rows.
+     */
+    protected RtfRow getRow(int rowNumber) {
+        int index = rowNumber - this.firstRowNumber;
+        if (index < 0 || index >= this.rows.size()) {
+            return null;
+        }
+        return this.rows.get(index);
+    }
+
+    /**
+     * Gets whether the rows of this RtfTable are written in parts while the PdfPTable is still
+     * being filled.
+     *
+     * @return <code>true</code> if this RtfTable is written in parts.
+     * @since 3.0.1
+     */
+    public boolean isLarge() {
+        return this.large;
+    }
+
+    /**
+     * Gets whether the last part of the rows of this RtfTable has been imported.
+     *
+     * @return <code>true</code> if all rows have been imported.
+     * @since 3.0.1
+     */
+    public boolean isComplete() {
+        return this.complete;
+    }
+
+    /**
+     * Writes the content of this RtfTable. A large RtfTable only writes the rows of the currently
+     * imported part and releases them afterwards.
+     */
     public void writeContent(OutputStream result) throws IOException {
-        if (!inHeader) {
+        RtfOutputSink sink = RtfOutputSink.of(result);
+        if (!inHeader && !this.partWritten) {
             if (this.offset != -1) {
-                result.write(RtfFont.FONT_SIZE);
-                result.write(intToByteArray(this.offset));
+                sink.writeControlWord(RtfFont.FONT_SIZE, this.offset);
             }
-            result.write(RtfParagraph.PARAGRAPH);
+            sink.write(RtfParagraph.PARAGRAPH);
         }
 
         for (RtfElement re : this.rows) {
@@ -227,7 +308,37 @@ public class RtfTable extends RtfElement {
             re.writeContent(result);
         }
 
-        result.write(RtfParagraph.PARAGRAPH_DEFAULTS);
+        if (this.complete) {
+            sink.write(RtfParagraph.PARAGRAPH_DEFAULTS);
+        }
+        if (this.large) {
+            this.partWritten = true;
+            this.firstRowNumber += this.rows.size();
+            this.rows = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Renders the definition of a row of this RtfTable. Rows with the same definition as the
+     * previously rendered row share the same byte array, so that tables with many structurally
+     * identical rows only keep one copy.
+     *
+     * @param row The RtfRow to render the definition of.
+     * @return The row definition.
+     * @throws IOException On i/o errors.
+     */
+    protected byte[] getRowDefinition(RtfRow row) throws IOException {
+        if (this.rowDefinitionBuffer == null) {
+            this.rowDefinitionBuffer = new RowDefinitionBuffer();
+            this.rowDefinitionSink = new RtfOutputSink(this.rowDefinitionBuffer);
+        }
+        this.rowDefinitionBuffer.reset();
+        row.writeRowDefinition(this.rowDefinitionSink);
+        this.rowDefinitionSink.flushBuffer();
+        if (!this.rowDefinitionBuffer.contentEquals(this.lastRowDefinition)) {
+            this.lastRowDefinition = this.rowDefinitionBuffer.toByteArray();
+        }
+        return this.lastRowDefinition;
     }
 
     /**
@@ -319,4 +430,26 @@ public class RtfTable extends RtfElement {
     protected int getHeaderRows() {
         return this.headerRows;
     }
+
+    /**
+     * A ByteArrayOutputStream that can compare its content without copying it.
+     *
+     * @since 3.0.1
+     */
+    private static final class RowDefinitionBuffer extends ByteArrayOutputStream {
+
+        private RowDefinitionBuffer() {
+            super(256);
+        }
+
+        /**
+         * Tests whether the content of this buffer equals the given bytes.
+         *
+         * @param bytes The bytes to compare with, may be <code>null</code>.
+         * @return <code>true</code> if the content is equal.
+         */
+        private boolean contentEquals(byte[] bytes) {
+            return bytes != null && Arrays.equals(this.buf, 0, this.count, bytes, 0, bytes.length);
+        }
+    }
 }
@@ -55,6 +55,7 @@ import org.openpdf.text.Annotation;
 import org.openpdf.text.DocWriter;
 import org.openrtf.text.rtf.RtfElement;
 import org.openrtf.text.rtf.document.RtfDocument;
+import org.openrtf.text.rtf.document.output.RtfOutputSink;
 
 /**
  * The RtfAnnotation provides support for adding Annotations to the rtf document. Only simple
@@ -81,6 +82,9 @@ public class RtfAnnotation extends RtfElement {
     /** The content of this RtfAnnotation */
     private final String content;
 
+    /** The unique id of this RtfAnnotation */
+    private final int annotationId;
+
     /**
      * Constructs a RtfAnnotation based on an Annotation.
      *
@@ -91,25 +95,26 @@ public class RtfAnnotation extends RtfElement {
         super(doc);
         title = annotation.title();
         content = annotation.content();
+        annotationId = doc.getRandomInt();
     }
 
     /** Writes the content of the RtfAnnotation */
     public void writeContent(OutputStream result) throws IOException {
-        result.write(OPEN_GROUP);
-        result.write(ANNOTATION_ID);
-        result.write(DELIMITER);
-        result.write(intToByteArray(document.getRandomInt()));
-        result.write(CLOSE_GROUP);
-        result.write(OPEN_GROUP);
-        result.write(ANNOTATION_AUTHOR);
-        result.write(DELIMITER);
-        result.write(DocWriter.getISOBytes(title));
-        result.write(CLOSE_GROUP);
-        result.write(OPEN_GROUP);
-        result.write(ANNOTATION);
-        result.write(RtfParagraph.PARAGRAPH_DEFAULTS);
-        result.write(DELIMITER);
-        result.write(DocWriter.getISOBytes(content));
-        result.write(CLOSE_GROUP);
+        RtfOutputSink sink = RtfOutputSink.of(result);
+        sink.write(OPEN_GROUP);
+        sink.write(ANNOTATION_ID);
+        sink.writeControlWord(DELIMITER, annotationId);
+        sink.write(CLOSE_GROUP);
+        sink.write(OPEN_GROUP);
+        sink.write(ANNOTATION_AUTHOR);
+        sink.write(DELIMITER);
+        sink.write(DocWriter.getISOBytes(title));
+        sink.write(CLOSE_GROUP);
+        sink.write(OPEN_GROUP);
+        sink.write(ANNOTATION);
+        sink.write(RtfParagraph.PARAGRAPH_DEFAULTS);
+        sink.write(DELIMITER);
+        sink.write(DocWriter.getISOBytes(content));
+        sink.write(CLOSE_GROUP);
     }
 }
@@ -56,6 +56,7 @@ import org.openpdf.text.Chunk;
 import org.openpdf.text.DocWriter;
 import org.openrtf.text.rtf.RtfElement;
 import org.openrtf.text.rtf.document.RtfDocument;
+import org.openrtf.text.rtf.document.output.RtfOutputSink;
 import org.openrtf.text.rtf.style.RtfColor;
 import org.openrtf.text.rtf.style.RtfFont;
 
@@ -124,21 +125,17 @@ public class RtfChunk extends RtfElement {
      * and then more font information
      */
     public void writeContent(OutputStream result) throws IOException {
+        RtfOutputSink sink = RtfOutputSink.of(result);
         if (this.background != null) {
-            result.write(OPEN_GROUP);
+            sink.write(OPEN_GROUP);
         }
 
         this.font.writeBegin(result);
-        if (superSubScript < 0) {
-            result.write(FONT_SUBSCRIPT);
-        } else if (superSubScript > 0) {
-            result.write(FONT_SUPERSCRIPT);
-        }
+        writeSuperSubScript(sink);
         if (this.background != null) {
-            result.write(BACKGROUND_COLOR);
-            result.write(intToByteArray(this.background.getColorNumber()));
+            sink.writeControlWord(BACKGROUND_COLOR, this.background.getColorNumber());
         }
-        result.write(DELIMITER);
+        sink.write(DELIMITER);
         document.filterSpecialChar(
                 result,
                 content,
@@ -146,15 +143,85 @@ public class RtfChunk extends RtfElement {
                 softLineBreaks || this.document.getDocumentSettings().isAlwaysGenerateSoftLinebreaks());
 
         if (superSubScript != 0) {
-            result.write(FONT_END_SUPER_SUBSCRIPT);
+            sink.write(FONT_END_SUPER_SUBSCRIPT);
         }
         this.font.writeEnd(result);
 
         if (this.background != null) {
-            result.write(CLOSE_GROUP);
+            sink.write(CLOSE_GROUP);
         }
     }
 
+    /**
+     * Writes the content of this RtfChunk, merging its formatting with the adjacent RtfChunks. If a
+     * previous RtfChunk is given, only the formatting that differs from it is written. If the end
+     * is not written, the following RtfChunk must be written with this RtfChunk as its previous
+     * RtfChunk.
+     *
+     * @param result The <code>OutputStream</code> to write to.
+     * @param previous The RtfChunk written directly before this one without its end, or <code>null
+     *     </code> to write the complete formatting.
+     * @param writeEnd Whether to write the end of the formatting.
+     * @throws IOException On i/o errors.
+     */
+    void writeContent(OutputStream result, RtfChunk previous, boolean writeEnd) throws IOException {
+        RtfOutputSink sink = RtfOutputSink.of(result);
+        if (previous == null) {
+            this.font.writeBegin(result);
+            writeSuperSubScript(sink);
+            sink.write(DELIMITER);
+        } else {
+            boolean changed = this.font.writeTransition(previous.font, result);
+            if (Math.signum(this.superSubScript) != Math.signum(previous.superSubScript)) {
+                if (this.superSubScript == 0) {
+                    sink.write(FONT_END_SUPER_SUBSCRIPT);
+                } else {
+                    writeSuperSubScript(sink);
+                }
+                changed = true;
+            }
+            if (changed) {
+                sink.write(DELIMITER);
+            }
+        }
+        document.filterSpecialChar(
+                result,
+                content,
+                false,
+                softLineBreaks || this.document.getDocumentSettings().isAlwaysGenerateSoftLinebreaks());
+
+        if (writeEnd) {
+            if (superSubScript != 0) {
+                sink.write(FONT_END_SUPER_SUBSCRIPT);
+            }
+            this.font.writeEnd(result);
+        }
+    }
+
+    /**
+     * Writes the sub- or superscript flag of this RtfChunk.
+     *
+     * @param sink The <code>RtfOutputSink</code> to write to.
+     * @throws IOException On i/o errors.
+     */
+    private void writeSuperSubScript(RtfOutputSink sink) throws IOException {
+        if (superSubScript < 0) {
+            sink.write(FONT_SUBSCRIPT);
+        } else if (superSubScript > 0) {
+            sink.write(FONT_SUPERSCRIPT);
+        }
+    }
+
+    /**
+     * Gets whether the formatting of this RtfChunk can be merged with adjacent RtfChunks. RtfChunks
+     * with a background color are written in their own group and cannot be merged.
+     *
+     * @return <code>true</code> if the formatting can be merged.
+     */
+    boolean isFormattingMergeable() {
+        return this.background == null;
+    }
+
     /**
      * Sets the RtfDocument this RtfChunk belongs to.
      *
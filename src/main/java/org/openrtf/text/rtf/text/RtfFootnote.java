@@ -133,8 +133,8 @@ public class RtfFootnote extends RtfPhrase {
             this.paragraphStyle.writeBegin(result);
         }
 
-        for (RtfBasicElement rbe : chunks) {
-            rbe.writeContent(result);
+        for (int i = 0; i < chunks.size(); i++) {
+            writeChild(result, i);
         }
 
         if (this.paragraphStyle != null) {
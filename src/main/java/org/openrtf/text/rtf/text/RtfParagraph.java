@@ -148,10 +148,10 @@ public class RtfParagraph extends RtfPhrase {
         if (this.paragraphStyle != null) {
             this.paragraphStyle.writeBegin(result);
         }
-        result.write(DocWriter.getISOBytes("\\plain"));
+        result.write(PLAIN);
 
-        for (RtfBasicElement rbe : chunks) {
-            rbe.writeContent(result);
+        for (int i = 0; i < chunks.size(); i++) {
+            writeChild(result, i);
         }
 
         if (this.paragraphStyle != null) {
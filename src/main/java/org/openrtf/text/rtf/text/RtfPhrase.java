@@ -61,6 +61,7 @@ import org.openpdf.text.Phrase;
 import org.openrtf.text.rtf.RtfBasicElement;
 import org.openrtf.text.rtf.RtfElement;
 import org.openrtf.text.rtf.document.RtfDocument;
+import org.openrtf.text.rtf.document.output.RtfOutputSink;
 import org.openrtf.text.rtf.style.RtfFont;
 
 /**
@@ -137,20 +138,58 @@ public class RtfPhrase extends RtfElement {
      * RtfPhrase are written.
      */
     public void writeContent(OutputStream result) throws IOException {
-        result.write(PARAGRAPH_DEFAULTS);
-        result.write(PLAIN);
+        RtfOutputSink sink = RtfOutputSink.of(result);
+        sink.write(PARAGRAPH_DEFAULTS);
+        sink.write(PLAIN);
         if (inTable) {
-            result.write(IN_TABLE);
+            sink.write(IN_TABLE);
         }
         if (this.lineLeading > 0) {
-            result.write(LINE_SPACING);
-            result.write(intToByteArray(this.lineLeading));
+            sink.writeControlWord(LINE_SPACING, this.lineLeading);
         }
-        for (RtfBasicElement rbe : chunks) {
-            rbe.writeContent(result);
+        for (int i = 0; i < chunks.size(); i++) {
+            writeChild(result, i);
         }
     }
 
+    /**
+     * Writes the child element at the given index. If the document settings merge the formatting
+     * of chunks, RtfChunks that directly follow each other only write the formatting that differs.
+     *
+     * @param result The <code>OutputStream</code> to write to.
+     * @param index The index of the child element to write.
+     * @throws IOException On i/o errors.
+     * @since 3.0.1
+     */
+    protected void writeChild(OutputStream result, int index) throws IOException {
+        RtfChunk chunk = getMergeableChunk(index);
+        if (chunk == null) {
+            this.chunks.get(index).writeContent(result);
+        } else {
+            chunk.writeContent(result, getMergeableChunk(index - 1), getMergeableChunk(index + 1) == null);
+        }
+    }
+
+    /**
+     * Gets the child element at the given index if it is an RtfChunk whose formatting is merged
+     * with the adjacent RtfChunks.
+     *
+     * @param index The index of the child element.
+     * @return The RtfChunk or <code>null</code> if the element at the index is not merged.
+     */
+    private RtfChunk getMergeableChunk(int index) {
+        if (index < 0
+                || index >= this.chunks.size()
+                || !this.document.getDocumentSettings().isMergeChunkFormatting()) {
+            return null;
+        }
+        RtfBasicElement element = this.chunks.get(index);
+        if (element instanceof RtfChunk && ((RtfChunk) element).isFormattingMergeable()) {
+            return (RtfChunk) element;
+        }
+        return null;
+    }
+
     /**
      * Sets whether this RtfPhrase is in a table. Sets the correct inTable setting for all child
      * elements.
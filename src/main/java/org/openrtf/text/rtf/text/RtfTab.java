@@ -55,6 +55,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import org.openpdf.text.DocWriter;
 import org.openrtf.text.rtf.RtfAddableElement;
+import org.openrtf.text.rtf.document.output.RtfOutputSink;
 
 /**
  * The RtfTab encapsulates a tab position and tab type in a paragraph. To add tabs to a paragraph
@@ -123,18 +124,19 @@ public class RtfTab extends RtfAddableElement {
 
     /** Writes the tab settings. */
     public void writeContent(OutputStream result) throws IOException {
+        RtfOutputSink sink = RtfOutputSink.of(result);
         switch (this.type) {
             case TAB_CENTER_ALIGN:
-                result.write(DocWriter.getISOBytes("\\tqc"));
+                sink.write(DocWriter.getISOBytes("\\tqc"));
                 break;
             case TAB_RIGHT_ALIGN:
-                result.write(DocWriter.getISOBytes("\\tqr"));
+                sink.write(DocWriter.getISOBytes("\\tqr"));
                 break;
             case TAB_DECIMAL_ALIGN:
-                result.write(DocWriter.getISOBytes("\\tqdec"));
+                sink.write(DocWriter.getISOBytes("\\tqdec"));
                 break;
         }
-        result.write(DocWriter.getISOBytes("\\tx"));
-        result.write(intToByteArray(this.position));
+        sink.write(DocWriter.getISOBytes("\\tx"));
+        sink.writeInt(this.position);
     }
 }
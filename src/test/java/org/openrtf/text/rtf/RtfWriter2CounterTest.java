@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+
+package org.openrtf.text.rtf;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpdf.text.Document;
+import org.openpdf.text.PageSize;
+import org.openpdf.text.Paragraph;
+import org.openrtf.text.rtf.document.output.RtfDataCache;
+
+/**
+ * The <code>RtfWriter2CounterTest</code> checks that the byte counter of the writer matches the
+ * number of bytes written, whichever way the document is written.
+ *
+ * @since 3.0.1
+ */
+public class RtfWriter2CounterTest {
+
+    private static class CountedWriter extends RtfWriter2 {
+
+        CountedWriter(Document doc, OutputStream os) {
+            super(doc, os);
+        }
+
+        CountedWriter(Document doc, WritableByteChannel channel) {
+            super(doc, channel);
+        }
+
+        long getCounter() {
+            return this.os.getCounter();
+        }
+    }
+
+    private static long write(CountedWriter writer, Document document, boolean streaming) throws Exception {
+        writer.getDocumentSettings().setDataCacheStyle(RtfDataCache.CACHE_DISK_CHANNEL);
+        writer.getDocumentSettings().setStreamingOutput(streaming);
+        document.open();
+        for (int i = 0; i < 200; i++) {
+            document.add(new Paragraph("Paragraph number " + i + " of the counter test."));
+        }
+        document.close();
+        return writer.getCounter();
+    }
+
+    private static void assertCounted(boolean streaming) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Document document = new Document(PageSize.A4);
+        long counted = write(new CountedWriter(document, out), document, streaming);
+        Assert.assertTrue(out.size() > 0);
+        Assert.assertEquals(out.size(), counted);
+
+        out = new ByteArrayOutputStream();
+        document = new Document(PageSize.A4);
+        counted = write(new CountedWriter(document, Channels.newChannel(out)), document, streaming);
+        Assert.assertEquals(out.size(), counted);
+
+        File file = File.createTempFile("counter", ".rtf");
+        try {
+            FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE);
+            document = new Document(PageSize.A4);
+            counted = write(new CountedWriter(document, channel), document, streaming);
+            Assert.assertEquals(file.length(), counted);
+        } finally {
+            Assert.assertTrue(file.delete());
+        }
+    }
+
+    @Test
+    public void testBufferedIsCounted() throws Exception {
+        assertCounted(false);
+    }
+
+    @Test
+    public void testStreamingIsCounted() throws Exception {
+        assertCounted(true);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+
+package org.openrtf.text.rtf;
+
+import java.awt.Color;
+import java.io.ByteArrayOutputStream;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpdf.text.Chunk;
+import org.openpdf.text.Document;
+import org.openpdf.text.Font;
+import org.openpdf.text.PageSize;
+import org.openpdf.text.Paragraph;
+import org.openpdf.text.Phrase;
+import org.openpdf.text.Table;
+
+/**
+ * The <code>RtfWriter2StreamingTest</code> checks that a document written in streaming mode is the
+ * same as the buffered document and that undeclared fonts are rejected.
+ *
+ * @see org.openrtf.text.rtf.document.RtfDocumentSettings#setStreamingOutput(boolean)
+ * @since 3.0.1
+ */
+public class RtfWriter2StreamingTest {
+
+    private static final Font BOLD = new Font(Font.HELVETICA, 14, Font.BOLD, Color.BLUE);
+
+    private static final Font SMALL = new Font(Font.COURIER, 9, Font.NORMAL, new Color(0x33, 0x66, 0x99));
+
+    private static Paragraph createTitle() {
+        return new Paragraph("Streaming report", BOLD);
+    }
+
+    private static Table createTable() throws Exception {
+        Table table = new Table(2);
+        for (int i = 0; i < 20; i++) {
+            table.addCell(new Phrase("Row " + i, SMALL));
+            table.addCell(new Phrase("Value {" + i * 7 + "}", SMALL));
+        }
+        return table;
+    }
+
+    private static String write(boolean streaming) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Document document = new Document(PageSize.A4);
+        RtfWriter2 writer = RtfWriter2.getInstance(document, out);
+        writer.getDocumentSettings().setStreamingOutput(streaming);
+        Paragraph title = createTitle();
+        Table table = createTable();
+        if (streaming) {
+            writer.declareElement(title);
+            writer.declareElement(table);
+        }
+        document.open();
+        document.add(title);
+        document.add(table);
+        for (int i = 0; i < 50; i++) {
+            document.add(new Paragraph(new Chunk("Line " + i, i % 2 == 0 ? SMALL : BOLD)));
+        }
+        document.close();
+        return out.toString("ISO-8859-1");
+    }
+
+    @Test
+    public void testStreamingMatchesBuffered() throws Exception {
+        String buffered = write(false);
+        String streamed = write(true);
+        Assert.assertEquals(buffered, streamed);
+    }
+
+    @Test
+    public void testUndeclaredFontIsRejected() throws Exception {
+        Document document = new Document(PageSize.A4);
+        RtfWriter2 writer = RtfWriter2.getInstance(document, new ByteArrayOutputStream());
+        writer.getDocumentSettings().setStreamingOutput(true);
+        document.open();
+        try {
+            document.add(new Paragraph("Undeclared", new Font(Font.TIMES_ROMAN, 11)));
+            Assert.fail("Undeclared font was accepted in streaming mode.");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+}
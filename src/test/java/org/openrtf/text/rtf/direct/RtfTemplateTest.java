@@ -0,0 +1,158 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+package org.openrtf.text.rtf.direct;
+
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpdf.text.Document;
+import org.openpdf.text.Font;
+import org.openpdf.text.PageSize;
+import org.openpdf.text.Paragraph;
+import org.openpdf.text.Phrase;
+import org.openpdf.text.pdf.PdfPCell;
+import org.openpdf.text.pdf.PdfPTable;
+import org.openrtf.text.rtf.RtfWriter2;
+import org.openrtf.text.rtf.document.RtfDocument;
+
+/**
+ * The <code>RtfTemplateTest</code> checks that a compiled RtfTemplate writes the same document as
+ * building the document with the values.
+ *
+ * @see org.openrtf.text.rtf.direct.RtfTemplate
+ * @since 3.0.1
+ */
+public class RtfTemplateTest {
+
+    private static final String[] NAMES = {"name", "street", "city", "amount"};
+
+    private static Paragraph line(String text, Object value) {
+        Paragraph paragraph = new Paragraph(text, new Font(Font.HELVETICA, 11));
+        if (value instanceof RtfPlaceholder) {
+            paragraph.add(paragraph.size(), (RtfPlaceholder) value);
+        } else {
+            paragraph.add(paragraph.size(), new RtfDirectContent((String) value));
+        }
+        return paragraph;
+    }
+
+    /**
+     * Writes a letter. If values is null, placeholders are written, otherwise the values are
+     * written as already escaped direct content.
+     */
+    private static byte[] writeLetter(String[] values) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Document document = new Document(PageSize.A4);
+        RtfWriter2.getInstance(document, out);
+        document.open();
+        document.add(new Paragraph("ACME Ltd.", new Font(Font.TIMES_ROMAN, 18, Font.BOLD)));
+        for (int i = 0; i < NAMES.length; i++) {
+            document.add(line(NAMES[i] + ": ", values == null ? new RtfPlaceholder(NAMES[i]) : values[i]));
+        }
+        PdfPTable table = new PdfPTable(2);
+        table.addCell("Dear");
+        Phrase phrase = new Phrase();
+        phrase.add(0, values == null ? new RtfPlaceholder("name") : new RtfDirectContent(values[0]));
+        table.addCell(new PdfPCell(phrase));
+        document.add(table);
+        document.add(new Paragraph("Kind regards"));
+        document.close();
+        return out.toByteArray();
+    }
+
+    private static String escape(String value) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new RtfDocument().filterSpecialChar(out, value, false, false);
+        return new String(out.toByteArray(), "ISO-8859-1");
+    }
+
+    @Test
+    public void testSameAsBuiltDocument() throws Exception {
+        RtfTemplate template = new RtfTemplate(writeLetter(null));
+        Assert.assertArrayEquals(NAMES, template.getPlaceholderNames());
+        Assert.assertEquals(-1, template.getPlaceholderIndex("missing"));
+
+        String[] values = {"Jörg {Müller}", "Main St. 1\\2", "Łódź", "$ 1.000"};
+        String[] escaped = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            escaped[i] = escape(values[i]);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        template.write(out, values);
+        Assert.assertArrayEquals(writeLetter(escaped), out.toByteArray());
+
+        Map<String, String> byName = new HashMap<>();
+        for (int i = 0; i < NAMES.length; i++) {
+            byName.put(NAMES[i], values[i]);
+        }
+        ByteArrayOutputStream mapped = new ByteArrayOutputStream();
+        template.write(mapped, byName);
+        Assert.assertArrayEquals(out.toByteArray(), mapped.toByteArray());
+    }
+
+    @Test
+    public void testEmptyAndRtfValues() throws Exception {
+        ByteArrayOutputStream compiled = new ByteArrayOutputStream();
+        Document document = new Document();
+        RtfWriter2.getInstance(document, compiled);
+        document.open();
+        document.add(new RtfPlaceholder("text"));
+        document.add(new RtfPlaceholder("code", RtfPlaceholder.TYPE_RTF));
+        document.close();
+        RtfTemplate template = new RtfTemplate(compiled.toByteArray());
+
+        ByteArrayOutputStream empty = new ByteArrayOutputStream();
+        template.write(empty, new String[0]);
+        Assert.assertEquals(template.getStaticLength(), empty.size());
+        String rtf = new String(empty.toByteArray(), "ISO-8859-1");
+        Assert.assertFalse(rtf.contains("rtfplaceholder"));
+
+        ByteArrayOutputStream filled = new ByteArrayOutputStream();
+        template.write(filled, new String[] {"{b}", "{\\b bold}"});
+        rtf = new String(filled.toByteArray(), "ISO-8859-1");
+        Assert.assertTrue(rtf.contains("\\{b\\}{\\b bold}"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidName() {
+        new RtfPlaceholder("first name");
+    }
+}
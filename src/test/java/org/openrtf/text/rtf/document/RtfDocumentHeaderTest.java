@@ -0,0 +1,94 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+package org.openrtf.text.rtf.document;
+
+import java.awt.Color;
+import java.io.ByteArrayOutputStream;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpdf.text.Chapter;
+import org.openpdf.text.Document;
+import org.openpdf.text.Font;
+import org.openpdf.text.HeaderFooter;
+import org.openpdf.text.PageSize;
+import org.openpdf.text.Paragraph;
+import org.openpdf.text.Phrase;
+import org.openrtf.text.rtf.RtfWriter2;
+
+/**
+ * The <code>RtfDocumentHeaderTest</code> checks that the headers and footers, which are rendered
+ * once and reused, are written for every chapter and register their colors.
+ *
+ * @since 3.0.1
+ */
+public class RtfDocumentHeaderTest {
+
+    private static int count(String s, String part) {
+        int count = 0;
+        int index = s.indexOf(part);
+        while (index >= 0) {
+            count++;
+            index = s.indexOf(part, index + part.length());
+        }
+        return count;
+    }
+
+    @Test
+    public void testHeadersOfChapters() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Document document = new Document(PageSize.A4);
+        RtfWriter2.getInstance(document, out);
+        HeaderFooter first = new HeaderFooter(
+                new Phrase("First header", new Font(Font.TIMES_ROMAN, 9, Font.NORMAL, new Color(0x12, 0x34, 0x56))),
+                false);
+        HeaderFooter second = new HeaderFooter(new Phrase("Second header"), false);
+        document.setHeader(first);
+        document.open();
+        document.add(new Chapter(new Paragraph("One"), 1));
+        document.add(new Chapter(new Paragraph("Two"), 2));
+        document.setHeader(second);
+        document.add(new Chapter(new Paragraph("Three"), 3));
+        document.setHeader(first);
+        document.close();
+        String rtf = new String(out.toByteArray(), "ISO-8859-1");
+        Assert.assertEquals(3, count(rtf, "First header"));
+        Assert.assertEquals(1, count(rtf, "Second header"));
+        Assert.assertEquals(1, count(rtf, "\\red18\\green52\\blue86;"));
+    }
+}
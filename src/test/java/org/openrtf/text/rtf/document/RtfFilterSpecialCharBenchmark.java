@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+
+package org.openrtf.text.rtf.document;
+
+import java.io.ByteArrayOutputStream;
+import org.openrtf.text.rtf.document.output.RtfOutputSink;
+
+/**
+ * The <code>RtfFilterSpecialCharBenchmark</code> compares the run-based text escaping with the
+ * original character by character implementation for Latin, mixed and CJK text. It is not part of
+ * the unit tests, run its main method to print the timings.
+ *
+ * @see org.openrtf.text.rtf.document.RtfDocument#filterSpecialChar(java.io.OutputStream, String,
+ *     boolean, boolean)
+ * @since 3.0.1
+ */
+public final class RtfFilterSpecialCharBenchmark {
+
+    private static final int WARMUP = 20;
+
+    private static final int RUNS = 50;
+
+    private RtfFilterSpecialCharBenchmark() {}
+
+    /**
+     * Prints the time needed to escape each text.
+     *
+     * @param args unused
+     * @throws Exception On errors.
+     */
+    public static void main(String[] args) throws Exception {
+        String[] names = {"Latin", "mixed", "CJK"};
+        String[] texts = {
+            RtfFilterSpecialCharTest.repeat("The quick brown fox jumps over the lazy dog. ", 2000),
+            RtfFilterSpecialCharTest.repeat("Grüße aus Köln, {Preis}: 12,50 €\tfor café\n", 2000),
+            RtfFilterSpecialCharTest.repeat("日本語のテキストと中文文本。", 2000)
+        };
+        RtfDocument doc = new RtfDocument();
+        for (int t = 0; t < texts.length; t++) {
+            String text = texts[t];
+            ByteArrayOutputStream out = new ByteArrayOutputStream(text.length() * 8);
+            RtfOutputSink sink = new RtfOutputSink(out);
+            for (int i = 0; i < WARMUP; i++) {
+                out.reset();
+                RtfFilterSpecialCharTest.filterReference(sink, text, true, false, true);
+                sink.flushBuffer();
+                out.reset();
+                doc.filterSpecialChar(sink, text, true, false);
+                sink.flushBuffer();
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < RUNS; i++) {
+                out.reset();
+                RtfFilterSpecialCharTest.filterReference(sink, text, true, false, true);
+                sink.flushBuffer();
+            }
+            long referenceTime = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < RUNS; i++) {
+                out.reset();
+                doc.filterSpecialChar(sink, text, true, false);
+                sink.flushBuffer();
+            }
+            long runTime = System.nanoTime() - start;
+            System.out.println(names[t] + " text, " + text.length() + " characters " + RUNS + " times: per char "
+                    + referenceTime / 1000000 + " ms, run based " + runTime / 1000000 + " ms");
+        }
+    }
+}
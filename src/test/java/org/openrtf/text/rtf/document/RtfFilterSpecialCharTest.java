@@ -0,0 +1,171 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+
+package org.openrtf.text.rtf.document;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpdf.text.DocWriter;
+import org.openrtf.text.rtf.document.output.RtfOutputSink;
+import org.openrtf.text.rtf.graphic.RtfImage;
+
+/**
+ * The <code>RtfFilterSpecialCharTest</code> checks that the run-based text escaping produces the
+ * same output as the original character by character implementation for random, Latin, mixed and
+ * CJK text.
+ *
+ * @see org.openrtf.text.rtf.document.RtfDocument#filterSpecialChar(OutputStream, String, boolean,
+ *     boolean)
+ * @since 3.0.1
+ */
+public class RtfFilterSpecialCharTest {
+
+    private static final byte[] NEWPAGE = DocWriter.getISOBytes("$newpage$");
+
+    /** The character by character implementation the run-based one replaced. */
+    static void filterReference(
+            OutputStream out, String str, boolean useHex, boolean softLineBreaks, boolean alwaysUseUniCode)
+            throws IOException {
+        int len = str.length();
+        for (int k = 0; k < len; k++) {
+            char c = str.charAt(k);
+            if (c < 0x20) {
+                if (c == '\n') {
+                    out.write(DocWriter.getISOBytes(softLineBreaks ? "\\line " : "\\par "));
+                } else if (c == '\t') {
+                    out.write(DocWriter.getISOBytes("\\tab "));
+                } else {
+                    out.write('?');
+                }
+            } else if ((c == '\\') || (c == '{') || (c == '}')) {
+                out.write('\\');
+                out.write(c);
+            } else if ((c == '$') && (len - k >= NEWPAGE.length) && str.startsWith("$newpage$", k)) {
+                out.write(DocWriter.getISOBytes("\\page\\par "));
+                k += NEWPAGE.length - 1;
+            } else {
+                if ((c > 0xff) || ((c > 'z') && alwaysUseUniCode)) {
+                    if (useHex && (c <= 0xff)) {
+                        out.write(DocWriter.getISOBytes("\\'"));
+                        out.write(RtfImage.byte2charLUT, c * 2, 2);
+                    } else {
+                        out.write(DocWriter.getISOBytes("\\u"));
+                        String s = Short.toString((short) c);
+                        for (int x = 0; x < s.length(); x++) {
+                            out.write(s.charAt(x));
+                        }
+                        out.write('?');
+                    }
+                } else {
+                    out.write(c);
+                }
+            }
+        }
+    }
+
+    private static String createText(Random random, String alphabet, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return text.toString();
+    }
+
+    static String repeat(String s, int count) {
+        StringBuilder text = new StringBuilder(s.length() * count);
+        for (int i = 0; i < count; i++) {
+            text.append(s);
+        }
+        return text.toString();
+    }
+
+    private static byte[] filter(RtfDocument doc, String text, boolean useHex, boolean softLineBreaks)
+            throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RtfOutputSink sink = new RtfOutputSink(out);
+        doc.filterSpecialChar(sink, text, useHex, softLineBreaks);
+        sink.flush();
+        return out.toByteArray();
+    }
+
+    private static byte[] reference(String text, boolean useHex, boolean softLineBreaks, boolean alwaysUseUnicode)
+            throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        filterReference(out, text, useHex, softLineBreaks, alwaysUseUnicode);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testSameAsReference() throws Exception {
+        Random random = new Random(42);
+        String alphabet = "abcXYZ 019.,;|~\u007f\\{}$\n\t\r\u0001éÿĀ中文￿";
+        String[] texts = {"", "plain text", "$newpage$", "$newpag", "a$newpage$b$", createText(random, alphabet, 20000)
+        };
+        RtfDocument doc = new RtfDocument();
+        for (int mode = 0; mode < 8; mode++) {
+            boolean useHex = (mode & 1) != 0;
+            boolean softLineBreaks = (mode & 2) != 0;
+            boolean alwaysUseUnicode = (mode & 4) != 0;
+            doc.getDocumentSettings().setAlwaysUseUnicode(alwaysUseUnicode);
+            for (String text : texts) {
+                Assert.assertArrayEquals(
+                        reference(text, useHex, softLineBreaks, alwaysUseUnicode),
+                        filter(doc, text, useHex, softLineBreaks));
+            }
+        }
+    }
+
+    @Test
+    public void testScripts() throws Exception {
+        String[] texts = {
+            repeat("The quick brown fox jumps over the lazy dog. ", 20),
+            repeat("Grüße aus Köln, {Preis}: 12,50 €\tfor café\n", 20),
+            repeat("日本語のテキストと中文文本。", 20)
+        };
+        RtfDocument doc = new RtfDocument();
+        for (String text : texts) {
+            Assert.assertArrayEquals(reference(text, true, false, true), filter(doc, text, true, false));
+            Assert.assertArrayEquals(reference(text, false, true, true), filter(doc, text, false, true));
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+package org.openrtf.text.rtf.document;
+
+import java.awt.Color;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpdf.text.Annotation;
+import org.openpdf.text.Chapter;
+import org.openpdf.text.Chunk;
+import org.openpdf.text.Document;
+import org.openpdf.text.Font;
+import org.openpdf.text.List;
+import org.openpdf.text.PageSize;
+import org.openpdf.text.Paragraph;
+import org.openpdf.text.Phrase;
+import org.openpdf.text.pdf.PdfPCell;
+import org.openpdf.text.pdf.PdfPTable;
+import org.openrtf.text.rtf.RtfWriter2;
+import org.openrtf.text.rtf.graphic.RtfShape;
+import org.openrtf.text.rtf.graphic.RtfShapePosition;
+
+/**
+ * The <code>RtfParallelRenderingTest</code> checks that rendering the top level elements on an
+ * Executor produces the same document as rendering them when they are added, also for the unique
+ * ids of nested shapes and annotations.
+ *
+ * @see org.openrtf.text.rtf.document.RtfDocumentSettings#setRenderingExecutor(java.util.concurrent.Executor)
+ * @since 3.0.1
+ */
+public class RtfParallelRenderingTest {
+
+    private static byte[] writeDocument(ExecutorService executor, int tables, int rows) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Document document = new Document(PageSize.A4);
+        RtfWriter2 writer = RtfWriter2.getInstance(document, out);
+        writer.getDocumentSettings().setUniqueIdSeed(42L);
+        writer.getDocumentSettings().setRenderingExecutor(executor);
+        document.open();
+        for (int i = 0; i < tables; i++) {
+            Font font = new Font(Font.HELVETICA + i % 3, 8 + i % 5, i % 4, new Color(i % 7 * 30, 0, i % 11 * 20));
+            Paragraph paragraph = new Paragraph("Table " + i + " ", font);
+            paragraph.add(new Chunk("with a chunk", new Font(Font.COURIER, 10, Font.BOLD, new Color(0, i % 13, 0))));
+            document.add(paragraph);
+            PdfPTable table = new PdfPTable(4);
+            for (int row = 0; row < rows; row++) {
+                for (int column = 0; column < 4; column++) {
+                    table.addCell("cell " + i + "." + row + "." + column);
+                }
+            }
+            document.add(table);
+            if (i % 10 == 0) {
+                List list = new List(List.ORDERED);
+                list.add("first item of list " + i);
+                list.add("second item of list " + i);
+                document.add(list);
+            }
+            if (i % 50 == 49) {
+                document.add(new Chapter(new Paragraph("Chapter " + i), i));
+            }
+        }
+        document.close();
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testSameAsSerialRendering() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            byte[] serial = writeDocument(null, 120, 5);
+            Assert.assertArrayEquals(serial, writeDocument(executor, 120, 5));
+            Assert.assertArrayEquals(serial, writeDocument(executor, 120, 5));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static byte[] writeNestedIds(ExecutorService executor) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Document document = new Document(PageSize.A4);
+        RtfWriter2 writer = RtfWriter2.getInstance(document, out);
+        writer.getDocumentSettings().setUniqueIdSeed(42L);
+        writer.getDocumentSettings().setRenderingExecutor(executor);
+        document.open();
+        for (int i = 0; i < 100; i++) {
+            Paragraph paragraph = new Paragraph("Paragraph " + i + " ");
+            paragraph.add(new Annotation("Note " + i, "Annotation in paragraph " + i));
+            paragraph.add(
+                    paragraph.size(), new RtfShape(RtfShape.SHAPE_RECTANGLE, new RtfShapePosition(0, 0, 100, 100)));
+            document.add(paragraph);
+            PdfPTable table = new PdfPTable(1);
+            table.addCell(new Phrase(new Chunk("cell " + i)));
+            Paragraph cell = new Paragraph("annotated cell " + i);
+            cell.add(new Annotation("Cell " + i, "Annotation in table " + i));
+            table.addCell(new PdfPCell(cell));
+            document.add(table);
+        }
+        document.close();
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testNestedIdsSameAsSerialRendering() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            byte[] serial = writeNestedIds(null);
+            String rtf = new String(serial, "ISO-8859-1");
+            Assert.assertTrue(rtf.contains("\\*\\atnid"));
+            Assert.assertTrue(rtf.contains("\\shplid"));
+            Assert.assertArrayEquals(serial, writeNestedIds(executor));
+            Assert.assertArrayEquals(serial, writeNestedIds(executor));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
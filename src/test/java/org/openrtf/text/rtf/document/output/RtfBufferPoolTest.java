@@ -0,0 +1,98 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+
+package org.openrtf.text.rtf.document.output;
+
+import java.io.ByteArrayOutputStream;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpdf.text.Document;
+import org.openpdf.text.PageSize;
+import org.openpdf.text.Paragraph;
+import org.openrtf.text.rtf.RtfWriter2;
+
+/**
+ * The <code>RtfBufferPoolTest</code> checks that pooled buffers produce the same document and that
+ * the chunks are reused by the following documents.
+ *
+ * @see org.openrtf.text.rtf.document.output.RtfBufferPool
+ * @since 3.0.1
+ */
+public class RtfBufferPoolTest {
+
+    private static byte[] writeDocument(RtfBufferPool pool) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Document document = new Document(PageSize.A4);
+        RtfWriter2 writer = RtfWriter2.getInstance(document, out);
+        writer.getDocumentSettings().setDataCacheStyle(RtfDataCache.CACHE_MEMORY_EFFICIENT);
+        writer.getDocumentSettings().setBufferPool(pool);
+        document.open();
+        for (int i = 0; i < 5000; i++) {
+            document.add(new Paragraph("Paragraph number " + i + " of the buffer pool test."));
+        }
+        document.close();
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testChunksAreReused() throws Exception {
+        RtfBufferPool pool = new RtfBufferPool(4096, 8, 1024);
+        byte[] expected = writeDocument(null);
+        Assert.assertArrayEquals(expected, writeDocument(pool));
+        long allocated = pool.getAllocatedChunks();
+        Assert.assertTrue(allocated > 1);
+        for (int i = 0; i < 5; i++) {
+            Assert.assertArrayEquals(expected, writeDocument(pool));
+        }
+        Assert.assertEquals(allocated, pool.getAllocatedChunks());
+    }
+
+    @Test
+    public void testResetKeepsCurrentChunk() {
+        RtfBufferPool pool = new RtfBufferPool(64, 0, 16);
+        RtfByteArrayBuffer buffer = new RtfByteArrayBuffer(pool);
+        buffer.write(new byte[200], 0, 200);
+        buffer.reset();
+        Assert.assertEquals(3, pool.getPooledChunks());
+        buffer.write(new byte[] {1, 2, 3}, 0, 3);
+        Assert.assertArrayEquals(new byte[] {1, 2, 3}, buffer.toByteArray());
+        buffer.release();
+        Assert.assertEquals(4, pool.getPooledChunks());
+    }
+}
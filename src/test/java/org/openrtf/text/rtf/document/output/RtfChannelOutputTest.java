@@ -0,0 +1,115 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+
+package org.openrtf.text.rtf.document.output;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpdf.text.Document;
+import org.openpdf.text.PageSize;
+import org.openpdf.text.Paragraph;
+import org.openrtf.text.rtf.RtfWriter2;
+
+/**
+ * The <code>RtfChannelOutputTest</code> checks that writing a document to a channel gives the same
+ * result as writing it to an OutputStream for every data cache.
+ *
+ * @see org.openrtf.text.rtf.RtfWriter2#getInstance(Document, java.nio.channels.WritableByteChannel)
+ * @since 3.0.1
+ */
+public class RtfChannelOutputTest {
+
+    private static final int[] CACHE_STYLES = {
+        RtfDataCache.CACHE_MEMORY,
+        RtfDataCache.CACHE_MEMORY_EFFICIENT,
+        RtfDataCache.CACHE_DISK,
+        RtfDataCache.CACHE_DISK_CHANNEL,
+        RtfDataCache.CACHE_OFF_HEAP,
+        RtfDataCache.CACHE_HYBRID
+    };
+
+    private static void addContent(Document document) throws Exception {
+        document.open();
+        for (int i = 0; i < 3000; i++) {
+            document.add(new Paragraph("Paragraph number " + i + " of the channel output test."));
+        }
+        document.close();
+    }
+
+    private static byte[] writeToStream(int cacheStyle) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Document document = new Document(PageSize.A4);
+        RtfWriter2.getInstance(document, out).getDocumentSettings().setDataCacheStyle(cacheStyle);
+        addContent(document);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testChannelMatchesStream() throws Exception {
+        File file = File.createTempFile("openrtf-test", ".rtf");
+        try {
+            for (int cacheStyle : CACHE_STYLES) {
+                byte[] expected = writeToStream(cacheStyle);
+
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                Document document = new Document(PageSize.A4);
+                RtfWriter2.getInstance(document, Channels.newChannel(out))
+                        .getDocumentSettings()
+                        .setDataCacheStyle(cacheStyle);
+                addContent(document);
+                Assert.assertArrayEquals("Cache style " + cacheStyle, expected, out.toByteArray());
+
+                document = new Document(PageSize.A4);
+                FileChannel channel =
+                        FileChannel.open(file.toPath(), StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                RtfWriter2.getInstance(document, channel).getDocumentSettings().setDataCacheStyle(cacheStyle);
+                addContent(document);
+                Assert.assertArrayEquals("Cache style " + cacheStyle, expected, Files.readAllBytes(file.toPath()));
+            }
+        } finally {
+            file.delete();
+        }
+    }
+}
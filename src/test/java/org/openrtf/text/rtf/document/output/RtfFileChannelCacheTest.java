@@ -0,0 +1,117 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+
+package org.openrtf.text.rtf.document.output;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpdf.text.Document;
+import org.openpdf.text.PageSize;
+import org.openpdf.text.Paragraph;
+import org.openrtf.text.rtf.RtfWriter2;
+
+/**
+ * The <code>RtfFileChannelCacheTest</code> checks that the FileChannel disk cache produces the same
+ * document as the memory cache and that it always removes its temporary file.
+ *
+ * @see org.openrtf.text.rtf.document.output.RtfFileChannelCache
+ * @since 3.0.1
+ */
+public class RtfFileChannelCacheTest {
+
+    private static void writeDocument(OutputStream out, int cacheStyle, File cacheDirectory) throws Exception {
+        Document document = new Document(PageSize.A4);
+        RtfWriter2 writer = RtfWriter2.getInstance(document, out);
+        writer.getDocumentSettings().setDataCacheStyle(cacheStyle);
+        writer.getDocumentSettings().setDataCacheDirectory(cacheDirectory);
+        document.open();
+        for (int i = 0; i < 5000; i++) {
+            document.add(new Paragraph("Paragraph number " + i + " of the channel cache test."));
+        }
+        document.close();
+    }
+
+    private static File createDirectory() throws IOException {
+        File directory = Files.createTempDirectory("openrtf-test").toFile();
+        directory.deleteOnExit();
+        return directory;
+    }
+
+    @Test
+    public void testSameAsMemoryCache() throws Exception {
+        File directory = createDirectory();
+        ByteArrayOutputStream memory = new ByteArrayOutputStream();
+        writeDocument(memory, RtfDataCache.CACHE_MEMORY, null);
+
+        File file = new File(directory, "channel.rtf");
+        writeDocument(new FileOutputStream(file), RtfDataCache.CACHE_DISK_CHANNEL, directory);
+        Assert.assertArrayEquals(memory.toByteArray(), Files.readAllBytes(file.toPath()));
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        writeDocument(stream, RtfDataCache.CACHE_DISK_CHANNEL, directory);
+        Assert.assertArrayEquals(memory.toByteArray(), stream.toByteArray());
+
+        Assert.assertTrue(file.delete());
+        Assert.assertEquals(0, directory.list().length);
+    }
+
+    @Test
+    public void testTempFileDeletedOnFailure() throws Exception {
+        File directory = createDirectory();
+        RtfFileChannelCache cache = new RtfFileChannelCache(directory);
+        cache.getOutputStream().write(new byte[100000]);
+        try {
+            cache.writeTo(new OutputStream() {
+                public void write(int b) throws IOException {
+                    throw new IOException("Target failed");
+                }
+            });
+            Assert.fail("Failing target was not reported.");
+        } catch (IOException ioe) {
+            // expected
+        }
+        Assert.assertEquals(0, directory.list().length);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+
+package org.openrtf.text.rtf.document.output;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpdf.text.Document;
+import org.openpdf.text.PageSize;
+import org.openpdf.text.Paragraph;
+import org.openrtf.text.rtf.RtfWriter2;
+
+/**
+ * The <code>RtfOffHeapCacheTest</code> checks that the off-heap cache produces the same document
+ * as the memory cache and that its segments are returned to the pool.
+ *
+ * @see org.openrtf.text.rtf.document.output.RtfOffHeapCache
+ * @since 3.0.1
+ */
+public class RtfOffHeapCacheTest {
+
+    private static void writeDocument(OutputStream out, int cacheStyle) throws Exception {
+        Document document = new Document(PageSize.A4);
+        RtfWriter2 writer = RtfWriter2.getInstance(document, out);
+        writer.getDocumentSettings().setDataCacheStyle(cacheStyle);
+        document.open();
+        for (int i = 0; i < 5000; i++) {
+            document.add(new Paragraph("Paragraph number " + i + " of the off-heap cache test."));
+        }
+        document.close();
+    }
+
+    @Test
+    public void testSameAsMemoryCache() throws Exception {
+        ByteArrayOutputStream memory = new ByteArrayOutputStream();
+        writeDocument(memory, RtfDataCache.CACHE_MEMORY);
+
+        ByteArrayOutputStream offHeap = new ByteArrayOutputStream();
+        writeDocument(offHeap, RtfDataCache.CACHE_OFF_HEAP);
+        Assert.assertArrayEquals(memory.toByteArray(), offHeap.toByteArray());
+
+        File file = File.createTempFile("openrtf-test", ".rtf");
+        try {
+            writeDocument(new FileOutputStream(file), RtfDataCache.CACHE_OFF_HEAP);
+            Assert.assertArrayEquals(memory.toByteArray(), Files.readAllBytes(file.toPath()));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testSegmentsReturnedToPool() throws Exception {
+        RtfDirectBufferPool pool = new RtfDirectBufferPool(1024, 4096);
+        RtfOffHeapCache cache = new RtfOffHeapCache(pool);
+        byte[] content = new byte[10000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        cache.getOutputStream().write(content, 0, 5000);
+        cache.getOutputStream().write(content, 5000, 5000);
+        Assert.assertEquals(10000, cache.getSize());
+        Assert.assertEquals(10 * 1024, pool.getUsedBytes());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        cache.writeTo(out);
+        Assert.assertArrayEquals(content, out.toByteArray());
+        Assert.assertEquals(0, pool.getUsedBytes());
+        Assert.assertEquals(4096, pool.getPooledBytes());
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+
+package org.openrtf.text.rtf.document.output;
+
+import java.io.ByteArrayOutputStream;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpdf.text.DocWriter;
+
+/**
+ * The <code>RtfOutputSinkTest</code> checks the integer and control word encoding of the
+ * RtfOutputSink, for the buffered sink as well as the unbuffered adapter.
+ *
+ * @see org.openrtf.text.rtf.document.output.RtfOutputSink
+ * @since 3.0.1
+ */
+public class RtfOutputSinkTest {
+
+    private static final int[] VALUES = {
+        0, 1, -1, 9, 10, 99, 100, -100, 12345, 999999999, 1000000000, Integer.MAX_VALUE, Integer.MIN_VALUE
+    };
+
+    private static final byte[] FONT_SIZE = DocWriter.getISOBytes("\\fs");
+
+    private static String expected() {
+        StringBuilder s = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            int value = VALUES[i % VALUES.length];
+            s.append(value).append("\\fs").append(value).append(' ').append("plain");
+        }
+        return s.toString();
+    }
+
+    private static void writeAll(RtfOutputSink sink) throws Exception {
+        for (int i = 0; i < 1000; i++) {
+            int value = VALUES[i % VALUES.length];
+            sink.writeInt(value);
+            sink.writeControlWord(FONT_SIZE, value);
+            sink.writeByte(' ');
+            sink.writeAscii("plain");
+        }
+    }
+
+    @Test
+    public void testBufferedSink() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RtfOutputSink sink = new RtfOutputSink(out);
+        writeAll(sink);
+        sink.flush();
+        Assert.assertEquals(expected(), out.toString("ISO-8859-1"));
+    }
+
+    @Test
+    public void testAdapter() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RtfOutputSink sink = RtfOutputSink.of(out);
+        Assert.assertSame(sink, RtfOutputSink.of(sink));
+        for (int i = 0; i < 3; i++) {
+            sink.writeInt(i);
+            out.write('|');
+        }
+        Assert.assertEquals("0|1|2|", out.toString("ISO-8859-1"));
+        out.reset();
+        writeAll(sink);
+        Assert.assertEquals(expected(), out.toString("ISO-8859-1"));
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+
+package org.openrtf.text.rtf.document.output;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.file.Files;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpdf.text.DocWriter;
+
+/**
+ * The <code>RtfSpillingCacheTest</code> checks that the hybrid cache returns the same data whether
+ * it stays in memory or is moved to a plain or compressed temporary file.
+ *
+ * @see org.openrtf.text.rtf.document.output.RtfSpillingCache
+ * @since 3.0.1
+ */
+public class RtfSpillingCacheTest {
+
+    private static byte[] createContent() {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            content.append("\\pard\\plain\\s0\\f1\\fs20 Line ").append(i).append("\\par ");
+        }
+        return DocWriter.getISOBytes(content.toString());
+    }
+
+    private static void checkCache(long threshold, boolean compressed, boolean spilled) throws Exception {
+        File directory = Files.createTempDirectory("openrtf-test").toFile();
+        directory.deleteOnExit();
+        byte[] content = createContent();
+        RtfSpillingCache cache = new RtfSpillingCache(threshold, compressed, directory);
+        for (int i = 0; i < content.length; i += 1000) {
+            cache.getOutputStream().write(content, i, Math.min(1000, content.length - i));
+        }
+        Assert.assertEquals(spilled, cache.isSpilled());
+        Assert.assertEquals(spilled ? 1 : 0, directory.list().length);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        cache.writeTo(out);
+        Assert.assertArrayEquals(content, out.toByteArray());
+        Assert.assertEquals(0, directory.list().length);
+    }
+
+    @Test
+    public void testInMemory() throws Exception {
+        checkCache(RtfSpillingCache.DEFAULT_SPILL_THRESHOLD, false, false);
+    }
+
+    @Test
+    public void testSpilled() throws Exception {
+        checkCache(64 * 1024, false, true);
+    }
+
+    @Test
+    public void testSpilledCompressed() throws Exception {
+        checkCache(64 * 1024, true, true);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+
+package org.openrtf.text.rtf.graphic;
+
+import java.io.File;
+import java.nio.file.Files;
+import org.openpdf.text.Image;
+import org.openrtf.text.rtf.document.RtfDocument;
+import org.openrtf.text.rtf.document.output.RtfByteArrayBuffer;
+import org.openrtf.text.rtf.document.output.RtfNilOutputStream;
+
+/**
+ * The <code>RtfImageHexEncodingBenchmark</code> compares the byte by byte, block and parallel hex
+ * encoders, and the complete hex encoded image, on JPEG and PNG payloads of various sizes. It is not
+ * part of the unit tests, run its main method to print the timings.
+ *
+ * @see org.openrtf.text.rtf.graphic.RtfImage
+ * @since 3.0.1
+ */
+public final class RtfImageHexEncodingBenchmark {
+
+    private RtfImageHexEncodingBenchmark() {}
+
+    /**
+     * Prints the average time per image of each encoder.
+     *
+     * @param args unused
+     * @throws Exception On errors.
+     */
+    public static void main(String[] args) throws Exception {
+        RtfDocument document = new RtfDocument();
+        document.getDocumentSettings().setImageWrittenAsBinary(false);
+        String[] formats = {"jpg", "png"};
+        int[] sizes = {256, 1024, 2048};
+        for (String format : formats) {
+            for (int size : sizes) {
+                byte[] data = RtfImageHexEncodingTest.createImage(format, size);
+                byte[][] chunks = {data};
+                File file = File.createTempFile("RtfImageHexEncodingBenchmark", "." + format);
+                RtfImage image;
+                try {
+                    Files.write(file.toPath(), data);
+                    image = new RtfImage(
+                            document, Image.getInstance(file.toURI().toURL()));
+                } finally {
+                    file.delete();
+                }
+
+                int runs = Math.max(1, 20000000 / data.length);
+                RtfNilOutputStream nil = new RtfNilOutputStream();
+                for (int i = 0; i < runs; i++) {
+                    RtfImageHexEncodingTest.writeReference(new RtfByteArrayBuffer(), chunks);
+                    RtfImage.writeHexEncoded(new RtfByteArrayBuffer(), chunks, data.length);
+                    RtfImage.writeHexEncodedParallel(new RtfByteArrayBuffer(), chunks, data.length);
+                    image.writeContent(nil);
+                }
+                long start = System.nanoTime();
+                for (int i = 0; i < runs; i++) {
+                    RtfImageHexEncodingTest.writeReference(new RtfByteArrayBuffer(), chunks);
+                }
+                long byteWise = System.nanoTime() - start;
+                start = System.nanoTime();
+                for (int i = 0; i < runs; i++) {
+                    RtfImage.writeHexEncoded(new RtfByteArrayBuffer(), chunks, data.length);
+                }
+                long blocks = System.nanoTime() - start;
+                start = System.nanoTime();
+                for (int i = 0; i < runs; i++) {
+                    RtfImage.writeHexEncodedParallel(new RtfByteArrayBuffer(), chunks, data.length);
+                }
+                long parallel = System.nanoTime() - start;
+                start = System.nanoTime();
+                for (int i = 0; i < runs; i++) {
+                    image.writeContent(nil);
+                }
+                long total = System.nanoTime() - start;
+                System.out.println(format + " " + data.length + " bytes: byte wise " + byteWise / runs / 1000
+                        + " us, blocks " + blocks / runs / 1000 + " us, parallel " + parallel / runs / 1000
+                        + " us, writeContent " + total / runs / 1000 + " us");
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+package org.openrtf.text.rtf.graphic;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Random;
+import javax.imageio.ImageIO;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpdf.text.Image;
+import org.openrtf.text.rtf.document.RtfDocument;
+import org.openrtf.text.rtf.document.output.RtfByteArrayBuffer;
+
+/**
+ * The <code>RtfImageHexEncodingTest</code> checks that the block and parallel hex encoders produce
+ * the same output as encoding the image data byte by byte, also for JPEG and PNG images written by
+ * RtfImage.
+ *
+ * @since 3.0.1
+ */
+public class RtfImageHexEncodingTest {
+
+    /** The byte by byte encoder the block encoder replaces. */
+    static void writeReference(OutputStream bab, byte[][] imageData) throws IOException {
+        int cnt = 0;
+        for (byte[] chunk : imageData) {
+            for (byte b : chunk) {
+                bab.write(RtfImage.byte2charLUT, (b & 0xff) * 2, 2);
+                if (++cnt == 64) {
+                    bab.write('\n');
+                    cnt = 0;
+                }
+            }
+        }
+        if (cnt > 0) bab.write('\n');
+    }
+
+    private static byte[][] split(byte[] data, int[] chunkSizes) {
+        byte[][] chunks = new byte[chunkSizes.length + 1][];
+        int offset = 0;
+        for (int i = 0; i < chunkSizes.length; i++) {
+            int length = Math.min(chunkSizes[i], data.length - offset);
+            chunks[i] = new byte[length];
+            System.arraycopy(data, offset, chunks[i], 0, length);
+            offset += length;
+        }
+        chunks[chunkSizes.length] = new byte[data.length - offset];
+        System.arraycopy(data, offset, chunks[chunkSizes.length], 0, data.length - offset);
+        return chunks;
+    }
+
+    private static byte[] reference(byte[][] imageData) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeReference(out, imageData);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testSameAsByteWise() throws Exception {
+        Random random = new Random(7);
+        int[] sizes = {0, 1, 63, 64, 65, 8191, 8192, 100000, 3 * 1024 * 1024 + 17};
+        int[] chunkSizes = {1000, 0, 77777, 3, 262144, 64};
+        for (int size : sizes) {
+            byte[] data = new byte[size];
+            random.nextBytes(data);
+            byte[][] chunks = split(data, chunkSizes);
+            byte[] expected = reference(chunks);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            RtfImage.writeHexEncoded(out, chunks, size);
+            Assert.assertArrayEquals("size " + size, expected, out.toByteArray());
+            out.reset();
+            RtfImage.writeHexEncodedParallel(out, chunks, size);
+            Assert.assertArrayEquals("size " + size, expected, out.toByteArray());
+        }
+    }
+
+    static byte[] createImage(String format, int size) throws IOException {
+        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(size);
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                image.setRGB(x, y, ((x * 255 / size) << 16) | ((y * 255 / size) << 8) | random.nextInt(256));
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testImages() throws Exception {
+        RtfDocument document = new RtfDocument();
+        document.getDocumentSettings().setImageWrittenAsBinary(false);
+        String[] formats = {"jpg", "png"};
+        int[] sizes = {256, 1024};
+        for (String format : formats) {
+            for (int size : sizes) {
+                byte[] data = createImage(format, size);
+                byte[][] chunks = {data};
+                // PNG images loaded from bytes do not keep their original data, so they are read from a file
+                File file = File.createTempFile("RtfImageHexEncodingTest", "." + format);
+                file.deleteOnExit();
+                Files.write(file.toPath(), data);
+                RtfImage image =
+                        new RtfImage(document, Image.getInstance(file.toURI().toURL()));
+                RtfByteArrayBuffer written = new RtfByteArrayBuffer();
+                image.writeContent(written);
+                String rtf = new String(written.toByteArray(), "ISO-8859-1");
+                Assert.assertTrue(rtf.contains(new String(reference(chunks), "ISO-8859-1")));
+            }
+        }
+    }
+}
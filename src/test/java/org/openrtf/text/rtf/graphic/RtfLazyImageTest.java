@@ -0,0 +1,105 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+package org.openrtf.text.rtf.graphic;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.net.URL;
+import javax.imageio.ImageIO;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpdf.text.Image;
+import org.openrtf.text.rtf.document.RtfDocument;
+
+/**
+ * The <code>RtfLazyImageTest</code> checks that images loaded when they are written produce the
+ * same document as images loaded when they are added, and that only repeated images are cached.
+ *
+ * @see org.openrtf.text.rtf.document.RtfDocumentSettings#setImageLoadedLazily(boolean)
+ * @since 3.0.1
+ */
+public class RtfLazyImageTest {
+
+    private static URL createImage(String format, int size) throws Exception {
+        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                image.setRGB(x, y, (x * 7) << 16 | (y * 5) << 8 | (x ^ y));
+            }
+        }
+        File file = File.createTempFile("RtfLazyImageTest", "." + format);
+        file.deleteOnExit();
+        ImageIO.write(image, format, file);
+        return file.toURI().toURL();
+    }
+
+    private static byte[] writeDocument(RtfDocument document, URL[] urls) throws Exception {
+        document.open();
+        for (URL url : urls) {
+            document.add(new RtfImage(document, Image.getInstance(url)));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        document.writeDocument(out);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testSameAsLoadedImages() throws Exception {
+        URL logo = createImage("png", 40);
+        URL photo = createImage("png", 300);
+        // openpdf keeps the original data of JPEG images, so they are never loaded lazily
+        URL jpeg = createImage("jpg", 100);
+        URL[] urls = {logo, photo, logo, jpeg, logo};
+        for (int i = 0; i < 2; i++) {
+            boolean binary = i == 1;
+            RtfDocument loaded = new RtfDocument();
+            loaded.getDocumentSettings().setImageWrittenAsBinary(binary);
+            RtfDocument lazy = new RtfDocument();
+            lazy.getDocumentSettings().setImageWrittenAsBinary(binary);
+            lazy.getDocumentSettings().setImageLoadedLazily(true);
+            Assert.assertArrayEquals(writeDocument(loaded, urls), writeDocument(lazy, urls));
+
+            RtfImageDataCache cache = lazy.getImageDataCache();
+            Assert.assertNotNull(cache.get(logo.toExternalForm()));
+            // a hex encoded image that is written once is streamed and not cached
+            Assert.assertEquals(binary, cache.get(photo.toExternalForm()) != null);
+        }
+    }
+}
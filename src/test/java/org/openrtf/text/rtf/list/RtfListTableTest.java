@@ -0,0 +1,115 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+
+package org.openrtf.text.rtf.list;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpdf.text.Document;
+import org.openpdf.text.List;
+import org.openpdf.text.ListItem;
+import org.openpdf.text.PageSize;
+import org.openrtf.text.rtf.RtfWriter2;
+import org.openrtf.text.rtf.document.RtfDocument;
+
+/**
+ * The <code>RtfListTableTest</code> checks the list numbering and the unique ids.
+ *
+ * @see org.openrtf.text.rtf.list.RtfListTable
+ * @see org.openrtf.text.rtf.document.RtfDocument#getRandomInt()
+ * @since 3.0.1
+ */
+public class RtfListTableTest {
+
+    private static byte[] writeDocument(Long seed, int lists) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Document document = new Document(PageSize.A4);
+        RtfWriter2 writer = RtfWriter2.getInstance(document, out);
+        writer.getDocumentSettings().setUniqueIdSeed(seed);
+        document.open();
+        for (int i = 0; i < lists; i++) {
+            List list = new List(List.ORDERED);
+            list.add(new ListItem("Clause " + i + ".1"));
+            list.add(new ListItem("Clause " + i + ".2"));
+            document.add(list);
+        }
+        document.close();
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testSeededIdsAreRepeatable() throws Exception {
+        byte[] first = writeDocument(42L, 50);
+        Assert.assertArrayEquals(first, writeDocument(42L, 50));
+        Assert.assertFalse(Arrays.equals(first, writeDocument(43L, 50)));
+    }
+
+    @Test
+    public void testUniqueIds() {
+        RtfDocument doc = new RtfDocument();
+        doc.getDocumentSettings().setUniqueIdSeed(7L);
+        Set<Integer> ids = new HashSet<>();
+        for (int i = 0; i < 100000; i++) {
+            int id = doc.getRandomInt();
+            Assert.assertTrue(id >= 0);
+            Assert.assertTrue(ids.add(id));
+        }
+    }
+
+    @Test
+    public void testListNumbers() {
+        RtfDocument doc = new RtfDocument();
+        RtfListTable listTable = new RtfListTable(doc);
+        RtfList first = new RtfList(doc);
+        RtfList second = new RtfList(doc);
+        RtfList third = new RtfList(doc);
+        Assert.assertEquals(1, listTable.getListNumber(first));
+        Assert.assertEquals(2, listTable.getListNumber(second));
+        Assert.assertEquals(3, listTable.getListNumber(third));
+        Assert.assertEquals(1, listTable.getListNumber(second));
+        listTable.freeListNumber(first);
+        Assert.assertEquals(0, listTable.getListNumber(second));
+        Assert.assertEquals(1, listTable.getListNumber(third));
+        Assert.assertEquals(2, listTable.getLists().size());
+    }
+}
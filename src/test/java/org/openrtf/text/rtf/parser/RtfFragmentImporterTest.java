@@ -0,0 +1,148 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+
+package org.openrtf.text.rtf.parser;
+
+import java.awt.Color;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpdf.text.DocWriter;
+import org.openrtf.text.rtf.document.RtfDocument;
+
+/**
+ * The <code>RtfFragmentImporterTest</code> checks that importing fragments concurrently gives the
+ * same document as importing them one after another.
+ *
+ * @see org.openrtf.text.rtf.parser.RtfFragmentImporter
+ * @since 3.0.1
+ */
+public class RtfFragmentImporterTest {
+
+    private static final String[] FONTS = {"Arial", "Courier New", "Verdana", "Georgia", "Tahoma"};
+
+    private static String createFragment(int index) {
+        StringBuilder rtf = new StringBuilder("{\\f1\\cf1 Block ").append(index).append(' ');
+        for (int i = 0; i < 20; i++) {
+            rtf.append("{\\f2\\cf2\\b some {\\i formatted} text \\'e9\\u8364?}\\f1\\cf1 and more\\par ");
+        }
+        return rtf.append("\\f7\\cf9 unmapped}").toString();
+    }
+
+    private static RtfImportMappings createMappings(int index) {
+        RtfImportMappings mappings = new RtfImportMappings();
+        mappings.addFont("1", FONTS[index % FONTS.length]);
+        mappings.addFont("2", FONTS[(index + 2) % FONTS.length]);
+        mappings.addColor("1", new Color(index % 7 * 30, 0, 0));
+        mappings.addColor("2", new Color(0, index % 5 * 40, 255));
+        return mappings;
+    }
+
+    private static InputStream[] createSources(int count) {
+        InputStream[] sources = new InputStream[count];
+        for (int i = 0; i < count; i++) {
+            sources[i] = new ByteArrayInputStream(DocWriter.getISOBytes(createFragment(i)));
+        }
+        return sources;
+    }
+
+    private static RtfImportMappings[] createAllMappings(int count) {
+        RtfImportMappings[] mappings = new RtfImportMappings[count];
+        for (int i = 0; i < count; i++) {
+            mappings[i] = createMappings(i);
+        }
+        return mappings;
+    }
+
+    private static String importSerial(int count) throws IOException {
+        RtfDocument rtfDoc = new RtfDocument();
+        InputStream[] sources = createSources(count);
+        RtfImportMappings[] mappings = createAllMappings(count);
+        for (int i = 0; i < count; i++) {
+            new RtfParser(null).importRtfFragment(sources[i], rtfDoc, mappings[i]);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        rtfDoc.writeDocument(out);
+        return out.toString("ISO-8859-1");
+    }
+
+    private static String importParallel(int count, ExecutorService executor) throws IOException {
+        RtfDocument rtfDoc = new RtfDocument();
+        RtfFragmentImporter importer = new RtfFragmentImporter(rtfDoc);
+        importer.setExecutor(executor);
+        importer.importFragments(createSources(count), createAllMappings(count));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        rtfDoc.writeDocument(out);
+        return out.toString("ISO-8859-1");
+    }
+
+    /**
+     * Tests that the concurrent import produces exactly the serial output.
+     *
+     * @throws IOException On I/O errors.
+     */
+    @Test
+    public void testSameAsSerialImport() throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Assert.assertEquals(importSerial(50), importParallel(50, executor));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Tests that only the mapped font and color numbers are rewritten and that binary data is
+     * copied untouched.
+     *
+     * @throws IOException On I/O errors.
+     */
+    @Test
+    public void testRemapBodySkipsBinaryData() throws IOException {
+        byte[] body = DocWriter.getISOBytes("\\f1 a\\'f1\\cf1\\bin3 \\f1\\highlight1\\u-1?\\f5 b");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RtfFragmentImporter.remapBody(body, new int[] {0, 4}, new int[] {0, 7}, out);
+        Assert.assertEquals("\\f4 a\\'f1\\cf7\\bin3 \\f1\\highlight1\\u-1?\\f5 b", out.toString("ISO-8859-1"));
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+
+package org.openrtf.text.rtf.parser;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpdf.text.DocWriter;
+import org.openrtf.text.rtf.document.RtfDocument;
+
+/**
+ * The <code>RtfHeaderTableCacheTest</code> checks that replaying cached header tables gives the
+ * same result as parsing them.
+ *
+ * @see org.openrtf.text.rtf.parser.RtfHeaderTableCache
+ * @since 3.0.1
+ */
+public class RtfHeaderTableCacheTest {
+
+    private static String createDocument() {
+        StringBuilder rtf = new StringBuilder("{\\rtf1\\ansi\\deff0{\\fonttbl");
+        for (int i = 0; i < 40; i++) {
+            rtf.append("{\\f")
+                    .append(i)
+                    .append("\\fswiss\\fcharset0 Font Number ")
+                    .append(i)
+                    .append(";}");
+        }
+        rtf.append("{\\f40\\fnil\\fcharset2{\\*\\panose 05050102010706020507}Symbol;}}");
+        rtf.append("{\\colortbl;");
+        for (int i = 0; i < 40; i++) {
+            rtf.append("\\red")
+                    .append(i * 6)
+                    .append("\\green")
+                    .append(255 - i)
+                    .append("\\blue")
+                    .append(i)
+                    .append(';');
+        }
+        rtf.append("}{\\stylesheet{\\s0\\snext0 Normal;}{\\s1\\sbasedon0\\snext0\\b Heading;}}");
+        rtf.append("\\f3\\cf7 Some text {\\f40\\cf40 symbols} and {\\f12\\cf2\\b bold}\\par}");
+        return rtf.toString();
+    }
+
+    private static String importDocuments(RtfParserPool pool, RtfHeaderTableCache cache, int count) throws IOException {
+        byte[] source = DocWriter.getISOBytes(createDocument());
+        String last = null;
+        for (int i = 0; i < count; i++) {
+            RtfDocument rtfDoc = new RtfDocument();
+            RtfParser parser = pool.acquire(null);
+            try {
+                parser.setHeaderTableCache(cache);
+                parser.importRtfDocument(new ByteArrayInputStream(source), rtfDoc);
+            } finally {
+                pool.release(parser);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            rtfDoc.writeDocument(out);
+            last = out.toString("ISO-8859-1");
+        }
+        return last;
+    }
+
+    /**
+     * Tests that a replayed header table produces the same document as a parsed one.
+     *
+     * @throws IOException On I/O errors.
+     */
+    @Test
+    public void testReplayedTablesGiveSameOutput() throws IOException {
+        RtfParserPool pool = new RtfParserPool(1);
+        RtfHeaderTableCache cache = new RtfHeaderTableCache();
+        String parsed = importDocuments(pool, null, 1);
+        Assert.assertEquals(parsed, importDocuments(pool, cache, 1));
+        Assert.assertEquals(3, cache.size());
+        Assert.assertEquals(0, cache.getHitCount());
+        Assert.assertEquals(parsed, importDocuments(pool, cache, 2));
+        Assert.assertEquals(6, cache.getHitCount());
+        Assert.assertTrue(parsed.contains("Font Number 39"));
+    }
+
+    /**
+     * Tests that a header table larger than the cache limit is handed back to the tokeniser
+     * unchanged and is not cached.
+     *
+     * @throws IOException On I/O errors.
+     */
+    @Test
+    public void testLargeTableIsNotCached() throws IOException {
+        StringBuilder rtf = new StringBuilder("{\\rtf1\\ansi\\deff0{\\fonttbl");
+        for (int i = 0; rtf.length() <= RtfHeaderTableCache.MAX_TABLE_SIZE + 100; i++) {
+            rtf.append("{\\f")
+                    .append(i)
+                    .append("\\fswiss\\fcharset0 Font Number ")
+                    .append(i)
+                    .append(";}");
+        }
+        rtf.append("}\\f1000 Some text\\par}");
+        byte[] source = DocWriter.getISOBytes(rtf.toString());
+        String[] documents = new String[2];
+        RtfHeaderTableCache cache = new RtfHeaderTableCache();
+        for (int i = 0; i < documents.length; i++) {
+            RtfDocument rtfDoc = new RtfDocument();
+            RtfParser parser = new RtfParser(null);
+            parser.setHeaderTableCache(i == 0 ? null : cache);
+            parser.importRtfDocument(new ByteArrayInputStream(source), rtfDoc);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            rtfDoc.writeDocument(out);
+            documents[i] = out.toString("ISO-8859-1");
+        }
+        Assert.assertEquals(documents[0], documents[1]);
+        Assert.assertTrue(documents[1].contains("Font Number 1000"));
+        Assert.assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+
+package org.openrtf.text.rtf.parser;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpdf.text.DocWriter;
+import org.openrtf.text.rtf.document.RtfDocument;
+import org.openrtf.text.rtf.parser.exceptions.RtfParseLimitException;
+
+/**
+ * The <code>RtfParseLimitsTest</code> checks that the <code>RtfParser</code> aborts with a <code>
+ * RtfParseLimitException</code> when the input exceeds one of its <code>RtfParseLimits</code>.
+ *
+ * @see org.openrtf.text.rtf.parser.RtfParseLimits
+ * @since 3.0.1
+ */
+public class RtfParseLimitsTest {
+
+    private static final String DOCUMENT = "{\\rtf1\\ansi{\\fonttbl{\\f0 Arial;}}\\f0 Hello {\\b world}\\par}";
+
+    private static int importDocument(String rtf, RtfParseLimits limits) throws IOException {
+        RtfDocument rtfDoc = new RtfDocument();
+        rtfDoc.getDocumentSettings().setParseLimits(limits);
+        try {
+            new RtfParser(null).importRtfDocument(new ByteArrayInputStream(DocWriter.getISOBytes(rtf)), rtfDoc);
+        } catch (RtfParseLimitException e) {
+            return e.getLimit();
+        }
+        return 0;
+    }
+
+    private static String nested(int depth) {
+        StringBuilder rtf = new StringBuilder("{\\rtf1\\ansi ");
+        for (int i = 0; i < depth; i++) {
+            rtf.append('{');
+        }
+        rtf.append("text");
+        for (int i = 0; i < depth; i++) {
+            rtf.append('}');
+        }
+        return rtf.append('}').toString();
+    }
+
+    /**
+     * Tests that a document within the limits imports normally.
+     *
+     * @throws IOException On I/O errors.
+     */
+    @Test
+    public void testWithinLimits() throws IOException {
+        RtfParseLimits limits = new RtfParseLimits();
+        limits.setMaxGroupDepth(10);
+        limits.setMaxTextCharacters(100);
+        limits.setMaxControlWords(100);
+        limits.setMaxPictureBytes(100);
+        limits.setMaxParseTimeMillis(60000);
+        Assert.assertEquals(0, importDocument(DOCUMENT, limits));
+        Assert.assertEquals(0, importDocument(nested(5000), null));
+    }
+
+    /**
+     * Tests each limit in turn.
+     *
+     * @throws IOException On I/O errors.
+     */
+    @Test
+    public void testLimitsExceeded() throws IOException {
+        RtfParseLimits limits = new RtfParseLimits();
+        limits.setMaxGroupDepth(64);
+        Assert.assertEquals(RtfParseLimits.LIMIT_GROUP_DEPTH, importDocument(nested(5000), limits));
+
+        limits = new RtfParseLimits();
+        limits.setMaxTextCharacters(5);
+        Assert.assertEquals(RtfParseLimits.LIMIT_TEXT_CHARACTERS, importDocument(DOCUMENT, limits));
+
+        limits = new RtfParseLimits();
+        limits.setMaxControlWords(3);
+        Assert.assertEquals(RtfParseLimits.LIMIT_CONTROL_WORDS, importDocument(DOCUMENT, limits));
+
+        limits = new RtfParseLimits();
+        limits.setMaxPictureBytes(4);
+        Assert.assertEquals(
+                RtfParseLimits.LIMIT_PICTURE_BYTES,
+                importDocument("{\\rtf1\\ansi {\\pict\\pngblip 0123456789abcdef}}", limits));
+        Assert.assertEquals(
+                RtfParseLimits.LIMIT_PICTURE_BYTES,
+                importDocument("{\\rtf1\\ansi {\\pict\\pngblip\\bin2000000000 ab}}", limits));
+    }
+
+    /**
+     * Tests that a large document is aborted when it takes longer than the parse time limit.
+     *
+     * @throws IOException On I/O errors.
+     */
+    @Test
+    public void testParseTimeExceeded() throws IOException {
+        StringBuilder rtf = new StringBuilder("{\\rtf1\\ansi ");
+        for (int i = 0; i < 200000; i++) {
+            rtf.append("{\\b bold} plain text\\par ");
+        }
+        String document = rtf.append('}').toString();
+        RtfParseLimits limits = new RtfParseLimits();
+        limits.setMaxParseTimeMillis(1);
+        Assert.assertEquals(RtfParseLimits.LIMIT_PARSE_TIME, importDocument(document, limits));
+    }
+}
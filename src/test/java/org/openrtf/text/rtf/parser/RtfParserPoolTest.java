@@ -0,0 +1,155 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+
+package org.openrtf.text.rtf.parser;
+
+import java.awt.Color;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpdf.text.DocWriter;
+import org.openrtf.text.rtf.document.RtfDocument;
+import org.openrtf.text.rtf.parser.destinations.RtfDestinationMgr;
+
+/**
+ * The <code>RtfParserPoolTest</code> checks that a reused <code>RtfParser</code> produces the same
+ * result as a new one and that the pool reuses its parsers.
+ *
+ * @see org.openrtf.text.rtf.parser.RtfParserPool
+ * @since 3.0.1
+ */
+public class RtfParserPoolTest {
+
+    private static final String FRAGMENT = "{\\f1\\cf1\\b Hello\\b0 {\\i world}\\par}";
+
+    private static final int FRAGMENTS = 20;
+
+    private static final String[] FONTS = {"Arial", "Courier New", "Verdana"};
+
+    private static RtfImportMappings createMappings(int index) {
+        RtfImportMappings mappings = new RtfImportMappings();
+        mappings.addFont("1", FONTS[index % FONTS.length]);
+        mappings.addColor("1", new Color(255, index * 10 % 256, 0));
+        return mappings;
+    }
+
+    /**
+     * Imports every fragment into its own document, so that a reused parser is bound to a different
+     * target document for each import.
+     */
+    static String[] importFragments(RtfParserPool pool, int count) throws IOException {
+        String[] documents = new String[count];
+        for (int i = 0; i < count; i++) {
+            RtfDocument rtfDoc = new RtfDocument();
+            RtfParser parser = pool != null ? pool.acquire(null) : new RtfParser(null);
+            try {
+                parser.importRtfFragment(
+                        new ByteArrayInputStream(DocWriter.getISOBytes(FRAGMENT.replace("Hello", "Hello " + i))),
+                        rtfDoc,
+                        createMappings(i));
+            } finally {
+                if (pool != null) {
+                    pool.release(parser);
+                }
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            rtfDoc.writeDocument(out);
+            documents[i] = out.toString("ISO-8859-1");
+        }
+        return documents;
+    }
+
+    /**
+     * Tests that importing with pooled parsers into separate documents gives the same result as
+     * using a new parser for every fragment.
+     *
+     * @throws IOException On I/O errors.
+     */
+    @Test
+    public void testReusedParserOutput() throws IOException {
+        RtfParserPool pool = new RtfParserPool(1);
+        String[] expected = importFragments(null, 6);
+        String[] pooled = importFragments(pool, 6);
+        Assert.assertArrayEquals(expected, pooled);
+        Assert.assertEquals(1, pool.getIdleCount());
+        Assert.assertTrue(pooled[5].contains("Hello 5"));
+        Assert.assertFalse(pooled[5].contains("Hello 4"));
+        Assert.assertTrue(pooled[4].contains("Courier New"));
+        Assert.assertFalse(pooled[5].contains("Courier New"));
+    }
+
+    /**
+     * Tests that the pool hands back the released parser instead of creating a new one.
+     *
+     * @throws IOException On I/O errors.
+     */
+    @Test
+    public void testParserIsReused() throws IOException {
+        RtfParserPool pool = new RtfParserPool();
+        importFragments(pool, FRAGMENTS);
+        Assert.assertEquals(1, pool.getIdleCount());
+        RtfParser parser = pool.acquire(null);
+        Assert.assertEquals(0, pool.getIdleCount());
+        pool.release(parser);
+        Assert.assertSame(parser, pool.acquire(null));
+        pool.release(parser);
+        pool.clear();
+        Assert.assertEquals(0, pool.getIdleCount());
+        Assert.assertNotSame(parser, pool.acquire(null));
+    }
+
+    /**
+     * Tests that the deprecated static methods of <code>RtfDestinationMgr</code> use the manager
+     * owned by the parser.
+     */
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testStaticDestinationMgrMethods() {
+        RtfParser parser = new RtfParser(null);
+        RtfDestinationMgr mgr = parser.getDestinationMgr();
+        Assert.assertSame(mgr, RtfDestinationMgr.getInstance(parser));
+        Assert.assertSame(mgr, RtfDestinationMgr.getInstance());
+        Assert.assertSame(
+                mgr.findDestination(RtfDestinationMgr.DESTINATION_DOCUMENT),
+                RtfDestinationMgr.getDestination(RtfDestinationMgr.DESTINATION_DOCUMENT));
+        Assert.assertNotSame(mgr, new RtfParser(null).getDestinationMgr());
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+
+package org.openrtf.text.rtf.style;
+
+import java.io.ByteArrayOutputStream;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openrtf.text.rtf.document.RtfDocument;
+
+/**
+ * The <code>RtfColorListTest</code> checks the color numbers assigned by the color index and the
+ * order of the color table.
+ *
+ * @see org.openrtf.text.rtf.style.RtfColorList
+ * @since 3.0.1
+ */
+public class RtfColorListTest {
+
+    @Test
+    public void testColorNumbers() throws Exception {
+        RtfDocument doc = new RtfDocument();
+        RtfColorList colorList = new RtfColorList(doc);
+        Assert.assertEquals(0, colorList.getColorNumber(0, 0, 0));
+        Assert.assertEquals(1, colorList.getColorNumber(255, 255, 255));
+        Assert.assertEquals(2, colorList.getColorNumber(255, 0, 0));
+        Assert.assertEquals(3, colorList.getColorNumber(new RtfColor(null, 0, 0, 255)));
+        Assert.assertEquals(2, colorList.getColorNumber(new RtfColor(null, 255, 0, 0)));
+        Assert.assertEquals(4, colorList.getColorNumber(300, 0, 0));
+        Assert.assertEquals(4, colorList.getColorNumber(300, 0, 0));
+        Assert.assertEquals(5, colorList.getColors().size());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        colorList.writeDefinition(out);
+        Assert.assertEquals(
+                "{\\colortbl\\red0\\green0\\blue0;\\red255\\green255\\blue255;\\red255\\green0\\blue0;\\red0\\green0\\blue255;"
+                        + "\\red300\\green0\\blue0;}",
+                new String(out.toByteArray(), "ISO-8859-1"));
+    }
+}
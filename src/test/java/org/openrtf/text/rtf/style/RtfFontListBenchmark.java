@@ -0,0 +1,140 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+
+package org.openrtf.text.rtf.style;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.openpdf.text.Chunk;
+import org.openpdf.text.Document;
+import org.openpdf.text.PageSize;
+import org.openpdf.text.Paragraph;
+import org.openrtf.text.rtf.RtfWriter2;
+import org.openrtf.text.rtf.document.RtfDocument;
+import org.openrtf.text.rtf.document.output.RtfNilOutputStream;
+
+/**
+ * The <code>RtfFontListBenchmark</code> measures a document with 100000 chunks spread over 300
+ * fonts and compares the indexed font lookup of <code>RtfFontList</code> with a scan of the font
+ * list. It is not part of the unit tests, run its main method to print the timings.
+ *
+ * @see org.openrtf.text.rtf.style.RtfFontList
+ * @since 3.0.1
+ */
+public final class RtfFontListBenchmark {
+
+    private static final int FONTS = 300;
+
+    private static final int CHUNKS = 100000;
+
+    private static final int RUNS = 5;
+
+    private RtfFontListBenchmark() {}
+
+    private static long writeDocument(List<RtfFont> fonts) throws Exception {
+        long start = System.nanoTime();
+        Document document = new Document(PageSize.A4);
+        RtfWriter2.getInstance(document, new RtfNilOutputStream());
+        document.open();
+        Paragraph paragraph = new Paragraph();
+        for (int i = 0; i < CHUNKS; i++) {
+            paragraph.add(new Chunk("chunk " + i + " ", fonts.get(i % FONTS)));
+            if (paragraph.size() == 100) {
+                document.add(paragraph);
+                paragraph = new Paragraph();
+            }
+        }
+        document.close();
+        return System.nanoTime() - start;
+    }
+
+    private static long scanFonts(List<RtfFont> fonts) {
+        long start = System.nanoTime();
+        int found = 0;
+        for (int i = 0; i < CHUNKS; i++) {
+            RtfFont font = fonts.get(i % FONTS);
+            for (int j = 0; j < fonts.size(); j++) {
+                if (fonts.get(j).equals(font)) {
+                    found++;
+                }
+            }
+        }
+        if (found < CHUNKS) {
+            throw new IllegalStateException("Font not found.");
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long lookupFonts(RtfFontList fontList, List<RtfFont> fonts) {
+        long start = System.nanoTime();
+        for (int i = 0; i < CHUNKS; i++) {
+            if (fontList.getFontNumber(fonts.get(i % FONTS)) != i % FONTS + 1) {
+                throw new IllegalStateException("Wrong font number.");
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Prints the timings of the last of several runs.
+     *
+     * @param args unused
+     * @throws Exception On errors.
+     */
+    public static void main(String[] args) throws Exception {
+        List<RtfFont> fonts = new ArrayList<>();
+        for (int i = 0; i < FONTS; i++) {
+            fonts.add(new RtfFont("Font " + i, 10, RtfFont.NORMAL, null, i % 3));
+        }
+        RtfFontList fontList = new RtfFontList(new RtfDocument());
+        for (int i = 0; i < FONTS; i++) {
+            fontList.getFontNumber(fonts.get(i));
+        }
+        long document = 0;
+        long scan = 0;
+        long lookup = 0;
+        for (int run = 0; run < RUNS; run++) {
+            document = writeDocument(fonts);
+            scan = scanFonts(fonts);
+            lookup = lookupFonts(fontList, fonts);
+        }
+        System.out.println(CHUNKS + " chunks in " + FONTS + " fonts: document " + document / 1000000
+                + " ms, font list scan " + scan / 1000000 + " ms, indexed lookup " + lookup / 1000000 + " ms");
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+
+package org.openrtf.text.rtf.style;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpdf.text.Chunk;
+import org.openpdf.text.Document;
+import org.openpdf.text.PageSize;
+import org.openpdf.text.Paragraph;
+import org.openrtf.text.rtf.RtfWriter2;
+import org.openrtf.text.rtf.document.RtfDocument;
+
+/**
+ * The <code>RtfFontListTest</code> checks the font numbers assigned by the font registry and
+ * the font table of a document with many fonts.
+ *
+ * @see org.openrtf.text.rtf.style.RtfFontList
+ * @since 3.0.1
+ */
+public class RtfFontListTest {
+
+    private static final int FONTS = 300;
+
+    @Test
+    public void testFontNumbers() {
+        RtfFontList fontList = new RtfFontList(new RtfDocument());
+        Assert.assertEquals(0, fontList.getFontNumber(new RtfFont(RtfFont.DEFAULT_FONT)));
+        Assert.assertEquals(1, fontList.getFontNumber(new RtfFont("Arial", 10)));
+        Assert.assertEquals(1, fontList.getFontNumber(new RtfFont("Arial", 24, RtfFont.BOLD)));
+        Assert.assertEquals(2, fontList.getFontNumber(new RtfFont("Arial", 10, RtfFont.NORMAL, null, 2)));
+        Assert.assertEquals(3, fontList.getFontNumber(new RtfFont("Courier")));
+        Assert.assertEquals(2, fontList.getFontNumber(new RtfFont("Arial", 12, RtfFont.ITALIC, null, 2)));
+        List<RtfFont> fonts = fontList.getFonts();
+        Assert.assertEquals(4, fonts.size());
+        Assert.assertEquals("Arial", fonts.get(2).getFontName());
+        Assert.assertEquals(2, fonts.get(2).getCharset());
+    }
+
+    @Test
+    public void testManyFonts() throws Exception {
+        List<RtfFont> fonts = new ArrayList<>();
+        for (int i = 0; i < FONTS; i++) {
+            fonts.add(new RtfFont("Font " + i, 10, RtfFont.NORMAL, null, i % 3));
+        }
+        RtfFontList fontList = new RtfFontList(new RtfDocument());
+        for (int i = 0; i < FONTS; i++) {
+            Assert.assertEquals(i + 1, fontList.getFontNumber(fonts.get(i)));
+        }
+        for (int i = 0; i < FONTS; i++) {
+            Assert.assertEquals(i + 1, fontList.getFontNumber(fonts.get(i)));
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Document document = new Document(PageSize.A4);
+        RtfWriter2.getInstance(document, out);
+        document.open();
+        Paragraph paragraph = new Paragraph();
+        for (int i = 0; i < FONTS * 2; i++) {
+            paragraph.add(new Chunk("chunk " + i + " ", fonts.get(i % FONTS)));
+        }
+        document.add(paragraph);
+        document.close();
+        String rtf = new String(out.toByteArray(), "ISO-8859-1");
+        Assert.assertTrue(rtf.contains("{\\f" + (FONTS + 1) + "\\froman\\fcharset2 Font " + (FONTS - 1) + ";}"));
+        Assert.assertFalse(rtf.contains("{\\f" + (FONTS + 2) + "\\"));
+    }
+}
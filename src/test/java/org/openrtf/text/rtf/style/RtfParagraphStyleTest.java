@@ -0,0 +1,116 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+
+package org.openrtf.text.rtf.style;
+
+import java.io.ByteArrayOutputStream;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpdf.text.Element;
+import org.openpdf.text.Paragraph;
+import org.openrtf.text.rtf.document.RtfDocument;
+import org.openrtf.text.rtf.text.RtfParagraph;
+
+/**
+ * The <code>RtfParagraphStyleTest</code> checks that the compiled start sequence of a paragraph
+ * style follows changes to the style and is shared by paragraphs with the same settings.
+ *
+ * @see org.openrtf.text.rtf.style.RtfParagraphStyle
+ * @since 3.0.1
+ */
+public class RtfParagraphStyleTest {
+
+    private static String writeBegin(RtfParagraphStyle style) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        style.writeBegin(out);
+        return new String(out.toByteArray(), "ISO-8859-1");
+    }
+
+    @Test
+    public void testTemplateFollowsSetters() throws Exception {
+        RtfDocument doc = new RtfDocument();
+        RtfParagraphStyle style =
+                new RtfParagraphStyle(doc, doc.getDocumentHeader().getRtfParagraphStyle("Normal"));
+        style.setStyleNumber(3);
+        Assert.assertEquals("\\s3\\ql\\fi0\\li0\\ri0", writeBegin(style));
+        Assert.assertEquals("\\s3\\ql\\fi0\\li0\\ri0", writeBegin(style));
+        style.setAlignment(Element.ALIGN_CENTER);
+        style.setIndentLeft(720);
+        Assert.assertEquals("\\s3\\qc\\fi0\\li720\\ri0", writeBegin(style));
+        style.setKeepTogetherWithNext(true);
+        style.setSpacingAfter(120);
+        Assert.assertEquals("\\s3\\keepn\\qc\\fi0\\li720\\ri0\\sa120", writeBegin(style));
+        style.setStyleNumber(4);
+        Assert.assertEquals("\\s4\\keepn\\qc\\fi0\\li720\\ri0\\sa120", writeBegin(style));
+    }
+
+    @Test
+    public void testPlainParagraphsShareTemplate() throws Exception {
+        RtfDocument doc = new RtfDocument();
+        Paragraph centered = new Paragraph("first");
+        centered.setAlignment(Element.ALIGN_CENTER);
+        StyledParagraph first = new StyledParagraph(doc, centered);
+        centered = new Paragraph("second");
+        centered.setAlignment(Element.ALIGN_CENTER);
+        StyledParagraph second = new StyledParagraph(doc, centered);
+        StyledParagraph third = new StyledParagraph(doc, new Paragraph("third"));
+        first.writeContent(new ByteArrayOutputStream());
+        second.writeContent(new ByteArrayOutputStream());
+        third.writeContent(new ByteArrayOutputStream());
+        Assert.assertNotNull(first.getStyle().getBeginTemplate());
+        Assert.assertSame(first.getStyle().getBeginTemplate(), second.getStyle().getBeginTemplate());
+        Assert.assertNotSame(
+                first.getStyle().getBeginTemplate(), third.getStyle().getBeginTemplate());
+
+        second.setIndentLeft(720);
+        Assert.assertEquals("\\s0\\qc\\fi0\\li720\\ri0", writeBegin(second.getStyle()));
+        Assert.assertEquals("\\s0\\qc\\fi0\\li0\\ri0", writeBegin(first.getStyle()));
+    }
+
+    private static class StyledParagraph extends RtfParagraph {
+
+        StyledParagraph(RtfDocument doc, Paragraph paragraph) {
+            super(doc, paragraph);
+        }
+
+        RtfParagraphStyle getStyle() {
+            return this.paragraphStyle;
+        }
+    }
+}
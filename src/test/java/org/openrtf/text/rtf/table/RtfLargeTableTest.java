@@ -0,0 +1,143 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+
+package org.openrtf.text.rtf.table;
+
+import java.io.ByteArrayOutputStream;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpdf.text.Document;
+import org.openpdf.text.PageSize;
+import org.openpdf.text.Paragraph;
+import org.openpdf.text.Phrase;
+import org.openpdf.text.pdf.PdfPCell;
+import org.openpdf.text.pdf.PdfPTable;
+import org.openrtf.text.rtf.RtfWriter2;
+
+/**
+ * The <code>RtfLargeTableTest</code> checks that a PdfPTable that is added in parts produces the
+ * same document as the complete PdfPTable.
+ *
+ * @see org.openrtf.text.rtf.table.RtfTable#importRows(PdfPTable)
+ * @since 3.0.1
+ */
+public class RtfLargeTableTest {
+
+    private static final int COLUMNS = 4;
+
+    private static void addRow(PdfPTable table, int row) {
+        for (int column = 0; column < COLUMNS; column++) {
+            PdfPCell cell = new PdfPCell(new Phrase("row " + row + " column " + column));
+            if (row % 10 == 0 && column == 0) {
+                cell.setColspan(2);
+                column++;
+            }
+            table.addCell(cell);
+        }
+    }
+
+    private static byte[] writeDocument(int rows, int partSize) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Document document = new Document(PageSize.A4);
+        RtfWriter2.getInstance(document, out);
+        document.open();
+        document.add(new Paragraph("Before the table"));
+        PdfPTable table = new PdfPTable(COLUMNS);
+        table.setHeaderRows(1);
+        for (int column = 0; column < COLUMNS; column++) {
+            table.addCell("header " + column);
+        }
+        table.setComplete(partSize == 0);
+        for (int row = 0; row < rows; row++) {
+            addRow(table, row);
+            if (partSize > 0 && row % partSize == partSize - 1) {
+                document.add(table);
+            }
+        }
+        table.setComplete(true);
+        document.add(table);
+        document.add(new Paragraph("After the table"));
+        document.close();
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testSameAsCompleteTable() throws Exception {
+        byte[] complete = writeDocument(500, 0);
+        Assert.assertArrayEquals(complete, writeDocument(500, 100));
+        Assert.assertArrayEquals(complete, writeDocument(500, 50));
+        Assert.assertArrayEquals(writeDocument(495, 0), writeDocument(495, 100));
+    }
+
+    @Test
+    public void testRowsAreReleased() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Document document = new Document(PageSize.A4);
+        RtfWriter2.getInstance(document, out);
+        document.open();
+        PdfPTable table = new PdfPTable(2);
+        table.setHeaderRows(1);
+        table.setComplete(false);
+        table.addCell("header a");
+        table.addCell("header b");
+        table.addCell("first a");
+        table.addCell("first b");
+        document.add(table);
+        Assert.assertEquals(1, table.getRows().size());
+        table.addCell("second a");
+        table.addCell("second b");
+        table.setComplete(true);
+        document.add(table);
+        document.close();
+        String rtf = new String(out.toByteArray(), "ISO-8859-1");
+        Assert.assertEquals(1, count(rtf, "header a"));
+        Assert.assertEquals(3, count(rtf, "\\row"));
+        Assert.assertEquals(2 * 2, count(rtf, "\\trhdr"));
+    }
+
+    private static int count(String s, String part) {
+        int count = 0;
+        int index = s.indexOf(part);
+        while (index >= 0) {
+            count++;
+            index = s.indexOf(part, index + part.length());
+        }
+        return count;
+    }
+}
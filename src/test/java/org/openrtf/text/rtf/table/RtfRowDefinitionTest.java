@@ -0,0 +1,97 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+
+package org.openrtf.text.rtf.table;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpdf.text.Cell;
+import org.openpdf.text.Table;
+import org.openrtf.text.rtf.document.RtfDocument;
+
+/**
+ * The <code>RtfRowDefinitionTest</code> checks that row definitions are rendered once per row and
+ * shared between structurally identical rows.
+ *
+ * @see org.openrtf.text.rtf.table.RtfRow
+ * @since 3.0.1
+ */
+public class RtfRowDefinitionTest {
+
+    private static Table createTable(int rows, int columns) throws Exception {
+        Table table = new Table(columns);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                table.addCell(new Cell("r" + i + "c" + j));
+            }
+        }
+        return table;
+    }
+
+    @Test
+    public void testDefinitionsAreShared() throws Exception {
+        Table table = createTable(3, 4);
+        Cell spanned = new Cell("spanned");
+        spanned.setColspan(2);
+        table.addCell(spanned);
+        table.addCell(new Cell("a"));
+        table.addCell(new Cell("b"));
+        RtfDocument doc = new RtfDocument();
+        RtfTable rtfTable = new RtfTable(doc, table);
+        List<RtfRow> rows = rtfTable.getRows();
+        byte[] first = rtfTable.getRowDefinition(rows.get(0));
+        Assert.assertSame(first, rtfTable.getRowDefinition(rows.get(1)));
+        Assert.assertSame(first, rtfTable.getRowDefinition(rows.get(2)));
+        byte[] spannedDefinition = rtfTable.getRowDefinition(rows.get(3));
+        Assert.assertNotSame(first, spannedDefinition);
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        rows.get(3).writeRowDefinition(expected);
+        Assert.assertArrayEquals(expected.toByteArray(), spannedDefinition);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        rows.get(3).writeContent(out);
+        String row = new String(out.toByteArray(), "ISO-8859-1");
+        String definition = new String(spannedDefinition, "ISO-8859-1");
+        Assert.assertTrue(row.startsWith(definition));
+        Assert.assertTrue(row.endsWith(definition + "\\row"));
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2026 by the OpenRTF project
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the ?GNU LIBRARY GENERAL PUBLIC LICENSE?), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/openrtf
+ */
+
+package org.openrtf.text.rtf.text;
+
+import java.awt.Color;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpdf.text.Chunk;
+import org.openpdf.text.Document;
+import org.openpdf.text.Font;
+import org.openpdf.text.List;
+import org.openpdf.text.ListItem;
+import org.openpdf.text.PageSize;
+import org.openpdf.text.Paragraph;
+import org.openpdf.text.Phrase;
+import org.openpdf.text.Table;
+import org.openrtf.text.rtf.RtfWriter2;
+
+/**
+ * The <code>RtfMergeChunkFormattingTest</code> checks that merging the formatting of adjacent
+ * chunks does not change how the text is formatted and makes the document smaller.
+ *
+ * @see org.openrtf.text.rtf.document.RtfDocumentSettings#setMergeChunkFormatting(boolean)
+ * @since 3.0.1
+ */
+public class RtfMergeChunkFormattingTest {
+
+    /** The character formatting control words tracked by <code>render</code>. */
+    private static final String[] TRACKED = {
+        "f", "fs", "cf", "b", "i", "ul", "strike", "striked", "v", "shad", "outl", "embo", "impr", "chcbpat"
+    };
+
+    static byte[] writeDocument(boolean merge, int paragraphs) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Document document = new Document(PageSize.A4);
+        RtfWriter2 writer = RtfWriter2.getInstance(document, out);
+        writer.getDocumentSettings().setMergeChunkFormatting(merge);
+        writer.getDocumentSettings().setUniqueIdSeed(1L);
+        document.open();
+        Font normal = new Font(Font.HELVETICA, 10);
+        Font bold = new Font(Font.HELVETICA, 10, Font.BOLD);
+        Font boldItalic = new Font(Font.HELVETICA, 12, Font.BOLDITALIC, Color.RED);
+        Font courier = new Font(Font.COURIER, 10, Font.UNDERLINE | Font.STRIKETHRU);
+        for (int i = 0; i < paragraphs; i++) {
+            Paragraph paragraph = new Paragraph();
+            paragraph.add(new Chunk("Clause " + i + ": ", bold));
+            paragraph.add(new Chunk("the party ", normal));
+            paragraph.add(new Chunk("agrees ", normal));
+            paragraph.add(new Chunk("{to} ", normal));
+            paragraph.add(new Chunk("pay ", boldItalic));
+            paragraph.add(new Chunk("$" + i, boldItalic));
+            paragraph.add(new Chunk("2", normal).setTextRise(3));
+            paragraph.add(new Chunk("n", normal).setTextRise(-3));
+            paragraph.add(new Chunk(" within ", courier));
+            paragraph.add(new Chunk("thirty ", normal).setBackground(Color.YELLOW));
+            paragraph.add(new Chunk("days.", normal));
+            paragraph.add(new Phrase("Nested phrase ", bold));
+            paragraph.add(new Chunk("\\done\n", normal));
+            document.add(paragraph);
+        }
+        List list = new List(List.ORDERED);
+        ListItem item = new ListItem();
+        item.add(new Chunk("first ", bold));
+        item.add(new Chunk("item", bold));
+        list.add(item);
+        list.add(new ListItem("second item", normal));
+        document.add(list);
+        Table table = new Table(2);
+        table.addCell(new Phrase(new Chunk("cell ", bold)));
+        Phrase phrase = new Phrase();
+        phrase.add(new Chunk("a", normal));
+        phrase.add(new Chunk("b", normal));
+        phrase.add(new Chunk("c", courier));
+        table.addCell(phrase);
+        document.add(table);
+        document.close();
+        return out.toByteArray();
+    }
+
+    /**
+     * Interprets the character formatting of an RTF document. Every text character is written
+     * together with the formatting that applies to it.
+     */
+    private static String render(byte[] rtf) {
+        StringBuilder rendered = new StringBuilder();
+        Map<String, Integer> state = new HashMap<>();
+        Deque<Map<String, Integer>> groups = new ArrayDeque<>();
+        String lastState = null;
+        int i = 0;
+        while (i < rtf.length) {
+            char c = (char) (rtf[i] & 0xff);
+            if (c == '{') {
+                groups.push(new HashMap<>(state));
+                i++;
+            } else if (c == '}') {
+                state = groups.pop();
+                i++;
+            } else if (c == '\\' && i + 1 < rtf.length && Character.isLetter(rtf[i + 1])) {
+                int start = ++i;
+                while (i < rtf.length && Character.isLetter(rtf[i])) {
+                    i++;
+                }
+                String word = new String(rtf, start, i - start);
+                int paramStart = i;
+                if (i < rtf.length && rtf[i] == '-') {
+                    i++;
+                }
+                while (i < rtf.length && Character.isDigit(rtf[i])) {
+                    i++;
+                }
+                Integer param = i > paramStart ? Integer.valueOf(new String(rtf, paramStart, i - paramStart)) : null;
+                if (i < rtf.length && rtf[i] == ' ') {
+                    i++;
+                }
+                if (word.equals("plain")) {
+                    state.clear();
+                } else if (word.equals("super") || word.equals("sub") || word.equals("nosupersub")) {
+                    state.put("supersub", word.equals("super") ? 1 : word.equals("sub") ? -1 : 0);
+                } else {
+                    for (String tracked : TRACKED) {
+                        if (tracked.equals(word)) {
+                            state.put(word, param == null ? 1 : param);
+                        }
+                    }
+                }
+                if (word.equals("par") || word.equals("line") || word.equals("cell") || word.equals("row")) {
+                    rendered.append('\n');
+                }
+            } else if (c == '\\') {
+                rendered.append((char) rtf[i + 1]);
+                i += 2;
+            } else {
+                if (c != '\n' && c != '\r') {
+                    String current = new TreeMap<>(state).toString();
+                    if (!current.equals(lastState)) {
+                        rendered.append(current);
+                        lastState = current;
+                    }
+                    rendered.append(c);
+                }
+                i++;
+            }
+        }
+        return rendered.toString();
+    }
+
+    @Test
+    public void testSameFormatting() throws Exception {
+        byte[] plain = writeDocument(false, 20);
+        byte[] merged = writeDocument(true, 20);
+        Assert.assertTrue(merged.length < plain.length);
+        Assert.assertEquals(render(plain), render(merged));
+    }
+}